@@ -1,24 +1,53 @@
 package controller;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.*;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ListProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.SimpleListProperty;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import index.AttributeIndex;
+import index.CompressedBitmap;
+import index.FuzzyNameIndex;
+import index.InvertedIndex;
+import index.NameTrie;
+import index.PlayerRangeIndex;
+import index.SortIndex;
+import inventory.Inventory;
+import inventory.InventoryAggregates;
+import inventory.LowStockAlerts;
+import inventory.PriceQuantiles;
+import inventory.QueryCache;
+import inventory.SearchResult;
+import inventory.StockReservations;
 import model.Animals;
 import model.BoardGames;
 import model.Figures;
 import model.Puzzles;
 import model.Toy;
+import sales.SalesHistory;
+import sketch.HeavyHitters;
+import sketch.HyperLogLog;
+import storage.AutoSaver;
+import storage.InventoryRepository;
+import storage.TextFileRepository;
+import storage.ToyRecordFile;
 
 import exceptions.NegativeNumberException;
 import exceptions.PlayerCountException;
@@ -39,9 +68,10 @@ import exceptions.PlayerCountException;
  * </ul>
  * 
  * <p>
- * All operations interact with a toy inventory represented as a
- * {@code List<Toy>}, which is loaded from and persisted to a file. Logging is
- * implemented to record significant events and errors during runtime.
+ * All operations interact with a toy {@link Inventory}, which is loaded from and
+ * persisted to a file. Bitmap indexes registered on the inventory serve the
+ * attribute searches. Logging is implemented to record significant events and
+ * errors during runtime.
  * </p>
  * 
  * <p>
@@ -65,9 +95,40 @@ import exceptions.PlayerCountException;
 
 public class MainViewController {
 
-	private static final String FILE_PATH = "res/toys.txt"; // Path to toy data file
+	private static final String DATA_DIRECTORY = "res"; // Directory of the inventory repository's files
+	private static final String REPOSITORY_PROPERTY = "inventory.repository"; // System property naming the backend
+	private static final String FILE_PATH = "res/toys.txt"; // Path to toy data file of the default backend
+	private static final String RECORD_FILE_PATH = "res/toys.dat"; // Working copy with one record per toy
+	private static final String SALES_DIRECTORY = "res/sales"; // Directory of daily sales record files
+	private static final int AUTOCOMPLETE_LIMIT = 8; // Maximum name suggestions shown
+	private static final int QUERY_CACHE_SIZE = 256; // Maximum cached search results
+	private static final int HEAVY_HITTERS = 20; // Top sellers and top search terms tracked
+	private static final long RESERVATION_MILLIS = 15 * 60_000L; // How long online orders hold stock
+	private static final int AUTOSAVE_SECONDS = 30; // How often changes are saved in the background
 	private static final Logger logger = Logger.getLogger(MainViewController.class.getName()); // Logger instance
-	private List<Toy> toys; // List of toys loaded from the file
+	private Inventory inventory; // Toy inventory loaded from the file
+	private AttributeIndex attributeIndex; // Bitmap indexes over low-cardinality attributes
+	private PlayerRangeIndex playerRangeIndex; // Interval tree over board game player ranges
+	private InvertedIndex brandIndex; // Token index over brands
+	private InvertedIndex designerIndex; // Token index over board game designers
+	private FuzzyNameIndex fuzzyNameIndex; // BK-tree over toy names for typo-tolerant search
+	private NameTrie nameTrie; // Prefix trie over toy names for autocomplete
+	private QueryCache<SearchResult> queryCache; // Recent search results, invalidated per toy type
+	private ToyDisplayCache displayCache; // Display text of listed toys, built once per change
+	private SortIndex sortIndex; // Inventory pre-sorted by price, stock, age and name
+	private InventoryAggregates aggregates; // Stock totals by type and brand, updated per change
+	private LowStockAlerts lowStockAlerts; // Toys at or below their reorder threshold
+	private PriceQuantiles priceQuantiles; // Price distributions by type and brand
+	private StockReservations reservations; // Timed holds on stock for online orders
+	private Timeline reservationTimer; // Releases expired holds once a second
+	private InventoryRepository repository; // Where the inventory is loaded from and saved to
+	private ToyRecordFile recordFile; // Working copy updated in place on every change; null if unavailable
+	private AutoSaver autoSaver; // Saves changes to the data file in the background
+	private Timeline autosaveTimer; // Runs an autosave every AUTOSAVE_SECONDS
+	private SalesHistory salesHistory; // Recorded sales with time rollups; null if it could not be opened
+	private final HeavyHitters topSellers = new HeavyHitters(HEAVY_HITTERS, 0.001, 0.99); // By serial number
+	private final HeavyHitters topQueries = new HeavyHitters(HEAVY_HITTERS, 0.001, 0.99); // By "mode:term"
+	private final HyperLogLog distinctQueries = new HyperLogLog(14); // Distinct "mode:term" searches
 
 	static {
 		try {
@@ -89,20 +150,38 @@ public class MainViewController {
 	@FXML
 	private Button btnSearch, btnSearchClear, btnBuy, btnAdd, btnAddClear, btnRemoveSearch, btnRemoveClear, btnRemove;
 	@FXML
-	private TextField inputSearchSerialNumber, inputSearchName, inputSearchType, inputAddSerialNumber, inputAddName,
+	private TextField inputSearchSerialNumber, inputSearchName, inputSearchType, inputSearchPlayers, inputSearchBrand,
+			inputSearchDesigner, inputAddSerialNumber, inputAddName,
 			inputAddBrand, inputAddPrice, inputAddAvailableCount, inputAddAgeAppropriate, inputAddMaterial,
 			inputAddMinPlayers, inputAddMaxPlayers, inputRemoveSerialNumber;
 	@FXML
 	private TextArea inputAddDesigners;
 	@FXML
-	private Label lblSerialNumber, lblName, lblType, lblSearchResult, lblAddResult, lblRemoveSerialNumber,
+	private Label lblSerialNumber, lblName, lblType, lblPlayers, lblSearchResult, lblAddResult, lblRemoveSerialNumber,
 			lblRemoveResult;
 	@FXML
-	private RadioButton rbSerialNumber, rbName, rbType;
+	private RadioButton rbSerialNumber, rbName, rbType, rbPlayers, rbBrand, rbDesigner;
 	@FXML
 	private ToggleGroup tgSearch;
 	@FXML
-	private ListView<Toy> lvSearchToys, lvRemoveToys;
+	private ListView<Toy> lvRemoveToys;
+	@FXML
+	private TableView<Toy> tvSearchToys;
+	@FXML
+	private TableColumn<Toy, String> colName, colType, colPrice, colStock, colAge;
+	@FXML
+	private Tab tabDashboard;
+	@FXML
+	private Label lblTotalSkus, lblTotalUnits, lblTotalValue;
+	@FXML
+	private TableView<InventoryAggregates.Totals> tvTypeTotals, tvBrandTotals;
+	@FXML
+	private TableColumn<InventoryAggregates.Totals, String> colTypeName, colTypeSkus, colTypeUnits, colTypeValue,
+			colBrandName, colBrandSkus, colBrandUnits, colBrandValue;
+	@FXML
+	private TableView<LowStockAlerts.Alert> tvReorder;
+	@FXML
+	private TableColumn<LowStockAlerts.Alert, String> colReorderName, colReorderStock, colReorderThreshold;
 
 	/**
 	 * Initializes the controller, loads toy data, and sets up event listeners.
@@ -116,83 +195,330 @@ public class MainViewController {
 	@FXML
 	public void initialize() {
 		logger.info("Initializing MainViewController.");
-		toys = new ArrayList<>();
+		createInventory();
+		openSalesHistory();
+		openRepository();
+		openRecordFile();
 		loadData();
+		attachRecordFile();
+		setupToyCells();
+		setupResultTable();
+		setupDashboard();
 		setupRadioButtonListener();
+		setupNameAutocomplete();
 		setupComboBoxOptions();
 		resetUI();
 
-		// Bind button states to ListView contents
-		btnBuy.disableProperty().bind(javafx.beans.binding.Bindings.isEmpty(lvSearchToys.getItems()));
+		// Bind button states to list contents. Search results replace the table
+		// items, so the Buy button follows the items property rather than one list.
+		ListProperty<Toy> searchItems = new SimpleListProperty<>();
+		searchItems.bind(tvSearchToys.itemsProperty());
+		btnBuy.disableProperty().bind(searchItems.emptyProperty());
 		btnRemove.disableProperty().bind(javafx.beans.binding.Bindings.isEmpty(lvRemoveToys.getItems()));
 
 		// Add listeners to update the UI based on the selected type
 		cbType.valueProperty().addListener((observable, oldValue, newValue) -> updateUIBasedOnType(newValue));
+
+		startReservationTimer();
+		startAutoSave();
+	}
+
+	/**
+	 * Creates the empty inventory and registers its indexes, caches and stock
+	 * reservations on it. Touches neither the view nor any file, so tests can
+	 * exercise inventory operations on a controller without a loaded FXML view.
+	 */
+	void createInventory() {
+		inventory = new Inventory();
+		attributeIndex = new AttributeIndex();
+		inventory.addListener(attributeIndex);
+		playerRangeIndex = new PlayerRangeIndex();
+		inventory.addListener(playerRangeIndex);
+		brandIndex = InvertedIndex.byBrand();
+		inventory.addListener(brandIndex);
+		designerIndex = InvertedIndex.byDesigner();
+		inventory.addListener(designerIndex);
+		fuzzyNameIndex = new FuzzyNameIndex();
+		inventory.addListener(fuzzyNameIndex);
+		nameTrie = new NameTrie();
+		inventory.addListener(nameTrie);
+		queryCache = new QueryCache<>(QUERY_CACHE_SIZE);
+		inventory.addListener(queryCache);
+		displayCache = new ToyDisplayCache();
+		inventory.addListener(displayCache);
+		sortIndex = new SortIndex();
+		inventory.addListener(sortIndex);
+		aggregates = new InventoryAggregates();
+		inventory.addListener(aggregates);
+		lowStockAlerts = new LowStockAlerts();
+		lowStockAlerts.addListener(alert -> logger.warning("Low stock: " + alert));
+		inventory.addListener(lowStockAlerts);
+		priceQuantiles = new PriceQuantiles();
+		inventory.addListener(priceQuantiles);
+		reservations = new StockReservations(inventory);
+		inventory.addListener(reservations);
 	}
 
 	/**
-	 * Loads toy data from the `toys.txt` file.
+	 * Loads toy data from the working record file, or from the repository if
+	 * there is no working copy.
 	 * 
 	 * <p>
-	 * This method reads data from the file specified by {@link #FILE_PATH} and
-	 * parses each line into a {@code Toy} object. If the file does not exist, a new
-	 * file is created. Any errors encountered during parsing are logged.
+	 * The working copy only exists if the last session crashed or its final save
+	 * failed, so it holds the latest changes. Any errors encountered while
+	 * reading are logged.
 	 * </p>
 	 */
 	private void loadData() {
-		logger.info("Loading toy data from file: " + FILE_PATH);
-		File file = new File(FILE_PATH);
+		if (recordFile != null && recordFile.getRecordCount() > 0) {
+			try {
+				int loaded = recordFile.load(this::parseToy, inventory::add);
+				logger.info("Loaded " + loaded + " toy(s) from working file: " + RECORD_FILE_PATH);
+				return;
+			} catch (IOException e) {
+				logger.warning("Error reading working file, loading " + repository + " instead: " + e.getMessage());
+				closeRecordFile(true);
+				inventory.asList().clear();
+				openRecordFile();
+			}
+		}
 
-		if (!file.exists()) {
-			createNewFile(file);
-		} else {
-			parseFileData(file);
+		logger.info("Loading toy data from " + repository);
+		try {
+			int loaded = repository.load(inventory::add);
+			logger.info("Loaded " + loaded + " toy(s) from " + repository);
+		} catch (IOException e) {
+			logger.warning("Error accessing " + repository + ": " + e.getMessage());
 		}
 	}
 
 	/**
-	 * Creates a new file if it does not exist.
-	 * 
-	 * <p>
-	 * Logs the creation of the file or any errors encountered.
-	 * </p>
-	 * 
-	 * @param file The file to create.
+	 * Opens the repository named by the {@value #REPOSITORY_PROPERTY} system
+	 * property ("text", "binary" or "records"; "text" by default), with its files
+	 * in {@link #DATA_DIRECTORY}. If it cannot be opened, the text file is used.
+	 */
+	private void openRepository() {
+		String backend = System.getProperty(REPOSITORY_PROPERTY, InventoryRepository.TEXT);
+		try {
+			repository = InventoryRepository.open(backend, Paths.get(DATA_DIRECTORY));
+			logger.info("Using repository: " + repository);
+		} catch (IOException | IllegalArgumentException e) {
+			repository = new TextFileRepository(Paths.get(FILE_PATH));
+			logger.warning("Error opening " + backend + " repository, using " + repository + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes the repository.
 	 */
-	private void createNewFile(File file) {
+	private void closeRepository() {
 		try {
-			file.createNewFile();
-			logger.info("Created new file: " + FILE_PATH);
+			repository.close();
 		} catch (IOException e) {
-			logger.warning("Error creating file: " + e.getMessage());
+			logger.warning("Error closing " + repository + ": " + e.getMessage());
 		}
 	}
 
 	/**
-	 * Parses the toy data from the file and adds valid toys to the inventory.
-	 * 
-	 * <p>
-	 * Each line in the file is parsed into a {@code Toy} object. Logs successful
-	 * parsing and any invalid lines encountered.
-	 * </p>
-	 * 
-	 * @param file The file containing toy data.
-	 */
-	private void parseFileData(File file) {
-		try (Scanner inputFile = new Scanner(file)) {
-			while (inputFile.hasNextLine()) {
-				String curLine = inputFile.nextLine();
-				try {
-					Toy toy = parseToy(curLine);
-					if (toy != null) {
-						toys.add(toy);
-					}
-				} catch (Exception e) {
-					logger.warning("Error parsing line: " + curLine + " - " + e.getMessage());
-				}
+	 * Opens the working record file. If it cannot be opened, the inventory is
+	 * only saved to the data file for this session.
+	 */
+	private void openRecordFile() {
+		try {
+			recordFile = new ToyRecordFile(Paths.get(RECORD_FILE_PATH));
+		} catch (IOException e) {
+			recordFile = null;
+			logger.warning("Error opening working file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Keeps the working record file in step with the inventory from now on.
+	 * Toys that were loaded from the data file rather than the record file are
+	 * written to it as the listener is registered. Units in open holds are
+	 * written as stock, so a crash does not lose them.
+	 */
+	private void attachRecordFile() {
+		if (recordFile != null) {
+			recordFile.setHeldStock(reservations::getHeldUnits);
+			inventory.addListener(recordFile);
+			syncRecordFile();
+		}
+	}
+
+	/**
+	 * Forces the record file to disk if any page changed since the last sync.
+	 */
+	private void syncRecordFile() {
+		try {
+			int pages = recordFile.sync();
+			if (pages > 0) {
+				logger.fine("Forced " + RECORD_FILE_PATH + " to disk after " + pages + " page(s) changed");
+			}
+		} catch (IOException e) {
+			logger.warning("Error writing working file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Rewrites a toy's stock count in the working record file after its held
+	 * units changed without a change to its available count.
+	 *
+	 * @param toy The toy.
+	 */
+	private void writeRecordStock(Toy toy) {
+		if (recordFile == null || recordFile.getRecordNumber(toy) < 0) {
+			return;
+		}
+		try {
+			recordFile.writeStock(toy);
+		} catch (IOException e) {
+			logger.warning("Error writing working file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes the working record file.
+	 *
+	 * @param discard Whether to delete it, so that the next start loads the data
+	 *                file as last saved.
+	 */
+	private void closeRecordFile(boolean discard) {
+		if (recordFile == null) {
+			return;
+		}
+		try {
+			recordFile.close();
+		} catch (IOException e) {
+			logger.warning("Error closing working file: " + e.getMessage());
+		}
+		recordFile = null;
+		if (discard) {
+			try {
+				Files.deleteIfExists(Paths.get(RECORD_FILE_PATH));
+			} catch (IOException e) {
+				logger.warning("Error deleting working file: " + e.getMessage());
 			}
+		}
+	}
+
+	/**
+	 * Opens the sales history and rebuilds its rollups from the recorded sales.
+	 * If it cannot be opened, sales are not recorded for this session.
+	 */
+	private void openSalesHistory() {
+		try {
+			salesHistory = new SalesHistory(Paths.get(SALES_DIRECTORY));
+			logger.info("Opened sales history in: " + SALES_DIRECTORY);
 		} catch (IOException e) {
-			logger.warning("Error accessing file: " + e.getMessage());
+			logger.warning("Error opening sales history: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Starts the timer that releases expired stock holds. It runs on the JavaFX
+	 * application thread, like every other inventory change.
+	 */
+	private void startReservationTimer() {
+		reservationTimer = new Timeline(new KeyFrame(Duration.millis(StockReservations.DEFAULT_TICK_MILLIS),
+				event -> releaseExpiredHolds()));
+		reservationTimer.setCycleCount(Timeline.INDEFINITE);
+		reservationTimer.play();
+	}
+
+	/**
+	 * Sets up the data file saver and starts the autosave timer. The inventory
+	 * just loaded is taken as saved.
+	 */
+	private void startAutoSave() {
+		autoSaver = new AutoSaver(inventory, repository);
+		autoSaver.setHeldStock(reservations::heldUnitsByToy);
+		autoSaver.addListener(new AutoSaver.Listener() {
+			@Override
+			public void saved(AutoSaver.Save save) {
+				logger.info("Saved " + save + " to " + repository);
+			}
+
+			@Override
+			public void saveFailed(IOException error) {
+				logger.warning("Error saving toys to " + repository + ": " + error.getMessage());
+			}
+		});
+		inventory.addListener(autoSaver);
+		autoSaver.markSaved();
+		autosaveTimer = new Timeline(new KeyFrame(Duration.seconds(AUTOSAVE_SECONDS), event -> autosave()));
+		autosaveTimer.setCycleCount(Timeline.INDEFINITE);
+		autosaveTimer.play();
+	}
+
+	/**
+	 * Makes recent changes durable. With the working record file, changes are
+	 * already written in place and the file is forced if any page changed; the
+	 * data file is then only written by "Save and Exit". Without the working
+	 * file, the data file is rewritten in the background instead.
+	 */
+	private void autosave() {
+		if (recordFile != null) {
+			syncRecordFile();
+		} else {
+			autoSaver.saveIfDirty();
+		}
+	}
+
+	/**
+	 * Returns the stock of expired holds in one batch and refreshes the result
+	 * table if any expired.
+	 */
+	private void releaseExpiredHolds() {
+		List<StockReservations.Hold> expired = reservations.expire();
+		if (!expired.isEmpty()) {
+			logger.info(expired.size() + " stock hold(s) expired and released.");
+			tvSearchToys.refresh();
+		}
+	}
+
+	/**
+	 * Counts a search in the top-query and distinct-query sketches. Terms are
+	 * trimmed and lower-cased so that spellings differing in case count once.
+	 *
+	 * @param mode The search mode, e.g. "name".
+	 * @param term The search term.
+	 */
+	private void noteSearch(String mode, String term) {
+		String key = mode + ":" + term.trim().toLowerCase();
+		topQueries.add(key);
+		distinctQueries.add(key);
+	}
+
+	/**
+	 * Records the sale of units of a toy. A failure is logged and does not affect
+	 * the purchase.
+	 *
+	 * @param toy   The toy sold.
+	 * @param units The number of units sold.
+	 */
+	private void recordSale(Toy toy, int units) {
+		if (salesHistory == null) {
+			return;
+		}
+		try {
+			salesHistory.record(toy, units);
+		} catch (IOException e) {
+			logger.warning("Error recording sale: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes the sales history file being appended to.
+	 */
+	private void closeSalesHistory() {
+		if (salesHistory == null) {
+			return;
+		}
+		try {
+			salesHistory.close();
+		} catch (IOException e) {
+			logger.warning("Error closing sales history: " + e.getMessage());
 		}
 	}
 
@@ -209,40 +535,9 @@ public class MainViewController {
 	 */
 	private Toy parseToy(String line) {
 		logger.fine("Parsing line: " + line);
-		String[] data = line.split(";");
-		if (data.length < 7) {
-			throw new IllegalArgumentException("Invalid data format: " + line);
-		}
-		String serialNumber = data[0];
-		char typeIndicator = serialNumber.charAt(0);
-
 		try {
-			switch (typeIndicator) {
-			case '0':
-			case '1':
-				return new Figures(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
-						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6].charAt(0));
-			case '2':
-			case '3':
-				return new Animals(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
-						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6], data[7].charAt(0));
-			case '4':
-			case '5':
-			case '6':
-				return new Puzzles(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
-						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6].charAt(0));
-			case '7':
-			case '8':
-			case '9':
-				String[] range = data[6].split("-");
-				return new BoardGames(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
-						Integer.parseInt(data[4]), Integer.parseInt(data[5]), Integer.parseInt(range[0]),
-						Integer.parseInt(range[1]), data[7]);
-			default:
-				logger.warning("Unknown toy type: " + line);
-				return null;
-			}
-		} catch (Exception e) {
+			return Toy.fromDataString(line);
+		} catch (IllegalArgumentException e) {
 			logger.warning("Failed to parse toy from line: " + line + ". Error: " + e.getMessage());
 			return null;
 		}
@@ -261,6 +556,9 @@ public class MainViewController {
 		inputSearchSerialNumber.clear();
 		inputSearchName.clear();
 		inputSearchType.clear();
+		inputSearchPlayers.clear();
+		inputSearchBrand.clear();
+		inputSearchDesigner.clear();
 		inputAddSerialNumber.clear();
 		inputAddName.clear();
 		inputAddBrand.clear();
@@ -273,8 +571,8 @@ public class MainViewController {
 		inputRemoveSerialNumber.clear();
 		inputAddDesigners.clear();
 
-		// Reset ListViews and labels
-		lvSearchToys.getItems().clear();
+		// Reset result lists and labels
+		tvSearchToys.getItems().clear();
 		lvRemoveToys.getItems().clear();
 		lblSearchResult.setText("");
 		lblSearchResult.setTextFill(Color.BLACK);
@@ -293,6 +591,9 @@ public class MainViewController {
 		inputSearchSerialNumber.setDisable(true);
 		inputSearchName.setDisable(true);
 		inputSearchType.setDisable(true);
+		inputSearchPlayers.setDisable(true);
+		inputSearchBrand.setDisable(true);
+		inputSearchDesigner.setDisable(true);
 		cbClassification.setDisable(true);
 		cbSize.setDisable(true);
 		cbPuzzleType.setDisable(true);
@@ -313,30 +614,189 @@ public class MainViewController {
 		cbPuzzleType.getItems().addAll('M', 'C', 'L', 'T', 'R');
 	}
 
+	/**
+	 * Sets up the toy list to render each toy through a {@link ToyCell}, which
+	 * shows cached, multi-column display text instead of calling
+	 * {@link Toy#toString()} on every paint.
+	 */
+	private void setupToyCells() {
+		lvRemoveToys.setCellFactory(listView -> new ToyCell(displayCache));
+	}
+
+	/**
+	 * Sets up the search result table.
+	 *
+	 * <p>
+	 * Cells show the cached display text of each toy. Sorting is handled by
+	 * {@link #sortResults()} instead of the default policy, which would sort the
+	 * rows with a comparator on every click.
+	 * </p>
+	 */
+	private void setupResultTable() {
+		colName.setCellValueFactory(cell -> displayText(cell.getValue(), row -> row.name));
+		colType.setCellValueFactory(cell -> displayText(cell.getValue(), row -> row.type));
+		colPrice.setCellValueFactory(cell -> displayText(cell.getValue(), row -> row.price));
+		colStock.setCellValueFactory(cell -> displayText(cell.getValue(), row -> row.stock));
+		colAge.setCellValueFactory(cell -> displayText(cell.getValue(), row -> row.age));
+		colName.setUserData(SortIndex.Key.NAME);
+		colPrice.setUserData(SortIndex.Key.PRICE);
+		colStock.setUserData(SortIndex.Key.STOCK);
+		colAge.setUserData(SortIndex.Key.AGE);
+		tvSearchToys.setSortPolicy(table -> sortResults());
+	}
+
+	/**
+	 * Sets up the dashboard tab, which shows the inventory totals overall, by
+	 * type and by brand, and the toys to reorder. The totals are maintained by
+	 * {@link InventoryAggregates} and the reorder list by {@link LowStockAlerts},
+	 * so the tab is refreshed from them each time it is opened without walking
+	 * the inventory.
+	 */
+	private void setupDashboard() {
+		setupTotalsColumns(colTypeName, colTypeSkus, colTypeUnits, colTypeValue);
+		setupTotalsColumns(colBrandName, colBrandSkus, colBrandUnits, colBrandValue);
+		colReorderName.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getToy().getName()));
+		colReorderStock.setCellValueFactory(
+				cell -> new ReadOnlyStringWrapper(String.valueOf(cell.getValue().getAvailable())));
+		colReorderThreshold.setCellValueFactory(
+				cell -> new ReadOnlyStringWrapper(String.valueOf(cell.getValue().getThreshold())));
+		tabDashboard.setOnSelectionChanged(event -> {
+			if (tabDashboard.isSelected()) {
+				refreshDashboard();
+			}
+		});
+	}
+
+	/**
+	 * Sets up the name, SKU count, unit count and value columns of a totals table.
+	 */
+	private void setupTotalsColumns(TableColumn<InventoryAggregates.Totals, String> name,
+			TableColumn<InventoryAggregates.Totals, String> skus, TableColumn<InventoryAggregates.Totals, String> units,
+			TableColumn<InventoryAggregates.Totals, String> value) {
+		name.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getName()));
+		skus.setCellValueFactory(cell -> new ReadOnlyStringWrapper(String.valueOf(cell.getValue().getSkuCount())));
+		units.setCellValueFactory(cell -> new ReadOnlyStringWrapper(String.valueOf(cell.getValue().getUnitCount())));
+		value.setCellValueFactory(cell -> new ReadOnlyStringWrapper(String.format("$%,.2f", cell.getValue().getValue())));
+	}
+
+	/**
+	 * Shows the current inventory totals and reorder list on the dashboard tab.
+	 * Only the groups and low-stock toys are copied into the tables, so the cost
+	 * does not depend on the number of toys.
+	 */
+	private void refreshDashboard() {
+		InventoryAggregates.Totals totals = aggregates.getTotals();
+		lblTotalSkus.setText("Toys: " + totals.getSkuCount());
+		lblTotalUnits.setText("Units in stock: " + totals.getUnitCount());
+		lblTotalValue.setText(String.format("Stock value: $%,.2f", totals.getValue()));
+		tvTypeTotals.getItems().setAll(aggregates.byType().values());
+		tvBrandTotals.getItems().setAll(aggregates.byBrand().values());
+		tvTypeTotals.refresh(); // Totals objects are updated in place
+		tvBrandTotals.refresh();
+		tvReorder.getItems().setAll(lowStockAlerts.reorderList());
+		logger.fine("Dashboard refreshed: " + totals.getSkuCount() + " toy(s), " + totals.getUnitCount() + " unit(s).");
+	}
+
+	/**
+	 * Returns one column of a toy's cached display text for a table cell.
+	 *
+	 * @param toy    The toy in the row, or null if it is no longer in the
+	 *               inventory.
+	 * @param column Selects the column text from the cached row.
+	 * @return The cell value.
+	 */
+	private ReadOnlyStringWrapper displayText(Toy toy, Function<ToyDisplayCache.Row, String> column) {
+		return new ReadOnlyStringWrapper(toy == null ? null : column.apply(displayCache.rowOf(toy)));
+	}
+
+	/**
+	 * Orders the search result table by its primary sort column.
+	 *
+	 * <p>
+	 * The order is taken from the {@link SortIndex} permutation for the column,
+	 * which only filters the pre-sorted inventory down to the visible rows rather
+	 * than comparing toys. When no column is sorted, the rows return to the order
+	 * the search produced them in.
+	 * </p>
+	 *
+	 * @return Always {@code true}, as sorting cannot fail.
+	 */
+	private boolean sortResults() {
+		if (!(tvSearchToys.getItems() instanceof PagedResultList)) {
+			return true; // Nothing searched yet
+		}
+		PagedResultList rows = (PagedResultList) tvSearchToys.getItems();
+		int[] order;
+		if (tvSearchToys.getSortOrder().isEmpty()) {
+			order = rows.originalSlots();
+		} else {
+			TableColumn<Toy, ?> column = tvSearchToys.getSortOrder().get(0);
+			order = sortIndex.sort(rows.visibleSlots(), (SortIndex.Key) column.getUserData(),
+					column.getSortType() == TableColumn.SortType.ASCENDING);
+			logger.fine("Sorted " + order.length + " result(s) by " + column.getText());
+		}
+		rows.reorder(inventory.toysAt(order));
+		return true;
+	}
+
 	/**
 	 * Sets up radio button listeners to toggle the search options.
 	 */
 	private void setupRadioButtonListener() {
 		tgSearch.selectedToggleProperty().addListener((observable, oldToggle, newToggle) -> {
-			resetUI();
+			resetUI(); // Disables every search input
 			if (newToggle == null)
 				return;
 
-			// Enable relevant input based on selected radio button
-			if (newToggle == rbSerialNumber) {
-				inputSearchSerialNumber.setDisable(false);
-				inputSearchName.setDisable(true);
-				inputSearchType.setDisable(true);
+			// Enable only the input for the selected radio button
+			inputSearchSerialNumber.setDisable(newToggle != rbSerialNumber);
+			inputSearchName.setDisable(newToggle != rbName);
+			inputSearchType.setDisable(newToggle != rbType);
+			inputSearchPlayers.setDisable(newToggle != rbPlayers);
+			inputSearchBrand.setDisable(newToggle != rbBrand);
+			inputSearchDesigner.setDisable(newToggle != rbDesigner);
+		});
+	}
+
+	/**
+	 * Sets up autocomplete suggestions for the name search field.
+	 * 
+	 * <p>
+	 * As the user types, the best-stocked names starting with the typed text are
+	 * looked up in the {@link NameTrie} and shown in a popup below the field.
+	 * Choosing a suggestion fills in the field.
+	 * </p>
+	 */
+	private void setupNameAutocomplete() {
+		ContextMenu suggestions = new ContextMenu();
+		inputSearchName.textProperty().addListener((observable, oldValue, newValue) -> {
+			String prefix = newValue == null ? "" : newValue.trim();
+			List<String> completions = prefix.isEmpty() || inputSearchName.isDisabled() ? List.of()
+					: nameTrie.complete(prefix, AUTOCOMPLETE_LIMIT);
+
+			// Nothing to suggest, or the field already holds the only suggestion
+			if (completions.isEmpty() || (completions.size() == 1 && completions.get(0).equalsIgnoreCase(prefix))) {
+				suggestions.hide();
+				return;
 			}
-			if (newToggle == rbName) {
-				inputSearchName.setDisable(false);
-				inputSearchSerialNumber.setDisable(true);
-				inputSearchType.setDisable(true);
+
+			suggestions.getItems().clear();
+			for (String completion : completions) {
+				MenuItem item = new MenuItem(completion);
+				item.setOnAction(event -> {
+					inputSearchName.setText(completion);
+					inputSearchName.positionCaret(completion.length());
+					suggestions.hide();
+				});
+				suggestions.getItems().add(item);
+			}
+			if (!suggestions.isShowing() && inputSearchName.getScene() != null) {
+				suggestions.show(inputSearchName, Side.BOTTOM, 0, 0);
 			}
-			if (newToggle == rbType) {
-				inputSearchType.setDisable(false);
-				inputSearchSerialNumber.setDisable(true);
-				inputSearchName.setDisable(true);
+		});
+		inputSearchName.focusedProperty().addListener((observable, wasFocused, isFocused) -> {
+			if (!isFocused) {
+				suggestions.hide();
 			}
 		});
 	}
@@ -372,8 +832,8 @@ public class MainViewController {
 	 * </p>
 	 * <ul>
 	 * <li><b>Search Button:</b> Validates inputs based on selected search criteria
-	 * (e.g., serial number, name, or type) and populates the ListView with search
-	 * results.</li>
+	 * (e.g., serial number, name, type, player count, brand, or designer) and
+	 * populates the result table with search results.</li>
 	 * <li><b>Buy Button:</b> Invokes {@link #buySearch()} to handle the purchase of
 	 * a selected toy.</li>
 	 * <li><b>Clear Button:</b> Resets all UI components to their initial state
@@ -388,10 +848,12 @@ public class MainViewController {
 	 * @param event The {@code ActionEvent} triggered by the user's interaction with
 	 *              the Search tab.
 	 * @see #validateSerialNumber(String, String)
-	 * @see #populateListView(List)
+	 * @see #populateResultTable(SearchResult)
 	 * @see #searchBySerialNumber(String)
 	 * @see #searchByName(String)
 	 * @see #searchByType(String)
+	 * @see #searchByPlayers(String)
+	 * @see #searchByText(InvertedIndex, String, String, Collection)
 	 * @see #buySearch()
 	 * @see #resetUI()
 	 */
@@ -402,22 +864,50 @@ public class MainViewController {
 				if (rbSerialNumber.isSelected()) {
 					String serialNumber = inputSearchSerialNumber.getText().trim();
 					validateSerialNumber(serialNumber, null);
-					populateListView(searchBySerialNumber(serialNumber));
+					populateResultTable(searchBySerialNumber(serialNumber));
+					noteSearch("sn", serialNumber);
 					logger.info("Searched by serial number: " + serialNumber);
 				} else if (rbName.isSelected()) {
 					String toyName = inputSearchName.getText().trim();
 					if (toyName.isEmpty()) {
 						throw new IllegalArgumentException("Please enter a name to search.");
 					}
-					populateListView(searchByName(toyName));
+					populateResultTable(searchByName(toyName));
+					noteSearch("name", toyName);
 					logger.info("Searched by name: " + toyName);
 				} else if (rbType.isSelected()) {
 					String toyType = inputSearchType.getText().trim();
 					if (toyType.isEmpty()) {
 						throw new IllegalArgumentException("Please enter a type to search.");
 					}
-					populateListView(searchByType(toyType));
+					populateResultTable(searchByType(toyType));
+					noteSearch("type", toyType);
 					logger.info("Searched by type: " + toyType);
+				} else if (rbPlayers.isSelected()) {
+					String players = inputSearchPlayers.getText().trim();
+					if (players.isEmpty()) {
+						throw new IllegalArgumentException("Please enter a player count or range to search.");
+					}
+					populateResultTable(searchByPlayers(players));
+					noteSearch("players", players);
+					logger.info("Searched by players: " + players);
+				} else if (rbBrand.isSelected()) {
+					String brand = inputSearchBrand.getText().trim();
+					if (brand.isEmpty()) {
+						throw new IllegalArgumentException("Please enter a brand to search.");
+					}
+					populateResultTable(searchByText(brandIndex, brand, "brand", QueryCache.ALL_PARTITIONS));
+					noteSearch("brand", brand);
+					logger.info("Searched by brand: " + brand);
+				} else if (rbDesigner.isSelected()) {
+					String designer = inputSearchDesigner.getText().trim();
+					if (designer.isEmpty()) {
+						throw new IllegalArgumentException("Please enter a designer to search.");
+					}
+					populateResultTable(
+							searchByText(designerIndex, designer, "designer", Collections.singleton("BoardGame")));
+					noteSearch("designer", designer);
+					logger.info("Searched by designer: " + designer);
 				} else {
 					lblSearchResult.setTextFill(Color.RED);
 					lblSearchResult.setText("Please choose a search option.");
@@ -442,23 +932,29 @@ public class MainViewController {
 	}
 
 	/**
-	 * Populates the ListView with the results of a toy search.
+	 * Populates the result table with the results of a toy search.
 	 *
 	 * <p>
-	 * This method clears the ListView and updates it with the provided list of
-	 * toys. If the list is empty, a "No results found" message is displayed, and
-	 * this event is logged. If toys are found, the ListView is populated, and a
-	 * success message is displayed and logged.
+	 * This method replaces the table items with the provided list of toys. The
+	 * results are not copied: they are wrapped in a {@link PagedResultList}, so the
+	 * table only reads the rows it displays as the user scrolls, and the result
+	 * count comes from the list size without resolving any row. If a column is
+	 * sorted, the new results are put in its order. If the list is empty, a "No
+	 * results found" message is displayed, and this event is logged. If toys are
+	 * found, a success message is displayed and logged.
 	 * </p>
 	 *
-	 * @param toys The list of toys to display in the ListView.
+	 * @param toys The list of toys to display in the result table.
 	 * @throws IllegalArgumentException if the provided list is null.
 	 */
-	private void populateListView(List<Toy> toys) {
+	private void populateResultTable(SearchResult toys) {
 		if (toys == null) {
 			throw new IllegalArgumentException("The list of toys cannot be null.");
 		}
-		lvSearchToys.getItems().clear();
+		tvSearchToys.setItems(new PagedResultList(toys));
+		if (!tvSearchToys.getSortOrder().isEmpty()) {
+			tvSearchToys.sort();
+		}
 		if (toys.isEmpty()) {
 			lblSearchResult.setTextFill(Color.RED);
 			lblSearchResult.setText("No results found.");
@@ -466,8 +962,7 @@ public class MainViewController {
 		} else {
 			lblSearchResult.setTextFill(Color.GREEN);
 			lblSearchResult.setText(toys.size() + " result(s) found.");
-			lvSearchToys.getItems().addAll(toys);
-			logger.info("Search completed: " + toys.size() + " result(s) displayed in the ListView.");
+			logger.info("Search completed: " + toys.size() + " result(s) displayed in the result table.");
 		}
 	}
 
@@ -484,14 +979,15 @@ public class MainViewController {
 	 *         an empty list is returned.
 	 * @throws IllegalArgumentException if the serial number is null or empty.
 	 */
-	private List<Toy> searchBySerialNumber(String serialNumber) {
+	private SearchResult searchBySerialNumber(String serialNumber) {
 		if (serialNumber == null || serialNumber.isEmpty()) {
 			throw new IllegalArgumentException("Serial number must not be null or empty.");
 		}
 
 		logger.info("Searching toys by serial number: " + serialNumber);
-		List<Toy> results = filterToys(toy -> toy.getSn().equals(serialNumber),
-				"No toy found with the serial number: " + serialNumber);
+		SearchResult results = cachedSearch("sn:" + serialNumber, QueryCache.ALL_PARTITIONS,
+				() -> filterToys(toy -> toy.getSn().equals(serialNumber),
+						"No toy found with the serial number: " + serialNumber));
 		logger.info(results.size() + " toy(s) found for serial number: " + serialNumber);
 		return results;
 	}
@@ -501,8 +997,9 @@ public class MainViewController {
 	 *
 	 * <p>
 	 * This method filters the toy inventory to find toys whose names contain the
-	 * specified string (case insensitive). Logs the search operation and its
-	 * outcome.
+	 * specified string (case insensitive). If no name contains it, the search
+	 * falls back to typo-tolerant matching through {@link FuzzyNameIndex}, ranked
+	 * by edit distance. Logs the search operation and its outcome.
 	 * </p>
 	 *
 	 * @param toyName The name to search. Must not be null or empty.
@@ -510,24 +1007,53 @@ public class MainViewController {
 	 *         list is returned.
 	 * @throws IllegalArgumentException if the toy name is null or empty.
 	 */
-	private List<Toy> searchByName(String toyName) {
+	private SearchResult searchByName(String toyName) {
 		if (toyName == null || toyName.isEmpty()) {
 			throw new IllegalArgumentException("Toy name must not be null or empty.");
 		}
 
 		logger.info("Searching toys by name: " + toyName);
-		List<Toy> results = filterToys(toy -> toy.getName().toLowerCase().contains(toyName.toLowerCase()),
-				"No toy found with the name: " + toyName);
+		SearchResult results = cachedSearch("name:" + toyName, QueryCache.ALL_PARTITIONS, () -> {
+			SearchResult matches = filterToys(toy -> toy.getName().toLowerCase().contains(toyName.toLowerCase()),
+					"No toy found with the name: " + toyName);
+			return matches.isEmpty() ? searchByNameFuzzy(toyName) : matches;
+		});
 		logger.info(results.size() + " toy(s) found for name: " + toyName);
 		return results;
 	}
 
+	/**
+	 * Searches toys by name, tolerating typos.
+	 *
+	 * <p>
+	 * Looks the name up in the BK-tree name index and returns toys whose name (or
+	 * a word of it) is within {@link FuzzyNameIndex#getMaxDistance()} edits of the
+	 * input, closest first.
+	 * </p>
+	 *
+	 * @param toyName The possibly misspelled name to search.
+	 * @return A list of toys ranked by edit distance. If no matches are found, an
+	 *         empty list is returned.
+	 */
+	private SearchResult searchByNameFuzzy(String toyName) {
+		logger.info("Searching toys by approximate name: " + toyName);
+		List<FuzzyNameIndex.Match> matches = fuzzyNameIndex.search(toyName);
+		int[] slots = new int[matches.size()];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = matches.get(i).getSlot();
+		}
+		SearchResult results = inventory.toysAt(slots);
+		reportFilterResult(results, "No toy found with a name close to: " + toyName);
+		return results;
+	}
+
 	/**
 	 * Searches toys by type.
 	 *
 	 * <p>
-	 * This method filters the toy inventory to find toys that match the given type
-	 * (case insensitive). Logs the search operation and its outcome.
+	 * This method looks up the type in the bitmap index to find toys that match
+	 * the given type (case insensitive). Logs the search operation and its
+	 * outcome.
 	 * </p>
 	 *
 	 * @param type The type to search. Must not be null or empty.
@@ -535,18 +1061,116 @@ public class MainViewController {
 	 *         list is returned.
 	 * @throws IllegalArgumentException if the type is null or empty.
 	 */
-	private List<Toy> searchByType(String type) {
+	private SearchResult searchByType(String type) {
 		if (type == null || type.isEmpty()) {
 			throw new IllegalArgumentException("Type must not be null or empty.");
 		}
 
 		logger.info("Searching toys by type: " + type);
-		List<Toy> results = filterToys(toy -> toy.getToyType().equalsIgnoreCase(type),
-				"No toy found with the type: " + type);
+		SearchResult results = cachedSearch("type:" + type, Collections.singleton(type),
+				() -> resolveSlots(attributeIndex.lookup(AttributeIndex.Attribute.TYPE, type),
+						"No toy found with the type: " + type));
 		logger.info(results.size() + " toy(s) found for type: " + type);
 		return results;
 	}
 
+	/**
+	 * Searches board games by player count.
+	 *
+	 * <p>
+	 * Accepts either a single player count (e.g. {@code 5}), which finds games that
+	 * support exactly that many players, or a range (e.g. {@code 2-4}), which finds
+	 * games whose player range overlaps it. Both are answered by the player range
+	 * interval tree. Logs the search operation and its outcome.
+	 * </p>
+	 *
+	 * @param players The player count or range to search. Must not be null or
+	 *                empty.
+	 * @return A list of board games matching the player count. If no matches are
+	 *         found, an empty list is returned.
+	 * @throws IllegalArgumentException if the input is empty or not a valid count
+	 *                                  or range.
+	 * @throws NegativeNumberException  if a player count is negative.
+	 * @throws PlayerCountException     if the range start exceeds its end.
+	 */
+	private SearchResult searchByPlayers(String players) throws NegativeNumberException, PlayerCountException {
+		if (players == null || players.isEmpty()) {
+			throw new IllegalArgumentException("Player count must not be null or empty.");
+		}
+
+		logger.info("Searching board games by players: " + players);
+		String[] range = players.split("-");
+		if (range.length > 2) {
+			throw new IllegalArgumentException("Players must be a number or a range such as 2-4.");
+		}
+		int from = parsePositiveInt(range[0].trim(), "Players");
+		int to = range.length == 2 ? parsePositiveInt(range[1].trim(), "Players") : from;
+		if (from > to) {
+			throw new PlayerCountException("Minimum players cannot exceed maximum players.");
+		}
+
+		SearchResult results = cachedSearch("players:" + from + "-" + to, Collections.singleton("BoardGame"),
+				() -> resolveSlots(playerRangeIndex.overlapping(from, to),
+						"No board game found for players: " + players));
+		logger.info(results.size() + " board game(s) found for players: " + players);
+		return results;
+	}
+
+	/**
+	 * Searches toys through a token inverted index.
+	 *
+	 * <p>
+	 * The query is split into words, and only toys whose indexed text contains
+	 * every word (case insensitive) are returned, e.g. "smith" or "jane smith"
+	 * for a designer. Logs the search operation and its outcome.
+	 * </p>
+	 *
+	 * @param index      The inverted index to search (brand or designer).
+	 * @param query      The words to search for. Must not be null or empty.
+	 * @param fieldName  The name of the searched field, used in messages and as
+	 *                   the cache key prefix.
+	 * @param partitions The toy types the indexed field occurs in, or
+	 *                   {@link QueryCache#ALL_PARTITIONS}.
+	 * @return A list of toys matching all words. If no matches are found, an
+	 *         empty list is returned.
+	 * @throws IllegalArgumentException if the query is null or empty.
+	 */
+	private SearchResult searchByText(InvertedIndex index, String query, String fieldName,
+			Collection<String> partitions) {
+		if (query == null || query.isEmpty()) {
+			throw new IllegalArgumentException("The " + fieldName + " must not be null or empty.");
+		}
+
+		logger.info("Searching toys by " + fieldName + ": " + query);
+		SearchResult results = cachedSearch(fieldName + ":" + query, partitions, () -> {
+			SearchResult matches = inventory.toysAt(index.search(query));
+			reportFilterResult(matches, "No toy found with the " + fieldName + ": " + query);
+			return matches;
+		});
+		logger.info(results.size() + " toy(s) found for " + fieldName + ": " + query);
+		return results;
+	}
+
+	/**
+	 * Runs a search through the query result cache.
+	 *
+	 * <p>
+	 * Returns the cached result if the toy types it depends on have not changed
+	 * since it was computed; otherwise runs the search and caches its result.
+	 * </p>
+	 *
+	 * @param query      The cache key, including a prefix naming the search kind.
+	 * @param partitions The toy types the result depends on, or
+	 *                   {@link QueryCache#ALL_PARTITIONS}.
+	 * @param search     Runs the search on a cache miss.
+	 * @return An unmodifiable list of the matching toys.
+	 */
+	private SearchResult cachedSearch(String query, Collection<String> partitions, Supplier<SearchResult> search) {
+		SearchResult results = queryCache.get(query, partitions, search);
+		logger.fine(queryCache.toString());
+		return results;
+	}
+
 	/**
 	 * Filters toys using a predicate and updates the result label if no matches are
 	 * found.
@@ -563,7 +1187,7 @@ public class MainViewController {
 	 *         empty list is returned.
 	 * @throws IllegalArgumentException if the predicate or noMatchMessage is null.
 	 */
-	private List<Toy> filterToys(java.util.function.Predicate<Toy> predicate, String noMatchMessage) {
+	private SearchResult filterToys(java.util.function.Predicate<Toy> predicate, String noMatchMessage) {
 		if (predicate == null) {
 			throw new IllegalArgumentException("Predicate must not be null.");
 		}
@@ -571,13 +1195,33 @@ public class MainViewController {
 			throw new IllegalArgumentException("No match message must not be null or empty.");
 		}
 
-		List<Toy> results = new ArrayList<>();
-		for (Toy toy : toys) {
-			if (predicate.test(toy)) {
-				results.add(toy);
-			}
-		}
+		SearchResult results = inventory.filter(predicate);
+		reportFilterResult(results, noMatchMessage);
+		return results;
+	}
+
+	/**
+	 * Resolves an index lookup result into toys and updates the result label if no
+	 * matches are found.
+	 *
+	 * @param slots          The inventory slots returned by an index lookup.
+	 * @param noMatchMessage The message to display if no matches are found.
+	 * @return A list of the matching toys in inventory order.
+	 */
+	private SearchResult resolveSlots(CompressedBitmap slots, String noMatchMessage) {
+		SearchResult results = inventory.toysAt(slots.toArray());
+		reportFilterResult(results, noMatchMessage);
+		return results;
+	}
 
+	/**
+	 * Shows the no-match message when a filter produced no results and logs the
+	 * outcome.
+	 *
+	 * @param results        The filter results.
+	 * @param noMatchMessage The message to display if there are no results.
+	 */
+	private void reportFilterResult(List<Toy> results, String noMatchMessage) {
 		if (results.isEmpty()) {
 			lblSearchResult.setTextFill(Color.RED);
 			lblSearchResult.setText(noMatchMessage);
@@ -585,36 +1229,35 @@ public class MainViewController {
 		} else {
 			logger.info("Filter result: " + results.size() + " match(es) found.");
 		}
-
-		return results;
 	}
 
 	/**
-	 * Handles the logic for buying a toy from the ListView.
+	 * Handles the logic for buying a toy from the result table.
 	 *
 	 * <p>
-	 * This method checks if a toy is selected from the ListView, confirms the
-	 * purchase with the user, decrements the available count of the toy, and
-	 * updates the inventory. If the toy's stock reaches zero, it is removed from
-	 * the inventory and the ListView. Logs all actions and outcomes.
+	 * This method checks if a toy is selected from the result table, confirms the
+	 * purchase with the user and sells one unit through {@link #buyToy(Toy)}. A
+	 * toy whose units are all held for online orders cannot be bought. If the toy
+	 * sells out with no units held, it is removed from the result table as well.
+	 * Logs all actions and outcomes.
 	 * </p>
 	 *
 	 * <p>
-	 * If no toy is selected or the ListView is empty, an error message is displayed
+	 * If no toy is selected or the result table is empty, an error message is displayed
 	 * to the user and logged.
 	 * </p>
 	 */
 	private void buySearch() {
 		try {
-			// Ensure a toy is selected from the ListView
-			if (lvSearchToys.getItems().isEmpty()) {
+			// Ensure a toy is selected from the result table
+			if (tvSearchToys.getItems().isEmpty()) {
 				lblSearchResult.setTextFill(Color.RED);
 				lblSearchResult.setText("The toy list is empty. Please perform a search first.");
-				logger.warning("Attempted to buy a toy, but the ListView is empty.");
+				logger.warning("Attempted to buy a toy, but the result table is empty.");
 				return;
 			}
 
-			Toy selectedToy = lvSearchToys.getSelectionModel().getSelectedItem();
+			Toy selectedToy = tvSearchToys.getSelectionModel().getSelectedItem();
 			if (selectedToy == null) {
 				lblSearchResult.setTextFill(Color.RED);
 				lblSearchResult.setText("Please select a toy to buy.");
@@ -622,6 +1265,15 @@ public class MainViewController {
 				return;
 			}
 
+			if (selectedToy.getAvailableCount() <= 0) {
+				int held = reservations.getHeldUnits(selectedToy);
+				lblSearchResult.setTextFill(Color.RED);
+				lblSearchResult.setText("No units of " + selectedToy.getName() + " are available."
+						+ (held > 0 ? " The remaining " + held + " unit(s) are held for online orders." : ""));
+				logger.warning("Attempted to buy a toy with no available units: " + selectedToy);
+				return;
+			}
+
 			// Show confirmation dialog
 			if (!showBuyConfirmationDialog(selectedToy)) {
 				lblSearchResult.setTextFill(Color.RED);
@@ -630,28 +1282,26 @@ public class MainViewController {
 				return;
 			}
 
-			// Decrement the available count
-			int newCount = selectedToy.getAvailableCount() - 1;
-			logger.info("Buying toy: " + selectedToy + " | New available count: " + newCount);
-
-			if (newCount <= 0) {
-				// Remove the toy from the inventory and ListView
-				toys.remove(selectedToy);
-				lvSearchToys.getItems().remove(selectedToy);
+			boolean last = sellsOut(selectedToy);
+			if (last) {
+				// Remove the toy from the result table, whose rows resolve through the
+				// inventory, before it leaves the inventory
+				tvSearchToys.getItems().remove(selectedToy);
+			}
+			if (!buyToy(selectedToy)) {
+				tvSearchToys.refresh();
+				lblSearchResult.setTextFill(Color.RED);
+				lblSearchResult.setText("No units of " + selectedToy.getName() + " could be bought.");
+			} else if (last) {
 				lblSearchResult.setTextFill(Color.GREEN);
 				lblSearchResult.setText(
 						"Successfully bought the last " + selectedToy.getName() + ". Toy removed from inventory.");
-				logger.info("The last unit of toy: " + selectedToy.getName()
-						+ " was purchased and removed from inventory.");
 			} else {
-				// Update the toy's stock count and refresh the ListView
-				selectedToy.setAvailableCount(newCount);
-				lvSearchToys.refresh();
+				tvSearchToys.refresh();
 				lblSearchResult.setTextFill(Color.GREEN);
 				lblSearchResult.setText("Successfully bought " + selectedToy.getName() + ". Remaining: "
-						+ selectedToy.getAvailableCount());
-				logger.info("Toy purchased: " + selectedToy.getName() + " | Remaining stock: "
-						+ selectedToy.getAvailableCount());
+						+ selectedToy.getAvailableCount()
+						+ (lowStockAlerts.isLow(selectedToy) ? " (low stock, reorder now)" : ""));
 			}
 		} catch (Exception e) {
 			lblSearchResult.setTextFill(Color.RED);
@@ -660,6 +1310,17 @@ public class MainViewController {
 		}
 	}
 
+	/**
+	 * Returns whether buying one unit of a toy sells it out, which removes it
+	 * from the inventory: it has one available unit and none held.
+	 *
+	 * @param toy The toy.
+	 * @return {@code true} if the next purchase removes the toy.
+	 */
+	private boolean sellsOut(Toy toy) {
+		return toy.getAvailableCount() == 1 && reservations.getHeldUnits(toy) == 0;
+	}
+
 	/**
 	 * Displays a confirmation dialog to confirm the purchase of the selected toy.
 	 *
@@ -790,7 +1451,7 @@ public class MainViewController {
 
 				// Add the toy to the inventory and update the UI
 				if (newToy != null) {
-					toys.add(newToy);
+					inventory.add(newToy);
 					lblAddResult.setTextFill(Color.GREEN);
 					lblAddResult.setText("Toy added successfully: " + newToy);
 					logger.info("New toy added to inventory: " + newToy);
@@ -1011,7 +1672,7 @@ public class MainViewController {
 		}
 
 		if (showConfirmationDialog(selectedToy)) {
-			toys.remove(selectedToy);
+			inventory.remove(selectedToy);
 			lvRemoveToys.getItems().remove(selectedToy);
 			lblRemoveResult.setTextFill(Color.GREEN);
 			lblRemoveResult.setText("Toy removed successfully: " + selectedToy);
@@ -1075,8 +1736,10 @@ public class MainViewController {
 	 * If the user chooses "Save and Exit," this method invokes
 	 * {@link #updateData()} to save the changes and calls {@code Platform.exit()}
 	 * followed by {@code System.exit(0)} to ensure the application exits
-	 * completely. If the user selects "Exit Without Saving," it skips saving and
-	 * exits similarly. If the user selects "Cancel," the application remains open.
+	 * completely. The working record file is discarded once the save succeeds,
+	 * so the next start loads the saved data; if the save fails, it is kept. If
+	 * the user selects "Exit Without Saving," it skips saving and exits
+	 * similarly. If the user selects "Cancel," the application remains open.
 	 * </p>
 	 *
 	 * <p>
@@ -1101,14 +1764,24 @@ public class MainViewController {
 
 		alert.showAndWait().ifPresent(response -> {
 			if (response == saveAndExit) {
-				updateData();
-				logger.info("User chose 'Save and Exit': Changes saved and application exited.");
+				int released = reservations.cancelAll(); // Held units are still in stock
+				if (released > 0) {
+					logger.info("Released " + released + " open stock hold(s) before saving.");
+				}
+				boolean saved = updateData();
+				closeRecordFile(saved); // Kept only if the save failed, so the next start still has the changes
+				logger.info("User chose 'Save and Exit': Changes " + (saved ? "saved" : "kept in the working file")
+						+ " and application exited.");
 			} else if (response == exitWithoutSaving) {
+				closeRecordFile(true); // The next start loads the data file as last saved
 				logger.info("User chose 'Exit Without Saving': Changes not saved and application exited.");
 			} else {
 				logger.info("User chose 'Cancel': Application exit canceled.");
 				return;
 			}
+			autoSaver.close();
+			closeRepository();
+			closeSalesHistory();
 			System.exit(0); // Forcefully terminate the JVM
 		});
 	}
@@ -1126,36 +1799,330 @@ public class MainViewController {
 	 * /** Saves the current list of toys to the `toys.txt` file.
 	 * 
 	 * <p>
-	 * Iterates over the {@code toys} list and writes each toy's data to the file.
-	 * Logs success or any errors encountered.
+	 * Saves a snapshot of the inventory through the {@link AutoSaver}, waiting
+	 * for any background save to finish first. The file is written to a
+	 * temporary file and renamed over `toys.txt`, so a crash never leaves it
+	 * half written. Logs success or any errors encountered.
 	 * </p>
 	 * 
-	 * @see Toy#toDataString()
+	 * @return {@code true} if the inventory was saved.
+	 * @see AutoSaver#saveNow()
 	 */
-	private void updateData() {
-		try (PrintWriter writer = new PrintWriter(new FileWriter("res/toys.txt"))) {
-			for (Toy toy : toys) {
-				writer.println(toy.toDataString()); // Convert each toy to a formatted string for file storage
-			}
+	private boolean updateData() {
+		try {
+			autoSaver.saveNow();
 			logger.info("Successfully updated data to file.");
+			return true;
 		} catch (IOException e) {
 			logger.warning("\nError updating toys to file: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Finds the first {@code k} toys in key order, e.g. the 10 cheapest animals
+	 * or the 20 lowest-stock toys to reorder.
+	 *
+	 * <p>
+	 * The candidates come from the type bitmap index (or the whole inventory) and
+	 * are ranked by the sort index, so the catalog is never sorted. Logs the query
+	 * and its outcome.
+	 * </p>
+	 *
+	 * @param type      The toy type to rank, or null or empty for every toy.
+	 * @param key       The attribute to rank by. Must not be null.
+	 * @param ascending Whether to start from the lowest value.
+	 * @param k         The maximum number of toys to return.
+	 * @return At most {@code k} toys, in key order.
+	 * @throws IllegalArgumentException if the key is null or {@code k} is
+	 *                                  negative.
+	 */
+	public SearchResult topToys(String type, SortIndex.Key key, boolean ascending, int k) {
+		if (key == null) {
+			throw new IllegalArgumentException("Key must not be null.");
 		}
+
+		logger.info("Finding top " + k + " toys by " + key + (ascending ? " ascending" : " descending")
+				+ (type == null || type.isEmpty() ? "" : " of type: " + type));
+		int[] slots = type == null || type.isEmpty() ? sortIndex.topK(key, ascending, k)
+				: sortIndex.topK(attributeIndex.lookup(AttributeIndex.Attribute.TYPE, type).toArray(), key,
+						ascending, k);
+		SearchResult results = inventory.toysAt(slots);
+		logger.info(results.size() + " toy(s) found");
+		return results;
+	}
+
+	/**
+	 * Sells one unit of a toy over the counter and records the sale. Units held
+	 * for online orders cannot be bought. The toy is removed from the inventory
+	 * when its last unit is sold and none are held; while units are held, it
+	 * stays with an available count of 0 so that its holds can still be
+	 * confirmed.
+	 *
+	 * @param toy The toy to buy. Must be in the inventory.
+	 * @return {@code true} if a unit was sold; {@code false} if none is
+	 *         available.
+	 */
+	public boolean buyToy(Toy toy) {
+		if (toy.getAvailableCount() <= 0) {
+			logger.warning("Cannot buy " + toy + ": no units are available.");
+			return false;
+		}
+		int newCount = toy.getAvailableCount() - 1;
+		logger.info("Buying toy: " + toy + " | New available count: " + newCount);
+		recordSale(toy, 1);
+		topSellers.add(toy.getSn());
+		if (newCount == 0 && reservations.getHeldUnits(toy) == 0) {
+			inventory.remove(toy);
+			logger.info("The last unit of toy: " + toy.getName() + " was purchased and removed from inventory.");
+		} else {
+			inventory.setAvailableCount(toy, newCount);
+			logger.info("Toy purchased: " + toy.getName() + " | Remaining stock: " + newCount
+					+ (newCount == 0 ? " (" + reservations.getHeldUnits(toy) + " held)" : ""));
+		}
+		return true;
+	}
+
+	/**
+	 * Holds units of a toy for an online order for 15 minutes. The units leave
+	 * the available count at once and come back if the hold is cancelled or
+	 * expires before it is confirmed.
+	 *
+	 * @param toy   The toy to hold. Must be in the inventory.
+	 * @param units The number of units to hold.
+	 * @return The open hold, whose number confirms or cancels it.
+	 * @throws IllegalArgumentException if the toy is not in the inventory or the
+	 *                                  units are not available.
+	 */
+	public StockReservations.Hold reserveToy(Toy toy, int units) {
+		StockReservations.Hold hold = reservations.reserve(toy, units, RESERVATION_MILLIS);
+		logger.info("Reserved: " + hold + " | Remaining: " + toy.getAvailableCount());
+		return hold;
+	}
+
+	/**
+	 * Confirms a hold once its order is paid. Its units are recorded as sold. A
+	 * toy left with no available or held units is removed from the inventory,
+	 * like one sold out over the counter.
+	 *
+	 * @param id The hold number.
+	 * @return {@code true} if the hold was open; {@code false} if it had already
+	 *         expired, been cancelled or been confirmed.
+	 */
+	public boolean confirmReservation(long id) {
+		StockReservations.Hold hold = reservations.confirm(id);
+		if (hold == null) {
+			logger.warning("Cannot confirm hold " + id + ": it is not open.");
+			return false;
+		}
+		Toy toy = hold.getToy();
+		recordSale(toy, hold.getUnits());
+		for (int i = 0; i < hold.getUnits(); i++) {
+			topSellers.add(toy.getSn());
+		}
+		logger.info("Confirmed: " + hold);
+		if (toy.getAvailableCount() == 0 && reservations.getHeldUnits(toy) == 0) {
+			inventory.remove(toy);
+			logger.info("The last units of toy: " + toy.getName()
+					+ " were sold online and it was removed from inventory.");
+		} else {
+			writeRecordStock(toy); // The sold units are no longer held
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels a hold and returns its units to stock.
+	 *
+	 * @param id The hold number.
+	 * @return {@code true} if the hold was open.
+	 */
+	public boolean cancelReservation(long id) {
+		StockReservations.Hold hold = reservations.cancel(id);
+		if (hold == null) {
+			logger.warning("Cannot cancel hold " + id + ": it is not open.");
+			return false;
+		}
+		logger.info("Cancelled: " + hold);
+		return true;
 	}
 
 	/**
 	 * Returns the current list of toys in the inventory.
 	 * 
 	 * <p>
-	 * This method provides access to the underlying {@code List<Toy>} used to
-	 * manage the toy inventory. It is primarily intended for testing or external
-	 * access to the inventory data.
+	 * This method provides a live {@code List<Toy>} view of the inventory. Changes
+	 * made through the view are applied to the inventory and its indexes. It is
+	 * primarily intended for testing or external access to the inventory data.
 	 * </p>
 	 * 
 	 * @return A {@code List<Toy>} representing the current inventory of toys.
 	 */
 	public List<Toy> getToys() {
-		return toys;
+		return inventory.asList();
+	}
+
+	/**
+	 * Returns the inventory managed by this controller.
+	 * 
+	 * @return The toy {@link Inventory}.
+	 */
+	public Inventory getInventory() {
+		return inventory;
+	}
+
+	/**
+	 * Returns the bitmap indexes over low-cardinality toy attributes, for
+	 * attribute filters and counts that need no object traversal.
+	 * 
+	 * @return The {@link AttributeIndex} registered on the inventory.
+	 */
+	public AttributeIndex getAttributeIndex() {
+		return attributeIndex;
+	}
+
+	/**
+	 * Returns the interval tree over board game player ranges.
+	 * 
+	 * @return The {@link PlayerRangeIndex} registered on the inventory.
+	 */
+	public PlayerRangeIndex getPlayerRangeIndex() {
+		return playerRangeIndex;
+	}
+
+	/**
+	 * Returns the token inverted index over toy brands.
+	 * 
+	 * @return The brand {@link InvertedIndex}.
+	 */
+	public InvertedIndex getBrandIndex() {
+		return brandIndex;
+	}
+
+	/**
+	 * Returns the token inverted index over board game designers.
+	 * 
+	 * @return The designer {@link InvertedIndex}.
+	 */
+	public InvertedIndex getDesignerIndex() {
+		return designerIndex;
+	}
+
+	/**
+	 * Returns the typo-tolerant name index. Its edit distance bound can be changed
+	 * with {@link FuzzyNameIndex#setMaxDistance(int)}.
+	 * 
+	 * @return The {@link FuzzyNameIndex} registered on the inventory.
+	 */
+	public FuzzyNameIndex getFuzzyNameIndex() {
+		return fuzzyNameIndex;
+	}
+
+	/**
+	 * Returns the prefix trie used for name autocomplete.
+	 * 
+	 * @return The {@link NameTrie} registered on the inventory.
+	 */
+	public NameTrie getNameTrie() {
+		return nameTrie;
+	}
+
+	/**
+	 * Returns the search result cache, whose hit, miss and eviction counters can
+	 * be used for monitoring.
+	 * 
+	 * @return The {@link QueryCache} registered on the inventory.
+	 */
+	public QueryCache<SearchResult> getQueryCache() {
+		return queryCache;
+	}
+
+	/**
+	 * Returns the incrementally maintained inventory totals shown on the
+	 * dashboard.
+	 * 
+	 * @return The {@link InventoryAggregates} registered on the inventory.
+	 */
+	public InventoryAggregates getAggregates() {
+		return aggregates;
+	}
+
+	/**
+	 * Returns the low-stock alert engine, whose per-SKU and per-type reorder
+	 * thresholds can be changed.
+	 * 
+	 * @return The {@link LowStockAlerts} registered on the inventory.
+	 */
+	public LowStockAlerts getLowStockAlerts() {
+		return lowStockAlerts;
+	}
+
+	/**
+	 * Returns the price distributions, which answer median and other percentile
+	 * prices overall, per type and per brand.
+	 * 
+	 * @return The {@link PriceQuantiles} registered on the inventory.
+	 */
+	public PriceQuantiles getPriceQuantiles() {
+		return priceQuantiles;
+	}
+
+	/**
+	 * Returns the open stock holds, e.g. to list or count them.
+	 * 
+	 * @return The {@link StockReservations} registered on the inventory.
+	 */
+	public StockReservations getReservations() {
+		return reservations;
+	}
+
+	/**
+	 * Returns the sales history, which answers units sold and revenue per toy,
+	 * per type or overall by minute, hour or day.
+	 * 
+	 * @return The {@link SalesHistory}, or null if it could not be opened.
+	 */
+	public SalesHistory getSalesHistory() {
+		return salesHistory;
+	}
+
+	/**
+	 * Returns the top-selling toys by serial number, counted in bounded memory.
+	 * 
+	 * @return The purchase {@link HeavyHitters}.
+	 */
+	public HeavyHitters getTopSellers() {
+		return topSellers;
+	}
+
+	/**
+	 * Returns the most frequent searches, keyed as {@code mode:term} (e.g.
+	 * {@code name:lego}), counted in bounded memory.
+	 * 
+	 * @return The search {@link HeavyHitters}.
+	 */
+	public HeavyHitters getTopQueries() {
+		return topQueries;
+	}
+
+	/**
+	 * Returns the distinct count sketch of searches, keyed as for
+	 * {@link #getTopQueries()}.
+	 * 
+	 * @return The search {@link HyperLogLog}.
+	 */
+	public HyperLogLog getDistinctQueries() {
+		return distinctQueries;
+	}
+
+	/**
+	 * Returns the sort index used to order search results and answer top-K
+	 * queries.
+	 * 
+	 * @return The {@link SortIndex} registered on the inventory.
+	 */
+	public SortIndex getSortIndex() {
+		return sortIndex;
 	}
 
 }
@@ -0,0 +1,168 @@
+package controller;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import inventory.SearchResult;
+import javafx.collections.ObservableListBase;
+import model.Toy;
+
+/**
+ * Observable list that presents search results to a {@code ListView} or
+ * {@code TableView} without copying them. Rows are read from the underlying
+ * result only when the list asks for them, and a virtualized control only asks
+ * for the rows it is about to display, so a broad search never builds a second
+ * list of every match.
+ *
+ * <p>
+ * Rows can be removed (e.g. when the last unit of a toy is bought); removals
+ * are tracked in a position array created on the first removal, so the
+ * underlying result, which may be shared with the search cache, is never
+ * modified. The rows can also be put in a new order (e.g. when a table column
+ * is sorted) with {@link #reorder(SearchResult)}; the original order is kept so
+ * it can be restored.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see inventory.SearchResult
+ */
+class PagedResultList extends ObservableListBase<Toy> {
+
+	private final SearchResult original; // Results in the order the search returned them
+	private SearchResult source; // Underlying results in display order, read on demand
+	private int[] positions; // Visible row -> source position, or null while nothing is removed
+	private int size; // Number of visible rows
+
+	/**
+	 * Creates a list presenting the given results.
+	 *
+	 * @param results The results to present.
+	 */
+	PagedResultList(SearchResult results) {
+		this.original = results;
+		this.source = results;
+		this.size = results.size();
+	}
+
+	@Override
+	public Toy get(int index) {
+		return source.get(position(index));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the inventory slots of the visible rows, in display order.
+	 *
+	 * @return A new array of slot numbers.
+	 */
+	int[] visibleSlots() {
+		int[] slots = new int[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = source.slotAt(positions == null ? i : positions[i]);
+		}
+		return slots;
+	}
+
+	/**
+	 * Returns the inventory slots of the visible rows in the order the search
+	 * originally returned them.
+	 *
+	 * @return A new array of slot numbers.
+	 */
+	int[] originalSlots() {
+		if (positions == null && source == original) {
+			return visibleSlots();
+		}
+		BitSet visible = new BitSet();
+		for (int slot : visibleSlots()) {
+			visible.set(slot);
+		}
+		int[] slots = new int[size];
+		int count = 0;
+		for (int i = 0; i < original.size() && count < size; i++) {
+			if (visible.get(original.slotAt(i))) {
+				slots[count++] = original.slotAt(i);
+			}
+		}
+		return slots;
+	}
+
+	/**
+	 * Replaces the displayed rows with the same toys in a new order.
+	 *
+	 * @param order The visible rows in their new order.
+	 */
+	void reorder(SearchResult order) {
+		int oldSize = size;
+		source = order;
+		positions = null;
+		size = order.size();
+		beginChange();
+		nextReplace(0, size, new RemovedRows(oldSize));
+		endChange();
+	}
+
+	@Override
+	public Toy remove(int index) {
+		Toy removed = get(index);
+		if (positions == null) {
+			positions = new int[size];
+			Arrays.setAll(positions, i -> i);
+		}
+		System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+		size--;
+		beginChange();
+		nextRemove(index, removed);
+		endChange();
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		int oldSize = size;
+		positions = new int[0];
+		size = 0;
+		beginChange();
+		nextRemove(0, new RemovedRows(oldSize));
+		endChange();
+	}
+
+	private int position(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return positions == null ? index : positions[index];
+	}
+
+	/**
+	 * Stand-in for the replaced rows in a change notification. It only reports
+	 * how many rows were removed, so clearing or reordering a large result does
+	 * not resolve every row just to announce its removal.
+	 */
+	private static final class RemovedRows extends AbstractList<Toy> {
+		private final int size;
+
+		RemovedRows(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public Toy get(int index) {
+			return null;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package controller;
+
+import javafx.geometry.HPos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import model.Toy;
+
+/**
+ * List cell that shows a toy as a multi-column row: name, price and stock on
+ * the first line, the type, serial number, brand and age on the second, and
+ * the type-specific details on the third.
+ *
+ * <p>
+ * The cell's labels are created once and reused as the cell is recycled while
+ * scrolling; updating a cell only copies cached strings from a
+ * {@link ToyDisplayCache} into them, so painting never formats a toy.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class ToyCell extends ListCell<Toy> {
+
+	private final ToyDisplayCache cache; // Shared display text of all toys
+	private final GridPane grid = new GridPane();
+	private final Label name = new Label();
+	private final Label price = new Label();
+	private final Label stock = new Label();
+	private final Label summary = new Label();
+	private final Label details = new Label();
+
+	/**
+	 * Creates a cell rendering toys from the given display cache.
+	 *
+	 * @param cache The cache supplying the display text.
+	 */
+	ToyCell(ToyDisplayCache cache) {
+		this.cache = cache;
+		name.setFont(Font.font(null, FontWeight.BOLD, 12));
+		summary.setFont(Font.font(11));
+		details.setFont(Font.font(11));
+
+		ColumnConstraints nameColumn = new ColumnConstraints();
+		nameColumn.setHgrow(Priority.ALWAYS);
+		ColumnConstraints priceColumn = new ColumnConstraints(70);
+		priceColumn.setHalignment(HPos.RIGHT);
+		ColumnConstraints stockColumn = new ColumnConstraints(80);
+		stockColumn.setHalignment(HPos.RIGHT);
+		grid.getColumnConstraints().addAll(nameColumn, priceColumn, stockColumn);
+		grid.setHgap(8);
+
+		grid.add(name, 0, 0);
+		grid.add(price, 1, 0);
+		grid.add(stock, 2, 0);
+		grid.add(summary, 0, 1, 3, 1);
+		grid.add(details, 0, 2, 3, 1);
+		setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+	}
+
+	@Override
+	protected void updateItem(Toy toy, boolean empty) {
+		super.updateItem(toy, empty);
+		setText(null);
+		if (empty || toy == null) {
+			setGraphic(null);
+			return;
+		}
+		ToyDisplayCache.Row row = cache.rowOf(toy);
+		name.setText(row.name);
+		price.setText(row.price);
+		stock.setText(row.stockLabel);
+		summary.setText(row.summary);
+		details.setText(row.details);
+		details.setManaged(!row.details.isEmpty());
+		setGraphic(grid);
+	}
+}
@@ -0,0 +1,118 @@
+package controller;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import inventory.InventoryListener;
+import model.Animals;
+import model.BoardGames;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+
+/**
+ * Caches the display text of toys shown in the result lists and table.
+ *
+ * <p>
+ * A toy's row text is built the first time the toy is painted and reused on
+ * every later paint, scroll and refresh. The cache listens to the inventory
+ * and drops a toy's text only when that toy changes (its stock changes or it
+ * is removed), so the next paint rebuilds it from the current values.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see ToyCell
+ */
+class ToyDisplayCache implements InventoryListener {
+
+	private final Map<Toy, Row> rows = new IdentityHashMap<>(); // Toy -> display text, built on first paint
+
+	/**
+	 * Display text of one toy, split into the columns of a result row.
+	 */
+	static final class Row {
+		final String name; // Toy name
+		final String type; // Toy type
+		final String price; // Price with currency sign and two decimals
+		final String stock; // Available count
+		final String stockLabel; // Available count with a caption
+		final String age; // Minimum age
+		final String summary; // Type, serial number, brand and age
+		final String details; // Type-specific attributes
+
+		Row(Toy toy) {
+			this.name = toy.getName();
+			this.type = toy.getToyType();
+			this.price = String.format("$%.2f", toy.getPrice());
+			this.stock = String.valueOf(toy.getAvailableCount());
+			this.stockLabel = "Stock: " + stock;
+			this.age = toy.getAgeAppropriate() + "+";
+			this.summary = type + "  |  SN " + toy.getSn() + "  |  " + toy.getBrand() + "  |  Age " + age;
+			this.details = details(toy);
+		}
+	}
+
+	/**
+	 * Returns the display text of a toy, building it on first use.
+	 *
+	 * @param toy The toy to display. Must not be null.
+	 * @return The cached display text.
+	 */
+	Row rowOf(Toy toy) {
+		Row row = rows.get(toy);
+		if (row == null) {
+			row = new Row(toy);
+			rows.put(toy, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Discards the cached text of a toy, e.g. after it was edited outside the
+	 * inventory.
+	 *
+	 * @param toy The toy whose text is out of date.
+	 */
+	void invalidate(Toy toy) {
+		rows.remove(toy);
+	}
+
+	/**
+	 * Returns the number of toys whose text is cached.
+	 *
+	 * @return The cache size.
+	 */
+	int size() {
+		return rows.size();
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		rows.remove(toy);
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		rows.remove(toy);
+	}
+
+	private static String details(Toy toy) {
+		if (toy instanceof Figures) {
+			return "Classification: " + ((Figures) toy).getClassification();
+		}
+		if (toy instanceof Animals) {
+			Animals animal = (Animals) toy;
+			return "Material: " + animal.getMaterial() + ", Size: " + animal.getSize();
+		}
+		if (toy instanceof Puzzles) {
+			return "Puzzle type: " + ((Puzzles) toy).getPuzzleType();
+		}
+		if (toy instanceof BoardGames) {
+			BoardGames game = (BoardGames) toy;
+			return "Players: " + game.getMinPlayers() + "-" + game.getMaxPlayers() + ", Designers: "
+					+ String.join(", ", game.getDesigners());
+		}
+		return "";
+	}
+}
@@ -0,0 +1,167 @@
+package index;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import inventory.InventoryListener;
+import model.Animals;
+import model.Figures;
+import model.Puzzles;
+import model.Toy;
+
+/**
+ * Bitmap indexes over the low-cardinality attributes of the toy inventory. For
+ * every attribute value a {@link CompressedBitmap} of inventory slot numbers is
+ * kept, so a filter such as "Large plush animals" is an AND of three bitmaps and
+ * counting toys by attribute value never touches a {@link Toy} object.
+ *
+ * <p>
+ * Values are matched case-insensitively. Toys that do not carry an attribute
+ * (e.g. the size of a puzzle) are simply absent from that attribute's bitmaps.
+ * The index registers as an {@link InventoryListener} and is updated on every
+ * add and remove.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class AttributeIndex implements InventoryListener {
+
+	/**
+	 * The attributes covered by the index, each with the function used to read
+	 * its value from a toy. A null value means the toy does not have the
+	 * attribute.
+	 */
+	public enum Attribute {
+		TYPE(Toy::getToyType),
+		BRAND(Toy::getBrand),
+		CLASSIFICATION(toy -> toy instanceof Figures ? String.valueOf(((Figures) toy).getClassification()) : null),
+		SIZE(toy -> toy instanceof Animals ? String.valueOf(((Animals) toy).getSize()) : null),
+		MATERIAL(toy -> toy instanceof Animals ? ((Animals) toy).getMaterial() : null),
+		PUZZLE_TYPE(toy -> toy instanceof Puzzles ? String.valueOf(((Puzzles) toy).getPuzzleType()) : null);
+
+		private final Function<Toy, String> extractor;
+
+		Attribute(Function<Toy, String> extractor) {
+			this.extractor = extractor;
+		}
+
+		/**
+		 * Reads this attribute from a toy.
+		 *
+		 * @param toy The toy to read.
+		 * @return The attribute value, or null if the toy does not have it.
+		 */
+		public String valueOf(Toy toy) {
+			return extractor.apply(toy);
+		}
+	}
+
+	private final Map<Attribute, Map<String, CompressedBitmap>> bitmaps = new EnumMap<>(Attribute.class);
+
+	/**
+	 * Creates an empty index. Register it with
+	 * {@link inventory.Inventory#addListener(InventoryListener)} to populate it.
+	 */
+	public AttributeIndex() {
+		for (Attribute attribute : Attribute.values()) {
+			bitmaps.put(attribute, new HashMap<>());
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		for (Attribute attribute : Attribute.values()) {
+			String key = normalize(attribute.valueOf(toy));
+			if (key != null) {
+				bitmaps.get(attribute).computeIfAbsent(key, k -> new CompressedBitmap()).add(slot);
+			}
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		for (Attribute attribute : Attribute.values()) {
+			String key = normalize(attribute.valueOf(toy));
+			CompressedBitmap bitmap = key == null ? null : bitmaps.get(attribute).get(key);
+			if (bitmap != null) {
+				bitmap.remove(slot);
+				if (bitmap.isEmpty()) {
+					bitmaps.get(attribute).remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the slots of all toys whose attribute equals the given value
+	 * (case-insensitive).
+	 *
+	 * @param attribute The attribute to match.
+	 * @param value     The value to match.
+	 * @return A new bitmap of matching slots; empty if nothing matches.
+	 */
+	public CompressedBitmap lookup(Attribute attribute, String value) {
+		CompressedBitmap bitmap = bitmaps.get(attribute).get(normalize(value));
+		return bitmap == null ? new CompressedBitmap() : bitmap.copy();
+	}
+
+	/**
+	 * Returns the slots of all toys matching every given attribute/value pair,
+	 * computed by intersecting the individual bitmaps.
+	 *
+	 * @param criteria The attribute values that must all match. Must not be
+	 *                 empty.
+	 * @return A new bitmap of matching slots.
+	 * @throws IllegalArgumentException if no criteria are given.
+	 */
+	public CompressedBitmap lookupAll(Map<Attribute, String> criteria) {
+		if (criteria == null || criteria.isEmpty()) {
+			throw new IllegalArgumentException("At least one criterion is required.");
+		}
+		CompressedBitmap result = null;
+		for (Map.Entry<Attribute, String> criterion : criteria.entrySet()) {
+			CompressedBitmap bitmap = bitmaps.get(criterion.getKey()).get(normalize(criterion.getValue()));
+			if (bitmap == null) {
+				return new CompressedBitmap();
+			}
+			result = result == null ? bitmap.copy() : CompressedBitmap.and(result, bitmap);
+		}
+		return result;
+	}
+
+	/**
+	 * Counts toys with the given attribute value without materializing them.
+	 *
+	 * @param attribute The attribute to match.
+	 * @param value     The value to match.
+	 * @return The number of matching toys.
+	 */
+	public int count(Attribute attribute, String value) {
+		CompressedBitmap bitmap = bitmaps.get(attribute).get(normalize(value));
+		return bitmap == null ? 0 : bitmap.cardinality();
+	}
+
+	/**
+	 * Counts toys for every distinct value of an attribute.
+	 *
+	 * @param attribute The attribute to group by.
+	 * @return A sorted map from (lower-case) attribute value to toy count.
+	 */
+	public Map<String, Integer> counts(Attribute attribute) {
+		Map<String, Integer> counts = new TreeMap<>();
+		bitmaps.get(attribute).forEach((key, bitmap) -> counts.put(key, bitmap.cardinality()));
+		return counts;
+	}
+
+	/**
+	 * Normalizes an attribute value for case-insensitive matching.
+	 */
+	private static String normalize(String value) {
+		return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,569 @@
+package index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed bitmap of non-negative integers in the style of a Roaring
+ * bitmap. The 32-bit value space is split into chunks of 65,536 values keyed by
+ * the high 16 bits. Each chunk is stored either as a sorted array of its low 16
+ * bits (sparse chunks) or as a plain 1,024-word bitmap (dense chunks), and is
+ * converted between the two as its cardinality crosses 4,096.
+ *
+ * <p>
+ * Set operations work chunk by chunk, so intersecting two dense chunks is a
+ * loop of word-wise ANDs and chunks missing from either side are skipped
+ * entirely.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class CompressedBitmap {
+
+	private static final int ARRAY_MAX = 4096; // Largest cardinality kept in array form
+	private static final int WORDS = 1024; // 65,536 bits per dense chunk
+
+	private char[] keys = new char[4]; // High 16 bits of each chunk, sorted
+	private Container[] containers = new Container[4]; // Chunk contents, parallel to keys
+	private int size; // Number of chunks in use
+
+	/**
+	 * Adds a value to the bitmap.
+	 *
+	 * @param value The value to add. Must not be negative.
+	 * @throws IllegalArgumentException if the value is negative.
+	 */
+	public void add(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Bitmap values must not be negative.");
+		}
+		char high = (char) (value >>> 16);
+		int i = findChunk(high);
+		if (i >= 0) {
+			containers[i] = containers[i].add((char) value);
+		} else {
+			insertChunk(-i - 1, high, new ArrayContainer().add((char) value));
+		}
+	}
+
+	/**
+	 * Removes a value from the bitmap if present.
+	 *
+	 * @param value The value to remove.
+	 */
+	public void remove(int value) {
+		if (value < 0) {
+			return;
+		}
+		int i = findChunk((char) (value >>> 16));
+		if (i >= 0) {
+			containers[i] = containers[i].remove((char) value);
+			if (containers[i].cardinality() == 0) {
+				removeChunk(i);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a value is in the bitmap.
+	 *
+	 * @param value The value to check.
+	 * @return {@code true} if the value is present.
+	 */
+	public boolean contains(int value) {
+		if (value < 0) {
+			return false;
+		}
+		int i = findChunk((char) (value >>> 16));
+		return i >= 0 && containers[i].contains((char) value);
+	}
+
+	/**
+	 * Returns the number of values in the bitmap without visiting them.
+	 *
+	 * @return The cardinality of the bitmap.
+	 */
+	public int cardinality() {
+		int total = 0;
+		for (int i = 0; i < size; i++) {
+			total += containers[i].cardinality();
+		}
+		return total;
+	}
+
+	/**
+	 * Checks whether the bitmap is empty.
+	 *
+	 * @return {@code true} if no values are present.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Visits every value in ascending order.
+	 *
+	 * @param action The action to run for each value.
+	 */
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			containers[i].forEach(keys[i] << 16, action);
+		}
+	}
+
+	/**
+	 * Returns all values as a sorted array.
+	 *
+	 * @return A new array containing every value in ascending order.
+	 */
+	public int[] toArray() {
+		int[] values = new int[cardinality()];
+		int[] pos = { 0 };
+		forEach(v -> values[pos[0]++] = v);
+		return values;
+	}
+
+	/**
+	 * Returns an independent copy of this bitmap.
+	 *
+	 * @return A deep copy.
+	 */
+	public CompressedBitmap copy() {
+		CompressedBitmap copy = new CompressedBitmap();
+		copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+		copy.containers = new Container[copy.keys.length];
+		for (int i = 0; i < size; i++) {
+			copy.containers[i] = containers[i].copy();
+		}
+		copy.size = size;
+		return copy;
+	}
+
+	/**
+	 * Builds a bitmap from plain 64-bit words, where bit {@code b} of word
+	 * {@code w} stands for the value {@code w * 64 + b}. Each 65,536-value chunk
+	 * is stored in whichever form suits its cardinality.
+	 *
+	 * @param words The bitmap words. Not modified.
+	 * @return A new bitmap holding the set bits.
+	 */
+	public static CompressedBitmap fromWords(long[] words) {
+		CompressedBitmap result = new CompressedBitmap();
+		for (int start = 0; start < words.length; start += WORDS) {
+			int end = Math.min(words.length, start + WORDS);
+			int cardinality = 0;
+			for (int k = start; k < end; k++) {
+				cardinality += Long.bitCount(words[k]);
+			}
+			if (cardinality == 0) {
+				continue;
+			}
+			Container container;
+			if (cardinality > ARRAY_MAX) {
+				BitmapContainer bitmap = new BitmapContainer();
+				System.arraycopy(words, start, bitmap.words, 0, end - start);
+				bitmap.cardinality = cardinality;
+				container = bitmap;
+			} else {
+				char[] values = new char[Math.max(4, cardinality)];
+				int n = 0;
+				for (int k = start; k < end; k++) {
+					for (long word = words[k]; word != 0; word &= word - 1) {
+						values[n++] = (char) (((k - start) << 6) | Long.numberOfTrailingZeros(word));
+					}
+				}
+				container = new ArrayContainer(values, cardinality);
+			}
+			result.insertChunk(result.size, (char) (start / WORDS), container);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the intersection of two bitmaps. Neither input is modified.
+	 *
+	 * @param a The first bitmap.
+	 * @param b The second bitmap.
+	 * @return A new bitmap holding values present in both.
+	 */
+	public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0, j = 0;
+		while (i < a.size && j < b.size) {
+			if (a.keys[i] < b.keys[j]) {
+				i++;
+			} else if (a.keys[i] > b.keys[j]) {
+				j++;
+			} else {
+				Container c = a.containers[i].and(b.containers[j]);
+				if (c.cardinality() > 0) {
+					result.insertChunk(result.size, a.keys[i], c);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the union of two bitmaps. Neither input is modified.
+	 *
+	 * @param a The first bitmap.
+	 * @param b The second bitmap.
+	 * @return A new bitmap holding values present in either.
+	 */
+	public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0, j = 0;
+		while (i < a.size || j < b.size) {
+			if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+				result.insertChunk(result.size, a.keys[i], a.containers[i].copy());
+				i++;
+			} else if (i >= a.size || a.keys[i] > b.keys[j]) {
+				result.insertChunk(result.size, b.keys[j], b.containers[j].copy());
+				j++;
+			} else {
+				result.insertChunk(result.size, a.keys[i], a.containers[i].or(b.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the values of {@code a} that are not in {@code b}. Neither input is
+	 * modified.
+	 *
+	 * @param a The bitmap to subtract from.
+	 * @param b The bitmap of values to remove.
+	 * @return A new bitmap holding the difference.
+	 */
+	public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+		CompressedBitmap result = new CompressedBitmap();
+		int j = 0;
+		for (int i = 0; i < a.size; i++) {
+			while (j < b.size && b.keys[j] < a.keys[i]) {
+				j++;
+			}
+			Container c = j < b.size && b.keys[j] == a.keys[i] ? a.containers[i].andNot(b.containers[j])
+					: a.containers[i].copy();
+			if (c.cardinality() > 0) {
+				result.insertChunk(result.size, a.keys[i], c);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Binary searches the chunk keys.
+	 *
+	 * @param high The high 16 bits to look for.
+	 * @return The chunk index, or {@code -(insertion point) - 1} if absent.
+	 */
+	private int findChunk(char high) {
+		return Arrays.binarySearch(keys, 0, size, high);
+	}
+
+	/**
+	 * Inserts a chunk at the given position, growing the arrays if needed.
+	 */
+	private void insertChunk(int index, char high, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = high;
+		containers[index] = container;
+		size++;
+	}
+
+	/**
+	 * Removes the chunk at the given position.
+	 */
+	private void removeChunk(int index) {
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+		containers[--size] = null;
+	}
+
+	/**
+	 * Storage for the low 16 bits of the values in one chunk. Mutating operations
+	 * return the container to use afterwards, which may be a converted one.
+	 */
+	private abstract static class Container {
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract boolean contains(char value);
+
+		abstract int cardinality();
+
+		abstract Container and(Container other);
+
+		abstract Container or(Container other);
+
+		abstract Container andNot(Container other);
+
+		abstract Container copy();
+
+		abstract void forEach(int base, IntConsumer action);
+	}
+
+	/**
+	 * Sparse chunk: a sorted array of low 16-bit values.
+	 */
+	private static final class ArrayContainer extends Container {
+
+		private char[] values;
+		private int cardinality;
+
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				return this;
+			}
+			if (cardinality >= ARRAY_MAX) {
+				return toBitmap().add(value);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		Container and(Container other) {
+			char[] out = new char[cardinality];
+			int n = 0;
+			for (int i = 0; i < cardinality; i++) {
+				if (other.contains(values[i])) {
+					out[n++] = values[i];
+				}
+			}
+			return new ArrayContainer(out, n);
+		}
+
+		@Override
+		Container or(Container other) {
+			if (other instanceof BitmapContainer) {
+				return other.or(this);
+			}
+			ArrayContainer o = (ArrayContainer) other;
+			char[] out = new char[cardinality + o.cardinality];
+			int i = 0, j = 0, n = 0;
+			while (i < cardinality && j < o.cardinality) {
+				if (values[i] < o.values[j]) {
+					out[n++] = values[i++];
+				} else if (values[i] > o.values[j]) {
+					out[n++] = o.values[j++];
+				} else {
+					out[n++] = values[i++];
+					j++;
+				}
+			}
+			while (i < cardinality) {
+				out[n++] = values[i++];
+			}
+			while (j < o.cardinality) {
+				out[n++] = o.values[j++];
+			}
+			ArrayContainer merged = new ArrayContainer(out, n);
+			return n > ARRAY_MAX ? merged.toBitmap() : merged;
+		}
+
+		@Override
+		Container andNot(Container other) {
+			char[] out = new char[cardinality];
+			int n = 0;
+			for (int i = 0; i < cardinality; i++) {
+				if (!other.contains(values[i])) {
+					out[n++] = values[i];
+				}
+			}
+			return new ArrayContainer(out, n);
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+		}
+
+		@Override
+		void forEach(int base, IntConsumer action) {
+			for (int i = 0; i < cardinality; i++) {
+				action.accept(base | values[i]);
+			}
+		}
+
+		private BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer();
+			for (int i = 0; i < cardinality; i++) {
+				bitmap.words[values[i] >>> 6] |= 1L << values[i];
+			}
+			bitmap.cardinality = cardinality;
+			return bitmap;
+		}
+	}
+
+	/**
+	 * Dense chunk: one bit per possible low 16-bit value.
+	 */
+	private static final class BitmapContainer extends Container {
+
+		private final long[] words = new long[WORDS];
+		private int cardinality;
+
+		@Override
+		Container add(char value) {
+			long before = words[value >>> 6];
+			long after = before | (1L << value);
+			if (before != after) {
+				words[value >>> 6] = after;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long before = words[value >>> 6];
+			long after = before & ~(1L << value);
+			if (before != after) {
+				words[value >>> 6] = after;
+				cardinality--;
+				if (cardinality <= ARRAY_MAX) {
+					return toArrayContainer();
+				}
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		Container and(Container other) {
+			if (other instanceof ArrayContainer) {
+				return other.and(this);
+			}
+			BitmapContainer o = (BitmapContainer) other;
+			BitmapContainer out = new BitmapContainer();
+			int n = 0;
+			for (int k = 0; k < WORDS; k++) {
+				out.words[k] = words[k] & o.words[k];
+				n += Long.bitCount(out.words[k]);
+			}
+			out.cardinality = n;
+			return n <= ARRAY_MAX ? out.toArrayContainer() : out;
+		}
+
+		@Override
+		Container or(Container other) {
+			BitmapContainer out = (BitmapContainer) copy();
+			if (other instanceof ArrayContainer) {
+				other.forEach(0, v -> out.add((char) v));
+				return out;
+			}
+			BitmapContainer o = (BitmapContainer) other;
+			int n = 0;
+			for (int k = 0; k < WORDS; k++) {
+				out.words[k] |= o.words[k];
+				n += Long.bitCount(out.words[k]);
+			}
+			out.cardinality = n;
+			return out;
+		}
+
+		@Override
+		Container andNot(Container other) {
+			BitmapContainer out = (BitmapContainer) copy();
+			if (other instanceof ArrayContainer) {
+				Container[] result = { out };
+				other.forEach(0, v -> result[0] = result[0].remove((char) v));
+				return result[0];
+			}
+			BitmapContainer o = (BitmapContainer) other;
+			int n = 0;
+			for (int k = 0; k < WORDS; k++) {
+				out.words[k] &= ~o.words[k];
+				n += Long.bitCount(out.words[k]);
+			}
+			out.cardinality = n;
+			return n <= ARRAY_MAX ? out.toArrayContainer() : out;
+		}
+
+		@Override
+		Container copy() {
+			BitmapContainer copy = new BitmapContainer();
+			System.arraycopy(words, 0, copy.words, 0, WORDS);
+			copy.cardinality = cardinality;
+			return copy;
+		}
+
+		@Override
+		void forEach(int base, IntConsumer action) {
+			for (int k = 0; k < WORDS; k++) {
+				long word = words[k];
+				while (word != 0) {
+					action.accept(base | (k << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		}
+
+		private ArrayContainer toArrayContainer() {
+			char[] values = new char[Math.max(4, cardinality)];
+			int[] n = { 0 };
+			forEach(0, v -> values[n[0]++] = (char) v);
+			return new ArrayContainer(values, cardinality);
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Typo-tolerant index over toy names, backed by a BK-tree keyed on Levenshtein
+ * edit distance. Both the full name and each word of the name are stored as
+ * dictionary terms, so "Ninja Turtels" and "turtels" both find "Ninja Turtles".
+ *
+ * <p>
+ * A BK-tree child is filed under its distance to the parent term. By the
+ * triangle inequality, a query within distance {@code k} of some term can only
+ * be found under children whose edge distance lies in {@code [d - k, d + k]},
+ * where {@code d} is the query's distance to the parent, so most of the
+ * dictionary is never compared against the query.
+ * </p>
+ *
+ * <p>
+ * Removing a toy only removes its slot from the term's posting list; terms stay
+ * in the tree (and are reused if the name comes back) because deleting interior
+ * BK-tree nodes would require rebuilding their subtrees.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class FuzzyNameIndex implements InventoryListener {
+
+	/** Default largest edit distance accepted by {@link #search(String)}. */
+	public static final int DEFAULT_MAX_DISTANCE = 2;
+
+	private final Map<String, Node> terms = new HashMap<>(); // Term -> tree node, for exact access
+	private Node root; // Root of the BK-tree
+	private int maxDistance = DEFAULT_MAX_DISTANCE; // Bound used by search(String)
+
+	/**
+	 * A BK-tree node holding one dictionary term and the slots whose names
+	 * contain it.
+	 */
+	private static final class Node {
+		final String term;
+		final SortedIntList slots = new SortedIntList();
+		int[] childDistances = new int[2];
+		Node[] children = new Node[2];
+		int childCount;
+
+		Node(String term) {
+			this.term = term;
+		}
+
+		Node child(int distance) {
+			for (int i = 0; i < childCount; i++) {
+				if (childDistances[i] == distance) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		void addChild(int distance, Node child) {
+			if (childCount == children.length) {
+				childDistances = Arrays.copyOf(childDistances, childCount * 2);
+				children = Arrays.copyOf(children, childCount * 2);
+			}
+			childDistances[childCount] = distance;
+			children[childCount++] = child;
+		}
+	}
+
+	/**
+	 * A search hit: an inventory slot and its edit distance to the query.
+	 */
+	public static final class Match {
+		private final int slot;
+		private final int distance;
+
+		Match(int slot, int distance) {
+			this.slot = slot;
+			this.distance = distance;
+		}
+
+		/**
+		 * @return the inventory slot of the matching toy.
+		 */
+		public int getSlot() {
+			return slot;
+		}
+
+		/**
+		 * @return the edit distance between the query and the closest term of the
+		 *         toy's name.
+		 */
+		public int getDistance() {
+			return distance;
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		for (String term : termsOf(toy.getName())) {
+			Node node = terms.get(term);
+			if (node == null) {
+				node = insert(term);
+			}
+			node.slots.add(slot);
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		for (String term : termsOf(toy.getName())) {
+			Node node = terms.get(term);
+			if (node != null) {
+				node.slots.remove(slot);
+			}
+		}
+	}
+
+	/**
+	 * Sets the largest edit distance accepted by {@link #search(String)}.
+	 *
+	 * @param maxDistance The new bound. Must not be negative.
+	 * @throws IllegalArgumentException if the bound is negative.
+	 */
+	public void setMaxDistance(int maxDistance) {
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("Maximum distance cannot be negative.");
+		}
+		this.maxDistance = maxDistance;
+	}
+
+	/**
+	 * Returns the largest edit distance accepted by {@link #search(String)}.
+	 *
+	 * @return The current bound.
+	 */
+	public int getMaxDistance() {
+		return maxDistance;
+	}
+
+	/**
+	 * Finds toys whose name is within the configured edit distance of the query.
+	 *
+	 * @param query The (possibly misspelled) name to look for.
+	 * @return The matches ranked by edit distance, then by slot.
+	 * @see #search(String, int)
+	 */
+	public List<Match> search(String query) {
+		return search(query, maxDistance);
+	}
+
+	/**
+	 * Finds toys whose full name, or one of whose name words, is within
+	 * {@code maxDistance} edits of the query. Matching is case-insensitive.
+	 *
+	 * @param query       The (possibly misspelled) name to look for.
+	 * @param maxDistance The largest edit distance to accept.
+	 * @return The matches ranked by edit distance, then by slot. Each toy appears
+	 *         once, with its smallest distance.
+	 */
+	public List<Match> search(String query, int maxDistance) {
+		String term = normalize(query);
+		List<Match> matches = new ArrayList<>();
+		if (root == null || term.isEmpty()) {
+			return matches;
+		}
+
+		// Best distance per slot; a toy may match through several of its terms
+		Map<Integer, Integer> best = new HashMap<>();
+		int[][] rows = new int[2][term.length() + 1];
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(root);
+		while (!pending.isEmpty()) {
+			Node node = pending.pop();
+			int d = distance(term, node.term, rows);
+			if (d <= maxDistance) {
+				for (int i = 0; i < node.slots.size; i++) {
+					best.merge(node.slots.slots[i], d, Math::min);
+				}
+			}
+			for (int i = 0; i < node.childCount; i++) {
+				int edge = node.childDistances[i];
+				if (edge >= d - maxDistance && edge <= d + maxDistance) {
+					pending.push(node.children[i]);
+				}
+			}
+		}
+
+		best.forEach((slot, d) -> matches.add(new Match(slot, d)));
+		matches.sort((a, b) -> a.distance != b.distance ? Integer.compare(a.distance, b.distance)
+				: Integer.compare(a.slot, b.slot));
+		return matches;
+	}
+
+	/**
+	 * Returns the number of distinct terms in the dictionary.
+	 *
+	 * @return The dictionary size.
+	 */
+	public int termCount() {
+		return terms.size();
+	}
+
+	private Node insert(String term) {
+		Node added = new Node(term);
+		terms.put(term, added);
+		if (root == null) {
+			root = added;
+			return added;
+		}
+		int[][] rows = new int[2][term.length() + 1];
+		Node node = root;
+		while (true) {
+			int d = distance(term, node.term, rows);
+			Node child = node.child(d);
+			if (child == null) {
+				node.addChild(d, added);
+				return added;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Computes the Levenshtein distance between two strings using two reusable
+	 * rows of the dynamic programming table.
+	 *
+	 * @param a    The first string; {@code rows} must be at least its length + 1.
+	 * @param b    The second string.
+	 * @param rows Scratch space of two rows.
+	 * @return The number of single-character insertions, deletions and
+	 *         substitutions needed to turn {@code a} into {@code b}.
+	 */
+	static int distance(String a, String b, int[][] rows) {
+		int[] prev = rows[0];
+		int[] cur = rows[1];
+		int n = a.length();
+		for (int i = 0; i <= n; i++) {
+			prev[i] = i;
+		}
+		for (int j = 1; j <= b.length(); j++) {
+			cur[0] = j;
+			char bc = b.charAt(j - 1);
+			for (int i = 1; i <= n; i++) {
+				int cost = a.charAt(i - 1) == bc ? 0 : 1;
+				cur[i] = Math.min(Math.min(cur[i - 1] + 1, prev[i] + 1), prev[i - 1] + cost);
+			}
+			int[] swap = prev;
+			prev = cur;
+			cur = swap;
+		}
+		return prev[n];
+	}
+
+	/**
+	 * Returns the dictionary terms for a name: the whole name plus each word.
+	 */
+	private static Set<String> termsOf(String name) {
+		Set<String> terms = new LinkedHashSet<>();
+		String full = normalize(name);
+		if (!full.isEmpty()) {
+			terms.add(full);
+			for (String word : full.split(" ")) {
+				terms.add(word);
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Lower-cases a name and collapses runs of whitespace.
+	 */
+	private static String normalize(String name) {
+		return name == null ? "" : name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+	}
+}
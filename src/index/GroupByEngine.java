@@ -0,0 +1,376 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Ad-hoc group-by reports over the inventory: SKU count, units, stock value
+ * and min/avg/max price, grouped by any combination of {@link Dimension}s.
+ *
+ * <p>
+ * The engine keeps its own columnar copy of the inventory, updated through
+ * inventory events: price (in cents) and available count in {@code int}
+ * arrays, and for each dimension a dictionary code per slot. A report never
+ * touches a {@link Toy}. Each row's codes are packed into one {@code long}
+ * group key, which a primitive {@link LongIntHashMap} maps to a row of
+ * primitive accumulator arrays, so no object is created per row.
+ * </p>
+ *
+ * <p>
+ * Large inventories are aggregated in parallel: the slot range is split over
+ * the common ForkJoin pool, each split fills its own partial aggregate, and
+ * the partials are merged pairwise at the end.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class GroupByEngine implements InventoryListener {
+
+	/** Label of the group of toys that do not have a dimension (e.g. size for a figure). */
+	public static final String NONE = "(none)";
+
+	/** Default slot count from which reports are aggregated in parallel. */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+	/**
+	 * The attributes toys can be grouped by.
+	 */
+	public enum Dimension {
+		TYPE(AttributeIndex.Attribute.TYPE::valueOf),
+		BRAND(AttributeIndex.Attribute.BRAND::valueOf),
+		AGE_BAND(toy -> ageBand(toy.getAgeAppropriate())),
+		SIZE(AttributeIndex.Attribute.SIZE::valueOf),
+		PUZZLE_TYPE(AttributeIndex.Attribute.PUZZLE_TYPE::valueOf),
+		CLASSIFICATION(AttributeIndex.Attribute.CLASSIFICATION::valueOf),
+		MATERIAL(AttributeIndex.Attribute.MATERIAL::valueOf);
+
+		private final Function<Toy, String> extractor;
+
+		Dimension(Function<Toy, String> extractor) {
+			this.extractor = extractor;
+		}
+
+		/**
+		 * Reads this dimension from a toy.
+		 *
+		 * @param toy The toy to read.
+		 * @return The group label, or {@link GroupByEngine#NONE} if the toy does
+		 *         not have this attribute.
+		 */
+		public String valueOf(Toy toy) {
+			String value = extractor.apply(toy);
+			return value == null || value.trim().isEmpty() ? NONE : value.trim();
+		}
+	}
+
+	/**
+	 * One row of a report.
+	 */
+	public static final class Group {
+		private final List<String> key;
+		private final long count, units, valueCents, priceSumCents;
+		private final int minPriceCents, maxPriceCents;
+
+		Group(List<String> key, long count, long units, long valueCents, long priceSumCents, int minPriceCents,
+				int maxPriceCents) {
+			this.key = key;
+			this.count = count;
+			this.units = units;
+			this.valueCents = valueCents;
+			this.priceSumCents = priceSumCents;
+			this.minPriceCents = minPriceCents;
+			this.maxPriceCents = maxPriceCents;
+		}
+
+		/** @return the group labels, one per requested dimension. */
+		public List<String> getKey() {
+			return key;
+		}
+
+		/** @return the number of toys (SKUs) in the group. */
+		public long getCount() {
+			return count;
+		}
+
+		/** @return the total available count of the group. */
+		public long getUnits() {
+			return units;
+		}
+
+		/** @return the total stock value (price times available count) in dollars. */
+		public double getValue() {
+			return valueCents / 100.0;
+		}
+
+		/** @return the lowest price in the group. */
+		public double getMinPrice() {
+			return minPriceCents / 100.0;
+		}
+
+		/** @return the average price in the group. */
+		public double getAveragePrice() {
+			return priceSumCents / 100.0 / count;
+		}
+
+		/** @return the highest price in the group. */
+		public double getMaxPrice() {
+			return maxPriceCents / 100.0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: count=%d, units=%d, value=%.2f, price=%.2f/%.2f/%.2f", key, count, units,
+					getValue(), getMinPrice(), getAveragePrice(), getMaxPrice());
+		}
+	}
+
+	private int[] priceCents = new int[64];
+	private int[] count = new int[64];
+	private final int[][] codes = new int[Dimension.values().length][64]; // Dimension -> slot -> code
+	private long[] live = new long[1]; // Bit per slot holding a toy
+	private int slotCount; // One past the highest slot seen
+	private final List<Map<String, Integer>> codeOf = new ArrayList<>(); // Per dimension: label -> code
+	private final List<List<String>> labels = new ArrayList<>(); // Per dimension: code -> label
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	/**
+	 * Creates an empty engine. Register it with
+	 * {@link inventory.Inventory#addListener(InventoryListener)} to populate it.
+	 */
+	public GroupByEngine() {
+		for (int d = 0; d < codes.length; d++) {
+			codeOf.add(new HashMap<>());
+			labels.add(new ArrayList<>());
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		ensureSlot(slot);
+		priceCents[slot] = (int) Math.round(toy.getPrice() * 100);
+		count[slot] = toy.getAvailableCount();
+		for (Dimension dimension : Dimension.values()) {
+			codes[dimension.ordinal()][slot] = encode(dimension, dimension.valueOf(toy));
+		}
+		live[slot >>> 6] |= 1L << slot;
+		slotCount = Math.max(slotCount, slot + 1);
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (slot < slotCount) {
+			live[slot >>> 6] &= ~(1L << slot);
+		}
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (slot < slotCount) {
+			count[slot] = newCount;
+		}
+	}
+
+	/**
+	 * Sets the slot count from which reports are aggregated in parallel.
+	 *
+	 * @param parallelThreshold The new threshold. Must not be negative.
+	 * @throws IllegalArgumentException if the threshold is negative.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 0) {
+			throw new IllegalArgumentException("Parallel threshold must not be negative.");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Groups the inventory by the given dimensions.
+	 *
+	 * @param dimensions The dimensions to group by, in key order. At least one.
+	 * @return One row per non-empty group, sorted by key (case-insensitive).
+	 * @throws IllegalArgumentException if no dimension is given, or the
+	 *                                  dimensions have too many distinct values
+	 *                                  to pack into one key.
+	 */
+	public List<Group> groupBy(Dimension... dimensions) {
+		if (dimensions == null || dimensions.length == 0) {
+			throw new IllegalArgumentException("At least one dimension is required.");
+		}
+		int[][] columns = new int[dimensions.length][];
+		int[] shifts = new int[dimensions.length];
+		int[] widths = new int[dimensions.length];
+		int bits = 0;
+		for (int d = 0; d < dimensions.length; d++) {
+			columns[d] = codes[dimensions[d].ordinal()];
+			shifts[d] = bits;
+			int highestCode = Math.max(0, labels.get(dimensions[d].ordinal()).size() - 1);
+			widths[d] = Math.max(1, 32 - Integer.numberOfLeadingZeros(highestCode));
+			bits += widths[d];
+		}
+		if (bits > 63) {
+			throw new IllegalArgumentException("Too many distinct values to group by these dimensions together.");
+		}
+
+		final int[] price = priceCents, units = count;
+		final long[] liveSlots = live;
+		IntStream slots = IntStream.range(0, slotCount);
+		if (slotCount >= parallelThreshold) {
+			slots = slots.parallel();
+		}
+		Partial total = slots.collect(Partial::new, (partial, slot) -> {
+			if ((liveSlots[slot >>> 6] & (1L << slot)) != 0) {
+				long key = 0;
+				for (int d = 0; d < columns.length; d++) {
+					key |= (long) columns[d][slot] << shifts[d];
+				}
+				partial.add(key, price[slot], units[slot]);
+			}
+		}, Partial::merge);
+		return total.toGroups(dimensions, shifts, widths);
+	}
+
+	/**
+	 * Returns the age band label for a minimum age.
+	 *
+	 * @param age The minimum age of a toy.
+	 * @return One of "0-2", "3-5", "6-8", "9-12" and "13+".
+	 */
+	public static String ageBand(int age) {
+		if (age <= 2) {
+			return "0-2";
+		}
+		if (age <= 5) {
+			return "3-5";
+		}
+		if (age <= 8) {
+			return "6-8";
+		}
+		return age <= 12 ? "9-12" : "13+";
+	}
+
+	/**
+	 * Aggregates of the rows seen by one split of a report, stored as parallel
+	 * primitive arrays indexed by group number.
+	 */
+	private final class Partial {
+		private final LongIntHashMap groupOf = new LongIntHashMap(64); // Packed key -> group number
+		private long[] keys = new long[16];
+		private long[] counts = new long[16];
+		private long[] units = new long[16];
+		private long[] valueCents = new long[16];
+		private long[] priceSumCents = new long[16];
+		private int[] minPriceCents = new int[16];
+		private int[] maxPriceCents = new int[16];
+		private int groups;
+
+		void add(long key, int price, int available) {
+			int group = group(key);
+			counts[group]++;
+			units[group] += available;
+			valueCents[group] += (long) price * available;
+			priceSumCents[group] += price;
+			minPriceCents[group] = Math.min(minPriceCents[group], price);
+			maxPriceCents[group] = Math.max(maxPriceCents[group], price);
+		}
+
+		void merge(Partial other) {
+			for (int g = 0; g < other.groups; g++) {
+				int group = group(other.keys[g]);
+				counts[group] += other.counts[g];
+				units[group] += other.units[g];
+				valueCents[group] += other.valueCents[g];
+				priceSumCents[group] += other.priceSumCents[g];
+				minPriceCents[group] = Math.min(minPriceCents[group], other.minPriceCents[g]);
+				maxPriceCents[group] = Math.max(maxPriceCents[group], other.maxPriceCents[g]);
+			}
+		}
+
+		private int group(long key) {
+			int group = groupOf.get(key);
+			if (group != LongIntHashMap.MISSING) {
+				return group;
+			}
+			if (groups == keys.length) {
+				int capacity = groups * 2;
+				keys = Arrays.copyOf(keys, capacity);
+				counts = Arrays.copyOf(counts, capacity);
+				units = Arrays.copyOf(units, capacity);
+				valueCents = Arrays.copyOf(valueCents, capacity);
+				priceSumCents = Arrays.copyOf(priceSumCents, capacity);
+				minPriceCents = Arrays.copyOf(minPriceCents, capacity);
+				maxPriceCents = Arrays.copyOf(maxPriceCents, capacity);
+			}
+			group = groups++;
+			keys[group] = key;
+			minPriceCents[group] = Integer.MAX_VALUE;
+			maxPriceCents[group] = Integer.MIN_VALUE;
+			groupOf.put(key, group);
+			return group;
+		}
+
+		List<Group> toGroups(Dimension[] dimensions, int[] shifts, int[] widths) {
+			List<Group> result = new ArrayList<>(groups);
+			for (int g = 0; g < groups; g++) {
+				String[] key = new String[dimensions.length];
+				for (int d = 0; d < dimensions.length; d++) {
+					int code = (int) ((keys[g] >>> shifts[d]) & ((1L << widths[d]) - 1));
+					key[d] = labels.get(dimensions[d].ordinal()).get(code);
+				}
+				result.add(new Group(Collections.unmodifiableList(Arrays.asList(key)), counts[g], units[g],
+						valueCents[g], priceSumCents[g], minPriceCents[g], maxPriceCents[g]));
+			}
+			result.sort((a, b) -> {
+				for (int d = 0; d < dimensions.length; d++) {
+					int cmp = String.CASE_INSENSITIVE_ORDER.compare(a.key.get(d), b.key.get(d));
+					if (cmp != 0) {
+						return cmp;
+					}
+				}
+				return 0;
+			});
+			return result;
+		}
+	}
+
+	/**
+	 * Returns the dictionary code of a label, assigning the next code to labels
+	 * not seen before. Labels differing only in case share a code.
+	 */
+	private int encode(Dimension dimension, String label) {
+		Map<String, Integer> dictionary = codeOf.get(dimension.ordinal());
+		String normalized = label.toLowerCase(Locale.ROOT);
+		Integer code = dictionary.get(normalized);
+		if (code == null) {
+			List<String> names = labels.get(dimension.ordinal());
+			code = names.size();
+			names.add(label);
+			dictionary.put(normalized, code);
+		}
+		return code;
+	}
+
+	private void ensureSlot(int slot) {
+		if (slot >= priceCents.length) {
+			int capacity = Math.max(slot + 1, priceCents.length * 2);
+			priceCents = Arrays.copyOf(priceCents, capacity);
+			count = Arrays.copyOf(count, capacity);
+			for (int d = 0; d < codes.length; d++) {
+				codes[d] = Arrays.copyOf(codes[d], capacity);
+			}
+		}
+		if ((slot >>> 6) >= live.length) {
+			live = Arrays.copyOf(live, Math.max((slot >>> 6) + 1, live.length * 2));
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import inventory.InventoryListener;
+import model.BoardGames;
+import model.Toy;
+
+/**
+ * Token-level inverted index over a text attribute of the toys in the
+ * inventory. Each attribute value is split into lower-case alphanumeric tokens,
+ * and every token maps to a posting list of inventory slot numbers stored as a
+ * sorted {@code int[]}.
+ *
+ * <p>
+ * A single-term query is a direct lookup. A multi-term query intersects the
+ * posting lists, shortest first, using galloping (exponential) search so a
+ * short list is matched against a long one in O(m log(n / m)) time.
+ * </p>
+ *
+ * <p>
+ * Because slot numbers only grow, new postings are appended at the end of each
+ * list and the lists stay sorted without any extra work.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class InvertedIndex implements InventoryListener {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final Function<Toy, Collection<String>> source; // Reads the indexed text from a toy
+	private final Map<String, SortedIntList> postings = new HashMap<>(); // Token -> slots
+
+	/**
+	 * Creates an inverted index over the text returned by {@code source}.
+	 *
+	 * @param source Reads the values to index from a toy; may return an empty
+	 *               collection for toys without the attribute.
+	 */
+	public InvertedIndex(Function<Toy, Collection<String>> source) {
+		if (source == null) {
+			throw new IllegalArgumentException("Source must not be null.");
+		}
+		this.source = source;
+	}
+
+	/**
+	 * Creates an inverted index over toy brands.
+	 *
+	 * @return A new brand index.
+	 */
+	public static InvertedIndex byBrand() {
+		return new InvertedIndex(toy -> Collections.singletonList(toy.getBrand()));
+	}
+
+	/**
+	 * Creates an inverted index over board game designers. Other toys are not
+	 * indexed.
+	 *
+	 * @return A new designer index.
+	 */
+	public static InvertedIndex byDesigner() {
+		return new InvertedIndex(
+				toy -> toy instanceof BoardGames ? Arrays.asList(((BoardGames) toy).getDesigners())
+						: Collections.emptyList());
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		for (String token : tokensOf(toy)) {
+			postings.computeIfAbsent(token, k -> new SortedIntList()).add(slot);
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		for (String token : tokensOf(toy)) {
+			SortedIntList list = postings.get(token);
+			if (list != null) {
+				list.remove(slot);
+				if (list.size == 0) {
+					postings.remove(token);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the posting list of a single token.
+	 *
+	 * @param token The token to look up (case-insensitive).
+	 * @return The sorted slots containing the token; empty if none.
+	 */
+	public int[] postings(String token) {
+		SortedIntList list = postings.get(token == null ? null : token.toLowerCase(Locale.ROOT));
+		return list == null ? EMPTY : list.toArray();
+	}
+
+	/**
+	 * Finds the slots whose indexed text contains every token of the query.
+	 *
+	 * @param query The query text; it is tokenized the same way as the indexed
+	 *              values.
+	 * @return The sorted slots matching all query tokens; empty if the query has
+	 *         no tokens or nothing matches.
+	 */
+	public int[] search(String query) {
+		List<String> tokens = tokenize(query);
+		if (tokens.isEmpty()) {
+			return EMPTY;
+		}
+		List<SortedIntList> lists = new ArrayList<>();
+		for (String token : tokens) {
+			SortedIntList list = postings.get(token);
+			if (list == null) {
+				return EMPTY;
+			}
+			lists.add(list);
+		}
+		lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+		int[] result = lists.get(0).toArray();
+		int resultSize = result.length;
+		for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+			resultSize = intersect(result, resultSize, lists.get(i).slots, lists.get(i).size);
+		}
+		return Arrays.copyOf(result, resultSize);
+	}
+
+	/**
+	 * Intersects a short sorted array with a long one in place, using galloping
+	 * search to skip through the long array.
+	 *
+	 * @param shortList The shorter sorted array; overwritten with the result.
+	 * @param shortSize The number of used entries in {@code shortList}.
+	 * @param longList  The longer sorted array.
+	 * @param longSize  The number of used entries in {@code longList}.
+	 * @return The number of entries in the intersection, stored at the start of
+	 *         {@code shortList}.
+	 */
+	static int intersect(int[] shortList, int shortSize, int[] longList, int longSize) {
+		int n = 0;
+		int lo = 0;
+		for (int i = 0; i < shortSize && lo < longSize; i++) {
+			int target = shortList[i];
+			// Gallop: double the step until we pass the target, then binary search
+			int step = 1;
+			int hi = lo;
+			while (hi < longSize && longList[hi] < target) {
+				lo = hi + 1;
+				hi += step;
+				step <<= 1;
+			}
+			int pos = Arrays.binarySearch(longList, lo, Math.min(hi + 1, longSize), target);
+			if (pos >= 0) {
+				shortList[n++] = target;
+				lo = pos + 1;
+			} else {
+				lo = -pos - 1;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the number of distinct tokens in the index.
+	 *
+	 * @return The vocabulary size.
+	 */
+	public int tokenCount() {
+		return postings.size();
+	}
+
+	/**
+	 * Collects the distinct tokens of a toy's indexed values.
+	 */
+	private Set<String> tokensOf(Toy toy) {
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String value : source.apply(toy)) {
+			tokens.addAll(tokenize(value));
+		}
+		return tokens;
+	}
+
+	/**
+	 * Splits text into lower-case alphanumeric tokens.
+	 *
+	 * @param text The text to split; may be null.
+	 * @return The tokens in order of appearance.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+}
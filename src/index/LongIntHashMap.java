@@ -0,0 +1,98 @@
+package index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to non-negative {@code int}
+ * values, with linear probing. Keys and values live in two primitive arrays,
+ * so lookups and inserts never box or allocate per entry.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class LongIntHashMap {
+
+	static final int MISSING = -1; // Returned by get for absent keys
+
+	private long[] keys;
+	private int[] values; // MISSING marks a free bucket
+	private int size;
+	private int mask;
+
+	/**
+	 * Creates a map sized for about {@code expected} entries.
+	 *
+	 * @param expected The expected number of entries.
+	 */
+	LongIntHashMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, MISSING);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the value for a key.
+	 *
+	 * @param key The key to look up.
+	 * @return The value, or {@link #MISSING} if the key is absent.
+	 */
+	int get(long key) {
+		for (int i = bucket(key);; i = (i + 1) & mask) {
+			if (values[i] == MISSING || keys[i] == key) {
+				return values[i];
+			}
+		}
+	}
+
+	/**
+	 * Maps a key to a value.
+	 *
+	 * @param key   The key.
+	 * @param value The value. Must not be negative.
+	 */
+	void put(long key, int value) {
+		int i = bucket(key);
+		while (values[i] != MISSING && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		if (values[i] == MISSING) {
+			size++;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (size * 2 > keys.length) {
+			rehash();
+		}
+	}
+
+	/**
+	 * Returns the number of entries.
+	 *
+	 * @return The map size.
+	 */
+	int size() {
+		return size;
+	}
+
+	private int bucket(long key) {
+		long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential keys
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new int[oldKeys.length * 2];
+		Arrays.fill(values, MISSING);
+		mask = keys.length - 1;
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != MISSING) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Prefix trie over toy names for autocomplete. Each distinct name (compared
+ * case-insensitively) is one completion, scored by the total stock of the toys
+ * carrying that name. {@link #complete(String, int)} returns the K
+ * best-stocked completions of a prefix.
+ *
+ * <p>
+ * Nodes are stored in parallel primitive arrays (first-child / next-sibling
+ * layout) rather than as objects, which keeps the per-node cost to a few dozen
+ * bytes. Every node also records the best completion score in its subtree, so
+ * a top-K query is a best-first walk that never enters a subtree whose best
+ * score cannot make the result: it visits O(K * depth * fan-out) nodes no
+ * matter how many names share the prefix.
+ * </p>
+ *
+ * <p>
+ * The trie registers as an {@link InventoryListener} and is updated
+ * incrementally on add, remove and stock changes; only the path from the
+ * changed name to the root is recomputed.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class NameTrie implements InventoryListener {
+
+	private static final int NONE = -1; // Null node reference / empty score
+
+	// Node storage, indexed by node number; node 0 is the root
+	private char[] label = new char[64]; // Character on the edge into the node
+	private int[] parent = new int[64];
+	private int[] firstChild = new int[64];
+	private int[] nextSibling = new int[64];
+	private int[] ownScore = new int[64]; // Total stock of toys with this exact name, or NONE
+	private int[] toyCount = new int[64]; // Number of toys with this exact name
+	private int[] bestScore = new int[64]; // Best ownScore in the subtree, or NONE
+	private String[] display = new String[64]; // Name as first added, for terminal nodes
+	private int nodeCount;
+
+	private int[] slotScore = new int[64]; // Score each slot contributes, or NONE if not indexed
+
+	/**
+	 * Creates an empty trie holding only the root node.
+	 */
+	public NameTrie() {
+		Arrays.fill(slotScore, NONE);
+		newNode(NONE, '\0');
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		String name = toy.getName() == null ? "" : toy.getName().trim();
+		int node = insertPath(normalize(name));
+		if (display[node] == null) {
+			display[node] = name;
+		}
+		int score = Math.max(0, toy.getAvailableCount());
+		ensureSlot(slot);
+		slotScore[slot] = score;
+		ownScore[node] = ownScore[node] == NONE ? score : ownScore[node] + score;
+		toyCount[node]++;
+		propagate(node);
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (slot >= slotScore.length || slotScore[slot] == NONE) {
+			return;
+		}
+		int node = find(normalize(toy.getName()));
+		if (node != NONE && toyCount[node] > 0) {
+			toyCount[node]--;
+			ownScore[node] = toyCount[node] == 0 ? NONE : ownScore[node] - slotScore[slot];
+			if (toyCount[node] == 0) {
+				display[node] = null;
+			}
+			propagate(node);
+		}
+		slotScore[slot] = NONE;
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (slot >= slotScore.length || slotScore[slot] == NONE) {
+			return;
+		}
+		int node = find(normalize(toy.getName()));
+		if (node != NONE) {
+			int score = Math.max(0, newCount);
+			ownScore[node] += score - slotScore[slot];
+			slotScore[slot] = score;
+			propagate(node);
+		}
+	}
+
+	/**
+	 * Returns up to {@code k} names starting with {@code prefix}
+	 * (case-insensitive), best-stocked first.
+	 *
+	 * @param prefix The typed prefix.
+	 * @param k      The maximum number of completions to return.
+	 * @return The completions, in the casing they were first added with.
+	 */
+	public List<String> complete(String prefix, int k) {
+		List<String> results = new ArrayList<>();
+		int start = find(normalize(prefix));
+		if (start == NONE || k <= 0 || bestScore[start] == NONE) {
+			return results;
+		}
+
+		// Entries are nodes to expand (terminal = false) or finished names
+		// (terminal = true), ordered by the best score they can still deliver
+		PriorityQueue<long[]> queue = new PriorityQueue<>(
+				(a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(b[2], a[2]));
+		queue.add(new long[] { bestScore[start], start, 0 });
+		while (!queue.isEmpty() && results.size() < k) {
+			long[] entry = queue.poll();
+			int node = (int) entry[1];
+			if (entry[2] == 1) {
+				results.add(display[node]);
+				continue;
+			}
+			if (ownScore[node] != NONE) {
+				queue.add(new long[] { ownScore[node], node, 1 });
+			}
+			for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+				if (bestScore[child] != NONE) {
+					queue.add(new long[] { bestScore[child], child, 0 });
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the number of trie nodes allocated, including the root.
+	 *
+	 * @return The node count.
+	 */
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Recomputes {@code bestScore} from a node up to the root, stopping early once
+	 * an ancestor's value does not change.
+	 */
+	private void propagate(int node) {
+		while (node != NONE) {
+			int best = ownScore[node];
+			for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+				best = Math.max(best, bestScore[child]);
+			}
+			if (best == bestScore[node]) {
+				return;
+			}
+			bestScore[node] = best;
+			node = parent[node];
+		}
+	}
+
+	private int find(String key) {
+		int node = 0;
+		for (int i = 0; i < key.length() && node != NONE; i++) {
+			node = child(node, key.charAt(i));
+		}
+		return node;
+	}
+
+	private int insertPath(String key) {
+		int node = 0;
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			int next = child(node, c);
+			if (next == NONE) {
+				next = newNode(node, c);
+				nextSibling[next] = firstChild[node];
+				firstChild[node] = next;
+			}
+			node = next;
+		}
+		return node;
+	}
+
+	private int child(int node, char c) {
+		for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			if (label[child] == c) {
+				return child;
+			}
+		}
+		return NONE;
+	}
+
+	private int newNode(int parentNode, char c) {
+		if (nodeCount == label.length) {
+			int capacity = nodeCount * 2;
+			label = Arrays.copyOf(label, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+			ownScore = Arrays.copyOf(ownScore, capacity);
+			toyCount = Arrays.copyOf(toyCount, capacity);
+			bestScore = Arrays.copyOf(bestScore, capacity);
+			display = Arrays.copyOf(display, capacity);
+		}
+		int node = nodeCount++;
+		label[node] = c;
+		parent[node] = parentNode;
+		firstChild[node] = NONE;
+		nextSibling[node] = NONE;
+		ownScore[node] = NONE;
+		bestScore[node] = NONE;
+		return node;
+	}
+
+	private void ensureSlot(int slot) {
+		if (slot >= slotScore.length) {
+			int old = slotScore.length;
+			slotScore = Arrays.copyOf(slotScore, Math.max(slot + 1, old * 2));
+			Arrays.fill(slotScore, old, slotScore.length, NONE);
+		}
+	}
+
+	private static String normalize(String name) {
+		return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,282 @@
+package index;
+
+import java.util.Arrays;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Columnar copy of the numeric toy attributes (price, available count and
+ * minimum age) for fast range filters such as "price at most $20, age 5 and
+ * up, in stock".
+ *
+ * <p>
+ * Each attribute is kept in a primitive {@code int[]} indexed by slot, with
+ * prices stored in cents. {@link #filter(Filter)} evaluates all range
+ * conditions over these arrays and returns the matching slots as a
+ * {@link CompressedBitmap}, which can be combined with the other indexes.
+ * </p>
+ *
+ * <p>
+ * Two kernels are available. The default {@link Kernel#LANES} kernel works on
+ * blocks of rows with branch-free integer arithmetic: each row's conditions
+ * are folded into a sign bit with subtractions and ORs, so the inner loop has
+ * no branches or data-dependent jumps and is simple enough for the JIT to
+ * compile to SIMD instructions. The {@link Kernel#SCALAR} kernel tests one row
+ * at a time with short-circuit comparisons and is kept as the fallback for
+ * platforms where the lane kernel is not vectorized.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class NumericColumns implements InventoryListener {
+
+	/**
+	 * Filter evaluation strategies.
+	 */
+	public enum Kernel {
+		/** Branch-free block kernel, suited to SIMD compilation. */
+		LANES,
+		/** Row-at-a-time kernel with short-circuit comparisons. */
+		SCALAR
+	}
+
+	// Column values and filter bounds are clamped to +/-LIMIT so that the
+	// difference of any value and bound fits in an int
+	private static final int LIMIT = (1 << 30) - 1;
+	private static final int BLOCK = 1024; // Rows per lane kernel block; a multiple of 64
+
+	private int[] priceCents = new int[64];
+	private int[] count = new int[64];
+	private int[] age = new int[64];
+	private long[] live = new long[1]; // Bit per slot holding a toy
+	private int slotCount; // One past the highest slot seen
+	private Kernel kernel = Kernel.LANES;
+
+	/**
+	 * A conjunction of inclusive range conditions over price, available count
+	 * and age. Conditions that are not set match every value.
+	 */
+	public static final class Filter {
+		private int minPrice = -LIMIT, maxPrice = LIMIT;
+		private int minCount = -LIMIT, maxCount = LIMIT;
+		private int minAge = -LIMIT, maxAge = LIMIT;
+
+		/**
+		 * Requires a price of at least {@code price}.
+		 *
+		 * @param price The lowest accepted price.
+		 * @return This filter.
+		 */
+		public Filter priceAtLeast(double price) {
+			minPrice = toCents(price);
+			return this;
+		}
+
+		/**
+		 * Requires a price of at most {@code price}.
+		 *
+		 * @param price The highest accepted price.
+		 * @return This filter.
+		 */
+		public Filter priceAtMost(double price) {
+			maxPrice = toCents(price);
+			return this;
+		}
+
+		/**
+		 * Requires at least {@code count} units in stock.
+		 *
+		 * @param count The lowest accepted available count.
+		 * @return This filter.
+		 */
+		public Filter countAtLeast(int count) {
+			minCount = clamp(count);
+			return this;
+		}
+
+		/**
+		 * Requires at most {@code count} units in stock.
+		 *
+		 * @param count The highest accepted available count.
+		 * @return This filter.
+		 */
+		public Filter countAtMost(int count) {
+			maxCount = clamp(count);
+			return this;
+		}
+
+		/**
+		 * Requires at least one unit in stock.
+		 *
+		 * @return This filter.
+		 */
+		public Filter inStock() {
+			return countAtLeast(1);
+		}
+
+		/**
+		 * Requires a minimum age of at least {@code age}.
+		 *
+		 * @param age The lowest accepted minimum age.
+		 * @return This filter.
+		 */
+		public Filter ageAtLeast(int age) {
+			minAge = clamp(age);
+			return this;
+		}
+
+		/**
+		 * Requires a minimum age of at most {@code age}, i.e. toys suitable for a
+		 * child of that age.
+		 *
+		 * @param age The highest accepted minimum age.
+		 * @return This filter.
+		 */
+		public Filter ageAtMost(int age) {
+			maxAge = clamp(age);
+			return this;
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		ensureSlot(slot);
+		priceCents[slot] = toCents(toy.getPrice());
+		count[slot] = clamp(toy.getAvailableCount());
+		age[slot] = clamp(toy.getAgeAppropriate());
+		live[slot >>> 6] |= 1L << slot;
+		slotCount = Math.max(slotCount, slot + 1);
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (slot < slotCount) {
+			live[slot >>> 6] &= ~(1L << slot);
+		}
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (slot < slotCount) {
+			count[slot] = clamp(newCount);
+		}
+	}
+
+	/**
+	 * Returns the kernel used by {@link #filter(Filter)}.
+	 *
+	 * @return The current kernel.
+	 */
+	public Kernel getKernel() {
+		return kernel;
+	}
+
+	/**
+	 * Chooses the kernel used by {@link #filter(Filter)}. Both kernels return the
+	 * same results.
+	 *
+	 * @param kernel The kernel to use. Must not be null.
+	 * @throws IllegalArgumentException if the kernel is null.
+	 */
+	public void setKernel(Kernel kernel) {
+		if (kernel == null) {
+			throw new IllegalArgumentException("Kernel must not be null.");
+		}
+		this.kernel = kernel;
+	}
+
+	/**
+	 * Finds the toys matching every condition of a filter.
+	 *
+	 * @param filter The range conditions.
+	 * @return A new bitmap of the matching slots.
+	 */
+	public CompressedBitmap filter(Filter filter) {
+		return CompressedBitmap.fromWords(matchWords(filter));
+	}
+
+	/**
+	 * Evaluates a filter into plain bitmap words, one bit per slot.
+	 *
+	 * @param filter The range conditions.
+	 * @return The match words; bit {@code b} of word {@code w} is slot
+	 *         {@code w * 64 + b}.
+	 */
+	long[] matchWords(Filter filter) {
+		long[] words = new long[(slotCount + 63) >>> 6];
+		if (kernel == Kernel.LANES) {
+			lanes(filter, words);
+		} else {
+			scalar(filter, words);
+		}
+		return words;
+	}
+
+	/**
+	 * Branch-free kernel. For each row, {@code (x - min) | (max - x)} is negative
+	 * exactly when x is out of range, so ORing those terms for all columns and
+	 * taking the sign bit gives 1 for rejected rows. The lanes of a block are
+	 * then packed into bitmap words and masked with the live slots.
+	 */
+	private void lanes(Filter filter, long[] words) {
+		final int minPrice = filter.minPrice, maxPrice = filter.maxPrice;
+		final int minCount = filter.minCount, maxCount = filter.maxCount;
+		final int minAge = filter.minAge, maxAge = filter.maxAge;
+		final int[] priceCents = this.priceCents, count = this.count, age = this.age;
+		int[] rejected = new int[BLOCK];
+
+		for (int start = 0; start < slotCount; start += BLOCK) {
+			int length = Math.min(BLOCK, slotCount - start);
+			for (int i = 0; i < length; i++) {
+				int p = priceCents[start + i], c = count[start + i], a = age[start + i];
+				rejected[i] = ((p - minPrice) | (maxPrice - p) | (c - minCount) | (maxCount - c) | (a - minAge)
+						| (maxAge - a)) >>> 31;
+			}
+			for (int base = 0; base < length; base += 64) {
+				int end = Math.min(64, length - base);
+				long bits = 0;
+				for (int b = 0; b < end; b++) {
+					bits |= (long) (rejected[base + b] ^ 1) << b;
+				}
+				int word = (start + base) >>> 6;
+				words[word] = bits & live[word];
+			}
+		}
+	}
+
+	/**
+	 * Row-at-a-time kernel that stops testing a row at its first failed
+	 * condition.
+	 */
+	private void scalar(Filter filter, long[] words) {
+		for (int slot = 0; slot < slotCount; slot++) {
+			if ((live[slot >>> 6] & (1L << slot)) != 0 && priceCents[slot] >= filter.minPrice
+					&& priceCents[slot] <= filter.maxPrice && count[slot] >= filter.minCount
+					&& count[slot] <= filter.maxCount && age[slot] >= filter.minAge && age[slot] <= filter.maxAge) {
+				words[slot >>> 6] |= 1L << slot;
+			}
+		}
+	}
+
+	private void ensureSlot(int slot) {
+		if (slot >= priceCents.length) {
+			int capacity = Math.max(slot + 1, priceCents.length * 2);
+			priceCents = Arrays.copyOf(priceCents, capacity);
+			count = Arrays.copyOf(count, capacity);
+			age = Arrays.copyOf(age, capacity);
+		}
+		if ((slot >>> 6) >= live.length) {
+			live = Arrays.copyOf(live, Math.max((slot >>> 6) + 1, live.length * 2));
+		}
+	}
+
+	private static int toCents(double price) {
+		return (int) Math.max(-LIMIT, Math.min(LIMIT, Math.round(price * 100)));
+	}
+
+	private static int clamp(int value) {
+		return Math.max(-LIMIT, Math.min(LIMIT, value));
+	}
+}
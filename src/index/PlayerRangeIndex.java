@@ -0,0 +1,242 @@
+package index;
+
+import java.util.Random;
+
+import inventory.InventoryListener;
+import model.BoardGames;
+import model.Toy;
+
+/**
+ * Interval tree over the player ranges of the board games in the inventory.
+ * Each board game contributes the closed interval
+ * {@code [minPlayers, maxPlayers]}, and the index answers "supports N players"
+ * (stabbing) and "overlaps [a, b]" queries without scanning every game.
+ *
+ * <p>
+ * The tree is a treap ordered by interval start (ties broken by slot number)
+ * where every node also stores the largest interval end in its subtree. A
+ * query only descends into subtrees whose largest end can still reach the
+ * query, and stops going right once interval starts pass the query, so it
+ * costs O(log n + k) on average for k matches.
+ * </p>
+ *
+ * <p>
+ * The index registers as an {@link InventoryListener}; toys other than board
+ * games are ignored.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class PlayerRangeIndex implements InventoryListener {
+
+	private final Random random = new Random(27); // Treap priorities; fixed seed keeps shapes reproducible
+	private Node root; // Root of the treap
+	private int size; // Number of intervals stored
+
+	/**
+	 * A tree node holding one board game's player range.
+	 */
+	private static final class Node {
+		final int low; // Minimum players
+		final int high; // Maximum players
+		final int slot; // Inventory slot of the board game
+		final int priority; // Heap priority for balancing
+		int maxHigh; // Largest high in this subtree
+		Node left, right;
+
+		Node(int low, int high, int slot, int priority) {
+			this.low = low;
+			this.high = high;
+			this.slot = slot;
+			this.priority = priority;
+			this.maxHigh = high;
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		if (toy instanceof BoardGames) {
+			BoardGames game = (BoardGames) toy;
+			insert(game.getMinPlayers(), game.getMaxPlayers(), slot);
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (toy instanceof BoardGames) {
+			BoardGames game = (BoardGames) toy;
+			delete(game.getMinPlayers(), slot);
+		}
+	}
+
+	/**
+	 * Adds a player range to the index.
+	 *
+	 * @param minPlayers The minimum number of players.
+	 * @param maxPlayers The maximum number of players.
+	 * @param slot       The inventory slot of the board game.
+	 * @throws IllegalArgumentException if {@code minPlayers > maxPlayers}.
+	 */
+	public void insert(int minPlayers, int maxPlayers, int slot) {
+		if (minPlayers > maxPlayers) {
+			throw new IllegalArgumentException("Minimum players cannot exceed maximum players.");
+		}
+		root = insert(root, new Node(minPlayers, maxPlayers, slot, random.nextInt()));
+		size++;
+	}
+
+	/**
+	 * Removes a player range from the index.
+	 *
+	 * @param minPlayers The minimum number of players the range was added with.
+	 * @param slot       The inventory slot of the board game.
+	 * @return {@code true} if the range was found and removed.
+	 */
+	public boolean delete(int minPlayers, int slot) {
+		int before = size;
+		root = delete(root, minPlayers, slot);
+		return size < before;
+	}
+
+	/**
+	 * Finds every board game that can be played by exactly {@code players}
+	 * players, i.e. whose range contains {@code players}.
+	 *
+	 * @param players The number of players.
+	 * @return A bitmap of the matching inventory slots.
+	 */
+	public CompressedBitmap supporting(int players) {
+		return overlapping(players, players);
+	}
+
+	/**
+	 * Finds every board game whose player range overlaps {@code [from, to]}.
+	 *
+	 * @param from The smallest player count of interest.
+	 * @param to   The largest player count of interest.
+	 * @return A bitmap of the matching inventory slots.
+	 * @throws IllegalArgumentException if {@code from > to}.
+	 */
+	public CompressedBitmap overlapping(int from, int to) {
+		if (from > to) {
+			throw new IllegalArgumentException("Range start cannot exceed range end.");
+		}
+		CompressedBitmap result = new CompressedBitmap();
+		collect(root, from, to, result);
+		return result;
+	}
+
+	/**
+	 * Returns the number of player ranges in the index.
+	 *
+	 * @return The number of indexed board games.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void collect(Node node, int from, int to, CompressedBitmap result) {
+		if (node == null || node.maxHigh < from) {
+			return;
+		}
+		collect(node.left, from, to, result);
+		if (node.low > to) {
+			return; // This node and everything to its right start too late
+		}
+		if (node.high >= from) {
+			result.add(node.slot);
+		}
+		collect(node.right, from, to, result);
+	}
+
+	private static int compare(int low, int slot, Node node) {
+		return low != node.low ? Integer.compare(low, node.low) : Integer.compare(slot, node.slot);
+	}
+
+	private Node insert(Node node, Node added) {
+		if (node == null) {
+			return added;
+		}
+		if (compare(added.low, added.slot, node) < 0) {
+			node.left = insert(node.left, added);
+			if (node.left.priority > node.priority) {
+				node = rotateRight(node);
+			}
+		} else {
+			node.right = insert(node.right, added);
+			if (node.right.priority > node.priority) {
+				node = rotateLeft(node);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private Node delete(Node node, int low, int slot) {
+		if (node == null) {
+			return null;
+		}
+		int cmp = compare(low, slot, node);
+		if (cmp < 0) {
+			node.left = delete(node.left, low, slot);
+		} else if (cmp > 0) {
+			node.right = delete(node.right, low, slot);
+		} else {
+			size--;
+			return merge(node.left, node.right);
+		}
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Joins two treaps where every key in {@code a} is smaller than every key in
+	 * {@code b}.
+	 */
+	private Node merge(Node a, Node b) {
+		if (a == null) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		if (a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			update(a);
+			return a;
+		}
+		b.left = merge(a, b.left);
+		update(b);
+		return b;
+	}
+
+	private Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		update(node);
+		update(left);
+		return left;
+	}
+
+	private Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		update(node);
+		update(right);
+		return right;
+	}
+
+	private static void update(Node node) {
+		int max = node.high;
+		if (node.left != null && node.left.maxHigh > max) {
+			max = node.left.maxHigh;
+		}
+		if (node.right != null && node.right.maxHigh > max) {
+			max = node.right.maxHigh;
+		}
+		node.maxHigh = max;
+	}
+}
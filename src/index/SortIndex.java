@@ -0,0 +1,437 @@
+package index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Keeps the inventory pre-sorted by price, stock, age and name, so a search
+ * result can be put in order without sorting it.
+ *
+ * <p>
+ * For every {@link Key} the index maintains a permutation: an {@code int[]} of
+ * all slot numbers ordered by that key, with ties broken by slot number (i.e.
+ * insertion order). {@link #sort(int[], Key, boolean)} orders a result by
+ * marking its slots and walking the permutation once, which is linear in the
+ * inventory size and involves no comparisons. Results much smaller than the
+ * inventory are instead sorted directly, which is cheaper for them.
+ * </p>
+ *
+ * <p>
+ * Sort keys are copied into primitive arrays indexed by slot. New toys are
+ * appended to a per-key pending buffer that is sorted and merged into the
+ * permutation on the next query, so loading the inventory costs one sort per
+ * key rather than one insertion each. Removed toys are dropped during the same
+ * merge. A stock change moves the toy within the stock permutation only.
+ * </p>
+ *
+ * <p>
+ * Top-K queries such as "the 10 cheapest animals" are answered without
+ * sorting the candidates: {@link #topK(int[], Key, boolean, int)} walks the
+ * permutation from the wanted end and stops after K matches, or, for small
+ * candidate sets, streams them through a bounded heap of K slots in
+ * O(n log K) time.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class SortIndex implements InventoryListener {
+
+	/**
+	 * The attributes results can be sorted by.
+	 */
+	public enum Key {
+		PRICE, STOCK, AGE, NAME
+	}
+
+	// Results smaller than 1/DIRECT_SORT_RATIO of the inventory are sorted directly
+	private static final int DIRECT_SORT_RATIO = 8;
+
+	// Sort key values, indexed by slot
+	private double[] price = new double[64];
+	private int[] stock = new int[64];
+	private int[] age = new int[64];
+	private String[] name = new String[64]; // Lower-cased
+	private boolean[] live = new boolean[64]; // Whether the slot holds an indexed toy
+
+	private final Permutation[] permutations = new Permutation[Key.values().length];
+
+	/**
+	 * Slots ordered by one key, plus slots added since the last merge.
+	 */
+	private static final class Permutation {
+		int[] order = new int[16];
+		int size;
+		int[] pending = new int[16];
+		int pendingSize;
+		int dead; // Removed slots still present in order or pending
+	}
+
+	/**
+	 * Creates an empty index.
+	 */
+	public SortIndex() {
+		for (int i = 0; i < permutations.length; i++) {
+			permutations[i] = new Permutation();
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		ensureSlot(slot);
+		price[slot] = toy.getPrice();
+		stock[slot] = toy.getAvailableCount();
+		age[slot] = toy.getAgeAppropriate();
+		name[slot] = toy.getName() == null ? "" : toy.getName().trim().toLowerCase(Locale.ROOT);
+		live[slot] = true;
+		for (Permutation permutation : permutations) {
+			addPending(permutation, slot);
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (slot >= live.length || !live[slot]) {
+			return;
+		}
+		live[slot] = false;
+		for (Permutation permutation : permutations) {
+			permutation.dead++;
+		}
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (slot >= live.length || !live[slot]) {
+			return;
+		}
+		// Locate the slot while its stored key still matches its position
+		Permutation permutation = permutations[Key.STOCK.ordinal()];
+		int position = find(permutation, Key.STOCK, slot);
+		if (position >= 0) {
+			System.arraycopy(permutation.order, position + 1, permutation.order, position,
+					permutation.size - position - 1);
+			permutation.size--;
+		} else {
+			removePending(permutation, slot);
+		}
+		stock[slot] = newCount;
+		addPending(permutation, slot);
+	}
+
+	/**
+	 * Orders a set of slots by a key.
+	 *
+	 * @param slots     The slots to order, e.g. a search result. Each slot should
+	 *                  appear once.
+	 * @param key       The key to order by.
+	 * @param ascending Whether to order from lowest to highest.
+	 * @return A new array holding the indexed slots among {@code slots}, in key
+	 *         order. Ties are kept in slot order when ascending and reversed when
+	 *         descending.
+	 */
+	public int[] sort(int[] slots, Key key, boolean ascending) {
+		Permutation permutation = merged(key);
+		int[] sorted;
+		if ((long) slots.length * DIRECT_SORT_RATIO < permutation.size) {
+			sorted = new int[slots.length];
+			int count = 0;
+			for (int slot : slots) {
+				if (slot >= 0 && slot < live.length && live[slot]) {
+					sorted[count++] = slot;
+				}
+			}
+			sorted = Arrays.copyOf(sorted, count);
+			mergeSort(sorted, new int[count], 0, count, key);
+		} else {
+			BitSet marked = new BitSet(live.length);
+			for (int slot : slots) {
+				if (slot >= 0) {
+					marked.set(slot);
+				}
+			}
+			sorted = new int[slots.length];
+			int count = 0;
+			for (int i = 0; i < permutation.size; i++) {
+				if (marked.get(permutation.order[i])) {
+					sorted[count++] = permutation.order[i];
+				}
+			}
+			sorted = Arrays.copyOf(sorted, count);
+		}
+		if (!ascending) {
+			for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+				int tmp = sorted[i];
+				sorted[i] = sorted[j];
+				sorted[j] = tmp;
+			}
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns the first {@code k} slots of the whole inventory in key order,
+	 * e.g. the most expensive toys.
+	 *
+	 * @param key       The key to order by.
+	 * @param ascending Whether to start from the lowest value.
+	 * @param k         The maximum number of slots to return.
+	 * @return A new array of at most {@code k} slots, in key order.
+	 * @throws IllegalArgumentException if {@code k} is negative.
+	 */
+	public int[] topK(Key key, boolean ascending, int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("K must not be negative.");
+		}
+		Permutation permutation = merged(key);
+		int[] top = new int[Math.min(k, permutation.size)];
+		for (int i = 0; i < top.length; i++) {
+			top[i] = permutation.order[ascending ? i : permutation.size - 1 - i];
+		}
+		return top;
+	}
+
+	/**
+	 * Returns the first {@code k} of a set of slots in key order, e.g. the 20
+	 * lowest-stock toys of a search result. The result equals the first
+	 * {@code k} slots of {@link #sort(int[], Key, boolean)}.
+	 *
+	 * @param slots     The candidate slots, e.g. an index lookup. Each slot
+	 *                  should appear once.
+	 * @param key       The key to order by.
+	 * @param ascending Whether to start from the lowest value.
+	 * @param k         The maximum number of slots to return.
+	 * @return A new array of at most {@code k} indexed slots, in key order.
+	 * @throws IllegalArgumentException if {@code k} is negative.
+	 */
+	public int[] topK(int[] slots, Key key, boolean ascending, int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("K must not be negative.");
+		}
+		Permutation permutation = merged(key);
+		if ((long) slots.length * DIRECT_SORT_RATIO < permutation.size) {
+			return heapTopK(slots, key, ascending, k);
+		}
+		BitSet marked = new BitSet(live.length);
+		for (int slot : slots) {
+			if (slot >= 0) {
+				marked.set(slot);
+			}
+		}
+		int[] top = new int[Math.min(k, slots.length)];
+		int count = 0;
+		for (int i = 0; i < permutation.size && count < top.length; i++) {
+			int slot = permutation.order[ascending ? i : permutation.size - 1 - i];
+			if (marked.get(slot)) {
+				top[count++] = slot;
+			}
+		}
+		return count == top.length ? top : Arrays.copyOf(top, count);
+	}
+
+	/**
+	 * Returns every indexed slot ordered by a key, ascending.
+	 *
+	 * @param key The key to order by.
+	 * @return A copy of the permutation for the key.
+	 */
+	public int[] order(Key key) {
+		Permutation permutation = merged(key);
+		return Arrays.copyOf(permutation.order, permutation.size);
+	}
+
+	/**
+	 * Returns the permutation for a key after merging pending slots into it and
+	 * dropping removed ones.
+	 */
+	private Permutation merged(Key key) {
+		Permutation permutation = permutations[key.ordinal()];
+		if (permutation.pendingSize == 0 && permutation.dead == 0) {
+			return permutation;
+		}
+		int[] pending = permutation.pending;
+		int pendingSize = permutation.pendingSize;
+		mergeSort(pending, new int[pendingSize], 0, pendingSize, key);
+
+		int[] merged = new int[Math.max(16, permutation.size + pendingSize)];
+		int count = 0, i = 0, j = 0;
+		while (i < permutation.size || j < pendingSize) {
+			int slot;
+			if (j == pendingSize || (i < permutation.size && compare(key, permutation.order[i], pending[j]) <= 0)) {
+				slot = permutation.order[i++];
+			} else {
+				slot = pending[j++];
+			}
+			if (live[slot]) {
+				merged[count++] = slot;
+			}
+		}
+		permutation.order = merged;
+		permutation.size = count;
+		permutation.pendingSize = 0;
+		permutation.dead = 0;
+		return permutation;
+	}
+
+	/**
+	 * Binary searches the merged part of a permutation for a slot.
+	 *
+	 * @return The position of the slot, or -1 if it is not in the merged part.
+	 */
+	private int find(Permutation permutation, Key key, int slot) {
+		int low = 0, high = permutation.size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(key, permutation.order[mid], slot);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Selects the top {@code k} slots with a bounded heap whose root is the
+	 * worst slot kept so far. A candidate replaces the root only if it ranks
+	 * ahead of it, so the heap never holds more than {@code k} slots.
+	 */
+	private int[] heapTopK(int[] slots, Key key, boolean ascending, int k) {
+		int sign = ascending ? 1 : -1;
+		int[] heap = new int[Math.min(k, slots.length)];
+		int size = 0;
+		for (int slot : slots) {
+			if (slot < 0 || slot >= live.length || !live[slot]) {
+				continue;
+			}
+			if (size < heap.length) {
+				heap[size] = slot;
+				siftUp(heap, size++, key, sign);
+			} else if (size > 0 && sign * compare(key, slot, heap[0]) < 0) {
+				heap[0] = slot;
+				siftDown(heap, size, key, sign);
+			}
+		}
+		// Pop the worst slot to the back until the heap is empty
+		int[] top = new int[size];
+		for (int i = size - 1; i >= 0; i--) {
+			top[i] = heap[0];
+			heap[0] = heap[i];
+			siftDown(heap, i, key, sign);
+		}
+		return top;
+	}
+
+	private void siftUp(int[] heap, int index, Key key, int sign) {
+		int slot = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (sign * compare(key, heap[parent], slot) >= 0) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = slot;
+	}
+
+	private void siftDown(int[] heap, int size, Key key, int sign) {
+		if (size == 0) {
+			return;
+		}
+		int slot = heap[0];
+		int index = 0;
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && sign * compare(key, heap[child + 1], heap[child]) > 0) {
+				child++;
+			}
+			if (sign * compare(key, heap[child], slot) <= 0) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = slot;
+	}
+
+	private int compare(Key key, int a, int b) {
+		int cmp;
+		switch (key) {
+		case PRICE:
+			cmp = Double.compare(price[a], price[b]);
+			break;
+		case STOCK:
+			cmp = Integer.compare(stock[a], stock[b]);
+			break;
+		case AGE:
+			cmp = Integer.compare(age[a], age[b]);
+			break;
+		default:
+			cmp = name[a].compareTo(name[b]);
+			break;
+		}
+		return cmp != 0 ? cmp : Integer.compare(a, b);
+	}
+
+	/**
+	 * Sorts {@code slots[from, to)} by a key, using {@code buffer} as scratch
+	 * space.
+	 */
+	private void mergeSort(int[] slots, int[] buffer, int from, int to, Key key) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(slots, buffer, from, mid, key);
+		mergeSort(slots, buffer, mid, to, key);
+		if (compare(key, slots[mid - 1], slots[mid]) <= 0) {
+			return; // Already in order
+		}
+		System.arraycopy(slots, from, buffer, from, to - from);
+		for (int i = from, j = mid, k = from; k < to; k++) {
+			if (j == to || (i < mid && compare(key, buffer[i], buffer[j]) <= 0)) {
+				slots[k] = buffer[i++];
+			} else {
+				slots[k] = buffer[j++];
+			}
+		}
+	}
+
+	private static void addPending(Permutation permutation, int slot) {
+		if (permutation.pendingSize == permutation.pending.length) {
+			permutation.pending = Arrays.copyOf(permutation.pending, permutation.pendingSize * 2);
+		}
+		permutation.pending[permutation.pendingSize++] = slot;
+	}
+
+	private static void removePending(Permutation permutation, int slot) {
+		for (int i = 0; i < permutation.pendingSize; i++) {
+			if (permutation.pending[i] == slot) {
+				permutation.pending[i] = permutation.pending[--permutation.pendingSize];
+				return;
+			}
+		}
+	}
+
+	private void ensureSlot(int slot) {
+		if (slot >= live.length) {
+			int capacity = Math.max(slot + 1, live.length * 2);
+			price = Arrays.copyOf(price, capacity);
+			stock = Arrays.copyOf(stock, capacity);
+			age = Arrays.copyOf(age, capacity);
+			name = Arrays.copyOf(name, capacity);
+			live = Arrays.copyOf(live, capacity);
+		}
+	}
+}
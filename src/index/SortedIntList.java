@@ -0,0 +1,65 @@
+package index;
+
+import java.util.Arrays;
+
+/**
+ * A growable sorted array of distinct slot numbers, used as a compact posting
+ * list by the text indexes. Appending a slot larger than every stored slot is
+ * O(1) amortized, which is the common case since inventory slots only grow.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class SortedIntList {
+
+	int[] slots = new int[4]; // Sorted slot numbers; only the first size entries are used
+	int size; // Number of slots stored
+
+	/**
+	 * Adds a slot, keeping the list sorted. Does nothing if already present.
+	 *
+	 * @param slot The slot to add.
+	 */
+	void add(int slot) {
+		if (size > 0 && slots[size - 1] >= slot) {
+			int pos = Arrays.binarySearch(slots, 0, size, slot);
+			if (pos >= 0) {
+				return;
+			}
+			insertAt(-pos - 1, slot);
+			return;
+		}
+		insertAt(size, slot);
+	}
+
+	/**
+	 * Removes a slot if present.
+	 *
+	 * @param slot The slot to remove.
+	 */
+	void remove(int slot) {
+		int pos = Arrays.binarySearch(slots, 0, size, slot);
+		if (pos >= 0) {
+			System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+			size--;
+		}
+	}
+
+	/**
+	 * Returns a copy of the stored slots.
+	 *
+	 * @return A new sorted array of the slots.
+	 */
+	int[] toArray() {
+		return Arrays.copyOf(slots, size);
+	}
+
+	private void insertAt(int pos, int slot) {
+		if (size == slots.length) {
+			slots = Arrays.copyOf(slots, size * 2);
+		}
+		System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+		slots[pos] = slot;
+		size++;
+	}
+}
@@ -0,0 +1,328 @@
+package inventory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import model.Toy;
+
+/**
+ * Holds the toy inventory and notifies registered {@link InventoryListener}s of
+ * every change. All mutations (add, remove, stock change) should go through
+ * this class so that indexes built on top of it stay consistent.
+ *
+ * <p>
+ * Toys are kept in insertion order for display, and each toy is also assigned a
+ * dense slot number. Slot numbers are handed out in increasing order and are
+ * not reused, so iterating slots yields toys in insertion order as well.
+ * </p>
+ *
+ * <p>
+ * The slots and their stock counts are kept in chunked copy-on-write arrays, so
+ * {@link #snapshot()} can hand out an immutable view in O(1) for a save, export
+ * or report to read on another thread while the inventory keeps changing.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryListener
+ */
+public class Inventory {
+
+	/**
+	 * Default slot count from which {@link #filter(Predicate)} scans in parallel,
+	 * when more than one processor is available.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+	private final List<Toy> toys = new ArrayList<>(); // Live toys in insertion order
+	private final SlotStore slots = new SlotStore(); // Slot number -> toy (null once removed) and stock
+	private final Map<Toy, Integer> slotOf = new IdentityHashMap<>(); // Toy -> slot number
+	private final List<InventoryListener> listeners = new ArrayList<>(); // Registered listeners
+	private int parallelThreshold = ForkJoinPool.getCommonPoolParallelism() > 1 ? DEFAULT_PARALLEL_THRESHOLD
+			: Integer.MAX_VALUE; // Slot count from which scans run in parallel; never on a single core
+
+	/**
+	 * Registers a listener. The listener is immediately sent a
+	 * {@link InventoryListener#toyAdded(int, Toy)} event for every toy already in
+	 * the inventory so it can build its initial state.
+	 *
+	 * @param listener The listener to register. Must not be null.
+	 * @throws IllegalArgumentException if the listener is null.
+	 */
+	public void addListener(InventoryListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener must not be null.");
+		}
+		listeners.add(listener);
+		for (int slot = 0; slot < slots.size(); slot++) {
+			Toy toy = slots.get(slot);
+			if (toy != null) {
+				listener.toyAdded(slot, toy);
+			}
+		}
+	}
+
+	/**
+	 * Unregisters a previously registered listener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(InventoryListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Adds a toy to the inventory and assigns it a slot number.
+	 *
+	 * @param toy The toy to add. Must not be null.
+	 * @return The slot number assigned to the toy.
+	 * @throws IllegalArgumentException if the toy is null or already in the
+	 *                                  inventory.
+	 */
+	public int add(Toy toy) {
+		if (toy == null) {
+			throw new IllegalArgumentException("Toy must not be null.");
+		}
+		if (slotOf.containsKey(toy)) {
+			throw new IllegalArgumentException("Toy is already in the inventory: " + toy.getSn());
+		}
+		int slot = slots.append(toy, toy.getAvailableCount());
+		slotOf.put(toy, slot);
+		toys.add(toy);
+		for (InventoryListener listener : listeners) {
+			listener.toyAdded(slot, toy);
+		}
+		return slot;
+	}
+
+	/**
+	 * Removes a toy from the inventory.
+	 *
+	 * @param toy The toy to remove.
+	 * @return {@code true} if the toy was in the inventory and has been removed.
+	 */
+	public boolean remove(Toy toy) {
+		Integer slot = slotOf.remove(toy);
+		if (slot == null) {
+			return false;
+		}
+		slots.set(slot, null);
+		toys.remove(toy);
+		for (InventoryListener listener : listeners) {
+			listener.toyRemoved(slot, toy);
+		}
+		return true;
+	}
+
+	/**
+	 * Changes the available stock count of a toy and notifies listeners.
+	 *
+	 * @param toy      The toy to update. Must be in the inventory.
+	 * @param newCount The new stock count.
+	 * @throws IllegalArgumentException if the toy is not in the inventory.
+	 */
+	public void setAvailableCount(Toy toy, int newCount) {
+		int slot = slotOf(toy);
+		if (slot < 0) {
+			throw new IllegalArgumentException("Toy is not in the inventory.");
+		}
+		int oldCount = toy.getAvailableCount();
+		toy.setAvailableCount(newCount);
+		slots.setStock(slot, newCount);
+		for (InventoryListener listener : listeners) {
+			listener.stockChanged(slot, toy, oldCount, newCount);
+		}
+	}
+
+	/**
+	 * Takes an immutable snapshot of the inventory in O(1). The snapshot keeps
+	 * the toys, their order and their stock counts as they are now, and may be
+	 * read from any thread while this inventory keeps changing.
+	 *
+	 * @return The snapshot.
+	 */
+	public InventorySnapshot snapshot() {
+		return new InventorySnapshot(slots.snapshot(), toys.size());
+	}
+
+	/**
+	 * Returns the slot number of a toy.
+	 *
+	 * @param toy The toy to look up.
+	 * @return The slot number, or -1 if the toy is not in the inventory.
+	 */
+	public int slotOf(Toy toy) {
+		Integer slot = slotOf.get(toy);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * Returns the toy stored in a slot.
+	 *
+	 * @param slot The slot number.
+	 * @return The toy in the slot, or null if the slot is empty or out of range.
+	 */
+	public Toy toyAt(int slot) {
+		return slot >= 0 && slot < slots.size() ? slots.get(slot) : null;
+	}
+
+	/**
+	 * Returns the toys stored in the given slots, in the order given.
+	 *
+	 * @param slotNumbers The slot numbers to resolve.
+	 * @return A lazily resolved list of the toys found; empty slots are skipped.
+	 */
+	public SearchResult toysAt(int[] slotNumbers) {
+		SearchResult.Builder results = new SearchResult.Builder(this);
+		for (int slot : slotNumbers) {
+			if (toyAt(slot) != null) {
+				results.add(slot);
+			}
+		}
+		return results.build();
+	}
+
+	/**
+	 * Scans the inventory for toys matching a predicate.
+	 *
+	 * @param predicate The condition to test each toy against.
+	 * @return A lazily resolved list of matching toys in inventory order.
+	 * @see #filter(Predicate, int)
+	 */
+	public SearchResult filter(Predicate<Toy> predicate) {
+		return filter(predicate, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Scans the inventory for the first {@code limit} toys matching a predicate.
+	 *
+	 * <p>
+	 * Once the inventory has at least {@link #getParallelThreshold()} slots, the
+	 * scan is split over the slot storage with a {@link SlotSpliterator} and run
+	 * on the common ForkJoin pool. The predicate may then be called from several
+	 * threads at once, so it must not modify shared state. Either way the matches
+	 * come back in inventory order, and the scan stops once {@code limit} matches
+	 * have been found.
+	 * </p>
+	 *
+	 * @param predicate The condition to test each toy against.
+	 * @param limit     The maximum number of matches to return.
+	 * @return A lazily resolved list of matching toys in inventory order.
+	 * @throws IllegalArgumentException if the limit is negative.
+	 */
+	public SearchResult filter(Predicate<Toy> predicate, int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit must not be negative.");
+		}
+		if (slots.size() < parallelThreshold) {
+			SearchResult.Builder results = new SearchResult.Builder(this);
+			int found = 0;
+			for (int slot = 0; slot < slots.size() && found < limit; slot++) {
+				Toy toy = slots.get(slot);
+				if (toy != null && predicate.test(toy)) {
+					results.add(slot);
+					found++;
+				}
+			}
+			return results.build();
+		}
+
+		IntStream matches = StreamSupport.intStream(new SlotSpliterator(slots, 0, slots.size()), true)
+				.filter(slot -> predicate.test(slots.get(slot)));
+		if (limit < Integer.MAX_VALUE) {
+			matches = matches.limit(limit);
+		}
+		return new SearchResult(this, matches.toArray());
+	}
+
+	/**
+	 * Returns the slot count from which scans run in parallel.
+	 *
+	 * @return The parallel scan threshold.
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Sets the slot count from which scans run in parallel. Use
+	 * {@link Integer#MAX_VALUE} to always scan serially, or 0 to always scan in
+	 * parallel.
+	 *
+	 * @param parallelThreshold The new threshold. Must not be negative.
+	 * @throws IllegalArgumentException if the threshold is negative.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 0) {
+			throw new IllegalArgumentException("Parallel threshold must not be negative.");
+		}
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Returns the number of slots handed out so far, including emptied ones. Every
+	 * valid slot number is less than this value.
+	 *
+	 * @return The slot high-water mark.
+	 */
+	public int slotCount() {
+		return slots.size();
+	}
+
+	/**
+	 * Returns the number of toys currently in the inventory.
+	 *
+	 * @return The number of toys.
+	 */
+	public int size() {
+		return toys.size();
+	}
+
+	/**
+	 * Returns a live {@code List<Toy>} view of the inventory in insertion order.
+	 * Adding to or removing from the view goes through {@link #add(Toy)} and
+	 * {@link #remove(Toy)}, so listeners are notified as usual.
+	 *
+	 * @return A modifiable list view of the inventory.
+	 */
+	public List<Toy> asList() {
+		return new AbstractList<Toy>() {
+			@Override
+			public Toy get(int index) {
+				return toys.get(index);
+			}
+
+			@Override
+			public int size() {
+				return toys.size();
+			}
+
+			@Override
+			public void add(int index, Toy toy) {
+				if (index != toys.size()) {
+					throw new UnsupportedOperationException("Toys can only be appended to the inventory.");
+				}
+				Inventory.this.add(toy);
+			}
+
+			@Override
+			public Toy remove(int index) {
+				Toy toy = toys.get(index);
+				Inventory.this.remove(toy);
+				return toy;
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return o instanceof Toy && Inventory.this.remove((Toy) o);
+			}
+		};
+	}
+}
@@ -0,0 +1,140 @@
+package inventory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.Toy;
+
+/**
+ * Inventory totals kept up to date incrementally: SKU count, unit count and
+ * stock value, overall and grouped by toy type and by brand.
+ *
+ * <p>
+ * The aggregates listen to the inventory and apply a delta for each add,
+ * stock change and removal, so reading a total is O(1) regardless of the
+ * catalog size and no toy is ever revisited. Money is summed in whole cents
+ * in a {@code long}, which keeps the totals exact: repeated floating-point
+ * additions and subtractions would drift.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryListener
+ */
+public class InventoryAggregates implements InventoryListener {
+
+	private final Totals overall = new Totals("All");
+	private final Map<String, Totals> byType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Totals> byBrand = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+	/**
+	 * SKU count, unit count and stock value of one group of toys.
+	 */
+	public static final class Totals {
+		private final String name;
+		private int skuCount;
+		private long unitCount;
+		private long valueCents;
+
+		Totals(String name) {
+			this.name = name;
+		}
+
+		/** @return the group name (a toy type or brand, as first added). */
+		public String getName() {
+			return name;
+		}
+
+		/** @return the number of distinct toys in the group. */
+		public int getSkuCount() {
+			return skuCount;
+		}
+
+		/** @return the total available count of the toys in the group. */
+		public long getUnitCount() {
+			return unitCount;
+		}
+
+		/** @return the total stock value (price times available count) in cents. */
+		public long getValueCents() {
+			return valueCents;
+		}
+
+		/** @return the total stock value in dollars. */
+		public double getValue() {
+			return valueCents / 100.0;
+		}
+
+		private void apply(int skuDelta, long unitDelta, long valueDelta) {
+			skuCount += skuDelta;
+			unitCount += unitDelta;
+			valueCents += valueDelta;
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		int units = toy.getAvailableCount();
+		apply(toy, 1, units, units * priceCents(toy));
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		int units = toy.getAvailableCount();
+		apply(toy, -1, -units, -units * priceCents(toy));
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		long units = (long) newCount - oldCount;
+		apply(toy, 0, units, units * priceCents(toy));
+	}
+
+	/**
+	 * Returns the totals over the whole inventory.
+	 *
+	 * @return The overall totals; a live view that follows the inventory.
+	 */
+	public Totals getTotals() {
+		return overall;
+	}
+
+	/**
+	 * Returns the totals per toy type.
+	 *
+	 * @return An unmodifiable live map from type to totals, sorted by type.
+	 */
+	public Map<String, Totals> byType() {
+		return Collections.unmodifiableMap(byType);
+	}
+
+	/**
+	 * Returns the totals per brand. Brands differing only in case are grouped
+	 * together.
+	 *
+	 * @return An unmodifiable live map from brand to totals, sorted by brand.
+	 */
+	public Map<String, Totals> byBrand() {
+		return Collections.unmodifiableMap(byBrand);
+	}
+
+	private void apply(Toy toy, int skuDelta, long unitDelta, long valueDelta) {
+		overall.apply(skuDelta, unitDelta, valueDelta);
+		applyToGroup(byType, toy.getToyType(), skuDelta, unitDelta, valueDelta);
+		applyToGroup(byBrand, toy.getBrand() == null ? "" : toy.getBrand().trim(), skuDelta, unitDelta, valueDelta);
+	}
+
+	private static void applyToGroup(Map<String, Totals> groups, String key, int skuDelta, long unitDelta,
+			long valueDelta) {
+		Totals totals = groups.computeIfAbsent(key, Totals::new);
+		totals.apply(skuDelta, unitDelta, valueDelta);
+		if (totals.skuCount <= 0) {
+			groups.remove(key);
+		}
+	}
+
+	private static long priceCents(Toy toy) {
+		return Math.round(toy.getPrice() * 100);
+	}
+}
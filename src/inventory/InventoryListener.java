@@ -0,0 +1,54 @@
+package inventory;
+
+import model.Toy;
+
+/**
+ * Receives change notifications from an {@link Inventory}. Indexes, caches and
+ * other derived structures register as listeners so they can be kept current
+ * with delta updates instead of rescanning the whole toy list.
+ *
+ * <p>
+ * Every toy held by the inventory is assigned a dense, stable slot number when
+ * it is added. Slots are never reused while the inventory is running, so they
+ * can be used directly as bit positions or posting list entries.
+ * </p>
+ *
+ * <p>
+ * All methods have empty default implementations so a listener only needs to
+ * override the events it cares about.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public interface InventoryListener {
+
+	/**
+	 * Called after a toy has been added to the inventory.
+	 *
+	 * @param slot The slot number assigned to the toy.
+	 * @param toy  The toy that was added.
+	 */
+	default void toyAdded(int slot, Toy toy) {
+	}
+
+	/**
+	 * Called after a toy has been removed from the inventory.
+	 *
+	 * @param slot The slot number the toy occupied.
+	 * @param toy  The toy that was removed.
+	 */
+	default void toyRemoved(int slot, Toy toy) {
+	}
+
+	/**
+	 * Called after the available stock count of a toy has changed.
+	 *
+	 * @param slot     The slot number of the toy.
+	 * @param toy      The toy whose stock changed (already holding the new count).
+	 * @param oldCount The stock count before the change.
+	 * @param newCount The stock count after the change.
+	 */
+	default void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+	}
+}
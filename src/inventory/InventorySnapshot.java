@@ -0,0 +1,162 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import model.Toy;
+
+/**
+ * An immutable point-in-time view of an {@link Inventory}, taken in O(1) with
+ * {@link Inventory#snapshot()}.
+ *
+ * <p>
+ * The snapshot fixes which toys were in the inventory, their slots and order,
+ * and their available counts. It shares storage with the inventory until the
+ * inventory next writes to it (see {@link SlotStore}), so it costs nothing to
+ * take and can be saved, exported or reported on from a background thread
+ * while purchases carry on. Stock counts must be read through the snapshot
+ * ({@link Entry#getAvailableCount()}), since the {@link Toy} objects themselves
+ * are shared with the live inventory.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see Inventory#snapshot()
+ */
+public final class InventorySnapshot implements Iterable<InventorySnapshot.Entry> {
+
+	private final SlotStore slots;
+	private final int size;
+
+	/**
+	 * A toy in the snapshot with its stock count at the time of the snapshot.
+	 */
+	public static final class Entry {
+		private final int slot;
+		private final Toy toy;
+		private final int availableCount;
+
+		private Entry(int slot, Toy toy, int availableCount) {
+			this.slot = slot;
+			this.toy = toy;
+			this.availableCount = availableCount;
+		}
+
+		/** @return the toy's slot number. */
+		public int getSlot() {
+			return slot;
+		}
+
+		/** @return the toy. */
+		public Toy getToy() {
+			return toy;
+		}
+
+		/** @return the toy's available count when the snapshot was taken. */
+		public int getAvailableCount() {
+			return availableCount;
+		}
+
+		/**
+		 * Returns the toy's data line for {@code toys.txt}, with the stock count
+		 * of the snapshot.
+		 *
+		 * @return The data string.
+		 * @see Toy#toDataString(int)
+		 */
+		public String toDataString() {
+			return toy.toDataString(availableCount);
+		}
+	}
+
+	InventorySnapshot(SlotStore slots, int size) {
+		this.slots = slots;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the number of toys in the snapshot.
+	 *
+	 * @return The number of toys.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of slots handed out when the snapshot was taken,
+	 * including emptied ones.
+	 *
+	 * @return The slot high-water mark.
+	 */
+	public int slotCount() {
+		return slots.size();
+	}
+
+	/**
+	 * Returns the toy that was in a slot.
+	 *
+	 * @param slot The slot number.
+	 * @return The toy, or null if the slot was empty or out of range.
+	 */
+	public Toy toyAt(int slot) {
+		return slot >= 0 && slot < slots.size() ? slots.get(slot) : null;
+	}
+
+	/**
+	 * Returns the available count of the toy that was in a slot.
+	 *
+	 * @param slot The slot number.
+	 * @return The count, or -1 if the slot was empty or out of range.
+	 */
+	public int availableCountAt(int slot) {
+		return toyAt(slot) == null ? -1 : slots.stockAt(slot);
+	}
+
+	/**
+	 * Returns the toys in the snapshot in insertion order.
+	 *
+	 * @return A new list of the toys.
+	 */
+	public List<Toy> toys() {
+		List<Toy> toys = new ArrayList<>(size);
+		for (Entry entry : this) {
+			toys.add(entry.toy);
+		}
+		return toys;
+	}
+
+	/**
+	 * Iterates over the toys in insertion order, with their stock counts.
+	 */
+	@Override
+	public Iterator<Entry> iterator() {
+		return new Iterator<Entry>() {
+			private int slot = advance(0); // Next occupied slot
+
+			@Override
+			public boolean hasNext() {
+				return slot < slots.size();
+			}
+
+			@Override
+			public Entry next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Entry entry = new Entry(slot, slots.get(slot), slots.stockAt(slot));
+				slot = advance(slot + 1);
+				return entry;
+			}
+
+			private int advance(int from) {
+				while (from < slots.size() && slots.get(from) == null) {
+					from++;
+				}
+				return from;
+			}
+		};
+	}
+}
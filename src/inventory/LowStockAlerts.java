@@ -0,0 +1,443 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.Toy;
+
+/**
+ * Tracks toys whose stock has fallen to their reorder threshold and tells
+ * registered {@link Listener}s when a toy runs low.
+ *
+ * <p>
+ * Each toy's threshold is its per-SKU threshold if one is set, otherwise its
+ * type's threshold, otherwise the default threshold. A toy is low when its
+ * available count is at or below a positive threshold.
+ * </p>
+ *
+ * <p>
+ * Low toys are kept in an indexed binary heap ordered by urgency (available
+ * count relative to threshold, lowest first). Each slot records its heap
+ * position, so an add, removal or stock change updates the heap in O(log n)
+ * and the catalog is never rescanned. {@link #reorderList()} only sorts the
+ * toys that are currently low.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryListener
+ */
+public class LowStockAlerts implements InventoryListener {
+
+	/** Reorder threshold of toys without a per-SKU or per-type threshold. */
+	public static final int DEFAULT_THRESHOLD = 3;
+
+	/**
+	 * Receives low-stock notifications.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called when a toy enters the reorder list: its stock fell to or below its
+		 * threshold, or it was added or given a threshold while already there.
+		 *
+		 * @param alert The toy, its available count and its threshold.
+		 */
+		void lowStock(Alert alert);
+	}
+
+	/**
+	 * A low-stock toy with its available count and threshold at the time the
+	 * alert was taken.
+	 */
+	public static final class Alert {
+		private final Toy toy;
+		private final int available;
+		private final int threshold;
+
+		Alert(Toy toy, int available, int threshold) {
+			this.toy = toy;
+			this.available = available;
+			this.threshold = threshold;
+		}
+
+		/** @return the low-stock toy. */
+		public Toy getToy() {
+			return toy;
+		}
+
+		/** @return the available count of the toy. */
+		public int getAvailable() {
+			return available;
+		}
+
+		/** @return the reorder threshold of the toy. */
+		public int getThreshold() {
+			return threshold;
+		}
+
+		@Override
+		public String toString() {
+			return toy.getName() + " (" + available + " left, reorder at " + threshold + ")";
+		}
+	}
+
+	private final Map<String, Integer> skuThresholds = new HashMap<>(); // Serial number -> threshold
+	private final Map<String, Integer> typeThresholds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private int defaultThreshold = DEFAULT_THRESHOLD;
+
+	private final Map<String, Integer> slotOfSku = new HashMap<>(); // Serial number -> slot
+	private final Map<String, BitSet> slotsOfType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final List<Listener> listeners = new ArrayList<>();
+
+	// Per-slot state
+	private Toy[] toys = new Toy[64]; // Null once removed
+	private int[] stock = new int[64];
+	private int[] threshold = new int[64];
+	private int[] position = new int[64]; // Heap position, or -1 if not low
+
+	private int[] heap = new int[16]; // Low slots, most urgent at the root
+	private int heapSize;
+
+	/**
+	 * Creates an engine with no per-SKU or per-type thresholds. Register it with
+	 * {@link Inventory#addListener(InventoryListener)} to populate it.
+	 */
+	public LowStockAlerts() {
+		Arrays.fill(position, -1);
+	}
+
+	/**
+	 * Registers a listener for low-stock notifications.
+	 *
+	 * @param listener The listener to register. Must not be null.
+	 * @throws IllegalArgumentException if the listener is null.
+	 */
+	public void addListener(Listener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener must not be null.");
+		}
+		listeners.add(listener);
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		ensureSlot(slot);
+		toys[slot] = toy;
+		stock[slot] = toy.getAvailableCount();
+		if (toy.getSn() != null) {
+			slotOfSku.put(toy.getSn(), slot);
+		}
+		slotsOfType.computeIfAbsent(typeOf(toy), type -> new BitSet()).set(slot);
+		threshold[slot] = thresholdOf(toy);
+		update(slot);
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (slot >= toys.length || toys[slot] == null) {
+			return;
+		}
+		if (position[slot] >= 0) {
+			removeAt(position[slot]);
+		}
+		toys[slot] = null;
+		slotOfSku.remove(toy.getSn());
+		BitSet members = slotsOfType.get(typeOf(toy));
+		if (members != null) {
+			members.clear(slot);
+			if (members.isEmpty()) {
+				slotsOfType.remove(typeOf(toy));
+			}
+		}
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (slot >= toys.length || toys[slot] == null) {
+			return;
+		}
+		stock[slot] = newCount;
+		update(slot);
+	}
+
+	/**
+	 * Sets the reorder threshold of one toy, overriding its type and the
+	 * default.
+	 *
+	 * @param sn        The serial number of the toy. Must not be null.
+	 * @param threshold The threshold; 0 disables alerts for the toy. Must not be
+	 *                  negative.
+	 * @throws IllegalArgumentException if the serial number is null or the
+	 *                                  threshold is negative.
+	 */
+	public void setSkuThreshold(String sn, int threshold) {
+		if (sn == null) {
+			throw new IllegalArgumentException("Serial number must not be null.");
+		}
+		checkThreshold(threshold);
+		skuThresholds.put(sn, threshold);
+		Integer slot = slotOfSku.get(sn);
+		if (slot != null) {
+			rethreshold(slot);
+		}
+	}
+
+	/**
+	 * Removes the per-SKU threshold of a toy, so its type or the default applies
+	 * again.
+	 *
+	 * @param sn The serial number of the toy.
+	 */
+	public void clearSkuThreshold(String sn) {
+		if (skuThresholds.remove(sn) != null) {
+			Integer slot = slotOfSku.get(sn);
+			if (slot != null) {
+				rethreshold(slot);
+			}
+		}
+	}
+
+	/**
+	 * Sets the reorder threshold of every toy of a type that has no per-SKU
+	 * threshold. Only the toys of that type are re-evaluated.
+	 *
+	 * @param type      The toy type (case-insensitive). Must not be null.
+	 * @param threshold The threshold; 0 disables alerts for the type. Must not
+	 *                  be negative.
+	 * @throws IllegalArgumentException if the type is null or the threshold is
+	 *                                  negative.
+	 */
+	public void setTypeThreshold(String type, int threshold) {
+		if (type == null) {
+			throw new IllegalArgumentException("Type must not be null.");
+		}
+		checkThreshold(threshold);
+		typeThresholds.put(type, threshold);
+		rethresholdAll(slotsOfType.get(type));
+	}
+
+	/**
+	 * Sets the reorder threshold of toys without a per-SKU or per-type threshold.
+	 * Unlike stock changes, this re-evaluates every toy.
+	 *
+	 * @param threshold The threshold; 0 disables default alerts. Must not be
+	 *                  negative.
+	 * @throws IllegalArgumentException if the threshold is negative.
+	 */
+	public void setDefaultThreshold(int threshold) {
+		checkThreshold(threshold);
+		defaultThreshold = threshold;
+		for (BitSet members : slotsOfType.values()) {
+			rethresholdAll(members);
+		}
+	}
+
+	/**
+	 * Returns the reorder threshold that applies to a toy.
+	 *
+	 * @param toy The toy.
+	 * @return The per-SKU, per-type or default threshold, in that order.
+	 */
+	public int thresholdOf(Toy toy) {
+		Integer sku = toy.getSn() == null ? null : skuThresholds.get(toy.getSn());
+		if (sku != null) {
+			return sku;
+		}
+		Integer type = typeThresholds.get(typeOf(toy));
+		return type != null ? type : defaultThreshold;
+	}
+
+	/**
+	 * Returns whether a toy is on the reorder list.
+	 *
+	 * @param toy The toy.
+	 * @return {@code true} if the toy is tracked and its stock is at or below its
+	 *         threshold.
+	 */
+	public boolean isLow(Toy toy) {
+		Integer slot = toy.getSn() == null ? null : slotOfSku.get(toy.getSn());
+		return slot != null && toys[slot] == toy && position[slot] >= 0;
+	}
+
+	/**
+	 * Returns the number of low-stock toys.
+	 *
+	 * @return The size of the reorder list.
+	 */
+	public int size() {
+		return heapSize;
+	}
+
+	/**
+	 * Returns the most urgent low-stock toy in O(1).
+	 *
+	 * @return The toy with the lowest stock relative to its threshold, or null if
+	 *         no toy is low.
+	 */
+	public Alert mostUrgent() {
+		return heapSize == 0 ? null : alertOf(heap[0]);
+	}
+
+	/**
+	 * Returns the toys to reorder now, most urgent first. Only the low toys are
+	 * sorted, so the cost depends on their number, not on the catalog size.
+	 *
+	 * @return A new list of alerts ordered by available count relative to
+	 *         threshold, ties in slot order.
+	 */
+	public List<Alert> reorderList() {
+		int[] slots = Arrays.copyOf(heap, heapSize);
+		// Heap sort the copy: moving each root to the back leaves the most urgent last
+		for (int end = slots.length - 1; end > 0; end--) {
+			int root = slots[0];
+			slots[0] = slots[end];
+			slots[end] = root;
+			siftDown(slots, end, 0, false);
+		}
+		List<Alert> alerts = new ArrayList<>(slots.length);
+		for (int i = slots.length - 1; i >= 0; i--) {
+			alerts.add(alertOf(slots[i]));
+		}
+		return alerts;
+	}
+
+	/**
+	 * Adds, moves or drops a slot in the heap after its stock or threshold
+	 * changed, and notifies listeners if the toy has just become low.
+	 */
+	private void update(int slot) {
+		boolean low = threshold[slot] > 0 && stock[slot] <= threshold[slot];
+		int at = position[slot];
+		if (!low) {
+			if (at >= 0) {
+				removeAt(at);
+			}
+			return;
+		}
+		if (at < 0) {
+			if (heapSize == heap.length) {
+				heap = Arrays.copyOf(heap, heapSize * 2);
+			}
+			heap[heapSize] = slot;
+			position[slot] = heapSize;
+			siftUp(heapSize++);
+			Alert alert = alertOf(slot);
+			for (Listener listener : listeners) {
+				listener.lowStock(alert);
+			}
+		} else {
+			siftUp(at);
+			siftDown(heap, heapSize, position[slot], true);
+		}
+	}
+
+	private void rethreshold(int slot) {
+		threshold[slot] = thresholdOf(toys[slot]);
+		update(slot);
+	}
+
+	private void rethresholdAll(BitSet members) {
+		if (members != null) {
+			for (int slot = members.nextSetBit(0); slot >= 0; slot = members.nextSetBit(slot + 1)) {
+				rethreshold(slot);
+			}
+		}
+	}
+
+	private void removeAt(int at) {
+		int slot = heap[at];
+		position[slot] = -1;
+		int last = heap[--heapSize];
+		if (at < heapSize) {
+			heap[at] = last;
+			position[last] = at;
+			siftUp(at);
+			siftDown(heap, heapSize, position[last], true);
+		}
+	}
+
+	private void siftUp(int at) {
+		int slot = heap[at];
+		while (at > 0) {
+			int parent = (at - 1) >>> 1;
+			if (compare(heap[parent], slot) <= 0) {
+				break;
+			}
+			heap[at] = heap[parent];
+			position[heap[at]] = at;
+			at = parent;
+		}
+		heap[at] = slot;
+		position[slot] = at;
+	}
+
+	/**
+	 * Sifts the entry at {@code at} down within {@code slots[0, size)}, keeping
+	 * slot positions current when sifting the live heap.
+	 */
+	private void siftDown(int[] slots, int size, int at, boolean track) {
+		int slot = slots[at];
+		while (true) {
+			int child = 2 * at + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && compare(slots[child + 1], slots[child]) < 0) {
+				child++;
+			}
+			if (compare(slots[child], slot) >= 0) {
+				break;
+			}
+			slots[at] = slots[child];
+			if (track) {
+				position[slots[at]] = at;
+			}
+			at = child;
+		}
+		slots[at] = slot;
+		if (track) {
+			position[slot] = at;
+		}
+	}
+
+	/**
+	 * Orders slots by available count relative to threshold, lowest first,
+	 * comparing the cross products to stay in integer arithmetic.
+	 */
+	private int compare(int a, int b) {
+		int cmp = Long.compare((long) stock[a] * threshold[b], (long) stock[b] * threshold[a]);
+		return cmp != 0 ? cmp : Integer.compare(a, b);
+	}
+
+	private Alert alertOf(int slot) {
+		return new Alert(toys[slot], stock[slot], threshold[slot]);
+	}
+
+	private static String typeOf(Toy toy) {
+		return toy.getToyType() == null ? "" : toy.getToyType();
+	}
+
+	private static void checkThreshold(int threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("Threshold must not be negative.");
+		}
+	}
+
+	private void ensureSlot(int slot) {
+		if (slot >= toys.length) {
+			int capacity = Math.max(slot + 1, toys.length * 2);
+			int oldLength = toys.length;
+			toys = Arrays.copyOf(toys, capacity);
+			stock = Arrays.copyOf(stock, capacity);
+			threshold = Arrays.copyOf(threshold, capacity);
+			position = Arrays.copyOf(position, capacity);
+			Arrays.fill(position, oldLength, capacity, -1);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package inventory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.Toy;
+import sketch.KllSketch;
+
+/**
+ * Price distributions of the inventory, overall and per toy type and brand,
+ * for questions such as "median and p90 price of puzzles" without sorting
+ * prices.
+ *
+ * <p>
+ * Each group keeps two {@link KllSketch}es: prices of toys added and prices of
+ * toys removed. The rank of a price in the current inventory is the difference
+ * of its ranks in the two, so removals are supported even though a KLL sketch
+ * only grows. A quantile is found by binary search over the added sketch's
+ * retained values (see {@link KllSketch#quantileWithout(KllSketch, double)}),
+ * which takes microseconds whatever the catalog size. Toy prices only change
+ * by removing and re-adding a toy, which is covered by the same two events.
+ * </p>
+ *
+ * <p>
+ * <b>Error bound:</b> with 99% probability the returned price's rank is off
+ * by at most about 1.7% of the toys ever added to the group plus 1.7% of
+ * those removed (see {@link KllSketch}).
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryListener
+ */
+public class PriceQuantiles implements InventoryListener {
+
+	private final Distribution overall = new Distribution("All");
+	private final Map<String, Distribution> byType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Distribution> byBrand = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+	/**
+	 * The price distribution of one group of toys.
+	 */
+	public static final class Distribution {
+		private final String name;
+		private final KllSketch added = new KllSketch();
+		private final KllSketch removed = new KllSketch();
+
+		Distribution(String name) {
+			this.name = name;
+		}
+
+		/** @return the group name (a toy type or brand, as first added). */
+		public String getName() {
+			return name;
+		}
+
+		/** @return the number of toys in the group. */
+		public long getCount() {
+			return added.count() - removed.count();
+		}
+
+		/**
+		 * Returns the estimated price at a quantile.
+		 *
+		 * @param fraction The quantile, from 0 (cheapest) to 1 (most expensive);
+		 *                 e.g. 0.5 for the median, 0.9 for p90.
+		 * @return The estimated price, or NaN if the group is empty.
+		 * @throws IllegalArgumentException if the fraction is outside [0, 1].
+		 */
+		public double quantile(double fraction) {
+			return added.quantileWithout(removed, fraction);
+		}
+
+		/** @return the estimated median price, or NaN if the group is empty. */
+		public double median() {
+			return quantile(0.5);
+		}
+
+		/**
+		 * Adds another distribution's prices to this one, e.g. the same group on
+		 * another terminal.
+		 *
+		 * @param other The distribution to merge.
+		 */
+		public void merge(Distribution other) {
+			added.merge(other.added);
+			removed.merge(other.removed);
+		}
+
+		private void add(double price) {
+			added.update(price);
+		}
+
+		private void remove(double price) {
+			removed.update(price);
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		double price = toy.getPrice();
+		overall.add(price);
+		group(byType, typeOf(toy)).add(price);
+		group(byBrand, brandOf(toy)).add(price);
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		double price = toy.getPrice();
+		overall.remove(price);
+		removeFromGroup(byType, typeOf(toy), price);
+		removeFromGroup(byBrand, brandOf(toy), price);
+	}
+
+	/**
+	 * Returns the price distribution of the whole inventory.
+	 *
+	 * @return The overall distribution; a live view that follows the inventory.
+	 */
+	public Distribution getOverall() {
+		return overall;
+	}
+
+	/**
+	 * Returns the price distributions per toy type.
+	 *
+	 * @return An unmodifiable live map from type to distribution, sorted by type.
+	 */
+	public Map<String, Distribution> byType() {
+		return Collections.unmodifiableMap(byType);
+	}
+
+	/**
+	 * Returns the price distributions per brand. Brands differing only in case
+	 * are grouped together.
+	 *
+	 * @return An unmodifiable live map from brand to distribution, sorted by
+	 *         brand.
+	 */
+	public Map<String, Distribution> byBrand() {
+		return Collections.unmodifiableMap(byBrand);
+	}
+
+	private static Distribution group(Map<String, Distribution> groups, String key) {
+		return groups.computeIfAbsent(key, Distribution::new);
+	}
+
+	/**
+	 * Records a removal in a group, dropping the group once it is empty so its
+	 * sketches start afresh if the group comes back.
+	 */
+	private static void removeFromGroup(Map<String, Distribution> groups, String key, double price) {
+		Distribution distribution = groups.get(key);
+		if (distribution != null) {
+			distribution.remove(price);
+			if (distribution.getCount() <= 0) {
+				groups.remove(key);
+			}
+		}
+	}
+
+	private static String typeOf(Toy toy) {
+		return toy.getToyType() == null ? "" : toy.getToyType();
+	}
+
+	private static String brandOf(Toy toy) {
+		return toy.getBrand() == null ? "" : toy.getBrand().trim();
+	}
+}
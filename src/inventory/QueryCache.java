@@ -0,0 +1,220 @@
+package inventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import model.Toy;
+
+/**
+ * Bounded LRU cache of search results with version-based invalidation.
+ *
+ * <p>
+ * The inventory is divided into partitions by toy type ("figure", "animal",
+ * "puzzle", "boardgame"). The cache listens to the inventory and bumps the
+ * version of a partition whenever a toy of that type is added, bought or
+ * removed. Each cached entry records the versions of the partitions it was
+ * computed from; a lookup whose recorded versions are out of date is treated
+ * as a miss and recomputed. A search by type therefore survives changes to
+ * other types, while searches over the whole inventory depend on every
+ * partition.
+ * </p>
+ *
+ * <p>
+ * Hit, miss, eviction and invalidation counters are kept for monitoring.
+ * </p>
+ *
+ * @param <V> The type of cached result.
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class QueryCache<V> implements InventoryListener {
+
+	private static final String ALL = "*"; // Partition key standing for the whole inventory
+
+	/** Partition set meaning "depends on the whole inventory". */
+	public static final Collection<String> ALL_PARTITIONS = Collections.singleton(ALL);
+
+	private final int capacity; // Maximum number of cached entries
+	private final Map<String, CachedResult<V>> entries; // Access-ordered for LRU eviction
+	private final Map<String, Long> partitionVersions = new HashMap<>(); // Partition -> version
+
+	private long hits, misses, evictions, invalidations;
+
+	/**
+	 * A cached result together with the partition versions it was computed at.
+	 */
+	private static final class CachedResult<V> {
+		final V value;
+		final String[] partitions;
+		final long[] versions;
+
+		CachedResult(V value, String[] partitions, long[] versions) {
+			this.value = value;
+			this.partitions = partitions;
+			this.versions = versions;
+		}
+	}
+
+	/**
+	 * Creates a cache holding at most {@code capacity} results.
+	 *
+	 * @param capacity The maximum number of entries. Must be positive.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public QueryCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Cache capacity must be positive.");
+		}
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<String, CachedResult<V>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResult<V>> eldest) {
+				if (size() > QueryCache.this.capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result for a query, computing and caching it if it is
+	 * absent or out of date.
+	 *
+	 * @param query      The query key; normalized with {@link #normalize(String)}.
+	 * @param partitions The partitions the result depends on, or
+	 *                   {@link #ALL_PARTITIONS}.
+	 * @param compute    Computes the result on a miss.
+	 * @return The cached or freshly computed result.
+	 */
+	public synchronized V get(String query, Collection<String> partitions, Supplier<V> compute) {
+		String key = normalize(query);
+		CachedResult<V> entry = entries.get(key);
+		if (entry != null) {
+			if (isCurrent(entry)) {
+				hits++;
+				return entry.value;
+			}
+			invalidations++;
+		}
+		misses++;
+		V value = compute.get();
+		entries.put(key, snapshot(value, partitions));
+		return value;
+	}
+
+	/**
+	 * Discards every cached entry. Counters are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	@Override
+	public synchronized void toyAdded(int slot, Toy toy) {
+		bump(toy);
+	}
+
+	@Override
+	public synchronized void toyRemoved(int slot, Toy toy) {
+		bump(toy);
+	}
+
+	@Override
+	public synchronized void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		bump(toy);
+	}
+
+	/**
+	 * Returns the partition key of a toy, which is its lower-case type.
+	 *
+	 * @param toy The toy.
+	 * @return The partition key.
+	 */
+	public static String partitionOf(Toy toy) {
+		return toy.getToyType().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Normalizes a query string so equivalent queries share an entry. All toy
+	 * searches are case-insensitive, so the query is trimmed and lower-cased.
+	 *
+	 * @param query The raw query.
+	 * @return The normalized query.
+	 */
+	public static String normalize(String query) {
+		return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/** @return the number of lookups served from the cache. */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/** @return the number of lookups that had to compute the result. */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/** @return the number of entries dropped to stay within capacity. */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/** @return the number of entries found but out of date. */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/** @return the number of entries currently cached. */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns a one-line summary of the cache counters, for logging.
+	 *
+	 * @return The counters as text.
+	 */
+	@Override
+	public synchronized String toString() {
+		long lookups = hits + misses;
+		return String.format("QueryCache[size=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, invalidations=%d]",
+				entries.size(), capacity, hits, misses, lookups == 0 ? 0.0 : (double) hits / lookups, evictions,
+				invalidations);
+	}
+
+	private void bump(Toy toy) {
+		partitionVersions.merge(partitionOf(toy), 1L, Long::sum);
+		partitionVersions.merge(ALL, 1L, Long::sum);
+	}
+
+	private CachedResult<V> snapshot(V value, Collection<String> partitions) {
+		String[] keys = new String[partitions.size()];
+		long[] versions = new long[keys.length];
+		int i = 0;
+		for (String partition : partitions) {
+			keys[i] = partition.toLowerCase(Locale.ROOT);
+			versions[i] = partitionVersions.getOrDefault(keys[i], 0L);
+			i++;
+		}
+		return new CachedResult<>(value, keys, versions);
+	}
+
+	private boolean isCurrent(CachedResult<V> entry) {
+		for (int i = 0; i < entry.partitions.length; i++) {
+			if (partitionVersions.getOrDefault(entry.partitions[i], 0L) != entry.versions[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
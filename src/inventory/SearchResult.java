@@ -0,0 +1,108 @@
+package inventory;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import model.Toy;
+
+/**
+ * An immutable, lazily resolved list of search results. Only the inventory
+ * slot numbers of the matches are stored (four bytes per row); a {@link Toy} is
+ * looked up from the {@link Inventory} when a row is actually read, e.g. when a
+ * ListView cell scrolls into view. The result count is known up front without
+ * touching any toy.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class SearchResult extends AbstractList<Toy> implements RandomAccess {
+
+	private final Inventory inventory; // Resolves slots to toys
+	private final int[] slots; // Matching slots, in result order
+
+	/**
+	 * Creates a result over the given slots.
+	 *
+	 * @param inventory The inventory the slots refer to.
+	 * @param slots     The matching slots in result order. The array is not
+	 *                  copied and must not be modified afterwards.
+	 */
+	SearchResult(Inventory inventory, int[] slots) {
+		this.inventory = inventory;
+		this.slots = slots;
+	}
+
+	/**
+	 * Collects slot numbers for a {@link SearchResult} without boxing.
+	 */
+	public static final class Builder {
+		private final Inventory inventory;
+		private int[] slots = new int[16];
+		private int size;
+
+		/**
+		 * Creates a builder for results from the given inventory.
+		 *
+		 * @param inventory The inventory the slots refer to.
+		 */
+		public Builder(Inventory inventory) {
+			this.inventory = inventory;
+		}
+
+		/**
+		 * Appends a matching slot.
+		 *
+		 * @param slot The slot to append.
+		 * @return This builder.
+		 */
+		public Builder add(int slot) {
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			slots[size++] = slot;
+			return this;
+		}
+
+		/**
+		 * Creates the result.
+		 *
+		 * @return A new result holding the appended slots.
+		 */
+		public SearchResult build() {
+			return new SearchResult(inventory, Arrays.copyOf(slots, size));
+		}
+	}
+
+	/**
+	 * Returns the toy at a result position, resolving it from the inventory.
+	 *
+	 * @param index The result position.
+	 * @return The toy, or null if it has been removed from the inventory since
+	 *         the search ran.
+	 */
+	@Override
+	public Toy get(int index) {
+		return inventory.toyAt(slots[index]);
+	}
+
+	/**
+	 * Returns the inventory slot at a result position without resolving the toy.
+	 *
+	 * @param index The result position.
+	 * @return The slot number.
+	 */
+	public int slotAt(int index) {
+		return slots[index];
+	}
+
+	/**
+	 * Returns the number of results in O(1).
+	 *
+	 * @return The result count.
+	 */
+	@Override
+	public int size() {
+		return slots.length;
+	}
+}
@@ -0,0 +1,102 @@
+package inventory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+import model.Toy;
+
+/**
+ * Spliterator over the occupied slot numbers of an {@link Inventory}, in slot
+ * order. Empty slots (toys that were removed) are skipped.
+ *
+ * <p>
+ * The slot range is split in halves down to {@link #MIN_SPLIT} slots, so a
+ * parallel stream gets balanced chunks of the backing array. Because the
+ * spliterator is {@code ORDERED}, parallel streams built on it keep slot order
+ * when collecting and can stop early for {@code limit}.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class SlotSpliterator implements Spliterator.OfInt {
+
+	static final int MIN_SPLIT = 4096; // Smallest range worth handing to another thread
+
+	private final List<Toy> slots; // Inventory slot storage; not modified during the scan
+	private int index; // Next slot to visit
+	private final int fence; // One past the last slot to visit
+
+	/**
+	 * Creates a spliterator over slots {@code [origin, fence)}.
+	 *
+	 * @param slots  The inventory slot storage.
+	 * @param origin The first slot to visit.
+	 * @param fence  One past the last slot to visit.
+	 */
+	SlotSpliterator(List<Toy> slots, int origin, int fence) {
+		this.slots = slots;
+		this.index = origin;
+		this.fence = fence;
+	}
+
+	@Override
+	public boolean tryAdvance(IntConsumer action) {
+		while (index < fence) {
+			int slot = index++;
+			if (slots.get(slot) != null) {
+				action.accept(slot);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(IntConsumer action) {
+		int end = fence;
+		for (int slot = index; slot < end; slot++) {
+			if (slots.get(slot) != null) {
+				action.accept(slot);
+			}
+		}
+		index = end;
+	}
+
+	@Override
+	public OfInt trySplit() {
+		int mid = (index + fence) >>> 1;
+		if (mid - index < MIN_SPLIT) {
+			return null;
+		}
+		SlotSpliterator prefix = new SlotSpliterator(slots, index, mid);
+		index = mid;
+		return prefix;
+	}
+
+	/**
+	 * Returns the number of slots left to visit, which is an upper bound on the
+	 * number of toys since some slots may be empty.
+	 */
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | DISTINCT | SORTED | NONNULL;
+	}
+
+	/**
+	 * Slots are reported in ascending natural order.
+	 *
+	 * @return {@code null}, meaning natural order.
+	 */
+	@Override
+	public Comparator<? super Integer> getComparator() {
+		return null;
+	}
+}
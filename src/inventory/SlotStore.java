@@ -0,0 +1,176 @@
+package inventory;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import model.Toy;
+
+/**
+ * Slot storage of an {@link Inventory}: the toy and its stock count per slot,
+ * in chunked copy-on-write arrays so that a frozen copy can be taken in O(1).
+ *
+ * <p>
+ * Slots are kept in chunks of {@value #CHUNK_SIZE}, reached through a spine
+ * array. {@link #snapshot()} hands the current spine to a frozen store and
+ * starts a new epoch; afterwards the live store copies the spine and each
+ * chunk the first time it writes to them, so the frozen store never changes
+ * and can be read from another thread while the inventory keeps changing. A
+ * write after a snapshot therefore costs at most one spine copy and one
+ * {@value #CHUNK_SIZE}-slot chunk copy; later writes to the same chunk are
+ * plain array stores.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class SlotStore extends AbstractList<Toy> implements RandomAccess {
+
+	static final int CHUNK_BITS = 10;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * One chunk of slots, written in place only by the epoch that owns it.
+	 */
+	private static final class Chunk {
+		final Toy[] toys = new Toy[CHUNK_SIZE]; // Null once removed
+		final int[] stock = new int[CHUNK_SIZE]; // Available count when last changed
+		final Object owner; // Epoch allowed to write in place
+
+		Chunk(Object owner) {
+			this.owner = owner;
+		}
+
+		Chunk copy(Object owner) {
+			Chunk copy = new Chunk(owner);
+			System.arraycopy(toys, 0, copy.toys, 0, CHUNK_SIZE);
+			System.arraycopy(stock, 0, copy.stock, 0, CHUNK_SIZE);
+			return copy;
+		}
+	}
+
+	private Chunk[] chunks;
+	private int size; // Slots handed out
+	private Object epoch; // Current owner token; null for a frozen store
+	private boolean spineShared; // The spine is also held by a snapshot
+
+	/**
+	 * Creates an empty, writable store.
+	 */
+	SlotStore() {
+		this.chunks = new Chunk[4];
+		this.epoch = new Object();
+	}
+
+	private SlotStore(Chunk[] chunks, int size) {
+		this.chunks = chunks;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a frozen copy of the store in O(1). Writing to the copy throws
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return The frozen store.
+	 */
+	SlotStore snapshot() {
+		if (epoch == null) {
+			return this;
+		}
+		epoch = new Object(); // Every existing chunk now belongs to the snapshot
+		spineShared = true;
+		return new SlotStore(chunks, size);
+	}
+
+	/**
+	 * Appends a slot.
+	 *
+	 * @param toy   The toy in the new slot.
+	 * @param stock Its available count.
+	 * @return The new slot number.
+	 */
+	int append(Toy toy, int stock) {
+		int slot = size;
+		if (epoch != null && (slot >>> CHUNK_BITS) == chunks.length) {
+			chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			spineShared = false;
+		}
+		Chunk chunk = writable(slot);
+		chunk.toys[slot & CHUNK_MASK] = toy;
+		chunk.stock[slot & CHUNK_MASK] = stock;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * Changes the toy in a slot, e.g. to null when the toy is removed.
+	 */
+	@Override
+	public Toy set(int slot, Toy toy) {
+		Toy old = get(slot);
+		writable(slot).toys[slot & CHUNK_MASK] = toy;
+		return old;
+	}
+
+	/**
+	 * Records a slot's new available count.
+	 *
+	 * @param slot  The slot number.
+	 * @param stock The new count.
+	 */
+	void setStock(int slot, int stock) {
+		checkIndex(slot);
+		writable(slot).stock[slot & CHUNK_MASK] = stock;
+	}
+
+	/**
+	 * Returns the available count recorded for a slot.
+	 *
+	 * @param slot The slot number.
+	 * @return The count when the slot last changed.
+	 */
+	int stockAt(int slot) {
+		checkIndex(slot);
+		return chunks[slot >>> CHUNK_BITS].stock[slot & CHUNK_MASK];
+	}
+
+	@Override
+	public Toy get(int slot) {
+		checkIndex(slot);
+		return chunks[slot >>> CHUNK_BITS].toys[slot & CHUNK_MASK];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the chunk holding a slot, copying the spine or the chunk first if
+	 * a snapshot still shares them.
+	 */
+	private Chunk writable(int slot) {
+		if (epoch == null) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified.");
+		}
+		if (spineShared) {
+			chunks = chunks.clone();
+			spineShared = false;
+		}
+		int index = slot >>> CHUNK_BITS;
+		Chunk chunk = chunks[index];
+		if (chunk == null) {
+			chunk = chunks[index] = new Chunk(epoch);
+		} else if (chunk.owner != epoch) {
+			chunk = chunks[index] = chunk.copy(epoch);
+		}
+		return chunk;
+	}
+
+	private void checkIndex(int slot) {
+		if (slot < 0 || slot >= size) {
+			throw new IndexOutOfBoundsException("Slot " + slot + " of " + size);
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package inventory;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Toy;
+
+/**
+ * Timed holds on toy stock, for online orders that keep units aside until
+ * they are paid for.
+ *
+ * <p>
+ * {@link #reserve(Toy, int, long)} takes the units out of the toy's available
+ * count straight away, so searches, purchases and alerts see only unheld
+ * stock. A hold is then either confirmed (the units stay sold), cancelled, or
+ * left to expire, and the last two give the units back. Expirations are kept
+ * in a {@link TimingWheel} rather than one scheduled task per hold, so tens of
+ * thousands of open holds cost a few pointers each, and {@link #expire()}
+ * releases everything that has come due in one batch with a single stock
+ * change per toy.
+ * </p>
+ *
+ * <p>
+ * Register the reservations on the same {@link Inventory} with
+ * {@link Inventory#addListener(InventoryListener)}, so holds on a toy that is
+ * removed are dropped. Like the inventory, this class is not thread-safe;
+ * call {@link #expire()} periodically from the thread that changes the
+ * inventory.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see TimingWheel
+ */
+public class StockReservations implements InventoryListener {
+
+	/** Default tick length of the expiry wheel, in milliseconds. */
+	public static final long DEFAULT_TICK_MILLIS = 1_000;
+	/** Default number of buckets in the expiry wheel (about 17 minutes per turn). */
+	public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+	private final Inventory inventory;
+	private final Clock clock;
+	private final TimingWheel<Hold> wheel;
+	private final Map<Long, Hold> holds = new HashMap<>(); // Hold id -> open hold
+	private final Map<Toy, Integer> heldUnits = new IdentityHashMap<>(); // Toy -> units in open holds
+	private long nextId = 1;
+
+	/**
+	 * An open, confirmed, cancelled or expired hold on some units of a toy.
+	 */
+	public static final class Hold {
+		private final long id;
+		private final Toy toy;
+		private final int units;
+		private TimingWheel.Timeout<Hold> timeout; // Pending until the hold is closed
+
+		private Hold(long id, Toy toy, int units) {
+			this.id = id;
+			this.toy = toy;
+			this.units = units;
+		}
+
+		/** @return the hold number, used to confirm or cancel it. */
+		public long getId() {
+			return id;
+		}
+
+		/** @return the toy held. */
+		public Toy getToy() {
+			return toy;
+		}
+
+		/** @return the number of units held. */
+		public int getUnits() {
+			return units;
+		}
+
+		/** @return the time in milliseconds at which the hold expires. */
+		public long getExpiresAt() {
+			return timeout.getDeadline();
+		}
+
+		/** @return {@code true} if the hold has not been confirmed, cancelled or expired. */
+		public boolean isOpen() {
+			return timeout.isPending();
+		}
+
+		@Override
+		public String toString() {
+			return "Hold " + id + ": " + units + " x " + toy.getName() + " (" + toy.getSn() + ")";
+		}
+	}
+
+	/**
+	 * Creates reservations on an inventory, using the system clock and the
+	 * default wheel.
+	 *
+	 * @param inventory The inventory whose stock is held. Must not be null.
+	 * @throws IllegalArgumentException if the inventory is null.
+	 */
+	public StockReservations(Inventory inventory) {
+		this(inventory, Clock.systemUTC(), DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+	}
+
+	/**
+	 * Creates reservations on an inventory.
+	 *
+	 * @param inventory  The inventory whose stock is held. Must not be null.
+	 * @param clock      The clock giving hold and expiry times. Must not be
+	 *                   null.
+	 * @param tickMillis The expiry resolution in milliseconds. Must be positive.
+	 * @param wheelSize  The number of buckets in the expiry wheel. Must be
+	 *                   positive.
+	 * @throws IllegalArgumentException if a parameter is null or out of range.
+	 */
+	public StockReservations(Inventory inventory, Clock clock, long tickMillis, int wheelSize) {
+		if (inventory == null || clock == null) {
+			throw new IllegalArgumentException("Inventory and clock must not be null.");
+		}
+		this.inventory = inventory;
+		this.clock = clock;
+		this.wheel = new TimingWheel<>(tickMillis, wheelSize, clock.millis());
+	}
+
+	/**
+	 * Holds units of a toy for a while, taking them out of its available count.
+	 *
+	 * @param toy            The toy to hold. Must be in the inventory.
+	 * @param units          The number of units. Must be positive and no more
+	 *                       than the available count.
+	 * @param durationMillis How long to hold the units before releasing them.
+	 *                       Must be positive.
+	 * @return The open hold.
+	 * @throws IllegalArgumentException if the toy is not in the inventory, or the
+	 *                                  units or duration are out of range.
+	 */
+	public Hold reserve(Toy toy, int units, long durationMillis) {
+		if (inventory.slotOf(toy) < 0) {
+			throw new IllegalArgumentException("Toy is not in the inventory.");
+		}
+		if (units <= 0 || units > toy.getAvailableCount()) {
+			throw new IllegalArgumentException("Units must be between 1 and the available count ("
+					+ toy.getAvailableCount() + ").");
+		}
+		if (durationMillis <= 0) {
+			throw new IllegalArgumentException("Hold duration must be positive.");
+		}
+		Hold hold = new Hold(nextId++, toy, units);
+		hold.timeout = wheel.schedule(hold, clock.millis() + durationMillis);
+		holds.put(hold.id, hold);
+		heldUnits.merge(toy, units, Integer::sum);
+		inventory.setAvailableCount(toy, toy.getAvailableCount() - units);
+		return hold;
+	}
+
+	/**
+	 * Confirms a hold: its units stay out of stock as sold.
+	 *
+	 * @param id The hold number.
+	 * @return The confirmed hold, or null if no hold with that number is open.
+	 */
+	public Hold confirm(long id) {
+		Hold hold = close(id);
+		if (hold != null) {
+			release(hold.toy, hold.units);
+		}
+		return hold;
+	}
+
+	/**
+	 * Cancels a hold and returns its units to stock.
+	 *
+	 * @param id The hold number.
+	 * @return The cancelled hold, or null if no hold with that number is open.
+	 */
+	public Hold cancel(long id) {
+		Hold hold = close(id);
+		if (hold != null && release(hold.toy, hold.units)) {
+			inventory.setAvailableCount(hold.toy, hold.toy.getAvailableCount() + hold.units);
+		}
+		return hold;
+	}
+
+	/**
+	 * Releases every hold that has expired by now. Units are returned with one
+	 * stock change per toy, however many of its holds expired.
+	 *
+	 * @return The expired holds; empty if none were due.
+	 */
+	public List<Hold> expire() {
+		List<Hold> expired = wheel.advance(clock.millis());
+		if (expired.isEmpty()) {
+			return expired;
+		}
+		Map<Toy, Integer> returned = new IdentityHashMap<>();
+		for (Hold hold : expired) {
+			holds.remove(hold.id);
+			if (release(hold.toy, hold.units)) {
+				returned.merge(hold.toy, hold.units, Integer::sum);
+			}
+		}
+		for (Map.Entry<Toy, Integer> entry : returned.entrySet()) {
+			Toy toy = entry.getKey();
+			inventory.setAvailableCount(toy, toy.getAvailableCount() + entry.getValue());
+		}
+		return expired;
+	}
+
+	/**
+	 * Cancels every open hold, e.g. before the inventory is saved on exit so
+	 * the saved stock counts include held units.
+	 *
+	 * @return The number of holds cancelled.
+	 */
+	public int cancelAll() {
+		List<Long> ids = new ArrayList<>(holds.keySet());
+		for (long id : ids) {
+			cancel(id);
+		}
+		return ids.size();
+	}
+
+	/**
+	 * Returns an open hold.
+	 *
+	 * @param id The hold number.
+	 * @return The hold, or null if no hold with that number is open.
+	 */
+	public Hold get(long id) {
+		return holds.get(id);
+	}
+
+	/**
+	 * Returns the units of a toy in open holds.
+	 *
+	 * @param toy The toy.
+	 * @return The held units; 0 if none.
+	 */
+	public int getHeldUnits(Toy toy) {
+		return heldUnits.getOrDefault(toy, 0);
+	}
+
+	/**
+	 * Returns the units in open holds of every toy that has any.
+	 *
+	 * @return A new map from toy to held units, safe to read on another thread.
+	 */
+	public Map<Toy, Integer> heldUnitsByToy() {
+		return new IdentityHashMap<>(heldUnits);
+	}
+
+	/**
+	 * Returns the open holds.
+	 *
+	 * @return An unmodifiable live view of the open holds, in no particular
+	 *         order.
+	 */
+	public Map<Long, Hold> getOpenHolds() {
+		return Collections.unmodifiableMap(holds);
+	}
+
+	/**
+	 * Returns the number of open holds.
+	 *
+	 * @return The open hold count.
+	 */
+	public int size() {
+		return holds.size();
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		if (!heldUnits.containsKey(toy)) {
+			return;
+		}
+		// The units left with the toy, so its holds are dropped without a stock change
+		List<Hold> dropped = new ArrayList<>();
+		for (Hold hold : holds.values()) {
+			if (hold.toy == toy) {
+				dropped.add(hold);
+			}
+		}
+		for (Hold hold : dropped) {
+			close(hold.id);
+		}
+		heldUnits.remove(toy);
+	}
+
+	/**
+	 * Removes an open hold and its timeout.
+	 */
+	private Hold close(long id) {
+		Hold hold = holds.remove(id);
+		if (hold != null) {
+			hold.timeout.cancel();
+		}
+		return hold;
+	}
+
+	/**
+	 * Takes a closed hold's units off the toy's held count.
+	 *
+	 * @return {@code true} if the toy is still in the inventory, so its stock can
+	 *         be changed.
+	 */
+	private boolean release(Toy toy, int units) {
+		Integer held = heldUnits.get(toy);
+		if (held == null) {
+			return false;
+		}
+		if (held == units) {
+			heldUnits.remove(toy);
+		} else {
+			heldUnits.put(toy, held - units);
+		}
+		return inventory.slotOf(toy) >= 0;
+	}
+}
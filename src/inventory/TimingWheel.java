@@ -0,0 +1,203 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: many timeouts for the cost of one periodic tick.
+ *
+ * <p>
+ * Time is cut into ticks of a fixed length, and a timeout due at tick
+ * {@code t} is linked into bucket {@code t mod wheelSize}. Scheduling and
+ * cancelling are O(1), whatever the number of pending timeouts. Each
+ * {@link #advance(long)} visits only the buckets of the ticks that have
+ * passed and collects the timeouts that are due, so expirations come out in
+ * one batch per call; timeouts more than one turn of the wheel away stay in
+ * their bucket until their turn comes round.
+ * </p>
+ *
+ * <p>
+ * A timeout never fires before its deadline, and fires at most one tick after
+ * it (plus however late {@code advance} is called). The wheel is not
+ * thread-safe; it is meant to be advanced from the thread that schedules on
+ * it.
+ * </p>
+ *
+ * @param <T> The type of task attached to each timeout.
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class TimingWheel<T> {
+
+	private final long tickMillis;
+	private final long startMillis;
+	private final int mask; // wheelSize - 1; the size is a power of two
+	private final Timeout<T>[] heads; // Bucket -> first timeout in its list
+	private long currentTick; // Last tick processed
+	private int size; // Pending timeouts
+
+	/**
+	 * A scheduled task, which can be cancelled until it fires.
+	 *
+	 * @param <T> The type of the task.
+	 */
+	public static final class Timeout<T> {
+		private final T task;
+		private final long deadline;
+		private final long tick; // First tick at or after the deadline
+		private TimingWheel<T> wheel; // Null once fired or cancelled
+		private Timeout<T> previous, next;
+
+		private Timeout(TimingWheel<T> wheel, T task, long deadline, long tick) {
+			this.wheel = wheel;
+			this.task = task;
+			this.deadline = deadline;
+			this.tick = tick;
+		}
+
+		/** @return the task attached to this timeout. */
+		public T getTask() {
+			return task;
+		}
+
+		/** @return the deadline in milliseconds. */
+		public long getDeadline() {
+			return deadline;
+		}
+
+		/** @return {@code true} if the timeout has neither fired nor been cancelled. */
+		public boolean isPending() {
+			return wheel != null;
+		}
+
+		/**
+		 * Cancels the timeout so it never fires.
+		 *
+		 * @return {@code true} if the timeout was pending.
+		 */
+		public boolean cancel() {
+			if (wheel == null) {
+				return false;
+			}
+			wheel.unlink(this);
+			return true;
+		}
+	}
+
+	/**
+	 * Creates an empty wheel.
+	 *
+	 * @param tickMillis  The tick length in milliseconds. Must be positive.
+	 * @param wheelSize   The number of buckets; rounded up to a power of two.
+	 *                    Must be positive and at most 2^30.
+	 * @param startMillis The time of tick 0, usually the current time.
+	 * @throws IllegalArgumentException if the tick length or size is out of
+	 *                                  range.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("Tick length must be positive.");
+		}
+		if (wheelSize <= 0 || wheelSize > 1 << 30) {
+			throw new IllegalArgumentException("Wheel size must be between 1 and 2^30.");
+		}
+		int buckets = Integer.highestOneBit(wheelSize);
+		if (buckets < wheelSize) {
+			buckets <<= 1;
+		}
+		this.tickMillis = tickMillis;
+		this.startMillis = startMillis;
+		this.mask = buckets - 1;
+		this.heads = (Timeout<T>[]) new Timeout[buckets];
+	}
+
+	/**
+	 * Schedules a task. A deadline that has already passed fires on the next
+	 * tick.
+	 *
+	 * @param task     The task to attach.
+	 * @param deadline The time in milliseconds at which the task is due.
+	 * @return A handle for cancelling the timeout.
+	 */
+	public Timeout<T> schedule(T task, long deadline) {
+		long tick = Math.max(ceilDiv(deadline - startMillis, tickMillis), currentTick + 1);
+		Timeout<T> timeout = new Timeout<>(this, task, deadline, tick);
+		int bucket = (int) (tick & mask);
+		timeout.next = heads[bucket];
+		if (heads[bucket] != null) {
+			heads[bucket].previous = timeout;
+		}
+		heads[bucket] = timeout;
+		size++;
+		return timeout;
+	}
+
+	/**
+	 * Moves the wheel forward to a time and returns the tasks that have come
+	 * due. Every bucket is visited at most once per call, so a call after a long
+	 * pause costs at most one turn of the wheel.
+	 *
+	 * @param nowMillis The current time in milliseconds.
+	 * @return The due tasks, removed from the wheel; empty if none are due.
+	 */
+	public List<T> advance(long nowMillis) {
+		long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+		List<T> due = new ArrayList<>();
+		if (target <= currentTick) {
+			return due;
+		}
+		long first = Math.max(currentTick + 1, target - mask); // The last full turn covers every bucket
+		for (long tick = first; tick <= target && size > 0; tick++) {
+			Timeout<T> timeout = heads[(int) (tick & mask)];
+			while (timeout != null) {
+				Timeout<T> next = timeout.next;
+				if (timeout.tick <= target) {
+					unlink(timeout);
+					due.add(timeout.task);
+				}
+				timeout = next;
+			}
+		}
+		currentTick = target;
+		return due;
+	}
+
+	/**
+	 * Returns the number of timeouts that have neither fired nor been
+	 * cancelled.
+	 *
+	 * @return The pending timeout count.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/** @return the tick length in milliseconds. */
+	public long getTickMillis() {
+		return tickMillis;
+	}
+
+	/** @return the number of buckets. */
+	public int getWheelSize() {
+		return heads.length;
+	}
+
+	private void unlink(Timeout<T> timeout) {
+		if (timeout.previous != null) {
+			timeout.previous.next = timeout.next;
+		} else {
+			heads[(int) (timeout.tick & mask)] = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.previous = timeout.previous;
+		}
+		timeout.previous = timeout.next = null;
+		timeout.wheel = null;
+		size--;
+	}
+
+	private static long ceilDiv(long x, long y) {
+		return -Math.floorDiv(-x, y);
+	}
+}
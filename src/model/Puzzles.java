@@ -88,12 +88,13 @@ public class Puzzles extends Toy {
 	 * format is compatible with the `toys.txt` file and includes all relevant
 	 * details about the toy, separated by semicolons.
 	 *
+	 * @param availableCount The stock count to write.
 	 * @return a string representation of the toy's data for file storage.
 	 */
 	@Override
-	public String toDataString() {
+	public String toDataString(int availableCount) {
 		return String.join(";", getSn(), getName(), getBrand(), String.valueOf(getPrice()),
-				String.valueOf(getAvailableCount()), String.valueOf(getAgeAppropriate()), String.valueOf(puzzleType));
+				String.valueOf(availableCount), String.valueOf(getAgeAppropriate()), String.valueOf(puzzleType));
 	}
 
 	/**
@@ -160,14 +160,73 @@ public abstract class Toy {
 	 */
 	public abstract String getToyType();
 
+	/**
+	 * Returns the toy's data in a file-compatible format, with its current
+	 * available count.
+	 *
+	 * @return a string formatted for saving to `toys.txt`
+	 * @see #toDataString(int)
+	 */
+	public String toDataString() {
+		return toDataString(getAvailableCount());
+	}
+
 	/**
 	 * Abstract method for saving toy data to a file-compatible format. Each
 	 * subclass should implement this method to return a formatted string
-	 * representing the toy's data for saving to a file.
+	 * representing the toy's data for saving to a file. The stock count is passed
+	 * in so that a snapshot can save the count it captured rather than the
+	 * current one.
 	 *
+	 * @param availableCount The stock count to write.
 	 * @return a string formatted for saving to `toys.txt`
 	 */
-	public abstract String toDataString();
+	public abstract String toDataString(int availableCount);
+
+	/**
+	 * Parses a line written by {@link #toDataString()} back into a toy. The first
+	 * digit of the serial number selects the toy type.
+	 *
+	 * @param line The data line.
+	 * @return The parsed toy.
+	 * @throws IllegalArgumentException if the line is malformed, has an unknown
+	 *                                  type, or holds invalid values.
+	 */
+	public static Toy fromDataString(String line) {
+		String[] data = line.split(";");
+		if (data.length < 7 || data[0].isEmpty()) {
+			throw new IllegalArgumentException("Invalid data format: " + line);
+		}
+		String serialNumber = data[0];
+		try {
+			switch (serialNumber.charAt(0)) {
+			case '0':
+			case '1':
+				return new Figures(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
+						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6].charAt(0));
+			case '2':
+			case '3':
+				return new Animals(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
+						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6], data[7].charAt(0));
+			case '4':
+			case '5':
+			case '6':
+				return new Puzzles(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
+						Integer.parseInt(data[4]), Integer.parseInt(data[5]), data[6].charAt(0));
+			case '7':
+			case '8':
+			case '9':
+				String[] range = data[6].split("-");
+				return new BoardGames(serialNumber, data[1], data[2], Double.parseDouble(data[3]),
+						Integer.parseInt(data[4]), Integer.parseInt(data[5]), Integer.parseInt(range[0]),
+						Integer.parseInt(range[1]), data[7]);
+			default:
+				throw new IllegalArgumentException("Unknown toy type: " + line);
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Missing fields: " + line, e);
+		}
+	}
 
 	/**
 	 * Returns a formatted string representing the toy's details, including
@@ -0,0 +1,473 @@
+package sales;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import model.Toy;
+
+/**
+ * Append-only history of toy sales with minute, hour and day rollups.
+ *
+ * <p>
+ * Each sale is appended as a fixed-width {@value #RECORD_SIZE}-byte record
+ * (time, serial number, type, units, unit price in cents) to a file per UTC
+ * day named {@code sales-YYYY-MM-DD.dat}, so old days can be archived or
+ * deleted as whole files. A torn final record left by a crash is cut off when
+ * the history is reopened, so later sales are appended on a record boundary.
+ * </p>
+ *
+ * <p>
+ * The same sale is added to in-memory rollups: ring buffers of per-minute,
+ * per-hour and per-day buckets kept overall, per toy type and per SKU (see
+ * {@link Resolution} for how far back each reaches). A query such as "sales
+ * by type this week" adds up the buckets in its range, so it costs
+ * O(buckets) and never reads the raw events. On start-up the day files
+ * within the day rollup's retention are replayed to rebuild the rollups.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class SalesHistory implements Closeable {
+
+	/** Size in bytes of one sale record. */
+	public static final int RECORD_SIZE = 28;
+
+	/** Toy types with their own rollups; other types are rolled up as "Other". */
+	private static final String[] TYPES = { "Figure", "Animal", "Puzzle", "BoardGame", "Other" };
+
+	/**
+	 * Rollup bucket sizes and how many buckets of each are kept.
+	 */
+	public enum Resolution {
+		/** One-minute buckets covering the last hour. */
+		MINUTE(60_000L, 60),
+		/** One-hour buckets covering the last week. */
+		HOUR(3_600_000L, 7 * 24),
+		/** One-day buckets covering the last year. */
+		DAY(86_400_000L, 366);
+
+		private final long millis;
+		private final int buckets;
+
+		Resolution(long millis, int buckets) {
+			this.millis = millis;
+			this.buckets = buckets;
+		}
+
+		/** @return the bucket length in milliseconds. */
+		public long getMillis() {
+			return millis;
+		}
+
+		/** @return the number of buckets kept. */
+		public int getBuckets() {
+			return buckets;
+		}
+	}
+
+	/**
+	 * Units sold and revenue over a time range.
+	 */
+	public static final class Sales {
+		private long units;
+		private long revenueCents;
+
+		/** @return the number of units sold. */
+		public long getUnits() {
+			return units;
+		}
+
+		/** @return the revenue in cents. */
+		public long getRevenueCents() {
+			return revenueCents;
+		}
+
+		/** @return the revenue in dollars. */
+		public double getRevenue() {
+			return revenueCents / 100.0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d unit(s), $%.2f", units, getRevenue());
+		}
+	}
+
+	/**
+	 * Ring buffer of buckets at one resolution. A ring position holds the
+	 * bucket whose number is stored in {@code stamp}; older buckets that map to
+	 * the same position are overwritten.
+	 */
+	private static final class Ring {
+		final int[] stamp; // Bucket number held by each position (minutes since epoch fit in an int)
+		final int[] units;
+		final long[] cents;
+
+		Ring(int buckets) {
+			stamp = new int[buckets];
+			Arrays.fill(stamp, -1);
+			units = new int[buckets];
+			cents = new long[buckets];
+		}
+
+		void add(int bucket, int units, long cents) {
+			int at = bucket % stamp.length;
+			if (stamp[at] != bucket) {
+				if (stamp[at] > bucket) {
+					return; // Older than the retained window
+				}
+				stamp[at] = bucket;
+				this.units[at] = 0;
+				this.cents[at] = 0;
+			}
+			this.units[at] += units;
+			this.cents[at] += cents;
+		}
+
+		void sum(int from, int to, Sales sales) {
+			for (int bucket = from; bucket <= to; bucket++) {
+				int at = bucket % stamp.length;
+				if (stamp[at] == bucket) {
+					sales.units += units[at];
+					sales.revenueCents += cents[at];
+				}
+			}
+		}
+	}
+
+	private final Path directory;
+	private final Clock clock;
+	private final Ring[] total = newRings();
+	private final Ring[][] byType = new Ring[TYPES.length][];
+	private final Map<Long, Ring[]> bySku = new HashMap<>(); // Serial number -> rings, created on first sale
+
+	private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+	private FileChannel channel; // Day file being appended to
+	private long channelDay = Long.MIN_VALUE;
+
+	/**
+	 * Opens the sales history stored in a directory, using the system clock.
+	 *
+	 * @param directory The directory holding the day files. It is created on the
+	 *                  first sale if it does not exist.
+	 * @throws IOException if an existing day file cannot be read.
+	 */
+	public SalesHistory(Path directory) throws IOException {
+		this(directory, Clock.systemUTC());
+	}
+
+	/**
+	 * Opens the sales history stored in a directory and replays the day files
+	 * within the day rollup's retention.
+	 *
+	 * @param directory The directory holding the day files. Must not be null.
+	 * @param clock     The clock giving sale times and the current retention
+	 *                  window. Must not be null.
+	 * @throws IOException              if an existing day file cannot be read.
+	 * @throws IllegalArgumentException if the directory or clock is null.
+	 */
+	public SalesHistory(Path directory, Clock clock) throws IOException {
+		if (directory == null || clock == null) {
+			throw new IllegalArgumentException("Directory and clock must not be null.");
+		}
+		this.directory = directory;
+		this.clock = clock;
+		for (int type = 0; type < TYPES.length; type++) {
+			byType[type] = newRings();
+		}
+		replay();
+	}
+
+	/**
+	 * Records a sale at the current time.
+	 *
+	 * @param toy   The toy sold. Its current price is recorded.
+	 * @param units The number of units sold. Must be positive.
+	 * @throws IOException              if the record cannot be appended.
+	 * @throws IllegalArgumentException if the toy is null or has a non-numeric
+	 *                                  serial number, or units is not positive.
+	 */
+	public void record(Toy toy, int units) throws IOException {
+		if (toy == null) {
+			throw new IllegalArgumentException("Toy must not be null.");
+		}
+		if (units <= 0) {
+			throw new IllegalArgumentException("Units sold must be positive.");
+		}
+		long time = clock.millis();
+		long sn = parseSn(toy.getSn());
+		int type = typeCode(toy.getToyType());
+		int priceCents = (int) Math.round(toy.getPrice() * 100);
+		add(time, sn, type, units, priceCents);
+		append(time, sn, type, units, priceCents);
+	}
+
+	/**
+	 * Returns the sales of one toy over a time range.
+	 *
+	 * @param sn         The serial number of the toy.
+	 * @param resolution The rollup to read; its retention must cover the range.
+	 * @param from       Range start in epoch milliseconds, inclusive.
+	 * @param to         Range end in epoch milliseconds, exclusive.
+	 * @return The units and revenue in the buckets overlapping the range.
+	 * @throws IllegalArgumentException if the range is empty or older than the
+	 *                                  rollup's retention.
+	 */
+	public Sales bySku(String sn, Resolution resolution, long from, long to) {
+		return sum(bySku.get(parseSn(sn)), resolution, from, to);
+	}
+
+	/**
+	 * Returns the sales of one toy type over a time range.
+	 *
+	 * @param type       The toy type (case-insensitive), e.g. "Figure".
+	 * @param resolution The rollup to read; its retention must cover the range.
+	 * @param from       Range start in epoch milliseconds, inclusive.
+	 * @param to         Range end in epoch milliseconds, exclusive.
+	 * @return The units and revenue in the buckets overlapping the range.
+	 * @throws IllegalArgumentException if the range is empty or older than the
+	 *                                  rollup's retention.
+	 */
+	public Sales byType(String type, Resolution resolution, long from, long to) {
+		return sum(byType[typeCode(type)], resolution, from, to);
+	}
+
+	/**
+	 * Returns the sales of every toy type over a time range, e.g. "sales by type
+	 * this week".
+	 *
+	 * @param resolution The rollup to read; its retention must cover the range.
+	 * @param from       Range start in epoch milliseconds, inclusive.
+	 * @param to         Range end in epoch milliseconds, exclusive.
+	 * @return An unmodifiable map from type to sales, including types without
+	 *         sales.
+	 * @throws IllegalArgumentException if the range is empty or older than the
+	 *                                  rollup's retention.
+	 */
+	public Map<String, Sales> salesByType(Resolution resolution, long from, long to) {
+		Map<String, Sales> result = new LinkedHashMap<>();
+		for (int type = 0; type < TYPES.length; type++) {
+			result.put(TYPES[type], sum(byType[type], resolution, from, to));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Returns the sales of all toys over a time range.
+	 *
+	 * @param resolution The rollup to read; its retention must cover the range.
+	 * @param from       Range start in epoch milliseconds, inclusive.
+	 * @param to         Range end in epoch milliseconds, exclusive.
+	 * @return The units and revenue in the buckets overlapping the range.
+	 * @throws IllegalArgumentException if the range is empty or older than the
+	 *                                  rollup's retention.
+	 */
+	public Sales total(Resolution resolution, long from, long to) {
+		return sum(total, resolution, from, to);
+	}
+
+	/**
+	 * Returns the units of one toy sold in each bucket of a time range, e.g.
+	 * units per hour.
+	 *
+	 * @param sn         The serial number of the toy.
+	 * @param resolution The rollup to read; its retention must cover the range.
+	 * @param from       Range start in epoch milliseconds, inclusive.
+	 * @param to         Range end in epoch milliseconds, exclusive.
+	 * @return Units sold per bucket, oldest first, one entry per bucket
+	 *         overlapping the range up to the current one.
+	 * @throws IllegalArgumentException if the range is empty or older than the
+	 *                                  rollup's retention.
+	 */
+	public long[] unitsPerBucket(String sn, Resolution resolution, long from, long to) {
+		int first = firstBucket(resolution, from, to), last = lastBucket(resolution, to);
+		long[] units = new long[last - first + 1];
+		Ring[] rings = bySku.get(parseSn(sn));
+		if (rings != null) {
+			Ring ring = rings[resolution.ordinal()];
+			for (int bucket = first; bucket <= last; bucket++) {
+				int at = bucket % ring.stamp.length;
+				if (ring.stamp[at] == bucket) {
+					units[bucket - first] = ring.units[at];
+				}
+			}
+		}
+		return units;
+	}
+
+	/**
+	 * Closes the day file being appended to.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+			channelDay = Long.MIN_VALUE;
+		}
+	}
+
+	private Sales sum(Ring[] rings, Resolution resolution, long from, long to) {
+		int first = firstBucket(resolution, from, to), last = lastBucket(resolution, to);
+		Sales sales = new Sales();
+		if (rings != null) {
+			rings[resolution.ordinal()].sum(first, last, sales);
+		}
+		return sales;
+	}
+
+	private int firstBucket(Resolution resolution, long from, long to) {
+		if (from >= to) {
+			throw new IllegalArgumentException("Range start must be before its end.");
+		}
+		long oldest = clock.millis() / resolution.millis - resolution.buckets + 1;
+		if (Math.floorDiv(from, resolution.millis) < oldest) {
+			throw new IllegalArgumentException("Range starts before the " + resolution.name().toLowerCase()
+					+ " rollup's retention of " + resolution.buckets + " buckets.");
+		}
+		return (int) (from / resolution.millis);
+	}
+
+	/**
+	 * Returns the last bucket of a range, capped at the current bucket since no
+	 * sale is recorded in the future.
+	 */
+	private int lastBucket(Resolution resolution, long to) {
+		return (int) (Math.min(to - 1, clock.millis()) / resolution.millis);
+	}
+
+	/**
+	 * Adds a sale to the overall, type and SKU rollups.
+	 */
+	private void add(long time, long sn, int type, int units, int priceCents) {
+		long cents = (long) units * priceCents;
+		Ring[] sku = bySku.computeIfAbsent(sn, key -> newRings());
+		for (Resolution resolution : Resolution.values()) {
+			int bucket = (int) (time / resolution.millis);
+			int r = resolution.ordinal();
+			total[r].add(bucket, units, cents);
+			byType[type][r].add(bucket, units, cents);
+			sku[r].add(bucket, units, cents);
+		}
+	}
+
+	/**
+	 * Appends a record to the file of the sale's day, switching files when the
+	 * day changes.
+	 */
+	private void append(long time, long sn, int type, int units, int priceCents) throws IOException {
+		long day = Math.floorDiv(time, Resolution.DAY.millis);
+		if (channel == null || day != channelDay) {
+			close();
+			Files.createDirectories(directory);
+			channel = FileChannel.open(fileOf(LocalDate.ofEpochDay(day)), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			channelDay = day;
+		}
+		record.clear();
+		record.putLong(time).putLong(sn).putInt(type).putInt(units).putInt(priceCents).flip();
+		while (record.hasRemaining()) {
+			channel.write(record);
+		}
+	}
+
+	/**
+	 * Rebuilds the rollups from the day files within the day rollup's retention.
+	 */
+	private void replay() throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		LocalDate oldest = LocalDate.now(clock.withZone(ZoneOffset.UTC)).minusDays(Resolution.DAY.buckets - 1);
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "sales-*.dat")) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				LocalDate date;
+				try {
+					date = LocalDate.parse(name.substring("sales-".length(), name.length() - ".dat".length()));
+				} catch (RuntimeException e) {
+					continue; // Not a day file
+				}
+				if (!date.isBefore(oldest)) {
+					replay(file, buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replays a day file and truncates a torn final record, which would
+	 * otherwise misalign every record appended after it.
+	 */
+	private void replay(Path file, ByteBuffer buffer) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			buffer.clear();
+			while (in.read(buffer) > 0 || buffer.position() >= RECORD_SIZE) {
+				buffer.flip();
+				while (buffer.remaining() >= RECORD_SIZE) {
+					long time = buffer.getLong();
+					long sn = buffer.getLong();
+					int type = buffer.getInt();
+					int units = buffer.getInt();
+					int priceCents = buffer.getInt();
+					if (type >= 0 && type < TYPES.length) {
+						add(time, sn, type, units, priceCents);
+					}
+				}
+				buffer.compact(); // Keeps a partial record for the next read; a torn last record is dropped
+			}
+			long size = in.size();
+			if (size % RECORD_SIZE != 0) {
+				in.truncate(size - size % RECORD_SIZE);
+			}
+		}
+	}
+
+	private Path fileOf(LocalDate date) {
+		return directory.resolve("sales-" + date + ".dat");
+	}
+
+	private static Ring[] newRings() {
+		Resolution[] resolutions = Resolution.values();
+		Ring[] rings = new Ring[resolutions.length];
+		for (Resolution resolution : resolutions) {
+			rings[resolution.ordinal()] = new Ring(resolution.buckets);
+		}
+		return rings;
+	}
+
+	private static int typeCode(String type) {
+		for (int i = 0; i < TYPES.length - 1; i++) {
+			if (TYPES[i].equalsIgnoreCase(type)) {
+				return i;
+			}
+		}
+		return TYPES.length - 1;
+	}
+
+	private static long parseSn(String sn) {
+		try {
+			return Long.parseLong(sn == null ? "" : sn.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Serial number must be numeric: " + sn);
+		}
+	}
+}
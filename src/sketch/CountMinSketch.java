@@ -0,0 +1,193 @@
+package sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch: approximate event counts per item in fixed memory.
+ *
+ * <p>
+ * The sketch is a {@code depth x width} table of counters. Each item is
+ * hashed to one counter per row and adding the item increments all of them;
+ * its estimate is the smallest of those counters. Estimates never undercount,
+ * and with probability {@code confidence} they overcount by at most
+ * {@code epsilon} times the total count, where {@code width = ceil(e /
+ * epsilon)} and {@code depth = ceil(ln(1 / (1 - confidence)))}.
+ * </p>
+ *
+ * <p>
+ * Two sketches of the same dimensions are merged by adding their tables, so
+ * sketches kept on separate terminals can be combined into one.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class CountMinSketch {
+
+	private final int width;
+	private final int depth;
+	private final long[] counts; // Row-major depth x width table
+	private long total;
+
+	/**
+	 * Creates an empty sketch with the given table dimensions.
+	 *
+	 * @param width The number of counters per row. Must be positive.
+	 * @param depth The number of rows (hash functions). Must be positive.
+	 * @throws IllegalArgumentException if a dimension is not positive or the
+	 *                                  table would be too large.
+	 */
+	public CountMinSketch(int width, int depth) {
+		if (width <= 0 || depth <= 0) {
+			throw new IllegalArgumentException("Width and depth must be positive.");
+		}
+		if ((long) width * depth > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Sketch table is too large.");
+		}
+		this.width = width;
+		this.depth = depth;
+		this.counts = new long[width * depth];
+	}
+
+	/**
+	 * Creates an empty sketch sized for an error bound.
+	 *
+	 * @param epsilon    The overcount bound as a fraction of the total count,
+	 *                   e.g. 0.001. Must be in (0, 1).
+	 * @param confidence The probability that an estimate is within the bound,
+	 *                   e.g. 0.99. Must be in (0, 1).
+	 * @return The new sketch.
+	 * @throws IllegalArgumentException if a parameter is out of range.
+	 */
+	public static CountMinSketch withError(double epsilon, double confidence) {
+		if (!(epsilon > 0 && epsilon < 1) || !(confidence > 0 && confidence < 1)) {
+			throw new IllegalArgumentException("Epsilon and confidence must be between 0 and 1.");
+		}
+		return new CountMinSketch((int) Math.ceil(Math.E / epsilon),
+				(int) Math.ceil(Math.log(1 / (1 - confidence))));
+	}
+
+	/**
+	 * Counts an occurrence of an item.
+	 *
+	 * @param item  The item. Must not be null.
+	 * @param count The number of occurrences. Must not be negative.
+	 * @return The item's estimated count after the addition.
+	 * @throws IllegalArgumentException if the item is null or the count is
+	 *                                  negative.
+	 */
+	public long add(String item, long count) {
+		if (item == null) {
+			throw new IllegalArgumentException("Item must not be null.");
+		}
+		if (count < 0) {
+			throw new IllegalArgumentException("Count must not be negative.");
+		}
+		long hash = Hashing.hash64(item);
+		int h1 = (int) hash, h2 = (int) (hash >>> 32);
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			int at = row * width + index(h1, h2, row);
+			counts[at] += count;
+			estimate = Math.min(estimate, counts[at]);
+		}
+		total += count;
+		return estimate;
+	}
+
+	/**
+	 * Returns the estimated count of an item.
+	 *
+	 * @param item The item. Must not be null.
+	 * @return An estimate that is never below the true count.
+	 * @throws IllegalArgumentException if the item is null.
+	 */
+	public long estimate(String item) {
+		if (item == null) {
+			throw new IllegalArgumentException("Item must not be null.");
+		}
+		long hash = Hashing.hash64(item);
+		int h1 = (int) hash, h2 = (int) (hash >>> 32);
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, counts[row * width + index(h1, h2, row)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Returns the total of all counts added.
+	 *
+	 * @return The total count.
+	 */
+	public long total() {
+		return total;
+	}
+
+	/** @return the number of counters per row. */
+	public int getWidth() {
+		return width;
+	}
+
+	/** @return the number of rows. */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Adds another sketch's counts into this one.
+	 *
+	 * @param other A sketch with the same width and depth.
+	 * @throws IllegalArgumentException if the dimensions differ.
+	 */
+	public void merge(CountMinSketch other) {
+		if (other.width != width || other.depth != depth) {
+			throw new IllegalArgumentException("Only sketches of the same dimensions can be merged.");
+		}
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		total += other.total;
+	}
+
+	/**
+	 * Writes the sketch so it can be sent to another terminal and merged there.
+	 *
+	 * @param out The output to write to.
+	 * @throws IOException if writing fails.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(width);
+		out.writeInt(depth);
+		out.writeLong(total);
+		for (long count : counts) {
+			out.writeLong(count);
+		}
+	}
+
+	/**
+	 * Reads a sketch written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The sketch.
+	 * @throws IOException if reading fails.
+	 */
+	public static CountMinSketch readFrom(DataInput in) throws IOException {
+		CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+		sketch.total = in.readLong();
+		for (int i = 0; i < sketch.counts.length; i++) {
+			sketch.counts[i] = in.readLong();
+		}
+		return sketch;
+	}
+
+	/**
+	 * Derives the column of an item in a row from two halves of its hash
+	 * (double hashing), which is as accurate as independent hash functions.
+	 */
+	private int index(int h1, int h2, int row) {
+		return Math.floorMod(h1 + row * h2, width);
+	}
+}
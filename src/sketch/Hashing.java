@@ -0,0 +1,46 @@
+package sketch;
+
+/**
+ * 64-bit hashing shared by the sketches. Sketches built on different
+ * terminals must hash identically to be merged, so the hash is fixed here
+ * rather than taken from {@link String#hashCode()}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class Hashing {
+
+	private Hashing() {
+	}
+
+	/**
+	 * Hashes a string to 64 bits: FNV-1a over its characters, followed by a
+	 * finalizer that spreads every input bit over the whole result.
+	 *
+	 * @param item The string to hash. Must not be null.
+	 * @return The 64-bit hash.
+	 */
+	static long hash64(String item) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < item.length(); i++) {
+			h ^= item.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * MurmurHash3's 64-bit finalizer.
+	 *
+	 * @param h The value to mix.
+	 * @return The mixed value.
+	 */
+	static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
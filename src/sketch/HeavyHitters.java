@@ -0,0 +1,187 @@
+package sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The most frequent items of a stream, such as top-selling toys or top search
+ * terms, in bounded memory.
+ *
+ * <p>
+ * Every item is counted in a {@link CountMinSketch}. Alongside it the
+ * {@code k} items with the highest estimates seen so far are kept as
+ * candidates: an item not yet tracked replaces the lowest candidate once its
+ * estimate exceeds it. Memory is the sketch table plus {@code k} entries,
+ * whatever the traffic.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class HeavyHitters {
+
+	private final int k;
+	private final CountMinSketch sketch;
+	private final Map<String, Long> candidates; // Item -> estimate when last counted
+	private String lowest; // Candidate with the lowest estimate, or null if unknown
+
+	/**
+	 * Creates an empty tracker.
+	 *
+	 * @param k          The number of items to keep. Must be positive.
+	 * @param epsilon    The Count-Min overcount bound as a fraction of the total
+	 *                   count. Must be in (0, 1).
+	 * @param confidence The Count-Min confidence. Must be in (0, 1).
+	 * @throws IllegalArgumentException if a parameter is out of range.
+	 */
+	public HeavyHitters(int k, double epsilon, double confidence) {
+		this(k, CountMinSketch.withError(epsilon, confidence));
+	}
+
+	private HeavyHitters(int k, CountMinSketch sketch) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("K must be positive.");
+		}
+		this.k = k;
+		this.sketch = sketch;
+		this.candidates = new HashMap<>(k * 2);
+	}
+
+	/**
+	 * Counts one occurrence of an item.
+	 *
+	 * @param item The item. Must not be null.
+	 * @throws IllegalArgumentException if the item is null.
+	 */
+	public void add(String item) {
+		offer(item, sketch.add(item, 1));
+	}
+
+	/**
+	 * Returns the estimated count of an item, tracked or not.
+	 *
+	 * @param item The item. Must not be null.
+	 * @return An estimate that is never below the true count.
+	 */
+	public long estimate(String item) {
+		return sketch.estimate(item);
+	}
+
+	/**
+	 * Returns the total number of occurrences counted.
+	 *
+	 * @return The stream length.
+	 */
+	public long total() {
+		return sketch.total();
+	}
+
+	/**
+	 * Returns the most frequent items.
+	 *
+	 * @return At most {@code k} items with their estimated counts, highest first
+	 *         (ties by item).
+	 */
+	public List<Map.Entry<String, Long>> top() {
+		List<Map.Entry<String, Long>> top = new ArrayList<>(candidates.size());
+		for (String item : candidates.keySet()) {
+			top.add(new AbstractMap.SimpleImmutableEntry<>(item, sketch.estimate(item)));
+		}
+		top.sort((a, b) -> a.getValue().equals(b.getValue()) ? a.getKey().compareTo(b.getKey())
+				: Long.compare(b.getValue(), a.getValue()));
+		return top;
+	}
+
+	/**
+	 * Adds another tracker's counts into this one. The candidates of both are
+	 * re-ranked by their merged estimates.
+	 *
+	 * @param other A tracker with the same {@code k} and sketch dimensions.
+	 * @throws IllegalArgumentException if the trackers are not compatible.
+	 */
+	public void merge(HeavyHitters other) {
+		if (other.k != k) {
+			throw new IllegalArgumentException("Only trackers of the same size can be merged.");
+		}
+		sketch.merge(other.sketch);
+		Set<String> items = new HashSet<>(candidates.keySet());
+		items.addAll(other.candidates.keySet());
+		candidates.clear();
+		lowest = null;
+		for (String item : items) {
+			offer(item, sketch.estimate(item));
+		}
+	}
+
+	/**
+	 * Writes the tracker so it can be sent to another terminal and merged there.
+	 *
+	 * @param out The output to write to.
+	 * @throws IOException if writing fails.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(k);
+		sketch.writeTo(out);
+		out.writeInt(candidates.size());
+		for (String item : candidates.keySet()) {
+			out.writeUTF(item);
+		}
+	}
+
+	/**
+	 * Reads a tracker written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The tracker.
+	 * @throws IOException if reading fails.
+	 */
+	public static HeavyHitters readFrom(DataInput in) throws IOException {
+		HeavyHitters tracker = new HeavyHitters(in.readInt(), CountMinSketch.readFrom(in));
+		for (int i = in.readInt(); i > 0; i--) {
+			String item = in.readUTF();
+			tracker.offer(item, tracker.sketch.estimate(item));
+		}
+		return tracker;
+	}
+
+	/**
+	 * Updates a candidate, or admits an item if there is room or it beats the
+	 * lowest candidate.
+	 */
+	private void offer(String item, long estimate) {
+		if (candidates.containsKey(item)) {
+			candidates.put(item, estimate);
+			if (item.equals(lowest)) {
+				lowest = null; // Its estimate grew, so another candidate may now be lowest
+			}
+			return;
+		}
+		if (candidates.size() < k) {
+			candidates.put(item, estimate);
+			if (lowest != null && estimate < candidates.get(lowest)) {
+				lowest = item;
+			}
+			return;
+		}
+		if (lowest == null) {
+			for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+				if (lowest == null || entry.getValue() < candidates.get(lowest)) {
+					lowest = entry.getKey();
+				}
+			}
+		}
+		if (estimate > candidates.get(lowest)) {
+			candidates.remove(lowest);
+			candidates.put(item, estimate);
+			lowest = null;
+		}
+	}
+}
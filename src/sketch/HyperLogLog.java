@@ -0,0 +1,153 @@
+package sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * HyperLogLog: approximate count of distinct items in fixed memory.
+ *
+ * <p>
+ * Each item's 64-bit hash picks one of {@code 2^precision} one-byte registers
+ * with its top bits, and the register keeps the longest run of leading zeros
+ * seen in the remaining bits. The harmonic mean of the registers gives the
+ * distinct count with a relative standard error of about
+ * {@code 1.04 / sqrt(2^precision)}, e.g. 0.8% at precision 14 (16 KB). Small
+ * counts are corrected with linear counting over the empty registers.
+ * </p>
+ *
+ * <p>
+ * Two sketches of the same precision are merged by taking the larger value of
+ * each register, which gives exactly the sketch of the combined streams.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class HyperLogLog {
+
+	/** Smallest supported precision. */
+	public static final int MIN_PRECISION = 4;
+	/** Largest supported precision. */
+	public static final int MAX_PRECISION = 18;
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param precision The number of index bits, between {@link #MIN_PRECISION}
+	 *                  and {@link #MAX_PRECISION}.
+	 * @throws IllegalArgumentException if the precision is out of range.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException(
+					"Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ".");
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds an item.
+	 *
+	 * @param item The item. Must not be null.
+	 * @throws IllegalArgumentException if the item is null.
+	 */
+	public void add(String item) {
+		if (item == null) {
+			throw new IllegalArgumentException("Item must not be null.");
+		}
+		long hash = Hashing.hash64(item);
+		int index = (int) (hash >>> (64 - precision));
+		// A sentinel bit bounds the rank when the remaining bits are all zero
+		long rest = (hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Returns the estimated number of distinct items added.
+	 *
+	 * @return The distinct count estimate.
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros); // Linear counting
+		}
+		return Math.round(estimate);
+	}
+
+	/** @return the number of index bits. */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other A sketch with the same precision.
+	 * @throws IllegalArgumentException if the precisions differ.
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Only sketches of the same precision can be merged.");
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * Writes the sketch so it can be sent to another terminal and merged there.
+	 *
+	 * @param out The output to write to.
+	 * @throws IOException if writing fails.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(precision);
+		out.write(registers);
+	}
+
+	/**
+	 * Reads a sketch written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The sketch.
+	 * @throws IOException if reading fails.
+	 */
+	public static HyperLogLog readFrom(DataInput in) throws IOException {
+		HyperLogLog sketch = new HyperLogLog(in.readInt());
+		in.readFully(sketch.registers);
+		return sketch;
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+		case 16:
+			return 0.673;
+		case 32:
+			return 0.697;
+		case 64:
+			return 0.709;
+		default:
+			return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+}
@@ -0,0 +1,371 @@
+package sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch: approximate ranks and quantiles of a stream of numbers
+ * in memory that grows only logarithmically with the stream.
+ *
+ * <p>
+ * Values are kept in a stack of compactors. Level {@code h} holds values that
+ * each stand for {@code 2^h} inputs. When the sketch is full, the lowest
+ * level over its capacity is sorted and every other value (starting at a
+ * random offset) is promoted one level up, halving its size without biasing
+ * ranks. Capacities shrink by a factor of 2/3 per level below the top, so
+ * the sketch holds about {@code 3k} values in total.
+ * </p>
+ *
+ * <p>
+ * <b>Error bound:</b> with 99% probability the rank of a value (or the rank
+ * at which a quantile's value is found) is off by at most about 1.7% of the
+ * item count for the default {@code k = 200}; the error is roughly inversely
+ * proportional to {@code k}. Two sketches are merged by concatenating their
+ * levels and compacting, and the bound holds for the merged stream.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class KllSketch {
+
+	/** Default accuracy parameter. */
+	public static final int DEFAULT_K = 200;
+
+	private static final double CAPACITY_DECAY = 2.0 / 3.0;
+	private static final int MIN_CAPACITY = 8;
+
+	private final int k;
+	private double[][] levels = { new double[MIN_CAPACITY] }; // Compactor values; level h weighs 2^h
+	private int[] sizes = new int[1]; // Values held per level
+	private int retained; // Values held over all levels
+	private int maxRetained; // Sum of level capacities; compaction starts here
+	private long count; // Items added
+	private double min = Double.NaN, max = Double.NaN;
+	private long seed = 0x9E3779B97F4A7C15L; // Xorshift state for compaction offsets
+
+	// Sorted view of all values with cumulative weights, rebuilt after changes
+	private double[] sortedValues;
+	private long[] cumulative;
+
+	/**
+	 * Creates an empty sketch with {@link #DEFAULT_K}.
+	 */
+	public KllSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param k The accuracy parameter; larger values are more accurate and use
+	 *          proportionally more memory. Must be at least 8.
+	 * @throws IllegalArgumentException if k is below 8.
+	 */
+	public KllSketch(int k) {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("K must be at least " + MIN_CAPACITY + ".");
+		}
+		this.k = k;
+		this.maxRetained = capacity(0);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value The value. NaN is ignored.
+	 */
+	public void update(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		min = count == 0 ? value : Math.min(min, value);
+		max = count == 0 ? value : Math.max(max, value);
+		count++;
+		append(0, value);
+		if (retained >= maxRetained) {
+			compress();
+		}
+		sortedValues = null;
+	}
+
+	/**
+	 * Returns the number of values added.
+	 *
+	 * @return The stream length.
+	 */
+	public long count() {
+		return count;
+	}
+
+	/** @return the smallest value added (exact), or NaN if empty. */
+	public double getMin() {
+		return min;
+	}
+
+	/** @return the largest value added (exact), or NaN if empty. */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the estimated number of values at or below a value.
+	 *
+	 * @param value The value.
+	 * @return The estimated rank, between 0 and {@link #count()}.
+	 */
+	public long rank(double value) {
+		buildSortedView();
+		int at = upperBound(sortedValues, value);
+		return at == 0 ? 0 : cumulative[at - 1];
+	}
+
+	/**
+	 * Returns the estimated value at a quantile.
+	 *
+	 * @param fraction The quantile, from 0 (minimum) to 1 (maximum); e.g. 0.5 for
+	 *                 the median, 0.9 for p90.
+	 * @return The estimated quantile value, or NaN if the sketch is empty.
+	 * @throws IllegalArgumentException if the fraction is outside [0, 1].
+	 */
+	public double quantile(double fraction) {
+		if (!(fraction >= 0 && fraction <= 1)) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (fraction == 0) {
+			return min;
+		}
+		if (fraction == 1) {
+			return max;
+		}
+		buildSortedView();
+		long target = (long) Math.ceil(fraction * cumulative[cumulative.length - 1]);
+		int at = Arrays.binarySearch(cumulative, Math.max(1, target));
+		return sortedValues[at >= 0 ? at : -at - 1];
+	}
+
+	/**
+	 * Returns the estimated value at a quantile of this sketch's stream after
+	 * taking out the values of another stream, e.g. prices of toys added minus
+	 * prices of toys removed. Each candidate value's rank is its rank here minus
+	 * its rank in {@code removed}, and the candidates are binary searched.
+	 *
+	 * @param removed  A sketch of values that were taken out of this stream.
+	 * @param fraction The quantile, from 0 to 1.
+	 * @return The estimated quantile value, or NaN if no value remains.
+	 * @throws IllegalArgumentException if the fraction is outside [0, 1].
+	 */
+	public double quantileWithout(KllSketch removed, double fraction) {
+		if (!(fraction >= 0 && fraction <= 1)) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+		}
+		long remaining = count - removed.count;
+		if (remaining <= 0) {
+			return Double.NaN;
+		}
+		if (removed.count == 0) {
+			return quantile(fraction);
+		}
+		buildSortedView();
+		long target = Math.max(1, (long) Math.ceil(fraction * remaining));
+		int low = 0, high = sortedValues.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (cumulative[mid] - removed.rank(sortedValues[mid]) >= target) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return sortedValues[low];
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other A sketch with the same k.
+	 * @throws IllegalArgumentException if the k values differ.
+	 */
+	public void merge(KllSketch other) {
+		if (other.k != k) {
+			throw new IllegalArgumentException("Only sketches with the same k can be merged.");
+		}
+		if (other.count == 0) {
+			return;
+		}
+		while (levels.length < other.levels.length) {
+			grow();
+		}
+		for (int h = 0; h < other.levels.length; h++) {
+			for (int i = 0; i < other.sizes[h]; i++) {
+				append(h, other.levels[h][i]);
+			}
+		}
+		min = count == 0 ? other.min : Math.min(min, other.min);
+		max = count == 0 ? other.max : Math.max(max, other.max);
+		count += other.count;
+		while (retained >= maxRetained) {
+			compress();
+		}
+		sortedValues = null;
+	}
+
+	/**
+	 * Writes the sketch so it can be sent to another terminal and merged there.
+	 *
+	 * @param out The output to write to.
+	 * @throws IOException if writing fails.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(k);
+		out.writeLong(count);
+		out.writeDouble(min);
+		out.writeDouble(max);
+		out.writeInt(levels.length);
+		for (int h = 0; h < levels.length; h++) {
+			out.writeInt(sizes[h]);
+			for (int i = 0; i < sizes[h]; i++) {
+				out.writeDouble(levels[h][i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads a sketch written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param in The input to read from.
+	 * @return The sketch.
+	 * @throws IOException if reading fails.
+	 */
+	public static KllSketch readFrom(DataInput in) throws IOException {
+		KllSketch sketch = new KllSketch(in.readInt());
+		sketch.count = in.readLong();
+		sketch.min = in.readDouble();
+		sketch.max = in.readDouble();
+		int height = in.readInt();
+		while (sketch.levels.length < height) {
+			sketch.grow();
+		}
+		for (int h = 0; h < height; h++) {
+			for (int i = in.readInt(); i > 0; i--) {
+				sketch.append(h, in.readDouble());
+			}
+		}
+		return sketch;
+	}
+
+	/**
+	 * Compacts the lowest level that is over its capacity, growing the stack
+	 * when the top level is compacted.
+	 */
+	private void compress() {
+		for (int h = 0; h < levels.length; h++) {
+			if (sizes[h] >= capacity(h)) {
+				if (h + 1 == levels.length) {
+					grow();
+				}
+				double[] values = levels[h];
+				int size = sizes[h];
+				Arrays.sort(values, 0, size);
+				int odd = size & 1; // An odd value out stays at this level
+				int offset = nextBit();
+				for (int i = odd + offset; i < size; i += 2) {
+					append(h + 1, values[i]);
+				}
+				retained -= size - odd;
+				sizes[h] = odd; // Keeps values[0] if the size was odd
+				return;
+			}
+		}
+	}
+
+	private void append(int h, double value) {
+		if (sizes[h] == levels[h].length) {
+			levels[h] = Arrays.copyOf(levels[h], sizes[h] * 2);
+		}
+		levels[h][sizes[h]++] = value;
+		retained++;
+	}
+
+	private void grow() {
+		int height = levels.length + 1;
+		levels = Arrays.copyOf(levels, height);
+		levels[height - 1] = new double[MIN_CAPACITY];
+		sizes = Arrays.copyOf(sizes, height);
+		maxRetained = 0;
+		for (int h = 0; h < height; h++) {
+			maxRetained += capacity(h);
+		}
+	}
+
+	/**
+	 * Capacity of a level: k at the top, shrinking by 2/3 per level below.
+	 */
+	private int capacity(int h) {
+		int depth = levels.length - h - 1;
+		return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+	}
+
+	private int nextBit() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 7;
+		seed ^= seed << 17;
+		return (int) (seed >>> 63);
+	}
+
+	/**
+	 * Rebuilds the sorted view by sorting each level and merging the levels in
+	 * turn, keeping every value's weight.
+	 */
+	private void buildSortedView() {
+		if (sortedValues != null) {
+			return;
+		}
+		double[] values = new double[0];
+		long[] weights = new long[0];
+		for (int h = 0; h < levels.length; h++) {
+			double[] level = Arrays.copyOf(levels[h], sizes[h]);
+			Arrays.sort(level);
+			double[] mergedValues = new double[values.length + level.length];
+			long[] mergedWeights = new long[mergedValues.length];
+			for (int i = 0, j = 0, n = 0; n < mergedValues.length; n++) {
+				if (j == level.length || (i < values.length && values[i] <= level[j])) {
+					mergedValues[n] = values[i];
+					mergedWeights[n] = weights[i++];
+				} else {
+					mergedValues[n] = level[j++];
+					mergedWeights[n] = 1L << h;
+				}
+			}
+			values = mergedValues;
+			weights = mergedWeights;
+		}
+		for (int i = 1; i < weights.length; i++) {
+			weights[i] += weights[i - 1];
+		}
+		sortedValues = values;
+		cumulative = weights;
+	}
+
+	/**
+	 * Returns the number of values in a sorted array that are at or below a
+	 * value.
+	 */
+	private static int upperBound(double[] sorted, double value) {
+		int low = 0, high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
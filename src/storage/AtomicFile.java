@@ -0,0 +1,103 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files without ever leaving a half-written one behind: the new
+ * contents go to a temporary file next to the target, which is forced to disk
+ * and renamed over the target atomically. A crash at any point leaves either
+ * the old file or the new one.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+final class AtomicFile {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Writes the new contents of a file.
+	 */
+	interface Content {
+		void writeTo(OutputStream out) throws IOException;
+	}
+
+	private AtomicFile() {
+	}
+
+	/**
+	 * Returns the temporary file used while replacing a file.
+	 *
+	 * @param file The file to replace.
+	 * @return The file with {@code .tmp} appended to its name.
+	 */
+	static Path temporary(Path file) {
+		return file.resolveSibling(file.getFileName() + ".tmp");
+	}
+
+	/**
+	 * Replaces a file with new contents, written through a 64 KB buffer.
+	 *
+	 * @param file    The file to replace or create.
+	 * @param content Writes the contents.
+	 * @return The size of the new file in bytes.
+	 * @throws IOException if the contents cannot be written or renamed; the file
+	 *                     is then unchanged.
+	 */
+	static long replace(Path file, Content content) throws IOException {
+		Path temporary = temporary(file);
+		long bytes;
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+			content.writeTo(out);
+			out.flush();
+			channel.force(true);
+			bytes = channel.size();
+		}
+		move(temporary, file);
+		return bytes;
+	}
+
+	/**
+	 * Renames a file over another atomically where the file system allows it,
+	 * and forces the rename to disk.
+	 *
+	 * @param source The file to rename.
+	 * @param target The file to replace.
+	 * @throws IOException if the file cannot be renamed.
+	 */
+	static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		syncDirectory(target);
+	}
+
+	/**
+	 * Forces the directory holding a file to disk where the platform allows
+	 * directories to be opened; elsewhere renames are left to the file system.
+	 */
+	private static void syncDirectory(Path file) {
+		Path directory = file.toAbsolutePath().getParent();
+		if (directory == null) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Not supported on this platform
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import inventory.Inventory;
+import inventory.InventoryListener;
+import inventory.InventorySnapshot;
+import model.Toy;
+
+/**
+ * Saves the inventory to its repository in the background whenever it has
+ * changed, without ever leaving a half-written file behind.
+ *
+ * <p>
+ * Every inventory change only sets a dirty flag. {@link #saveIfDirty()}, called
+ * periodically from the thread that changes the inventory, takes an O(1)
+ * {@link InventorySnapshot} if anything changed since the last save and hands
+ * it to a single background thread; any number of changes between two calls
+ * are coalesced into one save, and a call while a save is still running is
+ * skipped so that saves never overlap or queue up.
+ * </p>
+ *
+ * <p>
+ * A save hands the snapshot to an {@link InventoryRepository}, which replaces
+ * the stored inventory atomically; the text file repository, for example,
+ * writes a temporary file next to the data file, forces it to disk, and
+ * renames it over the data file. A crash at any point leaves either the old
+ * inventory or the new one, never a mixture. The duration and size of each
+ * save are recorded and passed to the registered {@link Listener}s.
+ * </p>
+ *
+ * <p>
+ * Register the saver with {@link Inventory#addListener(InventoryListener)} and
+ * then call {@link #markSaved()}, since registering replays every existing
+ * toy as a change.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class AutoSaver implements InventoryListener, Closeable {
+
+	/**
+	 * Receives the outcome of each save. Called on the save thread.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after a save has replaced the stored inventory.
+		 *
+		 * @param save The toys, bytes and duration of the save.
+		 */
+		void saved(Save save);
+
+		/**
+		 * Called when a save fails. The stored inventory is left as it was, and
+		 * the next call to {@link AutoSaver#saveIfDirty()} tries again.
+		 *
+		 * @param error The cause of the failure.
+		 */
+		void saveFailed(IOException error);
+	}
+
+	/**
+	 * The size and duration of one completed save.
+	 */
+	public static final class Save {
+		private final int toys;
+		private final long bytes;
+		private final long durationNanos;
+
+		private Save(int toys, long bytes, long durationNanos) {
+			this.toys = toys;
+			this.bytes = bytes;
+			this.durationNanos = durationNanos;
+		}
+
+		/** @return the number of toys written. */
+		public int getToys() {
+			return toys;
+		}
+
+		/** @return the number of bytes written. */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/** @return how long the write, flush and rename took, in milliseconds. */
+		public double getDurationMillis() {
+			return durationNanos / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d toy(s), %,d bytes in %.1f ms", toys, bytes, getDurationMillis());
+		}
+	}
+
+	private final Inventory inventory;
+	private final InventoryRepository repository;
+	private final ExecutorService executor;
+	private final AtomicBoolean saving = new AtomicBoolean(); // A save is queued or running
+	private final List<Listener> listeners = new ArrayList<>();
+	private Supplier<Map<Toy, Integer>> heldStock = Collections::emptyMap;
+	private volatile boolean dirty; // Changed since the last snapshot saved
+	private volatile Save lastSave;
+	private volatile long saveCount;
+	private volatile long failureCount;
+
+	/**
+	 * Creates a saver for an inventory and its text data file.
+	 *
+	 * @param inventory The inventory to save. Must not be null.
+	 * @param file      The data file to replace on each save. Must not be null.
+	 * @throws IllegalArgumentException if the inventory or file is null.
+	 * @see TextFileRepository
+	 */
+	public AutoSaver(Inventory inventory, Path file) {
+		this(inventory, new TextFileRepository(file));
+	}
+
+	/**
+	 * Creates a saver for an inventory and the repository it is stored in. The
+	 * saver does not close the repository.
+	 *
+	 * @param inventory  The inventory to save. Must not be null.
+	 * @param repository The repository to save to. Must not be null.
+	 * @throws IllegalArgumentException if the inventory or repository is null.
+	 */
+	public AutoSaver(Inventory inventory, InventoryRepository repository) {
+		if (inventory == null || repository == null) {
+			throw new IllegalArgumentException("Inventory and repository must not be null.");
+		}
+		this.inventory = inventory;
+		this.repository = repository;
+		this.executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "inventory-autosave");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Registers a listener for save outcomes.
+	 *
+	 * @param listener The listener to register. Must not be null.
+	 * @throws IllegalArgumentException if the listener is null.
+	 */
+	public void addListener(Listener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener must not be null.");
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Sets where to find stock that is out of the available counts only
+	 * temporarily, such as units in open reservations. Those units are saved as
+	 * available so that they are not lost if the application stops before the
+	 * holds end. The supplier is called on the inventory thread when a save
+	 * starts.
+	 *
+	 * @param heldStock Supplies the held units per toy. Must not be null.
+	 * @throws IllegalArgumentException if the supplier is null.
+	 */
+	public void setHeldStock(Supplier<Map<Toy, Integer>> heldStock) {
+		if (heldStock == null) {
+			throw new IllegalArgumentException("Held stock supplier must not be null.");
+		}
+		this.heldStock = heldStock;
+	}
+
+	/**
+	 * Treats the inventory as it is now as already saved, e.g. just after it was
+	 * loaded from the data file.
+	 */
+	public void markSaved() {
+		dirty = false;
+	}
+
+	/**
+	 * Returns whether the inventory has changed since the last save started.
+	 *
+	 * @return {@code true} if a save is needed.
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Starts a background save if the inventory has changed and no save is
+	 * running. Must be called on the thread that changes the inventory.
+	 *
+	 * @return {@code true} if a save was started.
+	 */
+	public boolean saveIfDirty() {
+		if (!dirty || !saving.compareAndSet(false, true)) {
+			return false;
+		}
+		submit();
+		return true;
+	}
+
+	/**
+	 * Saves the inventory now and waits for the save to finish, after any save
+	 * already running. Must be called on the thread that changes the inventory.
+	 *
+	 * @return The completed save.
+	 * @throws IOException if the save fails; the stored inventory is then
+	 *                     unchanged.
+	 */
+	public Save saveNow() throws IOException {
+		try {
+			return submit().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while saving.", e);
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+		}
+	}
+
+	/** @return the last completed save, or null if none has completed. */
+	public Save getLastSave() {
+		return lastSave;
+	}
+
+	/** @return the number of completed saves. */
+	public long getSaveCount() {
+		return saveCount;
+	}
+
+	/** @return the number of failed saves. */
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Waits for a running save to finish and stops the save thread. Pending
+	 * changes are not saved; call {@link #saveNow()} first to keep them.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		dirty = true;
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		dirty = true;
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		dirty = true;
+	}
+
+	/**
+	 * Takes a snapshot on the calling thread and queues its save.
+	 */
+	private Future<Save> submit() {
+		InventorySnapshot snapshot = inventory.snapshot();
+		Map<Toy, Integer> held = heldStock.get();
+		dirty = false;
+		return executor.submit(() -> {
+			try {
+				Save save = write(snapshot, held);
+				lastSave = save;
+				saveCount++;
+				for (Listener listener : listeners) {
+					listener.saved(save);
+				}
+				return save;
+			} catch (IOException e) {
+				dirty = true; // Try again on the next call
+				failureCount++;
+				for (Listener listener : listeners) {
+					listener.saveFailed(e);
+				}
+				throw e;
+			} finally {
+				saving.set(false);
+			}
+		});
+	}
+
+	/**
+	 * Saves a snapshot through the repository and times it.
+	 */
+	private Save write(InventorySnapshot snapshot, Map<Toy, Integer> held) throws IOException {
+		long start = System.nanoTime();
+		long bytes = repository.save(snapshot, held);
+		return new Save(snapshot.size(), bytes, System.nanoTime() - start);
+	}
+}
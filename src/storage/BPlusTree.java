@@ -0,0 +1,802 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * On-disk B+tree from 10-digit serial numbers to {@code long} values (such as
+ * record numbers), for catalogs too large to keep in memory.
+ *
+ * <p>
+ * The tree lives in a file of {@value PageCache#PAGE_SIZE}-byte pages read
+ * through a {@link PageCache} with clock eviction, so memory use is set by
+ * the cache size rather than the catalog size. Page 0 holds the tree's
+ * metadata; every other page is a node or on the free list. Leaves hold up to
+ * {@value #LEAF_CAPACITY} sorted keys with their values and link to the next
+ * leaf, so range scans walk the leaves in key order. Internal nodes hold up to
+ * {@value #INTERNAL_CAPACITY} separator keys, so a tree of a billion serial
+ * numbers is four levels deep.
+ * </p>
+ *
+ * <p>
+ * Insertions split full nodes upward; deletions borrow from or merge with a
+ * sibling when a node falls below half full, and freed pages are reused.
+ * Since the first digit of a serial number encodes the toy type,
+ * {@link #scanPrefix(String, Visitor)} with a one-digit prefix visits the
+ * toys of a type range (e.g. "4" for puzzles).
+ * </p>
+ *
+ * <p>
+ * Changed pages reach the file when they are evicted or on {@link #flush()}.
+ * There is no write-ahead log, so after a crash between flushes the tree
+ * should be rebuilt from the data it indexes. The tree is not thread-safe.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see PageCache
+ */
+public class BPlusTree implements Closeable {
+
+	/** Default number of cached pages (1 MB). */
+	public static final int DEFAULT_CACHE_PAGES = 256;
+
+	private static final int PAGE_SIZE = PageCache.PAGE_SIZE;
+	private static final int MAGIC = 0x42505452; // "BPTR"
+	private static final int VERSION = 1;
+	private static final long KEY_LIMIT = 10_000_000_000L; // Serial numbers have 10 digits
+
+	// Metadata page offsets
+	private static final int META_ROOT = 8, META_PAGES = 12, META_FREE = 16, META_HEIGHT = 20, META_SIZE = 24,
+			META_STAMP = 32;
+
+	// Node layout: type byte, count (2 bytes at offset 2), next leaf or free page (4 bytes at offset 4)
+	private static final byte FREE = 0, LEAF = 1, INTERNAL = 2;
+	private static final int HEADER = 16;
+	/** Maximum number of keys in a leaf. */
+	static final int LEAF_CAPACITY = (PAGE_SIZE - HEADER) / 16;
+	/** Maximum number of separator keys in an internal node. */
+	static final int INTERNAL_CAPACITY = (PAGE_SIZE - HEADER - 4) / 12;
+	private static final int LEAF_KEYS = HEADER;
+	private static final int LEAF_VALUES = HEADER + LEAF_CAPACITY * 8;
+	private static final int CHILDREN = HEADER;
+	private static final int INTERNAL_KEYS = HEADER + (INTERNAL_CAPACITY + 1) * 4;
+	private static final int MIN_LEAF = LEAF_CAPACITY / 2;
+	private static final int MIN_INTERNAL = INTERNAL_CAPACITY / 2;
+
+	/**
+	 * Receives entries from a scan.
+	 */
+	public interface Visitor {
+
+		/**
+		 * Called for each entry in key order.
+		 *
+		 * @param key   The serial number as a number.
+		 * @param value The value stored for it.
+		 * @return {@code true} to continue the scan, {@code false} to stop.
+		 */
+		boolean visit(long key, long value);
+	}
+
+	/**
+	 * A node decoded from its page for modification, with room for one entry
+	 * over capacity before it is split.
+	 */
+	private static final class Node {
+		final boolean leaf;
+		int count; // Keys held
+		int next; // Next leaf; unused for internal nodes
+		final long[] keys;
+		final long[] values; // Leaves only
+		final int[] children; // Internal nodes only; count + 1 of them
+
+		Node(boolean leaf) {
+			this.leaf = leaf;
+			this.keys = new long[(leaf ? LEAF_CAPACITY : INTERNAL_CAPACITY) + 1];
+			this.values = leaf ? new long[LEAF_CAPACITY + 1] : null;
+			this.children = leaf ? null : new int[INTERNAL_CAPACITY + 2];
+		}
+	}
+
+	/**
+	 * A node split: the separator key and the new right node.
+	 */
+	private static final class Split {
+		final long key;
+		final int right;
+
+		Split(long key, int right) {
+			this.key = key;
+			this.right = right;
+		}
+	}
+
+	private final PageCache cache;
+	private int root;
+	private int pageCount;
+	private int freeHead; // First free page, or 0 if none
+	private int height;
+	private long size;
+	private long stamp;
+	private long previous; // Value replaced or removed by the last put or remove
+	private boolean found; // Whether the last put or remove found its key
+
+	/**
+	 * Opens a tree file with {@link #DEFAULT_CACHE_PAGES}, creating it if it does
+	 * not exist.
+	 *
+	 * @param file The tree file. Must not be null.
+	 * @throws IOException if the file cannot be opened or is not a tree file.
+	 */
+	public BPlusTree(Path file) throws IOException {
+		this(file, DEFAULT_CACHE_PAGES);
+	}
+
+	/**
+	 * Opens a tree file, creating it if it does not exist.
+	 *
+	 * @param file       The tree file. Must not be null.
+	 * @param cachePages The number of pages to cache. Must be at least 8.
+	 * @throws IOException              if the file cannot be opened or is not a
+	 *                                  tree file.
+	 * @throws IllegalArgumentException if the file is null or the cache is too
+	 *                                  small.
+	 */
+	public BPlusTree(Path file, int cachePages) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("File must not be null.");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			cache = new PageCache(channel, cachePages);
+			if (channel.size() == 0) {
+				pageCount = 1;
+				height = 1;
+				PageCache.Page leaf = allocate();
+				root = leaf.getId();
+				write(new Node(true), leaf);
+				cache.unpin(leaf);
+				writeMeta();
+				cache.flush();
+			} else {
+				PageCache.Page meta = cache.pin(0);
+				ByteBuffer data = meta.data();
+				try {
+					if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+						throw new IOException("Not a B+tree file: " + file);
+					}
+					root = data.getInt(META_ROOT);
+					pageCount = data.getInt(META_PAGES);
+					freeHead = data.getInt(META_FREE);
+					height = data.getInt(META_HEIGHT);
+					size = data.getLong(META_SIZE);
+					stamp = data.getLong(META_STAMP);
+				} finally {
+					cache.unpin(meta);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Converts a serial number to a key.
+	 *
+	 * @param sn The serial number. Must be 10 digits.
+	 * @return The key.
+	 * @throws IllegalArgumentException if the serial number is not 10 digits.
+	 */
+	public static long key(String sn) {
+		if (sn == null || sn.length() != 10 || !sn.chars().allMatch(Character::isDigit)) {
+			throw new IllegalArgumentException("Serial number must be 10 digits.");
+		}
+		return Long.parseLong(sn);
+	}
+
+	/**
+	 * Converts a key back to a serial number.
+	 *
+	 * @param key The key.
+	 * @return The 10-digit serial number.
+	 */
+	public static String serialNumber(long key) {
+		return String.format("%010d", key);
+	}
+
+	/**
+	 * Looks up a serial number.
+	 *
+	 * @param key The serial number as a number (see {@link #key(String)}).
+	 * @return The value, or null if the key is not in the tree.
+	 * @throws IOException if a page cannot be read.
+	 */
+	public Long get(long key) throws IOException {
+		int id = root;
+		while (true) {
+			PageCache.Page page = cache.pin(id);
+			try {
+				ByteBuffer data = page.data();
+				int count = data.getShort(2) & 0xFFFF;
+				if (data.get(0) == LEAF) {
+					int at = search(data, LEAF_KEYS, count, key);
+					return at >= 0 ? data.getLong(LEAF_VALUES + at * 8) : null;
+				}
+				id = data.getInt(CHILDREN + childIndex(data, count, key) * 4);
+			} finally {
+				cache.unpin(page);
+			}
+		}
+	}
+
+	/**
+	 * Stores a value for a key, replacing any value it had.
+	 *
+	 * @param key   The serial number as a number. Must be 10 digits or fewer.
+	 * @param value The value.
+	 * @return The value replaced, or null if the key was new.
+	 * @throws IOException              if a page cannot be read or written.
+	 * @throws IllegalArgumentException if the key is out of range.
+	 */
+	public Long put(long key, long value) throws IOException {
+		checkKey(key);
+		found = false;
+		Split split = insert(root, key, value);
+		if (split != null) {
+			PageCache.Page page = allocate();
+			try {
+				Node node = new Node(false);
+				node.count = 1;
+				node.keys[0] = split.key;
+				node.children[0] = root;
+				node.children[1] = split.right;
+				write(node, page);
+				root = page.getId();
+				height++;
+			} finally {
+				cache.unpin(page);
+			}
+		}
+		if (!found) {
+			size++;
+		}
+		writeMeta();
+		return found ? previous : null;
+	}
+
+	/**
+	 * Removes a key.
+	 *
+	 * @param key The serial number as a number.
+	 * @return The value removed, or null if the key was not in the tree.
+	 * @throws IOException if a page cannot be read or written.
+	 */
+	public Long remove(long key) throws IOException {
+		found = false;
+		delete(root, key);
+		if (!found) {
+			return null;
+		}
+		size--;
+		if (height > 1) {
+			PageCache.Page page = cache.pin(root);
+			try {
+				ByteBuffer data = page.data();
+				if ((data.getShort(2) & 0xFFFF) == 0) { // The root has a single child left
+					int child = data.getInt(CHILDREN);
+					free(page);
+					root = child;
+					height--;
+				}
+			} finally {
+				cache.unpin(page);
+			}
+		}
+		writeMeta();
+		return previous;
+	}
+
+	/**
+	 * Visits the entries with keys in {@code [from, to)} in key order.
+	 *
+	 * @param from    The first key to visit.
+	 * @param to      One past the last key to visit.
+	 * @param visitor Receives the entries; may stop the scan early.
+	 * @return The number of entries visited.
+	 * @throws IOException if a page cannot be read.
+	 */
+	public long scan(long from, long to, Visitor visitor) throws IOException {
+		if (from >= to) {
+			return 0;
+		}
+		int id = root;
+		while (true) { // Descend to the leaf that would hold "from"
+			PageCache.Page page = cache.pin(id);
+			try {
+				ByteBuffer data = page.data();
+				if (data.get(0) == LEAF) {
+					break;
+				}
+				id = data.getInt(CHILDREN + childIndex(data, data.getShort(2) & 0xFFFF, from) * 4);
+			} finally {
+				cache.unpin(page);
+			}
+		}
+		long visited = 0;
+		while (id != 0) {
+			PageCache.Page page = cache.pin(id);
+			try {
+				ByteBuffer data = page.data();
+				int count = data.getShort(2) & 0xFFFF;
+				int at = search(data, LEAF_KEYS, count, from);
+				for (int i = at >= 0 ? at : -at - 1; i < count; i++) {
+					long key = data.getLong(LEAF_KEYS + i * 8);
+					if (key >= to) {
+						return visited;
+					}
+					visited++;
+					if (!visitor.visit(key, data.getLong(LEAF_VALUES + i * 8))) {
+						return visited;
+					}
+				}
+				id = data.getInt(4);
+			} finally {
+				cache.unpin(page);
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Visits the entries whose serial numbers start with a prefix, in order.
+	 * The first digit encodes the toy type, so "0" and "1" are figures, "2" and
+	 * "3" animals, "4" to "6" puzzles and "7" to "9" board games.
+	 *
+	 * @param prefix  Up to 10 leading digits; empty for every entry.
+	 * @param visitor Receives the entries; may stop the scan early.
+	 * @return The number of entries visited.
+	 * @throws IOException              if a page cannot be read.
+	 * @throws IllegalArgumentException if the prefix is not up to 10 digits.
+	 */
+	public long scanPrefix(String prefix, Visitor visitor) throws IOException {
+		if (prefix == null || prefix.length() > 10 || !prefix.chars().allMatch(Character::isDigit)) {
+			throw new IllegalArgumentException("Prefix must be up to 10 digits.");
+		}
+		long scale = 1;
+		for (int i = prefix.length(); i < 10; i++) {
+			scale *= 10;
+		}
+		long start = prefix.isEmpty() ? 0 : Long.parseLong(prefix);
+		return scan(start * scale, (start + 1) * scale, visitor);
+	}
+
+	/** @return the number of keys in the tree. */
+	public long size() {
+		return size;
+	}
+
+	/** @return the number of levels, 1 for a tree that is a single leaf. */
+	public int height() {
+		return height;
+	}
+
+	/** @return the number of pages in the file, including free ones. */
+	public int pageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * Returns the value last passed to {@link #setStamp(long)}, or 0 for a new
+	 * tree.
+	 *
+	 * @return The stamp.
+	 */
+	public long getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * Stores a value of the caller's choosing in the tree's metadata, e.g. to
+	 * tell whether the tree was closed in step with the data it indexes. It is
+	 * written with the next {@link #flush()}.
+	 *
+	 * @param stamp The value to store.
+	 * @throws IOException if the metadata page cannot be read.
+	 */
+	public void setStamp(long stamp) throws IOException {
+		this.stamp = stamp;
+		writeMeta();
+	}
+
+	/** @return the page cache, e.g. for its hit and eviction counts. */
+	public PageCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Writes every changed page to the file and forces it to disk.
+	 *
+	 * @throws IOException if a page cannot be written.
+	 */
+	public void flush() throws IOException {
+		cache.flush();
+	}
+
+	/**
+	 * Flushes and closes the tree file.
+	 *
+	 * @throws IOException if a page cannot be written or the file cannot be
+	 *                     closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		cache.close();
+	}
+
+	/**
+	 * Inserts into the subtree rooted at a page.
+	 *
+	 * @return The split of that page, or null if it did not split.
+	 */
+	private Split insert(int id, long key, long value) throws IOException {
+		PageCache.Page page = cache.pin(id);
+		try {
+			Node node = read(page);
+			if (node.leaf) {
+				int at = Arrays.binarySearch(node.keys, 0, node.count, key);
+				if (at >= 0) {
+					found = true;
+					previous = node.values[at];
+					node.values[at] = value;
+					write(node, page);
+					return null;
+				}
+				at = -at - 1;
+				shiftRight(node.keys, at, node.count);
+				shiftRight(node.values, at, node.count);
+				node.keys[at] = key;
+				node.values[at] = value;
+				node.count++;
+				if (node.count <= LEAF_CAPACITY) {
+					write(node, page);
+					return null;
+				}
+				return splitLeaf(node, page);
+			}
+
+			int at = upperBound(node.keys, node.count, key);
+			Split split = insert(node.children[at], key, value);
+			if (split == null) {
+				return null;
+			}
+			shiftRight(node.keys, at, node.count);
+			shiftRight(node.children, at + 1, node.count + 1);
+			node.keys[at] = split.key;
+			node.children[at + 1] = split.right;
+			node.count++;
+			if (node.count <= INTERNAL_CAPACITY) {
+				write(node, page);
+				return null;
+			}
+			return splitInternal(node, page);
+		} finally {
+			cache.unpin(page);
+		}
+	}
+
+	private Split splitLeaf(Node node, PageCache.Page page) throws IOException {
+		PageCache.Page rightPage = allocate();
+		try {
+			Node right = new Node(true);
+			int half = node.count / 2;
+			right.count = node.count - half;
+			System.arraycopy(node.keys, half, right.keys, 0, right.count);
+			System.arraycopy(node.values, half, right.values, 0, right.count);
+			right.next = node.next;
+			node.next = rightPage.getId();
+			node.count = half;
+			write(node, page);
+			write(right, rightPage);
+			return new Split(right.keys[0], rightPage.getId());
+		} finally {
+			cache.unpin(rightPage);
+		}
+	}
+
+	private Split splitInternal(Node node, PageCache.Page page) throws IOException {
+		PageCache.Page rightPage = allocate();
+		try {
+			Node right = new Node(false);
+			int middle = node.count / 2; // Moves up to the parent
+			right.count = node.count - middle - 1;
+			System.arraycopy(node.keys, middle + 1, right.keys, 0, right.count);
+			System.arraycopy(node.children, middle + 1, right.children, 0, right.count + 1);
+			node.count = middle;
+			write(node, page);
+			write(right, rightPage);
+			return new Split(node.keys[middle], rightPage.getId());
+		} finally {
+			cache.unpin(rightPage);
+		}
+	}
+
+	/**
+	 * Deletes from the subtree rooted at a page.
+	 *
+	 * @return {@code true} if that page fell below half full.
+	 */
+	private boolean delete(int id, long key) throws IOException {
+		PageCache.Page page = cache.pin(id);
+		try {
+			Node node = read(page);
+			if (node.leaf) {
+				int at = Arrays.binarySearch(node.keys, 0, node.count, key);
+				if (at < 0) {
+					return false;
+				}
+				found = true;
+				previous = node.values[at];
+				shiftLeft(node.keys, at, node.count);
+				shiftLeft(node.values, at, node.count);
+				node.count--;
+				write(node, page);
+				return node.count < MIN_LEAF;
+			}
+
+			int at = upperBound(node.keys, node.count, key);
+			if (!delete(node.children[at], key)) {
+				return false;
+			}
+			rebalance(node, at);
+			write(node, page);
+			return node.count < MIN_INTERNAL;
+		} finally {
+			cache.unpin(page);
+		}
+	}
+
+	/**
+	 * Refills an underfull child by borrowing an entry from a sibling, or merges
+	 * it with the sibling if the sibling has none to spare.
+	 */
+	private void rebalance(Node parent, int child) throws IOException {
+		int at = child > 0 ? child - 1 : child; // Left node of the pair; the separator is keys[at]
+		PageCache.Page leftPage = cache.pin(parent.children[at]);
+		PageCache.Page rightPage = cache.pin(parent.children[at + 1]);
+		try {
+			Node left = read(leftPage);
+			Node right = read(rightPage);
+			Node sibling = at == child ? right : left;
+			if (sibling.count > (sibling.leaf ? MIN_LEAF : MIN_INTERNAL)) {
+				if (sibling == left) {
+					borrowFromLeft(parent, at, left, right);
+				} else {
+					borrowFromRight(parent, at, left, right);
+				}
+				write(left, leftPage);
+				write(right, rightPage);
+			} else {
+				merge(parent, at, left, right);
+				write(left, leftPage);
+				free(rightPage);
+			}
+		} finally {
+			cache.unpin(rightPage);
+			cache.unpin(leftPage);
+		}
+	}
+
+	private static void borrowFromLeft(Node parent, int at, Node left, Node right) {
+		shiftRight(right.keys, 0, right.count);
+		if (right.leaf) {
+			shiftRight(right.values, 0, right.count);
+			right.keys[0] = left.keys[left.count - 1];
+			right.values[0] = left.values[left.count - 1];
+			parent.keys[at] = right.keys[0];
+		} else {
+			shiftRight(right.children, 0, right.count + 1);
+			right.keys[0] = parent.keys[at];
+			right.children[0] = left.children[left.count];
+			parent.keys[at] = left.keys[left.count - 1];
+		}
+		left.count--;
+		right.count++;
+	}
+
+	private static void borrowFromRight(Node parent, int at, Node left, Node right) {
+		if (left.leaf) {
+			left.keys[left.count] = right.keys[0];
+			left.values[left.count] = right.values[0];
+			shiftLeft(right.values, 0, right.count);
+			shiftLeft(right.keys, 0, right.count);
+			parent.keys[at] = right.keys[0];
+		} else {
+			left.keys[left.count] = parent.keys[at];
+			left.children[left.count + 1] = right.children[0];
+			parent.keys[at] = right.keys[0];
+			shiftLeft(right.keys, 0, right.count);
+			shiftLeft(right.children, 0, right.count + 1);
+		}
+		left.count++;
+		right.count--;
+	}
+
+	/**
+	 * Appends the right node to the left one and removes the separator and the
+	 * right node from the parent.
+	 */
+	private static void merge(Node parent, int at, Node left, Node right) {
+		if (left.leaf) {
+			System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+			System.arraycopy(right.values, 0, left.values, left.count, right.count);
+			left.count += right.count;
+			left.next = right.next;
+		} else {
+			left.keys[left.count] = parent.keys[at];
+			System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+			System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+			left.count += right.count + 1;
+		}
+		shiftLeft(parent.keys, at, parent.count);
+		shiftLeft(parent.children, at + 1, parent.count + 1);
+		parent.count--;
+	}
+
+	/**
+	 * Returns a pinned, zeroed page, taken from the free list if possible.
+	 */
+	private PageCache.Page allocate() throws IOException {
+		int id;
+		if (freeHead != 0) {
+			id = freeHead;
+			PageCache.Page page = cache.pin(id);
+			freeHead = page.data().getInt(4);
+			cache.unpin(page);
+		} else {
+			id = pageCount++;
+		}
+		PageCache.Page page = cache.pin(id);
+		ByteBuffer data = page.data();
+		for (int i = 0; i < PAGE_SIZE; i += 8) {
+			data.putLong(i, 0);
+		}
+		page.markDirty();
+		return page;
+	}
+
+	/**
+	 * Puts a pinned page on the free list.
+	 */
+	private void free(PageCache.Page page) {
+		ByteBuffer data = page.data();
+		data.put(0, FREE);
+		data.putInt(4, freeHead);
+		page.markDirty();
+		freeHead = page.getId();
+	}
+
+	private void writeMeta() throws IOException {
+		PageCache.Page page = cache.pin(0);
+		try {
+			ByteBuffer data = page.data();
+			data.putInt(0, MAGIC);
+			data.putInt(4, VERSION);
+			data.putInt(META_ROOT, root);
+			data.putInt(META_PAGES, pageCount);
+			data.putInt(META_FREE, freeHead);
+			data.putInt(META_HEIGHT, height);
+			data.putLong(META_SIZE, size);
+			data.putLong(META_STAMP, stamp);
+			page.markDirty();
+		} finally {
+			cache.unpin(page);
+		}
+	}
+
+	private static Node read(PageCache.Page page) {
+		ByteBuffer data = page.data();
+		Node node = new Node(data.get(0) == LEAF);
+		node.count = data.getShort(2) & 0xFFFF;
+		if (node.leaf) {
+			node.next = data.getInt(4);
+			for (int i = 0; i < node.count; i++) {
+				node.keys[i] = data.getLong(LEAF_KEYS + i * 8);
+				node.values[i] = data.getLong(LEAF_VALUES + i * 8);
+			}
+		} else {
+			for (int i = 0; i < node.count; i++) {
+				node.keys[i] = data.getLong(INTERNAL_KEYS + i * 8);
+			}
+			for (int i = 0; i <= node.count; i++) {
+				node.children[i] = data.getInt(CHILDREN + i * 4);
+			}
+		}
+		return node;
+	}
+
+	private static void write(Node node, PageCache.Page page) {
+		ByteBuffer data = page.data();
+		data.put(0, node.leaf ? LEAF : INTERNAL);
+		data.putShort(2, (short) node.count);
+		if (node.leaf) {
+			data.putInt(4, node.next);
+			for (int i = 0; i < node.count; i++) {
+				data.putLong(LEAF_KEYS + i * 8, node.keys[i]);
+				data.putLong(LEAF_VALUES + i * 8, node.values[i]);
+			}
+		} else {
+			for (int i = 0; i < node.count; i++) {
+				data.putLong(INTERNAL_KEYS + i * 8, node.keys[i]);
+			}
+			for (int i = 0; i <= node.count; i++) {
+				data.putInt(CHILDREN + i * 4, node.children[i]);
+			}
+		}
+		page.markDirty();
+	}
+
+	/**
+	 * Binary search over the sorted keys stored in a page.
+	 *
+	 * @return The key's index, or {@code -(insertion point) - 1}.
+	 */
+	private static int search(ByteBuffer data, int offset, int count, long key) {
+		int low = 0, high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long value = data.getLong(offset + mid * 8);
+			if (value < key) {
+				low = mid + 1;
+			} else if (value > key) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -low - 1;
+	}
+
+	/**
+	 * Returns the child of an internal node page to follow for a key: the
+	 * number of separators at or below the key.
+	 */
+	private static int childIndex(ByteBuffer data, int count, long key) {
+		int at = search(data, INTERNAL_KEYS, count, key);
+		return at >= 0 ? at + 1 : -at - 1;
+	}
+
+	private static int upperBound(long[] keys, int count, long key) {
+		int at = Arrays.binarySearch(keys, 0, count, key);
+		return at >= 0 ? at + 1 : -at - 1;
+	}
+
+	private static void checkKey(long key) {
+		if (key < 0 || key >= KEY_LIMIT) {
+			throw new IllegalArgumentException("Key must be a serial number of up to 10 digits.");
+		}
+	}
+
+	private static void shiftRight(long[] array, int from, int length) {
+		System.arraycopy(array, from, array, from + 1, length - from);
+	}
+
+	private static void shiftRight(int[] array, int from, int length) {
+		System.arraycopy(array, from, array, from + 1, length - from);
+	}
+
+	private static void shiftLeft(long[] array, int from, int length) {
+		System.arraycopy(array, from + 1, array, from, length - from - 1);
+	}
+
+	private static void shiftLeft(int[] array, int from, int length) {
+		System.arraycopy(array, from + 1, array, from, length - from - 1);
+	}
+}
@@ -0,0 +1,129 @@
+package storage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import inventory.InventorySnapshot;
+import model.Toy;
+
+/**
+ * Stores the inventory as a binary snapshot: a header with the toy count,
+ * each toy's data line length-prefixed in modified UTF-8, and a CRC-32 of
+ * everything before it.
+ *
+ * <p>
+ * Unlike the text file, the format does not depend on the platform charset
+ * or line separator, the loader knows the number of toys up front, and a
+ * corrupted or truncated file is detected by the checksum and rejected as a
+ * whole instead of loading part of the inventory.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryRepository
+ */
+public class BinarySnapshotRepository implements InventoryRepository {
+
+	private static final int MAGIC = 0x544F5942; // "TOYB"
+	private static final int VERSION = 1;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path file;
+
+	/**
+	 * Creates a repository over a snapshot file, which need not exist yet.
+	 *
+	 * @param file The snapshot file. Must not be null.
+	 * @throws IllegalArgumentException if the file is null.
+	 */
+	public BinarySnapshotRepository(Path file) {
+		if (file == null) {
+			throw new IllegalArgumentException("File must not be null.");
+		}
+		this.file = file;
+	}
+
+	/**
+	 * Reads and verifies the whole snapshot before handing any toy over. A
+	 * missing file holds no toys.
+	 *
+	 * @throws IOException if the file cannot be read, is not a snapshot file,
+	 *                     or fails its checksum.
+	 */
+	@Override
+	public int load(Consumer<Toy> sink) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		List<Toy> toys;
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(
+				new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), crc))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a toy snapshot file: " + file);
+			}
+			int count = in.readInt();
+			if (count < 0) {
+				throw new IOException("Corrupt toy snapshot file: " + file);
+			}
+			toys = new ArrayList<>(Math.min(count, 1 << 20));
+			for (int i = 0; i < count; i++) {
+				String line = in.readUTF();
+				try {
+					toys.add(Toy.fromDataString(line));
+				} catch (IllegalArgumentException e) {
+					// Skipped like an unparsable text line
+				}
+			}
+			long expected = crc.getValue();
+			if ((in.readInt() & 0xFFFFFFFFL) != expected) {
+				throw new IOException("Checksum mismatch in toy snapshot file: " + file);
+			}
+		} catch (EOFException e) {
+			throw new IOException("Truncated toy snapshot file: " + file, e);
+		}
+		toys.forEach(sink);
+		return toys.size();
+	}
+
+	@Override
+	public long save(InventorySnapshot snapshot, Map<Toy, Integer> heldStock) throws IOException {
+		return AtomicFile.replace(file, out -> {
+			CRC32 crc = new CRC32();
+			DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, crc));
+			data.writeInt(MAGIC);
+			data.writeInt(VERSION);
+			data.writeInt(snapshot.size());
+			for (InventorySnapshot.Entry entry : snapshot) {
+				Toy toy = entry.getToy();
+				data.writeUTF(toy.toDataString(entry.getAvailableCount() + heldStock.getOrDefault(toy, 0)));
+			}
+			data.flush();
+			DataOutputStream trailer = new DataOutputStream(out); // Outside the checksum
+			trailer.writeInt((int) crc.getValue());
+			trailer.flush();
+		});
+	}
+
+	@Override
+	public void close() {
+		// Nothing is kept open
+	}
+
+	@Override
+	public String toString() {
+		return "binary snapshot " + file;
+	}
+}
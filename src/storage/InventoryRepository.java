@@ -0,0 +1,175 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import inventory.InventoryListener;
+import inventory.InventorySnapshot;
+import model.Toy;
+
+/**
+ * Where the inventory is stored between sessions. Backends are interchangeable
+ * and chosen by name with {@link #open(String, Path)}:
+ * <ul>
+ * <li>{@value #TEXT}: one data line per toy in {@code toys.txt}
+ * ({@link TextFileRepository}),</li>
+ * <li>{@value #BINARY}: a checksummed binary snapshot in {@code toys.bin}
+ * ({@link BinarySnapshotRepository}),</li>
+ * <li>{@value #RECORDS}: fixed-size records in {@code toys.rec} with a B+tree
+ * index by serial number in {@code toys.idx}
+ * ({@link RecordFileRepository}).</li>
+ * </ul>
+ *
+ * <p>
+ * Every backend loads and saves whole inventories, and a save replaces the
+ * stored inventory atomically. Backends that report
+ * {@link #isIncremental()} can also be registered with
+ * {@link inventory.Inventory#addListener(InventoryListener)} after loading,
+ * and then append each change as it happens; {@link #sync()} makes the changes
+ * durable. Lookups by serial number ({@link #find(String)},
+ * {@link #scanPrefix(String, Consumer)}) are answered by the backend; the
+ * default implementations read the whole inventory, and indexed backends
+ * override them to read only the matching toys.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public interface InventoryRepository extends InventoryListener, Closeable {
+
+	/** Name of the text file backend. */
+	String TEXT = "text";
+	/** Name of the binary snapshot backend. */
+	String BINARY = "binary";
+	/** Name of the indexed record file backend. */
+	String RECORDS = "records";
+
+	/**
+	 * Opens a backend by name, with its files in a directory.
+	 *
+	 * @param backend   {@value #TEXT}, {@value #BINARY} or {@value #RECORDS}.
+	 * @param directory The directory holding the backend's files.
+	 * @return The opened repository.
+	 * @throws IOException              if the backend's files cannot be opened.
+	 * @throws IllegalArgumentException if the backend is unknown or the directory
+	 *                                  is null.
+	 */
+	static InventoryRepository open(String backend, Path directory) throws IOException {
+		if (directory == null) {
+			throw new IllegalArgumentException("Directory must not be null.");
+		}
+		if (TEXT.equals(backend)) {
+			return new TextFileRepository(directory.resolve("toys.txt"));
+		} else if (BINARY.equals(backend)) {
+			return new BinarySnapshotRepository(directory.resolve("toys.bin"));
+		} else if (RECORDS.equals(backend)) {
+			return new RecordFileRepository(directory.resolve("toys.rec"), directory.resolve("toys.idx"));
+		}
+		throw new IllegalArgumentException("Unknown repository: " + backend);
+	}
+
+	/**
+	 * Reads the stored inventory. Lines or records that cannot be parsed are
+	 * skipped.
+	 *
+	 * @param sink Receives each toy in stored order, e.g. to add it to the
+	 *             inventory.
+	 * @return The number of toys read.
+	 * @throws IOException if the stored inventory cannot be read.
+	 */
+	int load(Consumer<Toy> sink) throws IOException;
+
+	/**
+	 * Replaces the stored inventory with a snapshot. The replacement is atomic:
+	 * after a crash the old or the new inventory is stored, never a mixture.
+	 * May be called from a background thread.
+	 *
+	 * @param snapshot  The inventory to store.
+	 * @param heldStock Units per toy that are out of the available counts only
+	 *                  temporarily and are stored as available.
+	 * @return The number of bytes written.
+	 * @throws IOException if the inventory cannot be stored; the stored
+	 *                     inventory is then unchanged.
+	 */
+	long save(InventorySnapshot snapshot, Map<Toy, Integer> heldStock) throws IOException;
+
+	/**
+	 * Replaces the stored inventory with a snapshot.
+	 *
+	 * @param snapshot The inventory to store.
+	 * @return The number of bytes written.
+	 * @throws IOException if the inventory cannot be stored.
+	 * @see #save(InventorySnapshot, Map)
+	 */
+	default long save(InventorySnapshot snapshot) throws IOException {
+		return save(snapshot, Collections.emptyMap());
+	}
+
+	/**
+	 * Returns whether the backend appends changes it receives as an inventory
+	 * listener. Other backends ignore the changes until the next save.
+	 *
+	 * @return {@code true} if changes are stored as they happen.
+	 */
+	default boolean isIncremental() {
+		return false;
+	}
+
+	/**
+	 * Makes the changes appended since the last sync durable. Does nothing for
+	 * backends that are not incremental.
+	 *
+	 * @return The number of pages forced to disk.
+	 * @throws IOException if an appended change failed or cannot be forced.
+	 */
+	default int sync() throws IOException {
+		return 0;
+	}
+
+	/**
+	 * Reads the stored toy with a serial number.
+	 *
+	 * @param sn The serial number.
+	 * @return A toy read from storage, or null if none is stored.
+	 * @throws IOException if the stored inventory cannot be read.
+	 */
+	default Toy find(String sn) throws IOException {
+		List<Toy> found = new ArrayList<>(1);
+		load(toy -> {
+			if (toy.getSn().equals(sn)) {
+				found.add(toy);
+			}
+		});
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	/**
+	 * Reads the stored toys whose serial numbers start with a prefix. The first
+	 * digit encodes the toy type, so a one-digit prefix reads a type range.
+	 *
+	 * @param prefix Up to 10 leading digits; empty for every toy.
+	 * @param sink   Receives each matching toy.
+	 * @return The number of toys read.
+	 * @throws IOException              if the stored inventory cannot be read.
+	 * @throws IllegalArgumentException if the prefix is not up to 10 digits.
+	 */
+	default int scanPrefix(String prefix, Consumer<Toy> sink) throws IOException {
+		if (prefix == null || prefix.length() > 10 || !prefix.chars().allMatch(Character::isDigit)) {
+			throw new IllegalArgumentException("Prefix must be up to 10 digits.");
+		}
+		int[] matched = new int[1];
+		load(toy -> {
+			if (toy.getSn().startsWith(prefix)) {
+				matched[0]++;
+				sink.accept(toy);
+			}
+		});
+		return matched[0];
+	}
+}
@@ -0,0 +1,227 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size cache of {@value #PAGE_SIZE}-byte file pages with clock (second
+ * chance) eviction.
+ *
+ * <p>
+ * Pages are pinned while in use and unpinned when done; a pinned page is
+ * never evicted. Each access sets the page's reference bit. When a frame is
+ * needed, the clock hand sweeps the frames, clearing reference bits as it
+ * goes, and takes the first unpinned page whose bit is already clear, writing
+ * it back first if it is dirty. Recently used pages thus survive one sweep,
+ * which approximates LRU without reordering a list on every access.
+ * </p>
+ *
+ * <p>
+ * The cache is not thread-safe.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class PageCache implements Closeable {
+
+	/** Size in bytes of a page. */
+	public static final int PAGE_SIZE = 4096;
+
+	/**
+	 * A cached page. Its data may be read and written while it is pinned;
+	 * call {@link #markDirty()} after writing.
+	 */
+	public static final class Page {
+		private final ByteBuffer data = ByteBuffer.allocate(PAGE_SIZE);
+		private int id = -1;
+		private int pins;
+		private boolean dirty;
+		private boolean referenced;
+
+		/** @return the page number in the file. */
+		public int getId() {
+			return id;
+		}
+
+		/** @return the page contents, to be accessed with absolute gets and puts. */
+		public ByteBuffer data() {
+			return data;
+		}
+
+		/** Marks the page as changed, so it is written back before eviction. */
+		public void markDirty() {
+			dirty = true;
+		}
+	}
+
+	private final FileChannel channel;
+	private final Page[] frames;
+	private final Map<Integer, Page> resident = new HashMap<>(); // Page number -> frame
+	private int hand; // Next frame the clock looks at
+	private long hits, misses, evictions;
+
+	/**
+	 * Creates a cache over a file.
+	 *
+	 * @param channel  The file, open for reading and writing. Must not be null.
+	 * @param capacity The number of pages to hold. Must be at least 8.
+	 * @throws IllegalArgumentException if the channel is null or the capacity is
+	 *                                  below 8.
+	 */
+	public PageCache(FileChannel channel, int capacity) {
+		if (channel == null) {
+			throw new IllegalArgumentException("Channel must not be null.");
+		}
+		if (capacity < 8) {
+			throw new IllegalArgumentException("Capacity must be at least 8 pages.");
+		}
+		this.channel = channel;
+		this.frames = new Page[capacity];
+	}
+
+	/**
+	 * Pins a page, reading it from the file if it is not cached. Pages beyond
+	 * the end of the file read as zeros.
+	 *
+	 * @param id The page number.
+	 * @return The pinned page.
+	 * @throws IOException           if the page cannot be read, or a dirty page
+	 *                               cannot be written back to make room.
+	 * @throws IllegalStateException if every page is pinned.
+	 */
+	public Page pin(int id) throws IOException {
+		Page page = resident.get(id);
+		if (page != null) {
+			hits++;
+		} else {
+			misses++;
+			page = frame();
+			page.id = -1; // Until the read succeeds
+			page.dirty = false;
+			ByteBuffer data = page.data;
+			data.clear();
+			long position = (long) id * PAGE_SIZE;
+			while (data.hasRemaining()) {
+				int read = channel.read(data, position + data.position());
+				if (read < 0) {
+					break;
+				}
+			}
+			while (data.hasRemaining()) {
+				data.put((byte) 0);
+			}
+			data.clear();
+			page.id = id;
+			resident.put(id, page);
+		}
+		page.pins++;
+		page.referenced = true;
+		return page;
+	}
+
+	/**
+	 * Unpins a page.
+	 *
+	 * @param page A page returned by {@link #pin(int)}.
+	 */
+	public void unpin(Page page) {
+		if (page.pins <= 0) {
+			throw new IllegalStateException("Page " + page.id + " is not pinned.");
+		}
+		page.pins--;
+	}
+
+	/**
+	 * Writes every dirty page back and forces the file to disk.
+	 *
+	 * @throws IOException if a page cannot be written.
+	 */
+	public void flush() throws IOException {
+		for (Page page : frames) {
+			if (page != null && page.dirty) {
+				writeBack(page);
+			}
+		}
+		channel.force(false);
+	}
+
+	/** @return the number of pins served from the cache. */
+	public long getHits() {
+		return hits;
+	}
+
+	/** @return the number of pins that read the file. */
+	public long getMisses() {
+		return misses;
+	}
+
+	/** @return the number of pages evicted to make room. */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/** @return the number of pages the cache holds. */
+	public int getCapacity() {
+		return frames.length;
+	}
+
+	/**
+	 * Flushes the cache and closes the file.
+	 *
+	 * @throws IOException if a page cannot be written or the file cannot be
+	 *                     closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns a free frame, evicting a page chosen by the clock if the cache is
+	 * full.
+	 */
+	private Page frame() throws IOException {
+		// One sweep clears every reference bit, so the second finds a victim unless all are pinned
+		for (int step = 0; step < 2 * frames.length; step++) {
+			int index = hand;
+			hand = (hand + 1) % frames.length;
+			Page page = frames[index];
+			if (page == null) {
+				return frames[index] = new Page();
+			}
+			if (page.pins > 0) {
+				continue;
+			}
+			if (page.referenced) {
+				page.referenced = false;
+				continue;
+			}
+			if (page.dirty) {
+				writeBack(page);
+			}
+			resident.remove(page.id);
+			evictions++;
+			return page;
+		}
+		throw new IllegalStateException("Every cached page is pinned.");
+	}
+
+	private void writeBack(Page page) throws IOException {
+		ByteBuffer data = page.data.duplicate();
+		data.clear();
+		long position = (long) page.id * PAGE_SIZE;
+		while (data.hasRemaining()) {
+			channel.write(data, position + data.position());
+		}
+		page.dirty = false;
+	}
+}
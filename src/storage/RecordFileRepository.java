@@ -0,0 +1,339 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import inventory.InventorySnapshot;
+import model.Toy;
+
+/**
+ * Stores the inventory as an embedded database of two files: a
+ * {@link ToyRecordFile} of fixed-size toy records and a {@link BPlusTree}
+ * from serial number to record number.
+ *
+ * <p>
+ * Lookups by serial number and serial number prefix go through the index and
+ * read only the matching records, so a single toy or a type range can be read
+ * without loading the catalog. The repository is incremental: registered as
+ * an inventory listener after {@link #load(Consumer)}, it writes each change
+ * to its record in place and keeps the index in step. A {@link #save} instead
+ * writes both files afresh next to the old ones and renames them into place.
+ * </p>
+ *
+ * <p>
+ * A save holds the snapshot only: changes received between taking the
+ * snapshot and saving it went to the old files and are not in the new ones.
+ * A listened inventory should therefore only be saved from the thread that
+ * changes it, with a snapshot taken just before the save. Units held for
+ * open reservations, as given by {@link #setHeldStock(ToIntFunction)}, are
+ * stored as available, like the held stock of a save.
+ * </p>
+ *
+ * <p>
+ * The index has no log of its own. It is marked closed in step with the
+ * records on {@link #close()}; when it is missing, unreadable or was not
+ * closed, opening the repository rebuilds it from the records. Every method is
+ * synchronized, so saves may run on a background thread.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryRepository
+ */
+public class RecordFileRepository implements InventoryRepository {
+
+	private static final long OPEN = 1, CLOSED = 2; // Index stamps
+
+	/**
+	 * A change made from a listener callback.
+	 */
+	private interface Change {
+		void run() throws IOException;
+	}
+
+	private final Path recordPath;
+	private final Path indexPath;
+	private ToyRecordFile records;
+	private BPlusTree index;
+	private boolean indexRebuilt;
+	private IOException failure; // First failed change since the last sync
+	private ToIntFunction<Toy> heldStock = toy -> 0; // Units of a toy held out of its available count
+
+	/**
+	 * Opens the record and index files, creating them if they do not exist, and
+	 * rebuilds the index if it is out of step with the records.
+	 *
+	 * @param recordFile The record file. Must not be null.
+	 * @param indexFile  The index file. Must not be null.
+	 * @throws IOException              if the files cannot be opened.
+	 * @throws IllegalArgumentException if a file is null.
+	 */
+	public RecordFileRepository(Path recordFile, Path indexFile) throws IOException {
+		if (recordFile == null || indexFile == null) {
+			throw new IllegalArgumentException("Files must not be null.");
+		}
+		this.recordPath = recordFile;
+		this.indexPath = indexFile;
+		records = new ToyRecordFile(recordFile);
+		try {
+			try {
+				index = new BPlusTree(indexFile);
+			} catch (IOException e) {
+				Files.deleteIfExists(indexFile); // Unreadable; rebuilt below
+				index = new BPlusTree(indexFile);
+			}
+			if (index.getStamp() != CLOSED) {
+				rebuildIndex();
+			}
+			index.setStamp(OPEN);
+			index.flush();
+		} catch (IOException | RuntimeException e) {
+			records.close();
+			if (index != null) {
+				index.close();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads every live record. The toys are tracked, so that changes to them
+	 * received as a listener update their records; call this once.
+	 */
+	@Override
+	public synchronized int load(Consumer<Toy> sink) throws IOException {
+		return records.load(Toy::fromDataString, sink);
+	}
+
+	/**
+	 * Sets where the units of a toy held for open reservations come from. They
+	 * are added to its available count whenever a change received as a
+	 * listener writes its record, including after a save.
+	 *
+	 * @param heldStock Gives the held units of a toy. Must not be null.
+	 * @throws IllegalArgumentException if the function is null.
+	 */
+	public synchronized void setHeldStock(ToIntFunction<Toy> heldStock) {
+		records.setHeldStock(heldStock);
+		this.heldStock = heldStock;
+	}
+
+	/**
+	 * Writes the snapshot to new record and index files and renames them over
+	 * the old ones, the index last. The toys of the new files are tracked from
+	 * then on; changes received since the snapshot was taken are not saved.
+	 */
+	@Override
+	public synchronized long save(InventorySnapshot snapshot, Map<Toy, Integer> heldStock) throws IOException {
+		Path recordTemporary = AtomicFile.temporary(recordPath);
+		Path indexTemporary = AtomicFile.temporary(indexPath);
+		Files.deleteIfExists(recordTemporary);
+		Files.deleteIfExists(indexTemporary);
+		ToyRecordFile newRecords = null;
+		BPlusTree newIndex = null;
+		try {
+			newRecords = new ToyRecordFile(recordTemporary);
+			newIndex = new BPlusTree(indexTemporary);
+			for (InventorySnapshot.Entry entry : snapshot) {
+				Toy toy = entry.getToy();
+				newRecords.write(toy, entry.getAvailableCount() + heldStock.getOrDefault(toy, 0));
+				newIndex.put(BPlusTree.key(toy.getSn()), newRecords.getRecordNumber(toy));
+			}
+			newRecords.sync();
+			newIndex.setStamp(OPEN);
+			newIndex.flush();
+			Files.deleteIfExists(indexPath); // A crash from here on leaves no index, which is rebuilt
+			AtomicFile.move(recordTemporary, recordPath);
+			AtomicFile.move(indexTemporary, indexPath);
+		} catch (IOException | IllegalArgumentException e) {
+			if (newRecords != null) {
+				newRecords.close();
+			}
+			if (newIndex != null) {
+				newIndex.close();
+			}
+			Files.deleteIfExists(recordTemporary);
+			Files.deleteIfExists(indexTemporary);
+			throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+		}
+		ToyRecordFile oldRecords = records;
+		BPlusTree oldIndex = index;
+		newRecords.setHeldStock(this.heldStock);
+		records = newRecords;
+		index = newIndex;
+		failure = null; // Changes to the old files are superseded
+		try {
+			oldRecords.close();
+		} catch (IOException e) {
+			// The old file has been replaced
+		}
+		oldIndex.close();
+		return newRecords.getBytesWritten();
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return true;
+	}
+
+	/**
+	 * Forces the records and index pages changed since the last sync to disk.
+	 */
+	@Override
+	public synchronized int sync() throws IOException {
+		if (failure != null) {
+			IOException e = failure;
+			failure = null;
+			throw e;
+		}
+		int pages = records.sync();
+		index.flush();
+		return pages;
+	}
+
+	/**
+	 * Looks the serial number up in the index and reads its record.
+	 */
+	@Override
+	public synchronized Toy find(String sn) throws IOException {
+		Long number;
+		try {
+			number = index.get(BPlusTree.key(sn));
+		} catch (IllegalArgumentException e) {
+			return null; // Not a serial number that can be stored
+		}
+		return number == null ? null : records.read(number.intValue(), Toy::fromDataString);
+	}
+
+	/**
+	 * Scans the index for the prefix and reads the matching records, in serial
+	 * number order.
+	 */
+	@Override
+	public synchronized int scanPrefix(String prefix, Consumer<Toy> sink) throws IOException {
+		List<Long> numbers = new ArrayList<>();
+		index.scanPrefix(prefix, (key, number) -> numbers.add(number));
+		int matched = 0;
+		for (long number : numbers) {
+			Toy toy = records.read((int) number, Toy::fromDataString);
+			if (toy != null) {
+				sink.accept(toy);
+				matched++;
+			}
+		}
+		return matched;
+	}
+
+	/**
+	 * Returns whether opening the repository found the index missing or out of
+	 * step with the records and rebuilt it.
+	 *
+	 * @return {@code true} if the index was rebuilt.
+	 */
+	public boolean wasIndexRebuilt() {
+		return indexRebuilt;
+	}
+
+	/** @return the number of toys in the index. */
+	public synchronized long size() {
+		return index.size();
+	}
+
+	/**
+	 * Syncs both files, marks the index closed in step with the records, and
+	 * closes them. If a change failed, the index is left marked open so that it
+	 * is rebuilt on the next open.
+	 *
+	 * @throws IOException if a change failed or the files cannot be closed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			sync();
+			index.setStamp(CLOSED);
+		} finally {
+			try {
+				records.close();
+			} finally {
+				index.close();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void toyAdded(int slot, Toy toy) {
+		if (records.getRecordNumber(toy) < 0) { // Loaded or saved toys already have records
+			guard(() -> {
+				records.write(toy);
+				index.put(BPlusTree.key(toy.getSn()), records.getRecordNumber(toy));
+			});
+		}
+	}
+
+	@Override
+	public synchronized void toyRemoved(int slot, Toy toy) {
+		int number = records.getRecordNumber(toy);
+		if (number >= 0) {
+			guard(() -> {
+				records.delete(toy);
+				long key = BPlusTree.key(toy.getSn());
+				Long indexed = index.get(key);
+				if (indexed != null && indexed == number) {
+					index.remove(key);
+				}
+			});
+		}
+	}
+
+	@Override
+	public synchronized void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (records.getRecordNumber(toy) >= 0) {
+			guard(() -> records.writeStock(toy));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "record file " + recordPath + " indexed by " + indexPath;
+	}
+
+	/**
+	 * Replaces the index with one built from the live records.
+	 */
+	private void rebuildIndex() throws IOException {
+		index.close();
+		Files.deleteIfExists(indexPath);
+		index = new BPlusTree(indexPath);
+		for (int number = 0; number < records.getRecordCount(); number++) {
+			Toy toy = records.read(number, Toy::fromDataString);
+			if (toy != null) {
+				try {
+					index.put(BPlusTree.key(toy.getSn()), number);
+				} catch (IllegalArgumentException e) {
+					// Not a serial number that can be indexed
+				}
+			}
+		}
+		indexRebuilt = true;
+	}
+
+	/**
+	 * Runs a change from a listener callback, keeping the first failure for
+	 * {@link #sync()}.
+	 */
+	private void guard(Change change) {
+		try {
+			change.run();
+		} catch (IOException | IllegalArgumentException e) {
+			if (failure == null) {
+				failure = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import inventory.InventorySnapshot;
+import model.Toy;
+
+/**
+ * Stores the inventory as text, one {@link Toy#toDataString()} line per toy,
+ * in the platform's default charset. This is the {@code toys.txt} format the
+ * application has always used; it is easy to read and edit by hand, but every
+ * save rewrites and every load parses the whole file.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ * @see InventoryRepository
+ */
+public class TextFileRepository implements InventoryRepository {
+
+	private final Path file;
+
+	/**
+	 * Creates a repository over a text file, which need not exist yet.
+	 *
+	 * @param file The data file. Must not be null.
+	 * @throws IllegalArgumentException if the file is null.
+	 */
+	public TextFileRepository(Path file) {
+		if (file == null) {
+			throw new IllegalArgumentException("File must not be null.");
+		}
+		this.file = file;
+	}
+
+	/**
+	 * Parses every line of the file. A missing file holds no toys.
+	 */
+	@Override
+	public int load(Consumer<Toy> sink) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		int loaded = 0;
+		try (BufferedReader reader = Files.newBufferedReader(file, Charset.defaultCharset())) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Toy toy;
+				try {
+					toy = Toy.fromDataString(line);
+				} catch (IllegalArgumentException e) {
+					continue;
+				}
+				sink.accept(toy);
+				loaded++;
+			}
+		}
+		return loaded;
+	}
+
+	@Override
+	public long save(InventorySnapshot snapshot, Map<Toy, Integer> heldStock) throws IOException {
+		Charset charset = Charset.defaultCharset(); // As read back by load
+		byte[] newline = System.lineSeparator().getBytes(charset);
+		return AtomicFile.replace(file, out -> {
+			for (InventorySnapshot.Entry entry : snapshot) {
+				Toy toy = entry.getToy();
+				out.write(toy.toDataString(entry.getAvailableCount() + heldStock.getOrDefault(toy, 0)).getBytes(charset));
+				out.write(newline);
+			}
+		});
+	}
+
+	@Override
+	public void close() {
+		// Nothing is kept open
+	}
+
+	@Override
+	public String toString() {
+		return "text file " + file;
+	}
+}
@@ -0,0 +1,428 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import inventory.InventoryListener;
+import model.Toy;
+
+/**
+ * Inventory file of fixed-size toy records, updated in place so that a change
+ * to one toy writes only that toy's bytes.
+ *
+ * <p>
+ * The file starts with a {@value #RECORD_SIZE}-byte header, followed by one
+ * {@value #RECORD_SIZE}-byte record per toy, so records never straddle a
+ * 4 KB page. A record holds:
+ * </p>
+ * <ul>
+ * <li>a status byte (live or free),</li>
+ * <li>the stock count (4 bytes) and price (8 bytes) at fixed offsets,</li>
+ * <li>the toy's data line as written to {@code toys.txt}, length-prefixed.</li>
+ * </ul>
+ *
+ * <p>
+ * Every toy keeps its record number for as long as it is in the inventory. A
+ * stock change is a 4-byte positional write, a price change an 8-byte one, and
+ * a removal a 1-byte write marking the record free; freed records are reused
+ * by later additions. The writes go to the operating system's page cache, and
+ * {@link #sync()} forces the file to disk if any page was written since the
+ * previous sync. The pages written are counted, to show how little each
+ * change touches.
+ * </p>
+ *
+ * <p>
+ * The stock count is the available count plus any units held aside, e.g. for
+ * open reservations, as given by {@link #setHeldStock(ToIntFunction)}, so a
+ * crash while units are held does not lose them. Toys are read back with the
+ * held units available again.
+ * </p>
+ *
+ * <p>
+ * Register the file with
+ * {@link inventory.Inventory#addListener(InventoryListener)} to keep it in
+ * step with the inventory. Inventory listeners cannot throw checked
+ * exceptions, so a failed write is kept and rethrown by the next
+ * {@link #sync()}.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class ToyRecordFile implements InventoryListener, Closeable {
+
+	/** Size in bytes of the header and of every record. */
+	public static final int RECORD_SIZE = 512;
+
+	private static final int MAGIC = 0x544F5952; // "TOYR"
+	private static final int VERSION = 1;
+	private static final int PAGE_SIZE = 4096;
+	private static final byte FREE = 0, LIVE = 1;
+	private static final int STOCK_OFFSET = 1;
+	private static final int PRICE_OFFSET = 5;
+	private static final int LENGTH_OFFSET = 13;
+	private static final int LINE_OFFSET = 15;
+	private static final int MAX_LINE = RECORD_SIZE - LINE_OFFSET;
+
+	private final FileChannel channel;
+	private final Map<Toy, Integer> recordOf = new IdentityHashMap<>(); // Live toy -> record number
+	private final Deque<Integer> free = new ArrayDeque<>(); // Free record numbers, reused first
+	private final BitSet dirtyPages = new BitSet(); // Pages written since the last sync
+	private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+	private final ByteBuffer field = ByteBuffer.allocate(8);
+	private int recordCount; // Records in the file, live or free
+	private long bytesWritten;
+	private IOException failure; // First write failure since the last sync
+	private ToIntFunction<Toy> heldStock = toy -> 0; // Units of a toy held out of its available count
+
+	/**
+	 * Opens a record file, creating it if it does not exist.
+	 *
+	 * @param file The file to open. Must not be null.
+	 * @throws IOException              if the file cannot be opened or is not a
+	 *                                  toy record file.
+	 * @throws IllegalArgumentException if the file is null.
+	 */
+	public ToyRecordFile(Path file) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("File must not be null.");
+		}
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+				header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).rewind();
+				writeAt(header, 0);
+				channel.force(true);
+				dirtyPages.clear();
+			} else {
+				ByteBuffer header = ByteBuffer.allocate(12);
+				readAt(header, 0);
+				if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+					throw new IOException("Not a toy record file: " + file);
+				}
+			}
+			recordCount = (int) ((channel.size() - RECORD_SIZE) / RECORD_SIZE); // A torn last record is ignored
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets where to find units that are out of the available counts only
+	 * temporarily, such as units in open reservations. They are written with
+	 * each toy's stock count. Call {@link #writeStock(Toy)} when a toy's held
+	 * units change without a change to its available count, e.g. when a hold is
+	 * confirmed as sold.
+	 *
+	 * @param heldStock Gives the held units of a toy. Must not be null.
+	 * @throws IllegalArgumentException if the function is null.
+	 */
+	public void setHeldStock(ToIntFunction<Toy> heldStock) {
+		if (heldStock == null) {
+			throw new IllegalArgumentException("Held stock function must not be null.");
+		}
+		this.heldStock = heldStock;
+	}
+
+	/**
+	 * Reads every live record and hands the parsed toys over, e.g. to add them
+	 * to the inventory. Each toy takes its stock count and price from the
+	 * record's fixed fields. Free records, and records the parser rejects, are
+	 * made available for reuse.
+	 *
+	 * @param parser Parses a data line into a toy; may return null or throw
+	 *               {@link IllegalArgumentException} for a bad line.
+	 * @param sink   Receives each toy, in record order.
+	 * @return The number of toys read.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public int load(Function<String, Toy> parser, Consumer<Toy> sink) throws IOException {
+		int loaded = 0;
+		for (int number = 0; number < recordCount; number++) {
+			Toy toy = read(number, parser);
+			if (toy == null || recordOf.containsKey(toy)) {
+				free.add(number);
+				continue;
+			}
+			recordOf.put(toy, number);
+			sink.accept(toy);
+			loaded++;
+		}
+		return loaded;
+	}
+
+	/**
+	 * Reads one record into a new toy, with the stock count and price of the
+	 * record's fixed fields. The toy is not tracked by this file, e.g. for
+	 * lookups through an index.
+	 *
+	 * @param number The record number.
+	 * @param parser Parses a data line into a toy; may return null or throw
+	 *               {@link IllegalArgumentException} for a bad line.
+	 * @return The toy, or null if the record is free, out of range or cannot be
+	 *         parsed.
+	 * @throws IOException if the record cannot be read.
+	 */
+	public Toy read(int number, Function<String, Toy> parser) throws IOException {
+		if (number < 0 || number >= recordCount) {
+			return null;
+		}
+		record.clear();
+		readAt(record, position(number));
+		int length = record.getShort(LENGTH_OFFSET);
+		if (record.get(0) != LIVE || length < 0 || length > MAX_LINE) {
+			return null;
+		}
+		Toy toy;
+		try {
+			toy = parser.apply(new String(record.array(), LINE_OFFSET, length, StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (toy != null) {
+			toy.setAvailableCount(record.getInt(STOCK_OFFSET));
+			toy.setPrice(record.getDouble(PRICE_OFFSET));
+		}
+		return toy;
+	}
+
+	/**
+	 * Writes a toy's whole record with its available and held units, giving it
+	 * a record number if it has none.
+	 *
+	 * @param toy The toy. Its data line must fit in a record.
+	 * @throws IOException              if the record cannot be written.
+	 * @throws IllegalArgumentException if the data line is too long.
+	 */
+	public void write(Toy toy) throws IOException {
+		write(toy, toy.getAvailableCount() + heldStock.applyAsInt(toy));
+	}
+
+	/**
+	 * Writes a toy's whole record with a given stock count, e.g. one taken from
+	 * a snapshot, giving it a record number if it has none.
+	 *
+	 * @param toy            The toy. Its data line must fit in a record.
+	 * @param availableCount The stock count to write.
+	 * @throws IOException              if the record cannot be written.
+	 * @throws IllegalArgumentException if the data line is too long.
+	 */
+	public void write(Toy toy, int availableCount) throws IOException {
+		byte[] line = toy.toDataString(availableCount).getBytes(StandardCharsets.UTF_8);
+		if (line.length > MAX_LINE) {
+			throw new IllegalArgumentException("Toy data is too long for a record: " + toy.getSn());
+		}
+		Integer number = recordOf.get(toy);
+		if (number == null) {
+			number = free.isEmpty() ? recordCount++ : free.poll();
+			recordOf.put(toy, number);
+		}
+		record.clear();
+		record.put(LIVE).putInt(availableCount).putDouble(toy.getPrice()).putShort((short) line.length)
+				.put(line);
+		record.put(new byte[record.remaining()]).flip();
+		writeAt(record, position(number));
+	}
+
+	/**
+	 * Writes a toy's stock count, its available plus held units, in place.
+	 *
+	 * @param toy The toy. Must have a record.
+	 * @throws IOException              if the count cannot be written.
+	 * @throws IllegalArgumentException if the toy has no record.
+	 */
+	public void writeStock(Toy toy) throws IOException {
+		field.clear();
+		field.putInt(toy.getAvailableCount() + heldStock.applyAsInt(toy)).flip();
+		writeAt(field, position(numberOf(toy)) + STOCK_OFFSET);
+	}
+
+	/**
+	 * Writes a toy's price in place, e.g. after {@link Toy#setPrice(double)}.
+	 *
+	 * @param toy The toy. Must have a record.
+	 * @throws IOException              if the price cannot be written.
+	 * @throws IllegalArgumentException if the toy has no record.
+	 */
+	public void writePrice(Toy toy) throws IOException {
+		field.clear();
+		field.putDouble(toy.getPrice()).flip();
+		writeAt(field, position(numberOf(toy)) + PRICE_OFFSET);
+	}
+
+	/**
+	 * Marks a toy's record free for reuse.
+	 *
+	 * @param toy The toy.
+	 * @return {@code true} if the toy had a record.
+	 * @throws IOException if the record cannot be updated.
+	 */
+	public boolean delete(Toy toy) throws IOException {
+		Integer number = recordOf.remove(toy);
+		if (number == null) {
+			return false;
+		}
+		field.clear();
+		field.put(FREE).flip();
+		writeAt(field, position(number));
+		free.add(number);
+		return true;
+	}
+
+	/**
+	 * Forces the file to disk if any page was written since the last sync. The
+	 * whole file is forced; the operating system only writes out the pages that
+	 * changed. Does nothing if no page was written.
+	 *
+	 * @return The number of pages written since the last sync.
+	 * @throws IOException if a write since the last sync failed, or the pages
+	 *                     cannot be forced.
+	 */
+	public int sync() throws IOException {
+		if (failure != null) {
+			IOException e = failure;
+			failure = null;
+			throw e;
+		}
+		int pages = dirtyPages.cardinality();
+		if (pages > 0) {
+			channel.force(false);
+			dirtyPages.clear();
+		}
+		return pages;
+	}
+
+	/**
+	 * Returns the record number of a toy written to or loaded from this file.
+	 *
+	 * @param toy The toy.
+	 * @return The record number, or -1 if the toy has no record.
+	 */
+	public int getRecordNumber(Toy toy) {
+		Integer number = recordOf.get(toy);
+		return number == null ? -1 : number;
+	}
+
+	/** @return the number of records in the file, live or free. */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/** @return the number of live records. */
+	public int getLiveCount() {
+		return recordOf.size();
+	}
+
+	/** @return the number of pages written since the last sync. */
+	public int getDirtyPageCount() {
+		return dirtyPages.cardinality();
+	}
+
+	/** @return the total number of bytes written since the file was opened. */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Syncs and closes the file.
+	 *
+	 * @throws IOException if a pending write failed or the file cannot be
+	 *                     closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			sync();
+		} finally {
+			channel.close();
+		}
+	}
+
+	@Override
+	public void toyAdded(int slot, Toy toy) {
+		if (!recordOf.containsKey(toy)) { // Toys loaded from this file already have records
+			guard(() -> write(toy));
+		}
+	}
+
+	@Override
+	public void toyRemoved(int slot, Toy toy) {
+		guard(() -> delete(toy));
+	}
+
+	@Override
+	public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+		if (recordOf.containsKey(toy)) {
+			guard(() -> writeStock(toy));
+		}
+	}
+
+	/**
+	 * A write made from a listener callback.
+	 */
+	private interface Write {
+		void run() throws IOException;
+	}
+
+	/**
+	 * Runs a write from a listener callback, keeping the first failure for
+	 * {@link #sync()}.
+	 */
+	private void guard(Write write) {
+		try {
+			write.run();
+		} catch (IOException | IllegalArgumentException e) {
+			if (failure == null) {
+				failure = e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+			}
+		}
+	}
+
+	private int numberOf(Toy toy) {
+		Integer number = recordOf.get(toy);
+		if (number == null) {
+			throw new IllegalArgumentException("Toy has no record: " + toy.getSn());
+		}
+		return number;
+	}
+
+	private static long position(int number) {
+		return (long) (number + 1) * RECORD_SIZE; // Record 0 follows the header
+	}
+
+	private void writeAt(ByteBuffer buffer, long position) throws IOException {
+		long start = position;
+		int length = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		bytesWritten += length;
+		dirtyPages.set((int) (start / PAGE_SIZE), (int) ((start + length - 1) / PAGE_SIZE) + 1);
+	}
+
+	private void readAt(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("Unexpected end of record file.");
+			}
+			position += read;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import index.GroupByEngine;
+import index.GroupByEngine.Dimension;
+import model.Figures;
+
+/**
+ * Benchmark timing {@link GroupByEngine} reports on a synthetic inventory
+ * (10,000,000 rows by default), sequentially and in parallel.
+ *
+ * <p>
+ * The engine is filled through {@link GroupByEngine#toyAdded(int, model.Toy)}
+ * with one reused toy object, so no toy objects are kept alive. Each
+ * measurement is the median of several timed runs after warm-up runs.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java benchmark.GroupByBenchmark [rows]} from the test class
+ * path; it is not part of the unit test suite.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class GroupByBenchmark {
+
+	private static final int WARMUP_RUNS = 3; // Untimed runs per report and mode
+	private static final int TIMED_RUNS = 7; // Timed runs per measurement; the median is reported
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args Optional number of rows (default 10,000,000).
+	 */
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		GroupByEngine engine = syntheticEngine(rows);
+
+		String[] names = { "type", "brand", "brand, age band", "type, brand, classification" };
+		Dimension[][] reports = { { Dimension.TYPE }, { Dimension.BRAND }, { Dimension.BRAND, Dimension.AGE_BAND },
+				{ Dimension.TYPE, Dimension.BRAND, Dimension.CLASSIFICATION } };
+
+		System.out.printf("Rows: %,d, parallelism: %d%n", rows,
+				java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+		System.out.printf("%-30s %8s %16s %16s%n", "group by", "groups", "sequential (ms)", "parallel (ms)");
+		for (int r = 0; r < reports.length; r++) {
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				time(engine, Integer.MAX_VALUE, reports[r]);
+				time(engine, 0, reports[r]);
+			}
+			int groups = engine.groupBy(reports[r]).size();
+			long sequential = median(engine, Integer.MAX_VALUE, reports[r]);
+			long parallel = median(engine, 0, reports[r]);
+			System.out.printf("%-30s %,8d %16.1f %16.1f%n", names[r], groups, sequential / 1e6, parallel / 1e6);
+		}
+	}
+
+	private static long median(GroupByEngine engine, int threshold, Dimension[] dimensions) {
+		long[] times = new long[TIMED_RUNS];
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			times[i] = time(engine, threshold, dimensions);
+		}
+		Arrays.sort(times);
+		return times[TIMED_RUNS / 2];
+	}
+
+	private static long time(GroupByEngine engine, int threshold, Dimension[] dimensions) {
+		engine.setParallelThreshold(threshold);
+		long start = System.nanoTime();
+		int groups = engine.groupBy(dimensions).size();
+		long elapsed = System.nanoTime() - start;
+		if (groups < 0) {
+			throw new IllegalStateException(); // Keeps the result live
+		}
+		return elapsed;
+	}
+
+	private static GroupByEngine syntheticEngine(int rows) {
+		Random random = new Random(38);
+		String[] brands = new String[200];
+		for (int i = 0; i < brands.length; i++) {
+			brands[i] = "Brand " + i;
+		}
+		char[] classifications = { 'A', 'D', 'H' };
+		GroupByEngine engine = new GroupByEngine();
+		Figures toy = new Figures("0000000000", "Synthetic", "Brand", 0, 0, 0, 'A');
+		for (int slot = 0; slot < rows; slot++) {
+			toy.setBrand(brands[random.nextInt(brands.length)]);
+			toy.setPrice(random.nextInt(10_000) / 100.0);
+			toy.setAvailableCount(random.nextInt(10));
+			toy.setAgeAppropriate(random.nextInt(18));
+			toy.setClassification(classifications[random.nextInt(classifications.length)]);
+			engine.toyAdded(slot, toy);
+		}
+		return engine;
+	}
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import index.CompressedBitmap;
+import index.NumericColumns;
+import model.Figures;
+
+/**
+ * Benchmark comparing the {@link NumericColumns.Kernel#LANES} and
+ * {@link NumericColumns.Kernel#SCALAR} filter kernels on a synthetic inventory
+ * (10,000,000 rows by default).
+ *
+ * <p>
+ * The columns are filled through {@link NumericColumns#toyAdded(int, model.Toy)}
+ * with one reused toy object, so no toy objects are kept alive. Three filters
+ * of different selectivity are timed; each measurement is the median of several
+ * timed runs after warm-up runs. Run with the JIT's SIMD support disabled
+ * ({@code -XX:-UseSuperWord}) to see how much of the lane kernel's lead comes
+ * from vectorization.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java benchmark.NumericFilterBenchmark [rows]} from the test
+ * class path; it is not part of the unit test suite.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class NumericFilterBenchmark {
+
+	private static final int WARMUP_RUNS = 5; // Untimed runs of each kernel per filter
+	private static final int TIMED_RUNS = 11; // Timed runs per measurement; the median is reported
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args Optional number of rows (default 10,000,000).
+	 */
+	public static void main(String[] args) {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		NumericColumns columns = syntheticColumns(rows);
+
+		String[] names = { "price <= 20, age >= 5, in stock", "price <= 1.50", "in stock" };
+		NumericColumns.Filter[] filters = { new NumericColumns.Filter().priceAtMost(20).ageAtLeast(5).inStock(),
+				new NumericColumns.Filter().priceAtMost(1.50), new NumericColumns.Filter().inStock() };
+
+		System.out.printf("Rows: %,d%n", rows);
+		System.out.printf("%-34s %10s %12s %12s %8s%n", "filter", "matches", "scalar (ms)", "lanes (ms)", "speedup");
+		for (int f = 0; f < filters.length; f++) {
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				time(columns, NumericColumns.Kernel.SCALAR, filters[f]);
+				time(columns, NumericColumns.Kernel.LANES, filters[f]);
+			}
+			int matches = columns.filter(filters[f]).cardinality();
+			long scalar = median(columns, NumericColumns.Kernel.SCALAR, filters[f]);
+			long lanes = median(columns, NumericColumns.Kernel.LANES, filters[f]);
+			System.out.printf("%-34s %,10d %12.2f %12.2f %8.2f%n", names[f], matches, scalar / 1e6, lanes / 1e6,
+					(double) scalar / lanes);
+		}
+	}
+
+	private static long median(NumericColumns columns, NumericColumns.Kernel kernel, NumericColumns.Filter filter) {
+		long[] times = new long[TIMED_RUNS];
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			times[i] = time(columns, kernel, filter);
+		}
+		Arrays.sort(times);
+		return times[TIMED_RUNS / 2];
+	}
+
+	private static long time(NumericColumns columns, NumericColumns.Kernel kernel, NumericColumns.Filter filter) {
+		columns.setKernel(kernel);
+		long start = System.nanoTime();
+		CompressedBitmap matches = columns.filter(filter);
+		long elapsed = System.nanoTime() - start;
+		if (matches.cardinality() < 0) {
+			throw new IllegalStateException(); // Keeps the result live
+		}
+		return elapsed;
+	}
+
+	private static NumericColumns syntheticColumns(int rows) {
+		Random random = new Random(36);
+		NumericColumns columns = new NumericColumns();
+		Figures toy = new Figures("0000000000", "Synthetic", "Brand", 0, 0, 0, 'A');
+		for (int slot = 0; slot < rows; slot++) {
+			toy.setPrice(random.nextInt(10_000) / 100.0);
+			toy.setAvailableCount(random.nextInt(10));
+			toy.setAgeAppropriate(random.nextInt(18));
+			columns.toyAdded(slot, toy);
+		}
+		return columns;
+	}
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import inventory.Inventory;
+import model.*;
+
+/**
+ * Benchmark comparing serial and parallel predicate scans over
+ * {@link Inventory#filter(Predicate)} to find the inventory size from which
+ * the parallel scan is faster on the current machine.
+ *
+ * <p>
+ * For each inventory size, the same case-insensitive name search is run with
+ * the parallel threshold forced off and forced on. Each measurement is the
+ * median of several timed runs taken after warm-up runs of both scans. The
+ * smallest size from which the parallel scan wins at every larger size is
+ * reported as the crossover, which is a good value for
+ * {@link Inventory#setParallelThreshold(int)} on this hardware.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java benchmark.ParallelScanBenchmark [maxSize]} from the test
+ * class path; it is not part of the unit test suite.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class ParallelScanBenchmark {
+
+	private static final int WARMUP_RUNS = 5; // Untimed runs of each scan per size
+	private static final int TIMED_RUNS = 11; // Timed runs per measurement; the median is reported
+	private static final String[] WORDS = { "Action", "Figure", "Jigsaw", "Puzzle", "Plush", "Bear", "Chess", "Set",
+			"Dragon", "Castle", "Robot", "Racer" };
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args Optional largest inventory size to measure (default
+	 *             2,000,000).
+	 */
+	public static void main(String[] args) {
+		int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		System.out.printf("Processors: %d%n", Runtime.getRuntime().availableProcessors());
+		System.out.printf("%10s %12s %12s %8s%n", "toys", "serial (us)", "parallel (us)", "speedup");
+
+		Predicate<Toy> predicate = toy -> toy.getName().toLowerCase().contains("dragon castle");
+		int crossover = -1; // Smallest size from which parallel won at every larger size
+		for (int size = 1_000; size <= maxSize; size *= 2) {
+			Inventory inventory = syntheticInventory(size);
+			for (int i = 0; i < WARMUP_RUNS; i++) {
+				time(inventory, Integer.MAX_VALUE, predicate);
+				time(inventory, 0, predicate);
+			}
+			long serial = median(inventory, Integer.MAX_VALUE, predicate);
+			long parallel = median(inventory, 0, predicate);
+			System.out.printf("%10d %12.1f %12.1f %8.2f%n", size, serial / 1e3, parallel / 1e3,
+					(double) serial / parallel);
+			if (parallel >= serial) {
+				crossover = -1;
+			} else if (crossover < 0) {
+				crossover = size;
+			}
+		}
+		System.out.println(crossover < 0 ? "Parallel scan did not consistently beat the serial scan."
+				: "Crossover: parallel is faster from about " + crossover + " toys.");
+	}
+
+	private static long median(Inventory inventory, int threshold, Predicate<Toy> predicate) {
+		long[] times = new long[TIMED_RUNS];
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			times[i] = time(inventory, threshold, predicate);
+		}
+		Arrays.sort(times);
+		return times[TIMED_RUNS / 2];
+	}
+
+	private static long time(Inventory inventory, int threshold, Predicate<Toy> predicate) {
+		inventory.setParallelThreshold(threshold);
+		long start = System.nanoTime();
+		int matches = inventory.filter(predicate).size();
+		long elapsed = System.nanoTime() - start;
+		if (matches < 0) {
+			throw new IllegalStateException(); // Keeps the result live
+		}
+		return elapsed;
+	}
+
+	private static Inventory syntheticInventory(int size) {
+		Random random = new Random(35);
+		Inventory inventory = new Inventory();
+		for (int i = 0; i < size; i++) {
+			String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+			inventory.add(new Figures(String.format("%010d", i), name, "Brand" + random.nextInt(50),
+					1 + random.nextInt(10_000) / 100.0, random.nextInt(100), random.nextInt(18), 'A'));
+		}
+		return inventory;
+	}
+}
@@ -0,0 +1,147 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import inventory.Inventory;
+import inventory.InventorySnapshot;
+import model.*;
+import storage.InventoryRepository;
+
+/**
+ * Benchmark comparing the {@link InventoryRepository} backends on the same
+ * synthetic inventory (200,000 toys by default): a full save, a full load, a
+ * batch of point lookups by serial number and a type range scan.
+ *
+ * <p>
+ * Each measurement is the median of several timed runs after warm-up runs,
+ * in a fresh temporary directory that is deleted afterwards. Saves are forced
+ * to disk, so their times depend on the storage device.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java benchmark.RepositoryBenchmark [toys]} from the test
+ * class path; it is not part of the unit test suite.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+public class RepositoryBenchmark {
+
+	private static final int WARMUP_RUNS = 2; // Untimed runs per operation and backend
+	private static final int TIMED_RUNS = 5; // Timed runs per measurement; the median is reported
+	private static final int LOOKUPS = 100; // Point lookups per find measurement
+
+	/**
+	 * An operation timed against a repository.
+	 */
+	private interface Operation {
+		long run(InventoryRepository repository) throws IOException;
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args Optional number of toys (default 200,000).
+	 * @throws IOException if a repository cannot be written or read.
+	 */
+	public static void main(String[] args) throws IOException {
+		int toys = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		Inventory inventory = syntheticInventory(toys);
+		InventorySnapshot snapshot = inventory.snapshot();
+		String[] serialNumbers = new String[LOOKUPS];
+		Random random = new Random(49);
+		for (int i = 0; i < LOOKUPS; i++) {
+			serialNumbers[i] = inventory.toyAt(random.nextInt(toys)).getSn();
+		}
+
+		System.out.printf("Toys: %,d, lookups: %,d%n", toys, LOOKUPS);
+		System.out.printf("%-8s %12s %12s %12s %12s %12s%n", "backend", "size (KB)", "save (ms)", "load (ms)",
+				"find (ms)", "scan 4 (ms)");
+		for (String backend : new String[] { InventoryRepository.TEXT, InventoryRepository.BINARY,
+				InventoryRepository.RECORDS }) {
+			Path directory = Files.createTempDirectory("repository-benchmark");
+			try (InventoryRepository repository = InventoryRepository.open(backend, directory)) {
+				long bytes = repository.save(snapshot);
+				long save = median(repository, r -> r.save(snapshot));
+				long load = median(repository, r -> r.load(toy -> {
+				}));
+				long find = median(repository, r -> {
+					long found = 0;
+					for (String sn : serialNumbers) {
+						found += r.find(sn) == null ? 0 : 1;
+					}
+					return found;
+				});
+				long scan = median(repository, r -> r.scanPrefix("4", toy -> {
+				}));
+				System.out.printf("%-8s %,12d %12.1f %12.1f %12.1f %12.1f%n", backend, bytes / 1024, save / 1e6,
+						load / 1e6, find / 1e6, scan / 1e6);
+			} finally {
+				delete(directory);
+			}
+		}
+	}
+
+	private static long median(InventoryRepository repository, Operation operation) throws IOException {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			time(repository, operation);
+		}
+		long[] times = new long[TIMED_RUNS];
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			times[i] = time(repository, operation);
+		}
+		Arrays.sort(times);
+		return times[TIMED_RUNS / 2];
+	}
+
+	private static long time(InventoryRepository repository, Operation operation) throws IOException {
+		long start = System.nanoTime();
+		long result = operation.run(repository);
+		long elapsed = System.nanoTime() - start;
+		if (result < 0) {
+			throw new IllegalStateException(); // Keeps the result live
+		}
+		return elapsed;
+	}
+
+	private static Inventory syntheticInventory(int toys) {
+		Random random = new Random(49);
+		Inventory inventory = new Inventory();
+		for (int i = 0; i < toys; i++) {
+			String brand = "Brand " + random.nextInt(200);
+			double price = random.nextInt(10_000) / 100.0;
+			int stock = random.nextInt(50);
+			int age = random.nextInt(18);
+			String number = String.format("%09d", i);
+			switch (i % 4) {
+			case 0:
+				inventory.add(new Figures("0" + number, "Figure " + i, brand, price, stock, age, 'A'));
+				break;
+			case 1:
+				inventory.add(new Animals("2" + number, "Animal " + i, brand, price, stock, age, "Plush", 'M'));
+				break;
+			case 2:
+				inventory.add(new Puzzles("4" + number, "Puzzle " + i, brand, price, stock, age, 'C'));
+				break;
+			default:
+				inventory.add(new BoardGames("7" + number, "Game " + i, brand, price, stock, age, 2, 4, "Designer"));
+			}
+		}
+		return inventory;
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.StockReservations;
+import model.*;
+
+/**
+ * Unit tests for buying toys through the {@link MainViewController}.
+ *
+ * <p>
+ * These tests cover over-the-counter purchases of toys with units held for
+ * online orders. The controller is set up with its inventory only, without
+ * the FXML view or data files.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class MainViewControllerPurchaseTest {
+
+	private MainViewController controller;
+	private Figures figure;
+
+	/**
+	 * Sets up a controller whose inventory holds one figure with three units.
+	 */
+	@BeforeEach
+	void setUp() {
+		controller = new MainViewController();
+		controller.createInventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 3, 8, 'A');
+		controller.getInventory().add(figure);
+	}
+
+	@Test
+	void testBuyLastUnitRemovesToy() {
+		controller.getInventory().setAvailableCount(figure, 1);
+		assertTrue(controller.buyToy(figure), "The last unit should be sold.");
+		assertEquals(-1, controller.getInventory().slotOf(figure), "A sold-out toy should be removed.");
+		assertEquals(1, controller.getTopSellers().estimate("0000000001"), "The sale should be counted.");
+	}
+
+	@Test
+	void testCannotBuyHeldUnits() {
+		StockReservations.Hold hold = controller.reserveToy(figure, 3);
+		assertEquals(0, figure.getAvailableCount(), "Every unit should be held.");
+
+		assertFalse(controller.buyToy(figure), "Held units should not be sold.");
+		assertEquals(0, figure.getAvailableCount(), "The available count should not go negative.");
+		assertEquals(0, controller.getTopSellers().estimate("0000000001"), "No sale should be counted.");
+		assertTrue(controller.getInventory().slotOf(figure) >= 0, "The toy should stay in the inventory.");
+		assertTrue(controller.confirmReservation(hold.getId()), "The hold should still be confirmable.");
+		assertEquals(-1, controller.getInventory().slotOf(figure), "A toy sold out online should be removed.");
+	}
+
+	@Test
+	void testConfirmKeepsToyWithStockLeft() {
+		StockReservations.Hold first = controller.reserveToy(figure, 1);
+		StockReservations.Hold second = controller.reserveToy(figure, 2);
+		assertTrue(controller.confirmReservation(first.getId()), "The first hold should be confirmed.");
+		assertTrue(controller.getInventory().slotOf(figure) >= 0, "A toy with units still held should stay.");
+		assertTrue(controller.cancelReservation(second.getId()), "The second hold should be cancelled.");
+		assertEquals(2, figure.getAvailableCount(), "The cancelled units should be available again.");
+	}
+
+	@Test
+	void testBuyLastUnheldUnitKeepsHeldUnits() {
+		StockReservations.Hold hold = controller.reserveToy(figure, 2);
+
+		assertTrue(controller.buyToy(figure), "The unheld unit should be sold.");
+		assertTrue(controller.getInventory().slotOf(figure) >= 0, "A toy with held units should stay.");
+		assertEquals(0, figure.getAvailableCount(), "No unit should be left available.");
+		assertEquals(2, controller.getReservations().getHeldUnits(figure), "The held units should stay held.");
+		assertFalse(controller.buyToy(figure), "A second purchase should be rejected.");
+
+		assertTrue(controller.confirmReservation(hold.getId()), "The hold should still be confirmable.");
+		assertEquals(-1, controller.getInventory().slotOf(figure), "The toy should be removed once sold out.");
+		assertEquals(3, controller.getTopSellers().estimate("0000000001"), "Every sold unit should be counted.");
+	}
+}
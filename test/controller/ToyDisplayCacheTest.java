@@ -0,0 +1,79 @@
+package controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+/**
+ * Unit tests for the {@link ToyDisplayCache} class.
+ *
+ * <p>
+ * These tests cover building, reusing and invalidating the display text of
+ * toys.
+ * </p>
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class ToyDisplayCacheTest {
+
+	private Inventory inventory;
+	private ToyDisplayCache cache;
+	private Figures figure;
+	private BoardGames boardGame;
+
+	/**
+	 * Sets up an inventory with a registered display cache before each test.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		cache = new ToyDisplayCache();
+		inventory.addListener(cache);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		boardGame = new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Strategy");
+		inventory.add(figure);
+		inventory.add(boardGame);
+	}
+
+	@Test
+	void testRowColumns() {
+		ToyDisplayCache.Row row = cache.rowOf(boardGame);
+		assertEquals("Chess Set", row.name, "The name column should hold the toy name.");
+		assertEquals("$29.99", row.price, "The price should have two decimals.");
+		assertEquals("2", row.stock, "The stock column should hold the available count.");
+		assertEquals("8+", row.age, "The age column should hold the minimum age.");
+		assertTrue(row.summary.contains("SN 7000000004"), "The summary should include the serial number.");
+		assertEquals("Players: 2-2, Designers: Strategy", row.details, "Board games should list players and designers.");
+	}
+
+	@Test
+	void testRowIsReusedUntilToyChanges() {
+		ToyDisplayCache.Row first = cache.rowOf(figure);
+		assertSame(first, cache.rowOf(figure), "An unchanged toy should reuse its cached text.");
+
+		inventory.setAvailableCount(figure, 9);
+		ToyDisplayCache.Row updated = cache.rowOf(figure);
+		assertNotSame(first, updated, "A stock change should rebuild the text.");
+		assertEquals("9", updated.stock, "The rebuilt text should show the new stock.");
+	}
+
+	@Test
+	void testChangeOnlyInvalidatesChangedToy() {
+		ToyDisplayCache.Row figureRow = cache.rowOf(figure);
+		cache.rowOf(boardGame);
+		inventory.setAvailableCount(boardGame, 1);
+		assertSame(figureRow, cache.rowOf(figure), "Other toys should keep their cached text.");
+	}
+
+	@Test
+	void testRemovalDropsRow() {
+		cache.rowOf(figure);
+		inventory.remove(figure);
+		assertEquals(0, cache.size(), "A removed toy should not stay cached.");
+	}
+}
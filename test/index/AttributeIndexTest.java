@@ -0,0 +1,72 @@
+package index;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import index.AttributeIndex.Attribute;
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link AttributeIndex} class.
+ *
+ * This class tests attribute lookups, combined filters and counts, and that the
+ * index follows additions and removals in the inventory.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class AttributeIndexTest {
+
+	private Inventory inventory;
+	private AttributeIndex index;
+	private Animals bear;
+
+	/**
+	 * Sets up an inventory with one toy of each type and registers the index.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		bear = new Animals("2000000002", "Stuffed Bear", "Gamezoid", 15.99, 5, 3, "Plush", 'L');
+		inventory.add(new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A'));
+		inventory.add(bear);
+		inventory.add(new Animals("3000000005", "Wooden Dove", "Gamezoid", 9.99, 2, 3, "Wooden", 'L'));
+		inventory.add(new Puzzles("4000000003", "Logic Grid", "BrandZ", 9.99, 20, 5, 'L'));
+		index = new AttributeIndex();
+		inventory.addListener(index);
+	}
+
+	@Test
+	void testLookupByType() {
+		assertArrayEquals(new int[] { 1, 2 }, index.lookup(Attribute.TYPE, "animal").toArray(),
+				"Type lookup should be case-insensitive.");
+	}
+
+	@Test
+	void testLookupAll() {
+		Map<Attribute, String> criteria = new EnumMap<>(Attribute.class);
+		criteria.put(Attribute.SIZE, "L");
+		criteria.put(Attribute.MATERIAL, "plush");
+		assertArrayEquals(new int[] { 1 }, index.lookupAll(criteria).toArray(), "Only the large plush animal should match.");
+	}
+
+	@Test
+	void testCounts() {
+		assertEquals(2, index.count(Attribute.BRAND, "Gamezoid"), "Brand count should match.");
+		assertEquals(1, index.count(Attribute.PUZZLE_TYPE, "L"), "Puzzle type count should match.");
+		assertEquals(Integer.valueOf(2), index.counts(Attribute.TYPE).get("animal"), "Grouped count should match.");
+	}
+
+	@Test
+	void testRemoveUpdatesIndex() {
+		inventory.remove(bear);
+		assertEquals(1, index.count(Attribute.TYPE, "Animal"), "Removed toy should leave the index.");
+		assertEquals(0, index.count(Attribute.MATERIAL, "Plush"), "Removed toy should leave the index.");
+	}
+}
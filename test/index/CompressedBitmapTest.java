@@ -0,0 +1,108 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CompressedBitmap} class.
+ *
+ * This class tests adding, removing and set operations on both sparse and
+ * dense chunks, including the conversion between the two representations.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class CompressedBitmapTest {
+
+	private CompressedBitmap evens;
+	private CompressedBitmap threes;
+
+	/**
+	 * Sets up two overlapping bitmaps before each test method: multiples of two
+	 * (dense) and multiples of three (dense) below 30,000, plus a few values in a
+	 * second chunk.
+	 */
+	@BeforeEach
+	void setUp() {
+		evens = new CompressedBitmap();
+		threes = new CompressedBitmap();
+		for (int i = 0; i < 30000; i++) {
+			if (i % 2 == 0) {
+				evens.add(i);
+			}
+			if (i % 3 == 0) {
+				threes.add(i);
+			}
+		}
+		evens.add(70000);
+		threes.add(70000);
+		threes.add(70001);
+	}
+
+	@Test
+	void testContainsAndCardinality() {
+		assertTrue(evens.contains(29998), "Even value should be present.");
+		assertFalse(evens.contains(29999), "Odd value should not be present.");
+		assertEquals(15001, evens.cardinality(), "Cardinality should count both chunks.");
+	}
+
+	@Test
+	void testAnd() {
+		CompressedBitmap sixes = CompressedBitmap.and(evens, threes);
+		assertEquals(5001, sixes.cardinality(), "Intersection should hold multiples of six plus 70000.");
+		assertTrue(sixes.contains(70000), "Shared value in second chunk should be kept.");
+		assertFalse(sixes.contains(70001), "Value only in one bitmap should be dropped.");
+	}
+
+	@Test
+	void testOrAndAndNot() {
+		CompressedBitmap union = CompressedBitmap.or(evens, threes);
+		assertEquals(20002, union.cardinality(), "Union should count shared values once.");
+		CompressedBitmap onlyEvens = CompressedBitmap.andNot(evens, threes);
+		assertEquals(10000, onlyEvens.cardinality(), "Difference should remove multiples of six.");
+		assertFalse(onlyEvens.contains(6), "Multiples of six should be removed.");
+	}
+
+	@Test
+	void testRemoveConvertsBackToSparse() {
+		for (int i = 0; i < 30000; i += 4) {
+			evens.remove(i);
+		}
+		assertEquals(7501, evens.cardinality(), "Removing values should update cardinality.");
+		assertFalse(evens.contains(4), "Removed value should be gone.");
+		assertTrue(evens.contains(6), "Other values should remain.");
+	}
+
+	@Test
+	void testToArrayIsSorted() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		bitmap.add(500000);
+		bitmap.add(3);
+		bitmap.add(70000);
+		assertArrayEquals(new int[] { 3, 70000, 500000 }, bitmap.toArray(), "Values should be returned in order.");
+	}
+
+	@Test
+	void testNegativeValue() {
+		assertThrows(IllegalArgumentException.class, () -> evens.add(-1),
+				"Adding a negative value should throw an exception.");
+	}
+
+	@Test
+	void testFromWords() {
+		long[] words = new long[2048]; // Two chunks
+		for (int i = 0; i < 65536; i += 2) {
+			words[i >>> 6] |= 1L << i; // Dense first chunk
+		}
+		words[1024] = 0b101; // Sparse second chunk: 65536 and 65538
+		CompressedBitmap bitmap = CompressedBitmap.fromWords(words);
+		assertEquals(32770, bitmap.cardinality(), "Every set bit should be included.");
+		assertTrue(bitmap.contains(65534), "Dense chunk values should be present.");
+		assertFalse(bitmap.contains(65535), "Unset bits should be absent.");
+		assertTrue(bitmap.contains(65538), "Sparse chunk values should be present.");
+		assertEquals(evens.cardinality() - 1, CompressedBitmap.and(bitmap, evens).cardinality(),
+				"The bitmap should combine with others; only 70000 is missing from it.");
+	}
+}
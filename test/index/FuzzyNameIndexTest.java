@@ -0,0 +1,75 @@
+package index;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FuzzyNameIndex} class.
+ *
+ * This class tests misspelled name lookups, ranking by edit distance, the
+ * distance bound and removal of toys.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class FuzzyNameIndexTest {
+
+	private Inventory inventory;
+	private FuzzyNameIndex index;
+	private Figures turtles;
+
+	/**
+	 * Sets up an inventory with a few named toys and registers the index.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		index = new FuzzyNameIndex();
+		inventory.addListener(index);
+		turtles = new Figures("1147205649", "Ninja Turtles", "Gamezoid", 46.15, 10, 6, 'A');
+		inventory.add(turtles);
+		inventory.add(new Animals("3015547049", "Dove", "Game Zombie", 24.55, 2, 9, "Wooden", 'S'));
+		inventory.add(new Animals("3015547050", "Dog", "Game Zombie", 14.55, 2, 9, "Plush", 'S'));
+		inventory.add(new Puzzles("5726898779", "Pocket Cube", "Game Orc", 42.83, 1, 4, 'M'));
+	}
+
+	@Test
+	void testMisspelledFullName() {
+		List<FuzzyNameIndex.Match> matches = index.search("Ninja Turtels");
+		assertEquals(1, matches.size(), "Misspelled name should find one toy.");
+		assertEquals(0, matches.get(0).getSlot(), "The turtles should match.");
+		assertEquals(2, matches.get(0).getDistance(), "Swapped letters count as two edits.");
+	}
+
+	@Test
+	void testMisspelledWord() {
+		assertEquals(1, index.search("pocet").get(0).getDistance(), "One missing letter is one edit.");
+	}
+
+	@Test
+	void testRankingAndBound() {
+		List<FuzzyNameIndex.Match> matches = index.search("dov", 1);
+		assertEquals(1, matches.get(0).getSlot(), "Closest name should rank first.");
+		assertEquals(2, matches.get(1).getSlot(), "Farther name should rank second.");
+		assertTrue(index.search("dov", 0).isEmpty(), "A zero bound should require an exact term.");
+	}
+
+	@Test
+	void testRemove() {
+		inventory.remove(turtles);
+		assertTrue(index.search("ninja turtles", 0).isEmpty(), "Removed toy should not match.");
+	}
+
+	@Test
+	void testDistance() {
+		int[][] rows = new int[2][8];
+		assertEquals(3, FuzzyNameIndex.distance("kitten", "sitting", rows), "Classic example should be 3 edits.");
+	}
+}
@@ -0,0 +1,120 @@
+package index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GroupByEngine} class.
+ *
+ * This class tests grouping by one and several dimensions, the price
+ * statistics, following inventory changes, and that parallel and sequential
+ * aggregation agree.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class GroupByEngineTest {
+
+	private Inventory inventory;
+	private GroupByEngine engine;
+	private Figures figure;
+
+	/**
+	 * Sets up an inventory with four toys and registers the engine.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		engine = new GroupByEngine();
+		inventory.addListener(engine);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		inventory.add(figure);
+		inventory.add(new Figures("1000000002", "Robot", "brandx", 5.01, 3, 4, 'H'));
+		inventory.add(new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C'));
+		inventory.add(new Animals("2000000004", "Plush Bear", "BrandX", 14.99, 5, 3, "Cotton", 'M'));
+	}
+
+	@Test
+	void testGroupByType() {
+		List<GroupByEngine.Group> groups = engine.groupBy(GroupByEngine.Dimension.TYPE);
+		assertEquals(3, groups.size(), "There should be one group per type.");
+		GroupByEngine.Group figures = groups.get(1);
+		assertEquals(Arrays.asList("Figure"), figures.getKey(), "Groups should be sorted by key.");
+		assertEquals(2, figures.getCount(), "Both figures should be counted.");
+		assertEquals(13, figures.getUnits(), "Figure units should be summed.");
+		assertEquals((1999 * 10 + 501 * 3) / 100.0, figures.getValue(), 1e-9, "Value should be exact.");
+		assertEquals(5.01, figures.getMinPrice(), 1e-9, "The lowest price should be reported.");
+		assertEquals(12.50, figures.getAveragePrice(), 1e-9, "The average price should be reported.");
+		assertEquals(19.99, figures.getMaxPrice(), 1e-9, "The highest price should be reported.");
+	}
+
+	@Test
+	void testGroupBySeveralDimensions() {
+		List<GroupByEngine.Group> groups = engine.groupBy(GroupByEngine.Dimension.BRAND,
+				GroupByEngine.Dimension.TYPE);
+		assertEquals(3, groups.size(), "Brands differing in case should be grouped together.");
+		assertEquals(Arrays.asList("BrandX", "Animal"), groups.get(0).getKey(), "Keys should follow the order.");
+		assertEquals(2, groups.get(1).getCount(), "BrandX figures should be grouped.");
+		assertEquals(Arrays.asList("BrandY", "Puzzle"), groups.get(2).getKey(), "Keys should follow the order.");
+	}
+
+	@Test
+	void testMissingAttributesAndAgeBands() {
+		List<GroupByEngine.Group> sizes = engine.groupBy(GroupByEngine.Dimension.SIZE);
+		assertEquals(GroupByEngine.NONE, sizes.get(0).getKey().get(0), "Toys without a size share a group.");
+		assertEquals(3, sizes.get(0).getCount(), "Three toys have no size.");
+
+		List<GroupByEngine.Group> bands = engine.groupBy(GroupByEngine.Dimension.AGE_BAND);
+		assertEquals(Arrays.asList("3-5", "6-8"), Arrays.asList(bands.get(0).getKey().get(0),
+				bands.get(1).getKey().get(0)), "Ages should be grouped in bands.");
+		assertEquals(3, bands.get(0).getCount(), "Ages 3 to 5 should share a band.");
+		assertEquals("13+", GroupByEngine.ageBand(14), "Teens should get the top band.");
+	}
+
+	@Test
+	void testFollowsStockChangesAndRemovals() {
+		inventory.setAvailableCount(figure, 4);
+		assertEquals(7, engine.groupBy(GroupByEngine.Dimension.TYPE).get(1).getUnits(), "Stock should follow.");
+		inventory.remove(figure);
+		GroupByEngine.Group figures = engine.groupBy(GroupByEngine.Dimension.TYPE).get(1);
+		assertEquals(1, figures.getCount(), "A removed toy should not be counted.");
+		assertEquals(5.01, figures.getMaxPrice(), 1e-9, "A removed toy's price should not be reported.");
+	}
+
+	@Test
+	void testParallelMatchesSequential() {
+		Random random = new Random(38);
+		for (int i = 0; i < 5000; i++) {
+			inventory.add(new Figures(String.format("0%09d", 100 + i), "Figure " + i, "Brand" + random.nextInt(20),
+					random.nextInt(10_000) / 100.0, random.nextInt(10), random.nextInt(18), 'A'));
+		}
+		engine.setParallelThreshold(Integer.MAX_VALUE);
+		String sequential = engine.groupBy(GroupByEngine.Dimension.BRAND, GroupByEngine.Dimension.AGE_BAND)
+				.toString();
+		engine.setParallelThreshold(0);
+		assertEquals(sequential, engine.groupBy(GroupByEngine.Dimension.BRAND, GroupByEngine.Dimension.AGE_BAND)
+				.toString(), "Parallel and sequential reports should match.");
+	}
+
+	@Test
+	void testEmptyEngine() {
+		assertTrue(new GroupByEngine().groupBy(GroupByEngine.Dimension.values()).isEmpty(),
+				"An empty engine should report no groups.");
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> engine.groupBy(), "A dimension should be required.");
+		assertThrows(IllegalArgumentException.class, () -> engine.setParallelThreshold(-1),
+				"A negative threshold should be rejected.");
+	}
+}
@@ -0,0 +1,75 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InvertedIndex} class.
+ *
+ * This class tests designer and brand lookups, multi-word queries and the
+ * galloping intersection of posting lists.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class InvertedIndexTest {
+
+	private Inventory inventory;
+	private InvertedIndex designers;
+	private InvertedIndex brands;
+	private BoardGames chess;
+
+	/**
+	 * Sets up an inventory with a few board games and a figure, and registers
+	 * designer and brand indexes.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		designers = InvertedIndex.byDesigner();
+		brands = InvertedIndex.byBrand();
+		inventory.addListener(designers);
+		inventory.addListener(brands);
+		chess = new BoardGames("7000000001", "Chess Set", "Gamezoid", 29.99, 2, 8, 2, 2, "Jane Smith, John Doe");
+		inventory.add(chess);
+		inventory.add(new Figures("0000000001", "Action Figure", "Gamezoid", 19.99, 10, 8, 'A'));
+		inventory.add(new BoardGames("8000000002", "Party Game", "Game Rush", 24.99, 4, 10, 4, 10, "Jane Doe"));
+	}
+
+	@Test
+	void testSingleTerm() {
+		assertArrayEquals(new int[] { 0, 2 }, designers.postings("jane"), "Both games by Jane should match.");
+		assertArrayEquals(new int[] { 0, 1 }, brands.search("GAMEZOID"), "Brand search should be case-insensitive.");
+	}
+
+	@Test
+	void testMultiTerm() {
+		assertArrayEquals(new int[] { 0 }, designers.search("Jane Smith"), "All words must match.");
+		assertArrayEquals(new int[0], designers.search("Jane Unknown"), "Unknown word should match nothing.");
+	}
+
+	@Test
+	void testRemove() {
+		inventory.remove(chess);
+		assertArrayEquals(new int[] { 2 }, designers.search("jane"), "Removed game should leave the index.");
+		assertArrayEquals(new int[0], designers.postings("smith"), "Token with no postings should be empty.");
+	}
+
+	@Test
+	void testGallopingIntersect() {
+		int[] small = { 3, 500, 998, 1500 };
+		int[] large = new int[1000];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = i * 3;
+		}
+		int n = InvertedIndex.intersect(small, small.length, large, large.length);
+		assertEquals(2, n, "Only multiples of three below 3000 should match.");
+		assertEquals(3, small[0], "First match should be kept.");
+		assertEquals(1500, small[1], "Second match should be kept.");
+	}
+}
@@ -0,0 +1,63 @@
+package index;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link NameTrie} class.
+ *
+ * This class tests prefix completion ranked by stock and that completions
+ * follow additions, removals and stock changes.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class NameTrieTest {
+
+	private Inventory inventory;
+	private NameTrie trie;
+	private Puzzles cube;
+
+	/**
+	 * Sets up an inventory with names sharing prefixes and registers the trie.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		trie = new NameTrie();
+		inventory.addListener(trie);
+		cube = new Puzzles("5726898779", "Pocket Cube", "Game Orc", 42.83, 1, 4, 'M');
+		inventory.add(cube);
+		inventory.add(new Puzzles("5726898780", "Pocket Puzzle", "Game Orc", 12.83, 7, 4, 'M'));
+		inventory.add(new Figures("1147205649", "Pocahontas", "Gamezoid", 46.15, 4, 6, 'H'));
+		inventory.add(new Figures("1147205650", "Pocahontas", "Gamezoid", 46.15, 4, 6, 'H'));
+		inventory.add(new Animals("3015547049", "Dove", "Game Zombie", 24.55, 2, 9, "Wooden", 'S'));
+	}
+
+	@Test
+	void testCompleteRankedByStock() {
+		assertEquals(List.of("Pocahontas", "Pocket Puzzle", "Pocket Cube"), trie.complete("po", 5),
+				"Completions should be ranked by total stock per name.");
+		assertEquals(List.of("Pocahontas"), trie.complete("PO", 1), "Prefix should be case-insensitive.");
+		assertTrue(trie.complete("xyz", 5).isEmpty(), "Unknown prefix should have no completions.");
+	}
+
+	@Test
+	void testStockChangeReranks() {
+		inventory.setAvailableCount(cube, 20);
+		assertEquals("Pocket Cube", trie.complete("poc", 1).get(0), "Restocked name should rank first.");
+	}
+
+	@Test
+	void testRemove() {
+		inventory.remove(cube);
+		assertEquals(List.of("Pocket Puzzle"), trie.complete("pocket", 5), "Removed name should not be suggested.");
+	}
+}
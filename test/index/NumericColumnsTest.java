@@ -0,0 +1,91 @@
+package index;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link NumericColumns} class.
+ *
+ * This class tests range filters over price, stock and age, that both kernels
+ * agree, and that the columns follow stock changes and removals.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class NumericColumnsTest {
+
+	private Inventory inventory;
+	private NumericColumns columns;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * Sets up an inventory with four toys and registers the columns.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		columns = new NumericColumns();
+		inventory.addListener(columns);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandZ", 9.99, 0, 5, 'C');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(new Animals("2000000002", "Plush Bear", "BrandY", 20.00, 5, 3, "Plush", 'M'));
+		inventory.add(new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Strategy"));
+	}
+
+	@Test
+	void testCombinedFilter() {
+		NumericColumns.Filter filter = new NumericColumns.Filter().priceAtMost(20).ageAtLeast(5).inStock();
+		assertArrayEquals(new int[] { 0 }, columns.filter(filter).toArray(),
+				"Only the figure is at most $20, for ages 5 and up, and in stock.");
+	}
+
+	@Test
+	void testBoundsAreInclusive() {
+		assertArrayEquals(new int[] { 0, 2 },
+				columns.filter(new NumericColumns.Filter().priceAtLeast(19.99).priceAtMost(20.00)).toArray(),
+				"Prices equal to a bound should match.");
+		assertArrayEquals(new int[] { 0, 1, 2, 3 }, columns.filter(new NumericColumns.Filter()).toArray(),
+				"An empty filter should match every toy.");
+	}
+
+	@Test
+	void testFollowsInventoryChanges() {
+		inventory.setAvailableCount(puzzle, 3);
+		inventory.remove(figure);
+		assertArrayEquals(new int[] { 1, 2, 3 }, columns.filter(new NumericColumns.Filter().inStock()).toArray(),
+				"Restocked toys should match and removed toys should not.");
+	}
+
+	@Test
+	void testKernelsAgree() {
+		Random random = new Random(36);
+		NumericColumns large = new NumericColumns();
+		Figures toy = new Figures("0000000000", "Synthetic", "Brand", 0, 0, 0, 'A');
+		for (int slot = 0; slot < 5000; slot++) {
+			toy.setPrice(random.nextInt(5000) / 100.0);
+			toy.setAvailableCount(random.nextInt(5));
+			toy.setAgeAppropriate(random.nextInt(18));
+			large.toyAdded(slot, toy);
+		}
+		for (int slot = 0; slot < 5000; slot += 7) {
+			large.toyRemoved(slot, toy);
+		}
+		NumericColumns.Filter filter = new NumericColumns.Filter().priceAtLeast(5).priceAtMost(30).ageAtMost(12)
+				.inStock();
+		large.setKernel(NumericColumns.Kernel.SCALAR);
+		int[] scalar = large.filter(filter).toArray();
+		large.setKernel(NumericColumns.Kernel.LANES);
+		assertArrayEquals(scalar, large.filter(filter).toArray(), "Both kernels should return the same slots.");
+		assertTrue(scalar.length > 0, "The filter should match some rows.");
+	}
+}
@@ -0,0 +1,82 @@
+package index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PlayerRangeIndex} class.
+ *
+ * This class tests "supports N players" and "overlaps [a, b]" queries and that
+ * the index follows board games being added to and removed from the inventory.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class PlayerRangeIndexTest {
+
+	private Inventory inventory;
+	private PlayerRangeIndex index;
+	private BoardGames party;
+
+	/**
+	 * Sets up an inventory with three board games and a figure, and registers the
+	 * index.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		index = new PlayerRangeIndex();
+		inventory.addListener(index);
+		party = new BoardGames("8000000002", "Party Game", "BrandB", 24.99, 4, 10, 4, 10, "Jane Smith");
+		inventory.add(new BoardGames("7000000001", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Strategy"));
+		inventory.add(party);
+		inventory.add(new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A'));
+		inventory.add(new BoardGames("9000000003", "Solo Quest", "BrandC", 14.99, 6, 12, 1, 5, "John Doe"));
+	}
+
+	@Test
+	void testSupporting() {
+		assertArrayEquals(new int[] { 1, 3 }, index.supporting(5).toArray(), "Games for 5 players should match.");
+		assertArrayEquals(new int[] { 0, 3 }, index.supporting(2).toArray(), "Games for 2 players should match.");
+		assertTrue(index.supporting(11).isEmpty(), "No game supports 11 players.");
+	}
+
+	@Test
+	void testOverlapping() {
+		assertArrayEquals(new int[] { 1, 3 }, index.overlapping(3, 4).toArray(), "Overlapping ranges should match.");
+		assertArrayEquals(new int[] { 0, 1, 3 }, index.overlapping(1, 20).toArray(), "All games should match.");
+	}
+
+	@Test
+	void testRemove() {
+		inventory.remove(party);
+		assertEquals(2, index.size(), "Removed game should leave the index.");
+		assertArrayEquals(new int[] { 3 }, index.supporting(5).toArray(), "Removed game should not match.");
+	}
+
+	@Test
+	void testManyRanges() {
+		PlayerRangeIndex large = new PlayerRangeIndex();
+		int expected = 0;
+		for (int slot = 0; slot < 10000; slot++) {
+			int low = 1 + slot % 7;
+			int high = low + slot % 5;
+			large.insert(low, high, slot);
+			if (low <= 6 && high >= 6) {
+				expected++;
+			}
+		}
+		assertEquals(expected, large.supporting(6).cardinality(), "Stabbing query should find every match.");
+	}
+
+	@Test
+	void testInvalidRange() {
+		assertThrows(IllegalArgumentException.class, () -> index.overlapping(5, 2),
+				"A reversed range should throw an exception.");
+	}
+}
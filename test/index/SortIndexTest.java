@@ -0,0 +1,153 @@
+package index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SortIndex} class.
+ *
+ * This class tests the maintained permutations, sorting of result subsets in
+ * both directions, top-K selection, and that the index follows additions,
+ * removals and stock changes.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class SortIndexTest {
+
+	private Inventory inventory;
+	private SortIndex index;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * Sets up an inventory with four toys and registers the index.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		index = new SortIndex();
+		inventory.addListener(index);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandZ", 9.99, 20, 5, 'C');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(new Animals("2000000002", "bear", "BrandY", 14.99, 5, 3, "Plush", 'M'));
+		inventory.add(new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Strategy"));
+	}
+
+	@Test
+	void testPermutations() {
+		assertArrayEquals(new int[] { 1, 2, 0, 3 }, index.order(SortIndex.Key.PRICE), "Price order should match.");
+		assertArrayEquals(new int[] { 3, 2, 0, 1 }, index.order(SortIndex.Key.STOCK), "Stock order should match.");
+		assertArrayEquals(new int[] { 2, 1, 0, 3 }, index.order(SortIndex.Key.AGE),
+				"Age order should match, with ties in slot order.");
+		assertArrayEquals(new int[] { 0, 2, 3, 1 }, index.order(SortIndex.Key.NAME),
+				"Name order should ignore case.");
+	}
+
+	@Test
+	void testSortSubset() {
+		int[] result = { 3, 0, 1 };
+		assertArrayEquals(new int[] { 1, 0, 3 }, index.sort(result, SortIndex.Key.PRICE, true),
+				"Subset should be ordered by price.");
+		assertArrayEquals(new int[] { 3, 0, 1 }, index.sort(result, SortIndex.Key.PRICE, false),
+				"Descending order should be reversed.");
+	}
+
+	@Test
+	void testFollowsInventoryChanges() {
+		inventory.setAvailableCount(puzzle, 1);
+		assertArrayEquals(new int[] { 1, 3, 2, 0 }, index.order(SortIndex.Key.STOCK),
+				"A stock change should move the toy.");
+		inventory.setAvailableCount(figure, 3);
+		assertArrayEquals(new int[] { 1, 3, 0, 2 }, index.order(SortIndex.Key.STOCK),
+				"A second stock change should move the toy again.");
+
+		inventory.remove(figure);
+		inventory.add(new Figures("0000000005", "Zeta Figure", "BrandX", 1.00, 7, 12, 'H'));
+		assertArrayEquals(new int[] { 4, 1, 2, 3 }, index.order(SortIndex.Key.PRICE),
+				"Removed toys should be dropped and new toys merged in.");
+		assertArrayEquals(new int[] { 4 }, index.sort(new int[] { 0, 4 }, SortIndex.Key.NAME, true),
+				"Removed slots should be left out of sorted results.");
+	}
+
+	@Test
+	void testMatchesComparatorSort() {
+		Random random = new Random(34);
+		Inventory large = new Inventory();
+		SortIndex largeIndex = new SortIndex();
+		large.addListener(largeIndex);
+		Toy[] toys = new Toy[2000];
+		for (int i = 0; i < toys.length; i++) {
+			toys[i] = new Figures(String.format("%010d", i), "Toy " + random.nextInt(500), "Brand", random.nextInt(100),
+					random.nextInt(50), random.nextInt(18), 'A');
+			large.add(toys[i]);
+		}
+		for (int i = 0; i < 200; i++) {
+			large.setAvailableCount(toys[random.nextInt(toys.length)], random.nextInt(50));
+		}
+
+		// A large subset goes through the permutation, a small one is sorted directly
+		for (int step : new int[] { 2, 50 }) {
+			int[] subset = IntStream.range(0, toys.length).filter(i -> i % step == 0).toArray();
+			int[] expected = Arrays.stream(subset).boxed()
+					.sorted(Comparator.<Integer>comparingInt(i -> toys[i].getAvailableCount())
+							.thenComparingInt(i -> i))
+					.mapToInt(Integer::intValue).toArray();
+			assertArrayEquals(expected, largeIndex.sort(subset, SortIndex.Key.STOCK, true),
+					"Sorting every " + step + "th toy should match a comparator sort.");
+		}
+	}
+
+	@Test
+	void testTopK() {
+		assertArrayEquals(new int[] { 1, 2 }, index.topK(SortIndex.Key.PRICE, true, 2),
+				"The two cheapest toys should be returned.");
+		assertArrayEquals(new int[] { 3 }, index.topK(SortIndex.Key.PRICE, false, 1),
+				"The most expensive toy should be returned.");
+		assertArrayEquals(new int[] { 3, 2, 0, 1 }, index.topK(SortIndex.Key.STOCK, true, 10),
+				"K larger than the inventory should return every toy.");
+		assertArrayEquals(new int[] { 1, 0 }, index.topK(new int[] { 3, 0, 1 }, SortIndex.Key.STOCK, false, 2),
+				"The highest-stock candidates should be returned.");
+		assertEquals(0, index.topK(new int[] { 0 }, SortIndex.Key.AGE, true, 0).length, "K of 0 should be empty.");
+		assertThrows(IllegalArgumentException.class, () -> index.topK(SortIndex.Key.AGE, true, -1),
+				"A negative K should be rejected.");
+	}
+
+	@Test
+	void testTopKMatchesSortPrefix() {
+		Random random = new Random(39);
+		Inventory large = new Inventory();
+		SortIndex largeIndex = new SortIndex();
+		large.addListener(largeIndex);
+		for (int i = 0; i < 2000; i++) {
+			large.add(new Figures(String.format("%010d", i), "Toy " + random.nextInt(500), "Brand",
+					random.nextInt(100), random.nextInt(50), random.nextInt(18), 'A'));
+		}
+		large.remove(large.toyAt(4));
+
+		// A large subset goes through the permutation, a small one through the heap
+		for (int step : new int[] { 2, 50 }) {
+			int[] subset = IntStream.range(0, 2000).filter(i -> i % step == 0).toArray();
+			for (SortIndex.Key key : SortIndex.Key.values()) {
+				for (boolean ascending : new boolean[] { true, false }) {
+					int[] sorted = largeIndex.sort(subset, key, ascending);
+					assertArrayEquals(Arrays.copyOf(sorted, Math.min(15, sorted.length)),
+							largeIndex.topK(subset, key, ascending, 15),
+							"Top 15 of every " + step + "th toy by " + key + " should match the sort prefix.");
+				}
+			}
+		}
+	}
+}
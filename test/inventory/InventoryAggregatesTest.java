@@ -0,0 +1,78 @@
+package inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InventoryAggregates} class.
+ *
+ * This class tests that totals, overall and by type and brand, follow adds,
+ * purchases and removals, and that money is summed exactly.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class InventoryAggregatesTest {
+
+	private Inventory inventory;
+	private InventoryAggregates aggregates;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * Sets up an inventory with three toys and registers the aggregates.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		aggregates = new InventoryAggregates();
+		inventory.addListener(aggregates);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "brandx", 9.99, 20, 5, 'C');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(new Figures("1000000002", "Robot", "BrandY", 0.10, 3, 6, 'H'));
+	}
+
+	@Test
+	void testTotals() {
+		InventoryAggregates.Totals totals = aggregates.getTotals();
+		assertEquals(3, totals.getSkuCount(), "Every toy should be counted.");
+		assertEquals(33, totals.getUnitCount(), "Units should be summed.");
+		assertEquals(1999 * 10 + 999 * 20 + 10 * 3, totals.getValueCents(), "Value should be exact in cents.");
+	}
+
+	@Test
+	void testGroups() {
+		assertEquals(2, aggregates.byType().get("Figure").getSkuCount(), "Two figures should be grouped.");
+		assertEquals(13, aggregates.byType().get("Figure").getUnitCount(), "Figure units should be summed.");
+		assertEquals(2, aggregates.byBrand().get("BRANDX").getSkuCount(), "Brands should be grouped ignoring case.");
+		assertEquals("BrandX", aggregates.byBrand().get("brandx").getName(), "The first spelling should be shown.");
+	}
+
+	@Test
+	void testFollowsPurchasesAndRemovals() {
+		inventory.setAvailableCount(figure, 9);
+		assertEquals(32, aggregates.getTotals().getUnitCount(), "A purchase should reduce the units.");
+		assertEquals(1999 * 9 + 999 * 20 + 10 * 3, aggregates.getTotals().getValueCents(),
+				"A purchase should reduce the value by the price.");
+
+		inventory.remove(puzzle);
+		assertNull(aggregates.byType().get("Puzzle"), "Empty groups should be dropped.");
+		assertEquals(2, aggregates.getTotals().getSkuCount(), "A removal should reduce the SKU count.");
+		assertEquals(1999 * 9 + 10 * 3, aggregates.getTotals().getValueCents(), "A removal should reduce the value.");
+	}
+
+	@Test
+	void testNoDriftAfterManyChanges() {
+		for (int i = 0; i < 10000; i++) {
+			inventory.setAvailableCount(figure, i % 2 == 0 ? 1000 : 10);
+		}
+		assertEquals(1999 * 10 + 999 * 20 + 10 * 3, aggregates.getTotals().getValueCents(),
+				"Repeated changes should not accumulate rounding errors.");
+	}
+}
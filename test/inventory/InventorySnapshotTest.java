@@ -0,0 +1,128 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InventorySnapshot} class.
+ *
+ * This class tests that a snapshot keeps the toys, order and stock counts of
+ * the moment it was taken while the inventory keeps changing, including from
+ * another thread, and that it saves the stock it captured.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class InventorySnapshotTest {
+
+	private Inventory inventory;
+	private Figures figure;
+	private Puzzles puzzle;
+	private Animals animal;
+
+	/**
+	 * Sets up an inventory with three toys.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 2, 5, 'C');
+		animal = new Animals("2000000002", "Plush Bear", "BrandY", 14.99, 5, 3, "Cotton", 'M');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(animal);
+	}
+
+	@Test
+	void testUnaffectedByLaterChanges() {
+		InventorySnapshot snapshot = inventory.snapshot();
+		inventory.setAvailableCount(figure, 9);
+		inventory.remove(puzzle);
+		inventory.add(new Figures("0000000004", "Robot", "BrandZ", 29.99, 1, 8, 'D'));
+
+		assertEquals(List.of(figure, puzzle, animal), snapshot.toys(), "The snapshot should keep its toys.");
+		assertEquals(10, snapshot.availableCountAt(0), "The snapshot should keep its stock counts.");
+		assertEquals(9, figure.getAvailableCount(), "The live toy should have the new count.");
+		assertEquals(3, snapshot.size(), "The snapshot should keep its size.");
+		assertEquals(-1, snapshot.availableCountAt(3), "Slots added later should not be in the snapshot.");
+
+		InventorySnapshot later = inventory.snapshot();
+		assertEquals(List.of(figure, animal, inventory.toyAt(3)), later.toys(), "A new snapshot should see the changes.");
+		assertEquals(9, later.availableCountAt(0), "A new snapshot should see the new count.");
+	}
+
+	@Test
+	void testDataStringsUseSnapshotStock() {
+		InventorySnapshot snapshot = inventory.snapshot();
+		inventory.setAvailableCount(figure, 1);
+		List<String> lines = new ArrayList<>();
+		for (InventorySnapshot.Entry entry : snapshot) {
+			lines.add(entry.toDataString());
+		}
+		assertEquals("0000000001;Action Figure;BrandX;19.99;10;8;A", lines.get(0),
+				"The line should have the snapshot's stock count.");
+		assertEquals(figure.toDataString(1), figure.toDataString(), "The live line should have the current count.");
+		assertEquals(3, lines.size(), "Every toy should be written.");
+	}
+
+	@Test
+	void testManyChunksAndSnapshots() {
+		List<Figures> figures = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			Figures toy = new Figures(String.format("0%09d", i + 10), "Figure " + i, "Brand", 1, i, 8, 'A');
+			figures.add(toy);
+			inventory.add(toy);
+		}
+		InventorySnapshot first = inventory.snapshot();
+		for (int i = 0; i < figures.size(); i += 2) {
+			inventory.setAvailableCount(figures.get(i), -1);
+		}
+		InventorySnapshot second = inventory.snapshot();
+		inventory.remove(figures.get(1));
+
+		for (int i = 0; i < figures.size(); i++) {
+			assertEquals(i, first.availableCountAt(i + 3), "The first snapshot should keep every count.");
+			assertEquals(i % 2 == 0 ? -1 : i, second.availableCountAt(i + 3),
+					"The second snapshot should keep the counts at its time.");
+		}
+		assertEquals(5_003, second.size(), "The second snapshot should not see the removal.");
+		assertEquals(5_002, inventory.snapshot().size(), "A new snapshot should see the removal.");
+	}
+
+	@Test
+	void testReadWhileMutating() throws Exception {
+		for (int i = 0; i < 10_000; i++) {
+			inventory.add(new Figures(String.format("0%09d", i + 10), "Figure " + i, "Brand", 1, 7, 8, 'A'));
+		}
+		InventorySnapshot snapshot = inventory.snapshot();
+		ExecutorService saver = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> units = saver.submit(() -> {
+				long total = 0;
+				for (InventorySnapshot.Entry entry : snapshot) {
+					total += entry.getAvailableCount();
+				}
+				return total;
+			});
+			for (int round = 0; round < 5; round++) {
+				for (Toy toy : new ArrayList<>(inventory.asList())) {
+					inventory.setAvailableCount(toy, toy.getAvailableCount() + 1);
+				}
+			}
+			assertEquals(10 + 2 + 5 + 10_000L * 7, units.get(), "The save should see only the snapshot's counts.");
+		} finally {
+			saver.shutdown();
+		}
+	}
+}
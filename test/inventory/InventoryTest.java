@@ -0,0 +1,114 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Inventory} class.
+ *
+ * This class tests slot assignment, the live list view and listener
+ * notifications.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class InventoryTest {
+
+	private Inventory inventory;
+	private Figures figure;
+	private List<String> events;
+
+	/**
+	 * Sets up an inventory with a recording listener before each test method.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		events = new ArrayList<>();
+		inventory.addListener(new InventoryListener() {
+			@Override
+			public void toyAdded(int slot, Toy toy) {
+				events.add("add " + slot);
+			}
+
+			@Override
+			public void toyRemoved(int slot, Toy toy) {
+				events.add("remove " + slot);
+			}
+
+			@Override
+			public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+				events.add("stock " + slot + " " + oldCount + "->" + newCount);
+			}
+		});
+	}
+
+	@Test
+	void testSlotsAreNotReused() {
+		Puzzles puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandZ", 9.99, 20, 5, 'C');
+		assertEquals(0, inventory.add(figure), "First toy should get slot 0.");
+		inventory.remove(figure);
+		assertEquals(1, inventory.add(puzzle), "Slots should not be reused.");
+		assertNull(inventory.toyAt(0), "Removed slot should be empty.");
+		assertEquals(1, inventory.size(), "Only one toy should remain.");
+	}
+
+	@Test
+	void testListViewNotifiesListeners() {
+		List<Toy> view = inventory.asList();
+		view.add(figure);
+		view.remove(figure);
+		assertEquals(List.of("add 0", "remove 0"), events, "List view changes should reach listeners.");
+	}
+
+	@Test
+	void testSetAvailableCount() {
+		inventory.add(figure);
+		inventory.setAvailableCount(figure, 9);
+		assertEquals(9, figure.getAvailableCount(), "Stock count should be updated.");
+		assertEquals("stock 0 10->9", events.get(1), "Stock change should be reported.");
+	}
+
+	@Test
+	void testDuplicateAdd() {
+		inventory.add(figure);
+		assertThrows(IllegalArgumentException.class, () -> inventory.add(figure),
+				"Adding the same toy twice should throw an exception.");
+	}
+
+	@Test
+	void testParallelFilterMatchesSerialFilter() {
+		for (int i = 0; i < 20_000; i++) {
+			inventory.add(new Figures(String.format("%010d", i), "Figure " + i, "BrandX", 9.99, i % 7, 8, 'A'));
+		}
+		for (int slot = 0; slot < 20_000; slot += 3) {
+			inventory.remove(inventory.toyAt(slot));
+		}
+		inventory.setParallelThreshold(Integer.MAX_VALUE);
+		SearchResult serial = inventory.filter(toy -> toy.getAvailableCount() == 0);
+		inventory.setParallelThreshold(0);
+		SearchResult parallel = inventory.filter(toy -> toy.getAvailableCount() == 0);
+		assertEquals(serial, parallel, "Parallel scan should return the same toys in the same order.");
+	}
+
+	@Test
+	void testFilterLimitStopsEarly() {
+		for (int i = 0; i < 20_000; i++) {
+			inventory.add(new Figures(String.format("%010d", i), "Figure " + i, "BrandX", 9.99, 1, 8, 'A'));
+		}
+		for (int threshold : new int[] { Integer.MAX_VALUE, 0 }) {
+			inventory.setParallelThreshold(threshold);
+			SearchResult firstThree = inventory.filter(toy -> toy.getSn().endsWith("5"), 3);
+			assertEquals(3, firstThree.size(), "Only the requested number of matches should be returned.");
+			assertEquals("0000000025", firstThree.get(2).getSn(), "The first matches in inventory order should be kept.");
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LowStockAlerts} class.
+ *
+ * This class tests threshold resolution, that the reorder list follows
+ * purchases, restocks and removals in urgency order, and that listeners are
+ * told when a toy runs low.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class LowStockAlertsTest {
+
+	private Inventory inventory;
+	private LowStockAlerts alerts;
+	private List<String> notified;
+	private Figures figure;
+	private Puzzles puzzle;
+	private Animals animal;
+
+	/**
+	 * Sets up an inventory with three toys, one of them already low, and
+	 * registers the alert engine.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		alerts = new LowStockAlerts();
+		notified = new ArrayList<>();
+		alerts.addListener(alert -> notified.add(alert.getToy().getName()));
+		inventory.addListener(alerts);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 2, 5, 'C');
+		animal = new Animals("2000000002", "Plush Bear", "BrandY", 14.99, 5, 3, "Cotton", 'M');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(animal);
+	}
+
+	@Test
+	void testDefaultThreshold() {
+		assertEquals(1, alerts.size(), "Only the puzzle should start below the default threshold.");
+		assertSame(puzzle, alerts.mostUrgent().getToy(), "The puzzle should be the most urgent.");
+		assertTrue(alerts.isLow(puzzle), "The puzzle should be low.");
+		assertFalse(alerts.isLow(figure), "The figure should not be low.");
+		assertEquals(List.of("Jigsaw Puzzle"), notified, "Listeners should be told about the puzzle.");
+	}
+
+	@Test
+	void testFollowsPurchasesAndRestocks() {
+		inventory.setAvailableCount(animal, 3);
+		assertEquals(2, alerts.size(), "A purchase down to the threshold should raise an alert.");
+		assertEquals(List.of("Jigsaw Puzzle", "Plush Bear"), notified, "Listeners should be told once per toy.");
+		inventory.setAvailableCount(animal, 2);
+		assertEquals(2, notified.size(), "A toy that is already low should not be reported again.");
+
+		inventory.setAvailableCount(puzzle, 30);
+		assertFalse(alerts.isLow(puzzle), "A restock should clear the alert.");
+		inventory.remove(animal);
+		assertEquals(0, alerts.size(), "A removed toy should leave the reorder list.");
+		assertNull(alerts.mostUrgent(), "An empty list should have no most urgent toy.");
+	}
+
+	@Test
+	void testThresholdResolution() {
+		alerts.setTypeThreshold("figure", 10);
+		assertTrue(alerts.isLow(figure), "A type threshold should apply to every toy of the type.");
+		alerts.setSkuThreshold("0000000001", 4);
+		assertFalse(alerts.isLow(figure), "A SKU threshold should override the type threshold.");
+		assertEquals(4, alerts.thresholdOf(figure), "The SKU threshold should be reported.");
+		alerts.clearSkuThreshold("0000000001");
+		assertTrue(alerts.isLow(figure), "Clearing the SKU threshold should restore the type threshold.");
+		alerts.setTypeThreshold("Puzzle", 0);
+		assertFalse(alerts.isLow(puzzle), "A threshold of 0 should disable alerts.");
+		alerts.setDefaultThreshold(5);
+		assertTrue(alerts.isLow(animal), "The default threshold should apply to the remaining toys.");
+		assertThrows(IllegalArgumentException.class, () -> alerts.setDefaultThreshold(-1),
+				"A negative threshold should be rejected.");
+	}
+
+	@Test
+	void testReorderListOrder() {
+		alerts.setDefaultThreshold(10);
+		// Puzzle 2/10, animal 5/10, figure 10/10
+		List<LowStockAlerts.Alert> list = alerts.reorderList();
+		assertEquals(3, list.size(), "Every toy should be low.");
+		assertSame(puzzle, list.get(0).getToy(), "The lowest relative stock should come first.");
+		assertSame(animal, list.get(1).getToy(), "Toys should be ordered by relative stock.");
+		assertEquals(10, list.get(2).getAvailable(), "Alerts should hold the available count.");
+
+		alerts.setSkuThreshold("0000000001", 100);
+		assertSame(figure, alerts.reorderList().get(0).getToy(), "Relative stock should use each threshold.");
+	}
+
+	@Test
+	void testMatchesRescan() {
+		Random random = new Random(40);
+		List<Toy> toys = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			Toy toy = new Figures(String.format("1%09d", i), "Figure " + i, "Brand", 1.0, random.nextInt(20), 5, 'A');
+			toys.add(toy);
+			inventory.add(toy);
+		}
+		alerts.setTypeThreshold("Figure", 6);
+		for (int i = 0; i < 2000; i++) {
+			Toy toy = toys.get(random.nextInt(toys.size()));
+			if (inventory.slotOf(toy) < 0) {
+				continue;
+			}
+			if (random.nextInt(20) == 0) {
+				inventory.remove(toy);
+			} else {
+				inventory.setAvailableCount(toy, random.nextInt(20));
+			}
+		}
+
+		long expected = inventory.asList().stream().filter(toy -> toy.getAvailableCount() <= alerts.thresholdOf(toy))
+				.count();
+		List<LowStockAlerts.Alert> list = alerts.reorderList();
+		assertEquals(expected, list.size(), "The reorder list should match a full rescan.");
+		for (int i = 1; i < list.size(); i++) {
+			LowStockAlerts.Alert a = list.get(i - 1), b = list.get(i);
+			assertTrue((long) a.getAvailable() * b.getThreshold() <= (long) b.getAvailable() * a.getThreshold(),
+					"The reorder list should be ordered by relative stock.");
+		}
+	}
+}
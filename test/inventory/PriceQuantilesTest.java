@@ -0,0 +1,97 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PriceQuantiles} class.
+ *
+ * This class tests median and p90 prices overall, per type and per brand, and
+ * that the distributions follow additions and removals.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class PriceQuantilesTest {
+
+	private Inventory inventory;
+	private PriceQuantiles quantiles;
+	private List<Toy> figures;
+
+	/**
+	 * Sets up an inventory of 100 figures priced $1 to $100 and one puzzle.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		quantiles = new PriceQuantiles();
+		inventory.addListener(quantiles);
+		figures = new ArrayList<>();
+		for (int i = 1; i <= 100; i++) {
+			Figures figure = new Figures(String.format("0%09d", i), "Figure " + i, i % 2 == 0 ? "Even" : "odd", i, 1,
+					8, 'A');
+			figures.add(figure);
+			inventory.add(figure);
+		}
+		inventory.add(new Puzzles("4000000001", "Jigsaw Puzzle", "EVEN", 5.50, 3, 5, 'C'));
+	}
+
+	@Test
+	void testQuantilesByGroup() {
+		PriceQuantiles.Distribution figure = quantiles.byType().get("figure");
+		assertEquals(100, figure.getCount(), "Every figure should be counted.");
+		assertEquals(50, figure.median(), "The median figure price should be exact for small groups.");
+		assertEquals(90, figure.quantile(0.9), "The p90 figure price should be exact for small groups.");
+		assertEquals(5.50, quantiles.byType().get("Puzzle").median(), "A single puzzle is its own median.");
+		assertEquals(51, quantiles.byBrand().get("even").getCount(), "Brands should be grouped ignoring case.");
+		assertEquals(101, quantiles.getOverall().getCount(), "Every toy should be counted overall.");
+	}
+
+	@Test
+	void testFollowsRemovals() {
+		for (int i = 0; i < 50; i++) {
+			inventory.remove(figures.get(i)); // The 50 cheapest
+		}
+		PriceQuantiles.Distribution figure = quantiles.byType().get("Figure");
+		assertEquals(50, figure.getCount(), "Removed figures should not be counted.");
+		assertEquals(75, figure.median(), "The median should move up after removing the cheapest.");
+		assertEquals(51, figure.quantile(0), "The cheapest remaining figure should be quantile 0.");
+
+		inventory.remove(inventory.asList().get(inventory.size() - 1));
+		assertNull(quantiles.byType().get("Puzzle"), "An empty group should be dropped.");
+	}
+
+	@Test
+	void testLargeCatalogWithinBound() {
+		Random random = new Random(43);
+		PriceQuantiles large = new PriceQuantiles();
+		double[] prices = new double[50_000];
+		for (int i = 0; i < prices.length; i++) {
+			prices[i] = random.nextInt(10_000) / 100.0;
+			large.toyAdded(i, new Figures("0000000000", "Figure", "Brand", prices[i], 1, 8, 'A'));
+		}
+		Arrays.sort(prices);
+		double p90 = large.byType().get("Figure").quantile(0.9);
+		double trueP90 = prices[(int) (prices.length * 0.9)];
+		assertEquals(trueP90, p90, 100 * 0.017 * 2, "The p90 price should be within the error bound.");
+	}
+
+	@Test
+	void testMerge() {
+		PriceQuantiles other = new PriceQuantiles();
+		other.toyAdded(0, new Figures("0000000000", "Figure", "Brand", 1000, 1, 8, 'A'));
+		PriceQuantiles.Distribution figure = quantiles.byType().get("Figure");
+		figure.merge(other.byType().get("Figure"));
+		assertEquals(101, figure.getCount(), "Merging should add the other terminal's toys.");
+		assertEquals(1000, figure.quantile(1), "The merged maximum should come from the other terminal.");
+	}
+}
@@ -0,0 +1,86 @@
+package inventory;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link QueryCache} class.
+ *
+ * This class tests hits, per-partition invalidation, LRU eviction and the
+ * exposed counters.
+ * 
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class QueryCacheTest {
+
+	private Inventory inventory;
+	private QueryCache<String> cache;
+	private int computations;
+
+	/**
+	 * Sets up a small cache registered on an inventory holding one figure.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		inventory.add(new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A'));
+		cache = new QueryCache<>(2);
+		inventory.addListener(cache);
+		computations = 0;
+	}
+
+	private String compute() {
+		computations++;
+		return "result " + computations;
+	}
+
+	@Test
+	void testHitOnNormalizedQuery() {
+		cache.get("type:Animal", Collections.singleton("Animal"), this::compute);
+		assertEquals("result 1", cache.get("  TYPE:animal ", Collections.singleton("Animal"), this::compute),
+				"Equivalent query should be served from the cache.");
+		assertEquals(1, cache.getHits(), "One hit should be counted.");
+		assertEquals(1, cache.getMisses(), "One miss should be counted.");
+	}
+
+	@Test
+	void testInvalidationIsPerPartition() {
+		cache.get("type:animal", Collections.singleton("Animal"), this::compute);
+		cache.get("name:bear", QueryCache.ALL_PARTITIONS, this::compute);
+		inventory.add(new Puzzles("4000000003", "Jigsaw Puzzle", "BrandZ", 9.99, 20, 5, 'C'));
+
+		assertEquals("result 1", cache.get("type:animal", Collections.singleton("Animal"), this::compute),
+				"Adding a puzzle should not invalidate an animal search.");
+		assertEquals("result 3", cache.get("name:bear", QueryCache.ALL_PARTITIONS, this::compute),
+				"Adding a puzzle should invalidate a whole-inventory search.");
+		assertEquals(1, cache.getInvalidations(), "One invalidation should be counted.");
+	}
+
+	@Test
+	void testStockChangeInvalidates() {
+		Toy figure = inventory.asList().get(0);
+		cache.get("type:figure", Collections.singleton("Figure"), this::compute);
+		inventory.setAvailableCount(figure, 9);
+		assertEquals("result 2", cache.get("type:figure", Collections.singleton("Figure"), this::compute),
+				"Buying a figure should invalidate a figure search.");
+	}
+
+	@Test
+	void testEviction() {
+		cache.get("a", QueryCache.ALL_PARTITIONS, this::compute);
+		cache.get("b", QueryCache.ALL_PARTITIONS, this::compute);
+		cache.get("a", QueryCache.ALL_PARTITIONS, this::compute);
+		cache.get("c", QueryCache.ALL_PARTITIONS, this::compute);
+		assertEquals(1, cache.getEvictions(), "The least recently used entry should be evicted.");
+		assertEquals("result 1", cache.get("a", QueryCache.ALL_PARTITIONS, this::compute),
+				"Recently used entry should survive.");
+		assertEquals(2, cache.size(), "Cache should stay within capacity.");
+	}
+}
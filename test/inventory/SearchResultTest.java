@@ -0,0 +1,86 @@
+package inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SearchResult} class.
+ *
+ * This class tests lazy resolution of result rows and the results produced by
+ * {@link Inventory#filter(java.util.function.Predicate)} and
+ * {@link Inventory#toysAt(int[])}.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class SearchResultTest {
+
+	private Inventory inventory;
+	private Figures figure;
+	private Puzzles puzzle;
+	private Animals animal;
+
+	/**
+	 * Sets up an inventory with three toys before each test method.
+	 */
+	@BeforeEach
+	void setUp() {
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandZ", 9.99, 20, 5, 'C');
+		animal = new Animals("2000000002", "Plush Bear", "BrandY", 14.99, 5, 3, "Cotton", 'M');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		inventory.add(animal);
+	}
+
+	@Test
+	void testFilterKeepsInventoryOrder() {
+		SearchResult result = inventory.filter(toy -> toy.getPrice() > 10);
+		assertEquals(2, result.size(), "Two toys cost more than 10.");
+		assertSame(figure, result.get(0), "First match should be the figure.");
+		assertSame(animal, result.get(1), "Second match should be the animal.");
+		assertEquals(2, result.slotAt(1), "The animal lives in slot 2.");
+	}
+
+	@Test
+	void testToysAtSkipsEmptySlots() {
+		inventory.remove(puzzle);
+		SearchResult result = inventory.toysAt(new int[] { 2, 1, 0, 7 });
+		assertEquals(2, result.size(), "Removed and unknown slots should be skipped.");
+		assertSame(animal, result.get(0), "Requested order should be kept.");
+		assertSame(figure, result.get(1), "Requested order should be kept.");
+	}
+
+	@Test
+	void testRowsAreResolvedLazily() {
+		SearchResult result = inventory.filter(toy -> true);
+		inventory.remove(puzzle);
+		assertEquals(3, result.size(), "The result size should be fixed when it is built.");
+		assertNull(result.get(1), "A toy removed after the search should resolve to null.");
+	}
+
+	@Test
+	void testResultIsImmutable() {
+		SearchResult result = inventory.filter(toy -> true);
+		assertThrows(UnsupportedOperationException.class, () -> result.add(figure),
+				"Results should not be modifiable.");
+		assertThrows(UnsupportedOperationException.class, () -> result.remove(0),
+				"Results should not be modifiable.");
+	}
+
+	@Test
+	void testBuilderGrowsPastInitialCapacity() {
+		SearchResult.Builder builder = new SearchResult.Builder(inventory);
+		for (int i = 0; i < 100; i++) {
+			builder.add(i % 3);
+		}
+		SearchResult result = builder.build();
+		assertEquals(100, result.size(), "All appended slots should be kept.");
+		assertSame(animal, result.get(98), "Slot 2 should resolve to the animal.");
+	}
+}
@@ -0,0 +1,170 @@
+package inventory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link StockReservations} class.
+ *
+ * This class tests that holds take units out of stock, that confirming keeps
+ * them out while cancelling and expiring give them back, that expirations are
+ * released in one stock change per toy, and that holds on removed toys are
+ * dropped.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class StockReservationsTest {
+
+	private static final long MINUTE = 60_000L;
+
+	private TestClock clock;
+	private Inventory inventory;
+	private StockReservations reservations;
+	private List<String> stockChanges;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * A clock that only moves when told to.
+	 */
+	private static final class TestClock extends Clock {
+		long millis = 1_700_000_000_000L;
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+
+	/**
+	 * Sets up an inventory with two toys, records its stock changes, and
+	 * registers reservations with one-second ticks.
+	 */
+	@BeforeEach
+	void setUp() {
+		clock = new TestClock();
+		inventory = new Inventory();
+		stockChanges = new ArrayList<>();
+		inventory.addListener(new InventoryListener() {
+			@Override
+			public void stockChanged(int slot, Toy toy, int oldCount, int newCount) {
+				stockChanges.add(toy.getName() + ":" + oldCount + "->" + newCount);
+			}
+		});
+		reservations = new StockReservations(inventory, clock, 1_000, 64);
+		inventory.addListener(reservations);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C');
+		inventory.add(figure);
+		inventory.add(puzzle);
+	}
+
+	@Test
+	void testReserveAndConfirm() {
+		StockReservations.Hold hold = reservations.reserve(figure, 3, 15 * MINUTE);
+		assertEquals(7, figure.getAvailableCount(), "Held units should leave the available count.");
+		assertEquals(3, reservations.getHeldUnits(figure), "The units should be held.");
+		assertEquals(List.of("Action Figure:10->7"), stockChanges, "Listeners should see the hold.");
+
+		assertSame(hold, reservations.confirm(hold.getId()), "An open hold should confirm.");
+		assertFalse(hold.isOpen(), "A confirmed hold should be closed.");
+		assertEquals(7, figure.getAvailableCount(), "Confirmed units should stay sold.");
+		assertEquals(0, reservations.getHeldUnits(figure), "Nothing should be held any more.");
+		clock.millis += 20 * MINUTE;
+		assertTrue(reservations.expire().isEmpty(), "A confirmed hold should never expire.");
+		assertNull(reservations.cancel(hold.getId()), "A confirmed hold cannot be cancelled.");
+	}
+
+	@Test
+	void testCancel() {
+		StockReservations.Hold hold = reservations.reserve(puzzle, 5, 15 * MINUTE);
+		assertSame(hold, reservations.cancel(hold.getId()), "An open hold should cancel.");
+		assertEquals(20, puzzle.getAvailableCount(), "Cancelled units should return to stock.");
+		assertNull(reservations.confirm(hold.getId()), "A cancelled hold cannot be confirmed.");
+		assertEquals(0, reservations.size(), "No holds should be open.");
+	}
+
+	@Test
+	void testExpiryReleasesInBatches() {
+		for (int i = 0; i < 5; i++) {
+			reservations.reserve(figure, 1, 10 * MINUTE + i * 1_000);
+			reservations.reserve(puzzle, 2, 10 * MINUTE + i * 1_000);
+		}
+		StockReservations.Hold later = reservations.reserve(figure, 1, 30 * MINUTE);
+		stockChanges.clear();
+
+		clock.millis += 10 * MINUTE - 1;
+		assertTrue(reservations.expire().isEmpty(), "Nothing should expire early.");
+		clock.millis += 10_000;
+		assertEquals(10, reservations.expire().size(), "Every hold due should expire together.");
+		assertEquals(9, figure.getAvailableCount(), "Only the later hold should remain on the figure.");
+		assertEquals(20, puzzle.getAvailableCount(), "The puzzle's units should all return.");
+		assertEquals(2, stockChanges.size(), "Each toy should get one stock change per batch.");
+		assertTrue(later.isOpen(), "The later hold should still be open.");
+
+		clock.millis += 20 * MINUTE;
+		assertEquals(List.of(later), reservations.expire(), "The later hold should expire on time.");
+		assertEquals(10, figure.getAvailableCount(), "All figures should be back in stock.");
+	}
+
+	@Test
+	void testManyHolds() {
+		Figures stocked = new Figures("0000000002", "Stocked Figure", "BrandX", 5.00, 100_000, 8, 'A');
+		inventory.add(stocked);
+		for (int i = 0; i < 50_000; i++) {
+			reservations.reserve(stocked, 1, MINUTE + i % 2 * 10 * MINUTE);
+		}
+		assertEquals(50_000, reservations.getHeldUnits(stocked), "Every unit should be held.");
+		clock.millis += 6 * MINUTE;
+		assertEquals(25_000, reservations.expire().size(), "Half of the holds should have expired.");
+		clock.millis += 6 * MINUTE;
+		assertEquals(25_000, reservations.expire().size(), "The other half should expire after.");
+		assertEquals(100_000, stocked.getAvailableCount(), "All units should be back in stock.");
+	}
+
+	@Test
+	void testRemovedToyAndInvalidHolds() {
+		StockReservations.Hold hold = reservations.reserve(figure, 4, MINUTE);
+		inventory.remove(figure);
+		assertFalse(hold.isOpen(), "Holds on a removed toy should be dropped.");
+		assertEquals(0, reservations.size(), "No holds should remain.");
+		clock.millis += 2 * MINUTE;
+		assertTrue(reservations.expire().isEmpty(), "A dropped hold should not expire.");
+
+		assertThrows(IllegalArgumentException.class, () -> reservations.reserve(figure, 1, MINUTE),
+				"A toy not in the inventory cannot be held.");
+		assertThrows(IllegalArgumentException.class, () -> reservations.reserve(puzzle, 21, MINUTE),
+				"More units than available cannot be held.");
+		assertThrows(IllegalArgumentException.class, () -> reservations.reserve(puzzle, 0, MINUTE),
+				"At least one unit must be held.");
+		assertThrows(IllegalArgumentException.class, () -> reservations.reserve(puzzle, 1, 0),
+				"The duration must be positive.");
+	}
+}
@@ -0,0 +1,90 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TimingWheel} class.
+ *
+ * This class tests that timeouts fire no earlier than their deadline and at
+ * most one tick after it, including deadlines several turns of the wheel away
+ * and long pauses between ticks, and that cancelled timeouts never fire.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class TimingWheelTest {
+
+	private static final long START = 1_000_000L;
+
+	private TimingWheel<String> wheel;
+
+	/**
+	 * Creates a wheel of 8 one-second ticks starting at {@link #START}.
+	 */
+	@BeforeEach
+	void setUp() {
+		wheel = new TimingWheel<>(1_000, 8, START);
+	}
+
+	@Test
+	void testFiresOnTime() {
+		wheel.schedule("a", START + 2_500);
+		wheel.schedule("b", START + 3_000);
+		assertEquals(List.of(), wheel.advance(START + 2_999), "Nothing should fire before its deadline.");
+		assertEquals(List.of("b", "a"), wheel.advance(START + 3_000), "Both should fire within a tick.");
+		assertEquals(0, wheel.size(), "Fired timeouts should leave the wheel.");
+	}
+
+	@Test
+	void testDeadlinesBeyondOneTurn() {
+		wheel.schedule("later", START + 20_000); // Two and a half turns away
+		wheel.schedule("soon", START + 4_000); // Same bucket as "later"
+		List<String> fired = new ArrayList<>();
+		for (long now = START; now <= START + 25_000; now += 1_000) {
+			for (String task : wheel.advance(now)) {
+				fired.add(task + "@" + (now - START));
+			}
+		}
+		assertEquals(List.of("soon@4000", "later@20000"), fired, "Each should fire on its own turn.");
+	}
+
+	@Test
+	void testLongPause() {
+		for (int i = 0; i < 100; i++) {
+			wheel.schedule("t" + i, START + i * 1_000L);
+		}
+		assertEquals(50, wheel.advance(START + 49_999).size(), "A long pause should fire everything due.");
+		assertEquals(50, wheel.size(), "Timeouts not yet due should stay.");
+		assertEquals(50, wheel.advance(START + 1_000_000).size(), "The rest should fire later.");
+	}
+
+	@Test
+	void testCancel() {
+		TimingWheel.Timeout<String> a = wheel.schedule("a", START + 1_000);
+		TimingWheel.Timeout<String> b = wheel.schedule("b", START + 1_000);
+		wheel.schedule("c", START + 1_000);
+		assertTrue(b.cancel(), "A pending timeout should cancel.");
+		assertFalse(b.cancel(), "A timeout should cancel only once.");
+		assertEquals(List.of("c", "a"), wheel.advance(START + 1_000), "A cancelled timeout should not fire.");
+		assertFalse(a.isPending(), "A fired timeout should no longer be pending.");
+		assertFalse(a.cancel(), "A fired timeout cannot be cancelled.");
+	}
+
+	@Test
+	void testPastDeadlineAndSizeRounding() {
+		wheel.advance(START + 5_000);
+		wheel.schedule("late", START);
+		assertEquals(List.of("late"), wheel.advance(START + 6_000), "A past deadline should fire next tick.");
+		assertEquals(16, new TimingWheel<String>(10, 9, 0).getWheelSize(), "Sizes round up to a power of two.");
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 8, 0),
+				"A zero tick should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(10, 0, 0),
+				"An empty wheel should be rejected.");
+	}
+}
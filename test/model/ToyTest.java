@@ -50,4 +50,27 @@ class ToyTest {
 	void testAgeAppropriateness() {
 		assertEquals(7, toy.getAgeAppropriate(), "Age appropriateness should match.");
 	}
+
+	@Test
+	void testFromDataStringRoundTrip() {
+		Toy[] toys = { toy, new Animals("2000000002", "Lion", "WildLife", 29.99, 10, 3, "Plush", 'M'),
+				new Puzzles("4000000003", "Sudoku", "PuzzleMania", 7.99, 50, 6, 'L'),
+				new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 4, "Kasparov,Carlsen") };
+		for (Toy original : toys) {
+			Toy parsed = Toy.fromDataString(original.toDataString());
+			assertEquals(original.getClass(), parsed.getClass(), "The type should follow the first digit.");
+			assertEquals(original.toDataString(), parsed.toDataString(), "Every field should round-trip.");
+		}
+	}
+
+	@Test
+	void testFromDataStringRejectsBadLines() {
+		assertThrows(IllegalArgumentException.class, () -> Toy.fromDataString(""), "Empty lines should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> Toy.fromDataString("1234567890;Batman;DC;x;30;7;A"),
+				"Malformed numbers should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> Toy.fromDataString("2000000002;Lion;WildLife;29.99;10;3;Plush"),
+				"Missing fields should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> Toy.fromDataString("A000000001;Batman;DC;14.99;30;7;A"),
+				"Unknown types should be rejected.");
+	}
 }
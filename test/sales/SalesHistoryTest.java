@@ -0,0 +1,203 @@
+package sales;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SalesHistory} class.
+ *
+ * This class tests the minute, hour and day rollups, per-bucket series,
+ * retention limits, the day files, and that reopening the history rebuilds the
+ * rollups.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class SalesHistoryTest {
+
+	private static final long MINUTE = 60_000L, HOUR = 60 * MINUTE, DAY = 24 * HOUR;
+	private static final long START = Instant.parse("2024-03-04T10:00:00Z").toEpochMilli(); // A Monday
+
+	@TempDir
+	Path directory;
+
+	private TestClock clock;
+	private SalesHistory history;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * A clock that only moves when told to.
+	 */
+	private static final class TestClock extends Clock {
+		long millis = START;
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+
+	/**
+	 * Opens an empty history in a temporary directory.
+	 *
+	 * @throws IOException if the history cannot be opened.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		clock = new TestClock();
+		history = new SalesHistory(directory, clock);
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C');
+	}
+
+	/**
+	 * Closes the history.
+	 *
+	 * @throws IOException if the history cannot be closed.
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		history.close();
+	}
+
+	@Test
+	void testRollups() throws IOException {
+		history.record(figure, 2);
+		clock.millis += 5 * MINUTE;
+		history.record(figure, 1);
+		history.record(puzzle, 4);
+
+		SalesHistory.Sales lastMinute = history.bySku("0000000001", SalesHistory.Resolution.MINUTE,
+				clock.millis - MINUTE + 1, clock.millis + 1);
+		assertEquals(1, lastMinute.getUnits(), "Only the last sale should be in the last minute.");
+		SalesHistory.Sales hour = history.bySku("0000000001", SalesHistory.Resolution.HOUR, START, START + HOUR);
+		assertEquals(3, hour.getUnits(), "Both figure sales should be in the hour.");
+		assertEquals(3 * 1999, hour.getRevenueCents(), "Revenue should be exact in cents.");
+		assertEquals(7, history.total(SalesHistory.Resolution.DAY, START, START + 1).getUnits(),
+				"The day should hold every sale.");
+		assertEquals(4, history.byType("puzzle", SalesHistory.Resolution.MINUTE, START, clock.millis + 1).getUnits(),
+				"Types should be matched ignoring case.");
+		assertEquals(0, history.bySku("9999999999", SalesHistory.Resolution.DAY, START, START + 1).getUnits(),
+				"A toy without sales should have none.");
+	}
+
+	@Test
+	void testUnitsPerBucketAndSalesByType() throws IOException {
+		for (int hour = 0; hour < 3; hour++) {
+			for (int i = 0; i <= hour; i++) {
+				history.record(figure, 1);
+			}
+			clock.millis += HOUR;
+		}
+		assertArrayEquals(new long[] { 1, 2, 3 },
+				history.unitsPerBucket("0000000001", SalesHistory.Resolution.HOUR, START, START + 3 * HOUR),
+				"Units should be reported per hour.");
+
+		clock.millis += 2 * DAY;
+		history.record(puzzle, 5);
+		long weekStart = START - START % DAY; // Monday 00:00 UTC
+		Map<String, SalesHistory.Sales> week = history.salesByType(SalesHistory.Resolution.DAY, weekStart,
+				weekStart + 7 * DAY);
+		assertEquals(6, week.get("Figure").getUnits(), "Figure sales this week should be summed.");
+		assertEquals(5, week.get("Puzzle").getUnits(), "Puzzle sales this week should be summed.");
+		assertEquals(0, week.get("Animal").getUnits(), "Types without sales should be listed.");
+	}
+
+	@Test
+	void testRetention() throws IOException {
+		history.record(figure, 1);
+		clock.millis += 2 * HOUR;
+		assertThrows(IllegalArgumentException.class,
+				() -> history.bySku("0000000001", SalesHistory.Resolution.MINUTE, START, START + MINUTE),
+				"Minutes older than an hour should not be queryable.");
+		assertEquals(1, history.bySku("0000000001", SalesHistory.Resolution.HOUR, START, START + HOUR).getUnits(),
+				"The hour rollup should still hold the sale.");
+
+		clock.millis += 8 * DAY;
+		history.record(figure, 2);
+		assertEquals(3, history.bySku("0000000001", SalesHistory.Resolution.DAY, START, clock.millis + 1).getUnits(),
+				"The day rollup should hold both sales.");
+		assertThrows(IllegalArgumentException.class,
+				() -> history.total(SalesHistory.Resolution.DAY, START, START - 1), "An empty range should fail.");
+	}
+
+	@Test
+	void testDayFilesAndReplay() throws IOException {
+		history.record(figure, 1);
+		clock.millis += DAY;
+		history.record(figure, 2);
+		history.record(puzzle, 3);
+		history.close();
+
+		assertEquals(SalesHistory.RECORD_SIZE, Files.size(directory.resolve("sales-2024-03-04.dat")),
+				"The first day should hold one record.");
+		Path secondDay = directory.resolve("sales-2024-03-05.dat");
+		assertEquals(2 * SalesHistory.RECORD_SIZE, Files.size(secondDay), "The second day should hold two records.");
+		Files.write(secondDay, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND); // A torn record
+
+		history = new SalesHistory(directory, clock);
+		assertEquals(3, history.bySku("0000000001", SalesHistory.Resolution.DAY, START, clock.millis + 1).getUnits(),
+				"Reopening should rebuild the rollups.");
+		assertEquals(3 * 999, history.byType("Puzzle", SalesHistory.Resolution.HOUR, clock.millis - HOUR,
+				clock.millis + 1).getRevenueCents(), "Reopening should rebuild every resolution.");
+	}
+
+	@Test
+	void testAppendAfterTornRecord() throws IOException {
+		history.record(figure, 1);
+		history.close();
+		Path day = directory.resolve("sales-2024-03-04.dat");
+		Files.write(day, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND); // A torn record
+
+		history = new SalesHistory(directory, clock);
+		assertEquals(SalesHistory.RECORD_SIZE, Files.size(day), "Reopening should cut off the torn record.");
+		history.record(figure, 2);
+		history.record(puzzle, 3);
+		history.close();
+
+		history = new SalesHistory(directory, clock);
+		assertEquals(3, history.bySku("0000000001", SalesHistory.Resolution.DAY, START, clock.millis + 1).getUnits(),
+				"Sales after the torn record should be read back.");
+		assertEquals(6, history.total(SalesHistory.Resolution.MINUTE, START, clock.millis + 1).getUnits(),
+				"No misaligned record should be counted.");
+	}
+
+	@Test
+	void testInvalidSales() {
+		assertThrows(IllegalArgumentException.class, () -> history.record(figure, 0),
+				"Units sold should be positive.");
+		assertThrows(IllegalArgumentException.class, () -> history.record(null, 1), "A toy should be required.");
+	}
+}
@@ -0,0 +1,87 @@
+package sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CountMinSketch} class.
+ *
+ * This class tests that estimates never undercount and stay within the error
+ * bound, and that merged and serialized sketches match a single sketch.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class CountMinSketchTest {
+
+	private CountMinSketch sketch;
+	private long[] counts;
+
+	/**
+	 * Counts a skewed stream of 100,000 events over 1,000 items.
+	 */
+	@BeforeEach
+	void setUp() {
+		sketch = CountMinSketch.withError(0.001, 0.99);
+		counts = new long[1000];
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			int item = (int) (counts.length * Math.pow(random.nextDouble(), 3)); // Low items are frequent
+			counts[item]++;
+			sketch.add("item" + item, 1);
+		}
+	}
+
+	@Test
+	void testDimensions() {
+		assertEquals(2719, sketch.getWidth(), "The width should be ceil(e / epsilon).");
+		assertEquals(5, sketch.getDepth(), "The depth should be ceil(ln(1 / (1 - confidence))).");
+		assertEquals(100_000, sketch.total(), "The total should count every event.");
+	}
+
+	@Test
+	void testErrorBound() {
+		long bound = (long) Math.ceil(0.001 * sketch.total());
+		for (int item = 0; item < counts.length; item++) {
+			long estimate = sketch.estimate("item" + item);
+			assertTrue(estimate >= counts[item], "An estimate should never undercount.");
+			assertTrue(estimate - counts[item] <= bound, "An estimate should be within the error bound.");
+		}
+		assertEquals(0, new CountMinSketch(10, 2).estimate("absent"), "An empty sketch should estimate 0.");
+	}
+
+	@Test
+	void testMergeAndSerialization() throws IOException {
+		CountMinSketch other = CountMinSketch.withError(0.001, 0.99);
+		other.add("item0", 5);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		other.writeTo(new DataOutputStream(bytes));
+		CountMinSketch copy = CountMinSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(5, copy.estimate("item0"), "A read sketch should match the written one.");
+
+		long before = sketch.estimate("item0");
+		sketch.merge(copy);
+		assertEquals(before + 5, sketch.estimate("item0"), "Merging should add the counts.");
+		assertEquals(100_005, sketch.total(), "Merging should add the totals.");
+		assertThrows(IllegalArgumentException.class, () -> sketch.merge(new CountMinSketch(10, 2)),
+				"Sketches of different dimensions should not merge.");
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> CountMinSketch.withError(0, 0.9),
+				"Epsilon should be positive.");
+		assertThrows(IllegalArgumentException.class, () -> sketch.add("item", -1),
+				"A negative count should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> sketch.add(null, 1), "A null item should be rejected.");
+	}
+}
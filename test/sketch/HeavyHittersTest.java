@@ -0,0 +1,86 @@
+package sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HeavyHitters} class.
+ *
+ * This class tests that the most frequent items are found in a noisy stream,
+ * and that trackers merged from several terminals find the combined top items.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class HeavyHittersTest {
+
+	private HeavyHitters tracker;
+
+	/**
+	 * Creates a tracker of the top 5 items.
+	 */
+	@BeforeEach
+	void setUp() {
+		tracker = new HeavyHitters(5, 0.001, 0.99);
+	}
+
+	@Test
+	void testFindsHeavyHitters() {
+		Random random = new Random(42);
+		for (int i = 0; i < 50_000; i++) {
+			if (i % 10 == 0) {
+				tracker.add("hot" + (i / 10) % 3); // 1,667 each
+			} else {
+				tracker.add("noise" + random.nextInt(20_000)); // About 2 each
+			}
+		}
+		List<Map.Entry<String, Long>> top = tracker.top();
+		assertEquals(5, top.size(), "K items should be kept.");
+		for (int i = 0; i < 3; i++) {
+			assertTrue(top.get(i).getKey().startsWith("hot"), "The hot items should rank first.");
+			assertTrue(top.get(i).getValue() >= 1666, "Hot item counts should not be undercounted.");
+		}
+		assertEquals(50_000, tracker.total(), "Every event should be counted.");
+	}
+
+	@Test
+	void testOrderAndTies() {
+		tracker.add("b");
+		tracker.add("a");
+		tracker.add("c");
+		tracker.add("c");
+		List<Map.Entry<String, Long>> top = tracker.top();
+		assertEquals("c", top.get(0).getKey(), "The most frequent item should be first.");
+		assertEquals("a", top.get(1).getKey(), "Ties should be ordered by item.");
+	}
+
+	@Test
+	void testMergeAcrossTerminals() throws IOException {
+		HeavyHitters other = new HeavyHitters(5, 0.001, 0.99);
+		for (int i = 0; i < 10; i++) {
+			tracker.add("x" + i); // Each item once here
+			other.add("shared");
+		}
+		tracker.add("shared");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		other.writeTo(new DataOutputStream(bytes));
+		tracker.merge(HeavyHitters.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		Map.Entry<String, Long> first = tracker.top().get(0);
+		assertEquals("shared", first.getKey(), "The combined top item should be found.");
+		assertEquals(11, first.getValue(), "Counts from both terminals should be added.");
+		assertThrows(IllegalArgumentException.class, () -> tracker.merge(new HeavyHitters(3, 0.001, 0.99)),
+				"Trackers of different sizes should not merge.");
+	}
+}
@@ -0,0 +1,78 @@
+package sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HyperLogLog} class.
+ *
+ * This class tests distinct count accuracy for small and large streams, that
+ * duplicates are ignored, and that merging equals counting the union.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class HyperLogLogTest {
+
+	private HyperLogLog sketch;
+
+	/**
+	 * Creates a sketch of precision 14.
+	 */
+	@BeforeEach
+	void setUp() {
+		sketch = new HyperLogLog(14);
+	}
+
+	@Test
+	void testSmallCounts() {
+		assertEquals(0, sketch.estimate(), "An empty sketch should estimate 0.");
+		for (int repeat = 0; repeat < 3; repeat++) {
+			for (int i = 0; i < 100; i++) {
+				sketch.add("term" + i);
+			}
+		}
+		assertEquals(100, sketch.estimate(), 2, "Small counts should be nearly exact and ignore duplicates.");
+	}
+
+	@Test
+	void testLargeCounts() {
+		for (int i = 0; i < 1_000_000; i++) {
+			sketch.add("term" + i);
+		}
+		assertEquals(1_000_000, sketch.estimate(), 1_000_000 * 0.03, "The estimate should be within 3%.");
+	}
+
+	@Test
+	void testMergeEqualsUnion() throws IOException {
+		HyperLogLog other = new HyperLogLog(14);
+		HyperLogLog union = new HyperLogLog(14);
+		for (int i = 0; i < 50_000; i++) {
+			sketch.add("a" + i);
+			other.add("a" + (i + 25_000));
+			union.add("a" + i);
+			union.add("a" + (i + 25_000));
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		other.writeTo(new DataOutputStream(bytes));
+		sketch.merge(HyperLogLog.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		assertEquals(union.estimate(), sketch.estimate(), "Merging should equal counting the union.");
+		assertEquals(75_000, sketch.estimate(), 75_000 * 0.03, "The merged estimate should be within 3%.");
+		assertThrows(IllegalArgumentException.class, () -> sketch.merge(new HyperLogLog(10)),
+				"Sketches of different precision should not merge.");
+	}
+
+	@Test
+	void testInvalidPrecision() {
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3), "Precision 3 should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19), "Precision 19 should be rejected.");
+	}
+}
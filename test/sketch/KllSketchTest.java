@@ -0,0 +1,137 @@
+package sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link KllSketch} class.
+ *
+ * This class tests that quantiles and ranks stay within the documented error
+ * bound, that memory stays bounded, and that merged, serialized and subtracted
+ * sketches give the expected quantiles.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class KllSketchTest {
+
+	private static final double BOUND = 0.017; // Documented rank error for k = 200
+
+	private KllSketch sketch;
+	private double[] values;
+
+	/**
+	 * Adds 100,000 random prices to a sketch and keeps them sorted for
+	 * comparison.
+	 */
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(43);
+		sketch = new KllSketch();
+		values = new double[100_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.round(Math.exp(random.nextGaussian() + 3) * 100) / 100.0;
+			sketch.update(values[i]);
+		}
+		Arrays.sort(values);
+	}
+
+	@Test
+	void testQuantilesWithinBound() {
+		for (double fraction = 0.05; fraction < 1; fraction += 0.05) {
+			assertRankWithin(values, sketch.quantile(fraction), fraction);
+		}
+		assertEquals(values[0], sketch.quantile(0), "Quantile 0 should be the exact minimum.");
+		assertEquals(values[values.length - 1], sketch.quantile(1), "Quantile 1 should be the exact maximum.");
+		assertEquals(100_000, sketch.count(), "Every value should be counted.");
+	}
+
+	@Test
+	void testRank() {
+		double median = values[values.length / 2];
+		assertEquals(values.length / 2, sketch.rank(median), values.length * BOUND,
+				"The rank should be within the bound.");
+		assertEquals(0, sketch.rank(values[0] - 1), "Nothing should rank below the minimum.");
+		assertEquals(100_000, sketch.rank(values[values.length - 1]), "Everything should rank at the maximum.");
+	}
+
+	@Test
+	void testMergeAndSerialization() throws IOException {
+		KllSketch other = new KllSketch();
+		for (int i = 0; i < 100_000; i++) {
+			other.update(1000 + i); // All above the first sketch's values
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		other.writeTo(new DataOutputStream(bytes));
+		sketch.merge(KllSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		assertEquals(200_000, sketch.count(), "Merging should add the counts.");
+		assertTrue(sketch.quantile(0.49) < 1000, "The lower half should come from the first sketch.");
+		assertTrue(sketch.quantile(0.51) >= 1000, "The upper half should come from the second sketch.");
+		assertEquals(1000 + 49_999, sketch.quantile(0.75), 200_000 * BOUND, "Merged quantiles should be accurate.");
+	}
+
+	@Test
+	void testQuantileWithout() {
+		KllSketch removed = new KllSketch();
+		for (int i = 0; i < values.length; i += 2) {
+			removed.update(values[i]); // Take out every other value
+		}
+		double[] remaining = new double[values.length / 2];
+		for (int i = 0; i < remaining.length; i++) {
+			remaining[i] = values[2 * i + 1];
+		}
+		for (double fraction = 0.1; fraction < 1; fraction += 0.1) {
+			assertRankWithin(remaining, sketch.quantileWithout(removed, fraction), fraction);
+		}
+		assertTrue(Double.isNaN(sketch.quantileWithout(sketch, 0.5)), "Nothing should remain.");
+	}
+
+	@Test
+	void testBoundedMemoryAndInvalidArguments() {
+		KllSketch large = new KllSketch();
+		for (int i = 0; i < 1_000_000; i++) {
+			large.update(i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			large.writeTo(new DataOutputStream(bytes));
+		} catch (IOException e) {
+			fail(e);
+		}
+		assertTrue(bytes.size() < 8 * 4 * KllSketch.DEFAULT_K, "A million values should keep only a few k.");
+		assertTrue(Double.isNaN(new KllSketch().quantile(0.5)), "An empty sketch should have no quantile.");
+		assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5), "Quantiles above 1 should fail.");
+		assertThrows(IllegalArgumentException.class, () -> new KllSketch(4), "K below 8 should be rejected.");
+	}
+
+	/**
+	 * Asserts that a value's true rank in sorted data is within the error bound
+	 * of a quantile.
+	 */
+	private static void assertRankWithin(double[] sorted, double value, double fraction) {
+		int below = 0, atOrBelow = 0;
+		for (double v : sorted) {
+			if (v < value) {
+				below++;
+			}
+			if (v <= value) {
+				atOrBelow++;
+			}
+		}
+		// Any rank held by the value counts, since equal values share a quantile
+		double target = fraction * sorted.length;
+		double distance = target < below ? below - target : target > atOrBelow ? target - atOrBelow : 0;
+		assertTrue(distance <= sorted.length * BOUND,
+				"Quantile " + fraction + " should be within the error bound, off by " + distance);
+	}
+}
@@ -0,0 +1,142 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventory.Inventory;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link AutoSaver} class.
+ *
+ * This class tests that saves write the inventory as of their snapshot, that
+ * changes are coalesced and saves never overlap, that held stock is saved as
+ * available, and that a failed save leaves the data file untouched.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class AutoSaverTest {
+
+	@TempDir
+	Path directory;
+
+	private Path file;
+	private Inventory inventory;
+	private AutoSaver saver;
+	private Figures figure;
+	private Puzzles puzzle;
+
+	/**
+	 * Sets up an inventory with two toys and a saver registered on it.
+	 */
+	@BeforeEach
+	void setUp() {
+		file = directory.resolve("toys.txt");
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 2, 5, 'C');
+		inventory.add(figure);
+		inventory.add(puzzle);
+		saver = new AutoSaver(inventory, file);
+		inventory.addListener(saver);
+		saver.markSaved();
+	}
+
+	/**
+	 * Stops the save thread.
+	 */
+	@AfterEach
+	void tearDown() {
+		saver.close();
+	}
+
+	@Test
+	void testSaveNow() throws IOException {
+		AutoSaver.Save save = saver.saveNow();
+		assertEquals(List.of(figure.toDataString(), puzzle.toDataString()), Files.readAllLines(file),
+				"The file should hold every toy.");
+		assertEquals(Files.size(file), save.getBytes(), "The recorded size should match the file.");
+		assertEquals(2, save.getToys(), "The recorded toy count should match.");
+		assertTrue(save.getDurationMillis() >= 0, "The duration should be recorded.");
+		assertEquals(1, saver.getSaveCount(), "One save should be counted.");
+		assertSame(save, saver.getLastSave(), "The last save should be kept.");
+		assertFalse(Files.exists(directory.resolve("toys.txt.tmp")), "The temporary file should be renamed.");
+	}
+
+	@Test
+	void testCoalescesChanges() throws IOException {
+		assertFalse(saver.saveIfDirty(), "Nothing should be saved before a change.");
+		for (int count = 9; count >= 5; count--) {
+			inventory.setAvailableCount(figure, count);
+		}
+		assertTrue(saver.isDirty(), "Changes should mark the inventory dirty.");
+		assertTrue(saver.saveIfDirty(), "A change should start a save.");
+		assertFalse(saver.saveIfDirty(), "No save is needed until the next change.");
+		saver.saveNow(); // Waits behind the background save
+		assertEquals(2, saver.getSaveCount(), "Five changes should coalesce into one background save.");
+		assertTrue(Files.readAllLines(file).get(0).contains(";5;"), "The latest count should be saved.");
+	}
+
+	@Test
+	void testSavesNeverOverlap() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		saver.addListener(new AutoSaver.Listener() {
+			@Override
+			public void saved(AutoSaver.Save save) {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public void saveFailed(IOException error) {
+			}
+		});
+		inventory.setAvailableCount(figure, 1);
+		assertTrue(saver.saveIfDirty(), "The first save should start.");
+		assertTrue(started.await(10, TimeUnit.SECONDS), "The first save should be running.");
+		inventory.setAvailableCount(figure, 2);
+		assertFalse(saver.saveIfDirty(), "A save should not start while another is running.");
+		assertTrue(saver.isDirty(), "The skipped change should stay dirty.");
+		release.countDown();
+		saver.saveNow();
+		assertTrue(Files.readAllLines(file).get(0).contains(";2;"), "The skipped change should be saved later.");
+	}
+
+	@Test
+	void testHeldStockSavedAsAvailable() throws IOException {
+		inventory.setAvailableCount(figure, 7);
+		saver.setHeldStock(() -> Map.of(figure, 3));
+		saver.saveNow();
+		assertTrue(Files.readAllLines(file).get(0).contains(";10;"), "Held units should be saved as available.");
+		assertEquals(7, figure.getAvailableCount(), "The live count should not change.");
+	}
+
+	@Test
+	void testFailedSaveKeepsOldFile() throws IOException {
+		Files.write(file, List.of("old contents"));
+		Files.createDirectory(directory.resolve("toys.txt.tmp")); // The temporary file cannot be opened
+		inventory.setAvailableCount(figure, 1);
+		assertThrows(IOException.class, () -> saver.saveNow(), "The save should fail.");
+		assertEquals(List.of("old contents"), Files.readAllLines(file), "The data file should be untouched.");
+		assertEquals(1, saver.getFailureCount(), "The failure should be counted.");
+		assertTrue(saver.isDirty(), "A failed save should be retried.");
+	}
+}
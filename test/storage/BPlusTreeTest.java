@@ -0,0 +1,219 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BPlusTree} class.
+ *
+ * This class tests lookups, replacement and removal against a sorted map,
+ * node splits and merges on large key sets, serial number prefix and type
+ * range scans, page reuse, and reopening the tree file.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class BPlusTreeTest {
+
+	@TempDir
+	Path directory;
+
+	private Path path;
+	private BPlusTree tree;
+
+	/**
+	 * Opens a new tree with a small cache, so that large tests evict pages.
+	 *
+	 * @throws IOException if the file cannot be created.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		path = directory.resolve("toys.idx");
+		tree = new BPlusTree(path, 16);
+	}
+
+	/**
+	 * Closes the tree.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		tree.close();
+	}
+
+	@Test
+	void testEmptyTree() throws IOException {
+		assertEquals(0, tree.size(), "A new tree should be empty");
+		assertEquals(1, tree.height(), "A new tree should be a single leaf");
+		assertNull(tree.get(BPlusTree.key("0000000001")), "An empty tree should find nothing");
+		assertNull(tree.remove(1), "Removing from an empty tree should find nothing");
+		assertEquals(0, tree.scanPrefix("", (key, value) -> true), "An empty tree should scan nothing");
+	}
+
+	@Test
+	void testPutGetAndReplace() throws IOException {
+		assertNull(tree.put(BPlusTree.key("4000000001"), 7), "A new key should have no previous value");
+		assertEquals(7L, tree.get(4_000_000_001L), "The value should be found");
+		assertEquals(7L, tree.put(4_000_000_001L, 9), "Replacing should return the old value");
+		assertEquals(9L, tree.get(4_000_000_001L), "The new value should be found");
+		assertEquals(1, tree.size(), "Replacing should not change the size");
+		assertNull(tree.get(4_000_000_002L), "A missing key should not be found");
+	}
+
+	@Test
+	void testKeyConversion() {
+		assertEquals(123L, BPlusTree.key("0000000123"), "Leading zeros should be kept as digits");
+		assertEquals("0000000123", BPlusTree.serialNumber(123), "Keys should format back to 10 digits");
+		assertThrows(IllegalArgumentException.class, () -> BPlusTree.key("123"), "Short serial numbers should fail");
+		assertThrows(IllegalArgumentException.class, () -> BPlusTree.key("12345678a0"),
+				"Non-digit serial numbers should fail");
+		assertThrows(IllegalArgumentException.class, () -> tree.put(10_000_000_000L, 1),
+				"Keys over 10 digits should fail");
+		assertThrows(IllegalArgumentException.class, () -> tree.put(-1, 1), "Negative keys should fail");
+	}
+
+	@Test
+	void testSplitsKeepEveryKey() throws IOException {
+		int count = 100_000;
+		Random random = new Random(48);
+		TreeMap<Long, Long> expected = new TreeMap<>();
+		while (expected.size() < count) {
+			long key = (long) (random.nextDouble() * 10_000_000_000L);
+			expected.put(key, (long) expected.size());
+			tree.put(key, expected.get(key));
+		}
+		assertEquals(count, tree.size(), "Every distinct key should be counted");
+		assertTrue(tree.height() >= 3, "100,000 keys should need at least three levels");
+		for (Long key : expected.keySet()) {
+			assertEquals(expected.get(key), tree.get(key), "Every key should be found after splits");
+		}
+		List<Long> scanned = new ArrayList<>();
+		tree.scanPrefix("", (key, value) -> scanned.add(key));
+		assertEquals(new ArrayList<>(expected.keySet()), scanned, "A full scan should return every key in order");
+		assertTrue(tree.getCache().getEvictions() > 0, "A small cache should have evicted pages");
+	}
+
+	@Test
+	void testSequentialInsertsAndDeletesMerge() throws IOException {
+		int count = 50_000;
+		for (int i = 0; i < count; i++) {
+			tree.put(i * 7L, i);
+		}
+		int pages = tree.pageCount();
+		int height = tree.height();
+		for (int i = 0; i < count; i++) {
+			if (i % 10 != 0) {
+				assertEquals((long) i, tree.remove(i * 7L), "Removing should return the stored value");
+			}
+		}
+		assertEquals(count / 10, tree.size(), "Only every tenth key should remain");
+		assertTrue(tree.height() < height, "Merges should shrink the tree");
+		for (int i = 0; i < count; i++) {
+			Long value = tree.get(i * 7L);
+			if (i % 10 == 0) {
+				assertEquals((long) i, value, "Remaining keys should be found after merges");
+			} else {
+				assertNull(value, "Removed keys should be gone");
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			if (i % 10 != 0) {
+				tree.put(i * 7L, i);
+			}
+		}
+		assertEquals(count, tree.size(), "Every key should be back");
+		assertEquals(pages, tree.pageCount(), "Reinsertion should reuse freed pages");
+	}
+
+	@Test
+	void testRandomOperationsMatchSortedMap() throws IOException {
+		Random random = new Random(7);
+		TreeMap<Long, Long> expected = new TreeMap<>();
+		for (int i = 0; i < 200_000; i++) {
+			long key = random.nextInt(20_000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), tree.remove(key), "Remove should match the map at step " + i);
+			} else {
+				assertEquals(expected.put(key, (long) i), tree.put(key, i), "Put should match the map at step " + i);
+			}
+		}
+		assertEquals(expected.size(), tree.size(), "The size should match the map");
+		List<Long> scanned = new ArrayList<>();
+		tree.scan(0, Long.MAX_VALUE, (key, value) -> {
+			assertEquals(expected.get(key), value, "Scanned values should match the map");
+			return scanned.add(key);
+		});
+		assertEquals(new ArrayList<>(expected.keySet()), scanned, "A scan should match the map's keys");
+		while (!expected.isEmpty()) {
+			long key = expected.firstKey();
+			assertEquals(expected.remove(key), tree.remove(key), "Draining should return every value");
+		}
+		assertEquals(0, tree.size(), "A drained tree should be empty");
+		assertEquals(1, tree.height(), "A drained tree should collapse to a single leaf");
+	}
+
+	@Test
+	void testPrefixAndTypeScans() throws IOException {
+		for (int type = 0; type < 10; type++) {
+			for (int i = 0; i < 1_000; i++) {
+				tree.put(type * 1_000_000_000L + i * 1_000L, type);
+			}
+		}
+		List<Long> puzzles = new ArrayList<>();
+		long visited = tree.scanPrefix("4", (key, value) -> puzzles.add(value));
+		assertEquals(1_000, visited, "A one-digit prefix should visit one type range");
+		assertTrue(puzzles.stream().allMatch(value -> value == 4), "Only keys starting with 4 should be visited");
+		assertEquals(3_000, tree.scan(4_000_000_000L, 7_000_000_000L, (key, value) -> true),
+				"Serial numbers 4 to 6 should cover every puzzle");
+		assertEquals(10, tree.scanPrefix("400000", (key, value) -> true),
+				"A longer prefix should narrow the range");
+		assertEquals(1, tree.scanPrefix("4000001000", (key, value) -> true),
+				"A full serial number should visit one key");
+		assertEquals(0, tree.scanPrefix("4000001001", (key, value) -> true), "A missing serial number should visit none");
+		assertEquals(5, tree.scanPrefix("9", (key, value) -> key < 9_000_004_000L),
+				"A visitor should be able to stop the scan");
+		assertThrows(IllegalArgumentException.class, () -> tree.scanPrefix("4a", (key, value) -> true),
+				"Non-digit prefixes should fail");
+	}
+
+	@Test
+	void testReopenRestoresTree() throws IOException {
+		for (int i = 0; i < 20_000; i++) {
+			tree.put(i * 3L, i);
+		}
+		for (int i = 0; i < 20_000; i += 2) {
+			tree.remove(i * 3L);
+		}
+		int height = tree.height();
+		tree.close();
+		tree = new BPlusTree(path, 16);
+		assertEquals(10_000, tree.size(), "The size should survive reopening");
+		assertEquals(height, tree.height(), "The height should survive reopening");
+		assertEquals(3L, tree.get(9L), "Keys should survive reopening");
+		assertNull(tree.get(6L), "Removed keys should stay removed");
+		tree.put(6L, 2);
+		assertEquals(10_001, tree.size(), "A reopened tree should accept changes");
+	}
+
+	@Test
+	void testRejectsOtherFiles() throws IOException {
+		Path other = directory.resolve("other.idx");
+		Files.write(other, new byte[PageCache.PAGE_SIZE]);
+		assertThrows(IOException.class, () -> new BPlusTree(other), "A file without the header should be rejected");
+		assertThrows(IllegalArgumentException.class, () -> new BPlusTree(other, 4), "A tiny cache should fail");
+		assertThrows(IllegalArgumentException.class, () -> new BPlusTree(null), "A null file should fail");
+	}
+}
@@ -0,0 +1,59 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BinarySnapshotRepository} class, which also runs
+ * the shared {@link InventoryRepositoryTest} conformance tests.
+ *
+ * This class tests that corrupted, truncated and foreign files are rejected
+ * as a whole.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class BinarySnapshotRepositoryTest extends InventoryRepositoryTest {
+
+	@Override
+	InventoryRepository open(Path directory) {
+		return new BinarySnapshotRepository(dataFile(directory));
+	}
+
+	@Override
+	Path dataFile(Path directory) {
+		return directory.resolve("toys.bin");
+	}
+
+	@Test
+	void testRejectsCorruptedFile() throws IOException {
+		repository.save(inventory.snapshot());
+		byte[] bytes = Files.readAllBytes(dataFile(directory));
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(dataFile(directory), bytes);
+		assertThrows(IOException.class, () -> repository.load(toy -> fail("No toy should be loaded.")),
+				"A flipped bit should fail the checksum.");
+	}
+
+	@Test
+	void testRejectsTruncatedFile() throws IOException {
+		repository.save(inventory.snapshot());
+		byte[] bytes = Files.readAllBytes(dataFile(directory));
+		Files.write(dataFile(directory), Arrays.copyOf(bytes, bytes.length - 10));
+		assertThrows(IOException.class, () -> repository.load(toy -> fail("No toy should be loaded.")),
+				"A truncated file should be rejected.");
+	}
+
+	@Test
+	void testRejectsOtherFiles() throws IOException {
+		Files.write(dataFile(directory), Arrays.asList(figure.toDataString()));
+		assertThrows(IOException.class, () -> repository.load(toy -> {
+		}), "A text file should not load as a snapshot.");
+	}
+}
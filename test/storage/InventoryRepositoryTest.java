@@ -0,0 +1,184 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventory.Inventory;
+import inventory.InventorySnapshot;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conformance tests shared by every {@link InventoryRepository} backend.
+ *
+ * Each backend's test class extends this one and opens its backend, so that
+ * all of them are held to the same contract: saves round-trip every toy type,
+ * replace the stored inventory, store the snapshot's counts and held stock,
+ * and leave the stored inventory unchanged when they fail; lookups by serial
+ * number and prefix find the stored toys.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+abstract class InventoryRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	protected InventoryRepository repository;
+	protected Inventory inventory;
+	protected Figures figure;
+	protected Animals animal;
+	protected Puzzles puzzle;
+	protected BoardGames game;
+
+	/**
+	 * Opens the backend under test with its files in a directory.
+	 *
+	 * @param directory The directory for the backend's files.
+	 * @return The opened repository.
+	 * @throws IOException if the repository cannot be opened.
+	 */
+	abstract InventoryRepository open(Path directory) throws IOException;
+
+	/**
+	 * Returns the file that a save replaces, whose temporary file the failure
+	 * test blocks.
+	 *
+	 * @param directory The directory for the backend's files.
+	 * @return The file replaced by a save.
+	 */
+	abstract Path dataFile(Path directory);
+
+	/**
+	 * Opens the backend and sets up an inventory with one toy of each type.
+	 *
+	 * @throws IOException if the repository cannot be opened.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		repository = open(directory);
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		animal = new Animals("2000000002", "Teddy Bear", "BrandT", 14.99, 3, 3, "Plush", 'S');
+		puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C');
+		game = new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Kasparov,Carlsen");
+		inventory.add(figure);
+		inventory.add(animal);
+		inventory.add(puzzle);
+		inventory.add(game);
+	}
+
+	/**
+	 * Closes the repository.
+	 *
+	 * @throws IOException if the repository cannot be closed.
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		repository.close();
+	}
+
+	@Test
+	void testNewRepositoryIsEmpty() throws IOException {
+		assertEquals(0, repository.load(toy -> fail("A new repository should hold no toys.")),
+				"A new repository should load nothing.");
+		assertNull(repository.find("0000000001"), "A new repository should find nothing.");
+	}
+
+	@Test
+	void testSaveAndLoadRoundTrip() throws IOException {
+		assertTrue(repository.save(inventory.snapshot()) > 0, "A save should report the bytes written.");
+		assertEquals(lines(inventory.asList()), lines(reopenAndLoad()),
+				"Every toy type should round-trip in order.");
+	}
+
+	@Test
+	void testSaveReplacesStoredInventory() throws IOException {
+		repository.save(inventory.snapshot());
+		inventory.remove(animal);
+		Figures doll = new Figures("1000000005", "Doll", "BrandD", 24.99, 6, 4, 'D');
+		inventory.add(doll);
+		repository.save(inventory.snapshot());
+		assertEquals(lines(inventory.asList()), lines(reopenAndLoad()), "The second save should replace the first.");
+	}
+
+	@Test
+	void testSavesSnapshotCountsAndHeldStock() throws IOException {
+		InventorySnapshot snapshot = inventory.snapshot();
+		inventory.setAvailableCount(figure, 1);
+		repository.save(snapshot, Map.of(puzzle, 5));
+		Map<String, Integer> stock = reopenAndLoad().stream()
+				.collect(Collectors.toMap(Toy::getSn, Toy::getAvailableCount));
+		assertEquals(10, stock.get("0000000001"), "The snapshot's count should be saved, not the live one.");
+		assertEquals(25, stock.get("4000000003"), "Held units should be saved as available.");
+	}
+
+	@Test
+	void testFailedSaveLeavesStoredInventory() throws IOException {
+		repository.save(inventory.snapshot());
+		Path blocked = AtomicFile.temporary(dataFile(directory));
+		Files.createDirectory(blocked);
+		Files.createFile(blocked.resolve("keep")); // The temporary file can be neither created nor deleted
+		inventory.remove(game);
+		assertThrows(IOException.class, () -> repository.save(inventory.snapshot()), "The save should fail.");
+		inventory.add(game);
+		assertEquals(lines(inventory.asList()), lines(reopenAndLoad()),
+				"A failed save should leave the stored inventory.");
+	}
+
+	@Test
+	void testFindAndScanPrefix() throws IOException {
+		repository.save(inventory.snapshot());
+		Toy found = repository.find("4000000003");
+		assertNotNull(found, "A stored serial number should be found.");
+		assertEquals(puzzle.toDataString(), found.toDataString(), "The stored toy should be read back.");
+		assertNull(repository.find("4000000009"), "A missing serial number should not be found.");
+		assertNull(repository.find("123"), "An invalid serial number should not be found.");
+
+		List<Toy> all = new ArrayList<>();
+		assertEquals(4, repository.scanPrefix("", all::add), "Every toy should match an empty prefix.");
+		List<Toy> animals = new ArrayList<>();
+		assertEquals(1, repository.scanPrefix("2", animals::add), "One toy should start with 2.");
+		assertEquals(animal.toDataString(), animals.get(0).toDataString(), "The animal should be read back.");
+		assertEquals(0, repository.scanPrefix("9", toy -> fail("No toy starts with 9.")),
+				"An empty range should match nothing.");
+		assertThrows(IllegalArgumentException.class, () -> repository.scanPrefix("x", toy -> {
+		}), "A non-digit prefix should fail.");
+	}
+
+	/**
+	 * Closes the repository, opens it again and loads it.
+	 *
+	 * @return The toys loaded.
+	 * @throws IOException if the repository cannot be reopened or read.
+	 */
+	protected List<Toy> reopenAndLoad() throws IOException {
+		repository.close();
+		repository = open(directory);
+		List<Toy> loaded = new ArrayList<>();
+		repository.load(loaded::add);
+		return loaded;
+	}
+
+	/**
+	 * Returns the data lines of toys, which cover every stored field.
+	 *
+	 * @param toys The toys.
+	 * @return Their data lines, in order.
+	 */
+	protected static List<String> lines(List<Toy> toys) {
+		return toys.stream().map(Toy::toDataString).collect(Collectors.toList());
+	}
+}
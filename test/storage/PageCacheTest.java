@@ -0,0 +1,120 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PageCache} class.
+ *
+ * This class tests cache hits, clock eviction with second chances, that
+ * pinned pages are never evicted, and that dirty pages are written back.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class PageCacheTest {
+
+	@TempDir
+	Path directory;
+
+	private FileChannel channel;
+	private PageCache cache;
+
+	/**
+	 * Opens a cache of 8 pages over a new file.
+	 *
+	 * @throws IOException if the file cannot be created.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		channel = FileChannel.open(directory.resolve("pages.dat"), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		cache = new PageCache(channel, 8);
+	}
+
+	/**
+	 * Closes the cache and its file.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		if (channel.isOpen()) {
+			cache.close();
+		}
+	}
+
+	@Test
+	void testHitsAndZeroFilledPages() throws IOException {
+		PageCache.Page page = cache.pin(3);
+		assertEquals(3, page.getId(), "The page should know its number");
+		assertEquals(0, page.data().getLong(0), "Pages past the end of the file should read as zeros");
+		cache.unpin(page);
+		assertSame(page, cache.pin(3), "A cached page should be returned again");
+		assertEquals(1, cache.getHits(), "The second pin should be a hit");
+		assertEquals(1, cache.getMisses(), "The first pin should be a miss");
+	}
+
+	@Test
+	void testDirtyPagesAreWrittenBackOnEviction() throws IOException {
+		PageCache.Page page = cache.pin(0);
+		page.data().putLong(8, 42);
+		page.markDirty();
+		cache.unpin(page);
+		for (int id = 1; id <= 16; id++) {
+			cache.unpin(cache.pin(id));
+		}
+		assertTrue(cache.getEvictions() > 0, "Pinning more pages than fit should evict");
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		channel.read(buffer, 8);
+		assertEquals(42, buffer.getLong(0), "The dirty page should have been written before eviction");
+		assertEquals(42, cache.pin(0).data().getLong(8), "The page should read back from the file");
+	}
+
+	@Test
+	void testReferencedPagesGetSecondChance() throws IOException {
+		for (int id = 0; id < 8; id++) {
+			cache.unpin(cache.pin(id));
+		}
+		cache.unpin(cache.pin(8)); // Sweeps every bit clear and evicts page 0
+		cache.unpin(cache.pin(1)); // Page 1 is referenced again
+		cache.unpin(cache.pin(9)); // Skips page 1 and evicts page 2
+		long misses = cache.getMisses();
+		cache.unpin(cache.pin(1));
+		assertEquals(misses, cache.getMisses(), "A recently used page should survive the sweep");
+		cache.unpin(cache.pin(2));
+		assertEquals(misses + 1, cache.getMisses(), "The unreferenced page should have been evicted");
+	}
+
+	@Test
+	void testPinnedPagesAreNotEvicted() throws IOException {
+		PageCache.Page[] pinned = new PageCache.Page[8];
+		for (int id = 0; id < 8; id++) {
+			pinned[id] = cache.pin(id);
+		}
+		assertThrows(IllegalStateException.class, () -> cache.pin(8), "A full cache of pinned pages should fail");
+		cache.unpin(pinned[5]);
+		assertEquals(8, cache.pin(8).getId(), "Unpinning a page should free its frame");
+		for (int id = 0; id < 8; id++) {
+			assertEquals(id == 5 ? 8 : id, pinned[id].getId(), "Pinned pages should keep their contents");
+		}
+		cache.unpin(pinned[5]);
+		assertThrows(IllegalStateException.class, () -> cache.unpin(pinned[5]), "Over-unpinning should fail");
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new PageCache(channel, 7), "A tiny cache should fail");
+		assertThrows(IllegalArgumentException.class, () -> new PageCache(null, 8), "A null channel should fail");
+	}
+}
@@ -0,0 +1,127 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import inventory.Inventory;
+import model.Figures;
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RecordFileRepository} class, which also runs the
+ * shared {@link InventoryRepositoryTest} conformance tests.
+ *
+ * This class tests that changes are appended to the records and index as
+ * they happen with held units stored as available, that the index is rebuilt
+ * after an unclean shutdown or when it is missing, and that prefix scans
+ * return serial number order.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class RecordFileRepositoryTest extends InventoryRepositoryTest {
+
+	@Override
+	InventoryRepository open(Path directory) throws IOException {
+		return new RecordFileRepository(dataFile(directory), directory.resolve("toys.idx"));
+	}
+
+	@Override
+	Path dataFile(Path directory) {
+		return directory.resolve("toys.rec");
+	}
+
+	@Test
+	void testAppendsChangesIncrementally() throws IOException {
+		repository.save(inventory.snapshot());
+		Inventory loaded = new Inventory();
+		repository.close();
+		repository = open(directory);
+		repository.load(loaded::add);
+		loaded.addListener(repository);
+		Toy teddy = loaded.toyAt(1);
+		loaded.setAvailableCount(loaded.toyAt(0), 4);
+		loaded.remove(teddy);
+		Figures doll = new Figures("1000000005", "Doll", "BrandD", 24.99, 6, 4, 'D');
+		loaded.add(doll);
+		assertTrue(repository.sync() > 0, "The changed pages should be synced.");
+		assertEquals(4, repository.find("0000000001").getAvailableCount(), "The stock change should be stored.");
+		assertNull(repository.find("2000000002"), "The removed toy should be gone from the index.");
+		assertEquals(doll.toDataString(), repository.find("1000000005").toDataString(),
+				"The added toy should be indexed.");
+		List<String> expected = lines(loaded.asList());
+		List<String> reloaded = lines(reopenAndLoad());
+		expected.sort(null);
+		reloaded.sort(null); // Freed records are reused, so record order differs
+		assertEquals(expected, reloaded, "The changes should survive reopening.");
+		assertFalse(((RecordFileRepository) repository).wasIndexRebuilt(),
+				"A cleanly closed index should not be rebuilt.");
+	}
+
+	@Test
+	void testListenedChangesStoreHeldStock() throws IOException {
+		repository.save(inventory.snapshot());
+		Inventory loaded = new Inventory();
+		repository.close();
+		repository = open(directory);
+		repository.load(loaded::add);
+		loaded.addListener(repository);
+		Map<Toy, Integer> held = new HashMap<>();
+		((RecordFileRepository) repository).setHeldStock(toy -> held.getOrDefault(toy, 0));
+		Toy figureLoaded = loaded.toyAt(0);
+		held.put(figureLoaded, 3);
+		loaded.setAvailableCount(figureLoaded, 4);
+		assertEquals(7, repository.find("0000000001").getAvailableCount(), "Held units should be stored as available.");
+
+		repository.save(loaded.snapshot(), held);
+		loaded.setAvailableCount(figureLoaded, 2);
+		assertEquals(5, repository.find("0000000001").getAvailableCount(),
+				"Changes after a save should still store held units.");
+		assertThrows(IllegalArgumentException.class, () -> ((RecordFileRepository) repository).setHeldStock(null),
+				"A null function should fail.");
+	}
+
+	@Test
+	void testRebuildsIndexAfterUncleanShutdown() throws IOException {
+		repository.save(inventory.snapshot());
+		repository.sync(); // Durable, but the index is never marked closed
+		InventoryRepository reopened = open(directory);
+		try {
+			assertTrue(((RecordFileRepository) reopened).wasIndexRebuilt(), "An index left open should be rebuilt.");
+			assertEquals(puzzle.toDataString(), reopened.find("4000000003").toDataString(),
+					"The rebuilt index should find the stored toys.");
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	void testRebuildsMissingIndex() throws IOException {
+		repository.save(inventory.snapshot());
+		repository.close();
+		Files.delete(directory.resolve("toys.idx"));
+		repository = open(directory);
+		assertTrue(((RecordFileRepository) repository).wasIndexRebuilt(), "A missing index should be rebuilt.");
+		assertEquals(4, ((RecordFileRepository) repository).size(), "Every record should be indexed.");
+	}
+
+	@Test
+	void testScansInSerialNumberOrder() throws IOException {
+		inventory.add(new Figures("1000000005", "Doll", "BrandD", 24.99, 6, 4, 'D'));
+		inventory.add(new Figures("0000000000", "Knight", "BrandK", 12.99, 1, 6, 'H'));
+		repository.save(inventory.snapshot());
+		List<String> sns = new ArrayList<>();
+		assertEquals(6, repository.scanPrefix("", toy -> sns.add(toy.getSn())), "Every toy should be scanned.");
+		assertEquals(List.of("0000000000", "0000000001", "1000000005", "2000000002", "4000000003", "7000000004"), sns,
+				"The scan should follow the index order.");
+	}
+}
@@ -0,0 +1,68 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.Toy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TextFileRepository} class, which also runs the
+ * shared {@link InventoryRepositoryTest} conformance tests.
+ *
+ * This class tests that the file keeps the {@code toys.txt} line format, that
+ * unparsable lines are skipped, and that backends are opened by name.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class TextFileRepositoryTest extends InventoryRepositoryTest {
+
+	@Override
+	InventoryRepository open(Path directory) {
+		return new TextFileRepository(dataFile(directory));
+	}
+
+	@Override
+	Path dataFile(Path directory) {
+		return directory.resolve("toys.txt");
+	}
+
+	@Test
+	void testWritesDataLines() throws IOException {
+		repository.save(inventory.snapshot());
+		assertEquals(lines(inventory.asList()), Files.readAllLines(dataFile(directory)),
+				"The file should hold one data line per toy.");
+	}
+
+	@Test
+	void testSkipsUnparsableLines() throws IOException {
+		Files.write(dataFile(directory), Arrays.asList(figure.toDataString(), "not a toy", "", game.toDataString()));
+		List<Toy> loaded = new ArrayList<>();
+		assertEquals(2, repository.load(loaded::add), "Only the valid lines should be loaded.");
+		assertEquals(Arrays.asList(figure.toDataString(), game.toDataString()), lines(loaded),
+				"The valid lines should be loaded in order.");
+	}
+
+	@Test
+	void testOpensBackendsByName() throws IOException {
+		try (InventoryRepository text = InventoryRepository.open(InventoryRepository.TEXT, directory);
+				InventoryRepository binary = InventoryRepository.open(InventoryRepository.BINARY, directory);
+				InventoryRepository records = InventoryRepository.open(InventoryRepository.RECORDS, directory)) {
+			assertTrue(text instanceof TextFileRepository, "\"text\" should open the text file.");
+			assertTrue(binary instanceof BinarySnapshotRepository, "\"binary\" should open the binary snapshot.");
+			assertTrue(records instanceof RecordFileRepository, "\"records\" should open the record file.");
+			assertFalse(text.isIncremental(), "The text file should not be incremental.");
+			assertTrue(records.isIncremental(), "The record file should be incremental.");
+		}
+		assertThrows(IllegalArgumentException.class, () -> InventoryRepository.open("h2", directory),
+				"An unknown backend should fail.");
+	}
+}
@@ -0,0 +1,166 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import inventory.Inventory;
+import inventory.StockReservations;
+import model.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ToyRecordFile} class.
+ *
+ * This class tests that the file follows the inventory with in-place writes,
+ * that stock and price changes touch only their own bytes and pages, that
+ * held units are kept with the stock, that freed records are reused, and that
+ * reopening the file restores the inventory.
+ *
+ * @author Justin, Fatema, Manveet
+ * @version 3.0
+ */
+class ToyRecordFileTest {
+
+	@TempDir
+	Path directory;
+
+	private Path path;
+	private Inventory inventory;
+	private ToyRecordFile file;
+	private Figures figure;
+	private BoardGames game;
+
+	/**
+	 * Sets up an inventory with two toys and a new record file registered on
+	 * it.
+	 *
+	 * @throws IOException if the file cannot be created.
+	 */
+	@BeforeEach
+	void setUp() throws IOException {
+		path = directory.resolve("toys.dat");
+		inventory = new Inventory();
+		figure = new Figures("0000000001", "Action Figure", "BrandX", 19.99, 10, 8, 'A');
+		game = new BoardGames("7000000004", "Chess Set", "BrandA", 29.99, 2, 8, 2, 2, "Kasparov,Carlsen");
+		inventory.add(figure);
+		inventory.add(game);
+		file = new ToyRecordFile(path);
+		inventory.addListener(file);
+	}
+
+	/**
+	 * Closes the record file.
+	 *
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@AfterEach
+	void tearDown() throws IOException {
+		file.close();
+	}
+
+	@Test
+	void testFollowsInventoryAndReloads() throws IOException {
+		inventory.setAvailableCount(figure, 7);
+		figure.setPrice(17.49);
+		file.writePrice(figure);
+		Puzzles puzzle = new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C');
+		inventory.add(puzzle);
+		file.close();
+
+		List<Toy> loaded = reopen();
+		assertEquals(3, loaded.size(), "Every toy should be reloaded.");
+		assertEquals(7, loaded.get(0).getAvailableCount(), "The stock count should be reloaded.");
+		assertEquals(17.49, loaded.get(0).getPrice(), "The price should be reloaded.");
+		assertEquals(game.toDataString(), loaded.get(1).toDataString(), "Every field should be reloaded.");
+		assertEquals("Jigsaw Puzzle", loaded.get(2).getName(), "Added toys should be reloaded.");
+	}
+
+	@Test
+	void testStockChangeWritesFourBytes() throws IOException {
+		file.sync();
+		long before = file.getBytesWritten();
+		inventory.setAvailableCount(game, 1);
+		assertEquals(4, file.getBytesWritten() - before, "A stock change should write only the count.");
+		assertEquals(1, file.getDirtyPageCount(), "Only one page should be dirty.");
+		assertEquals(1, file.sync(), "Sync should flush the one page.");
+		assertEquals(0, file.sync(), "Nothing should be left to flush.");
+	}
+
+	@Test
+	void testHeldUnitsAreKept() throws IOException {
+		StockReservations reservations = new StockReservations(inventory);
+		inventory.addListener(reservations);
+		file.setHeldStock(reservations::getHeldUnits);
+		StockReservations.Hold sold = reservations.reserve(figure, 3, 60_000);
+		reservations.reserve(figure, 2, 60_000);
+		assertEquals(5, figure.getAvailableCount(), "Held units should leave the available count.");
+		reservations.confirm(sold.getId());
+		file.writeStock(figure); // The confirmed units are no longer held
+		file.close();
+
+		List<Toy> loaded = reopen();
+		assertEquals(7, loaded.get(0).getAvailableCount(), "Units still held should be reloaded as available.");
+	}
+
+	@Test
+	void testFreedRecordsAreReused() throws IOException {
+		inventory.remove(figure);
+		assertEquals(1, file.getLiveCount(), "The removed toy should lose its record.");
+		inventory.add(new Puzzles("4000000003", "Jigsaw Puzzle", "BrandY", 9.99, 20, 5, 'C'));
+		assertEquals(2, file.getRecordCount(), "The freed record should be reused.");
+		file.close();
+
+		List<Toy> loaded = reopen();
+		assertEquals(List.of("Jigsaw Puzzle", "Chess Set"), List.of(loaded.get(0).getName(), loaded.get(1).getName()),
+				"The reused record should hold the new toy.");
+	}
+
+	@Test
+	void testRejectsOtherFiles() throws IOException {
+		Path other = directory.resolve("toys.txt");
+		Files.write(other, List.of("0000000001;Action Figure;BrandX;19.99;10;8;A"));
+		assertThrows(IOException.class, () -> new ToyRecordFile(other), "A text file should be rejected.");
+		Figures longName = new Figures("0000000002", "x".repeat(600), "BrandX", 1, 1, 8, 'A');
+		assertThrows(IllegalArgumentException.class, () -> file.write(longName), "Oversized toys should be rejected.");
+		inventory.add(longName);
+		assertThrows(IOException.class, () -> file.sync(), "A failed listener write should surface on sync.");
+	}
+
+	/**
+	 * Reopens the record file into a new inventory.
+	 */
+	private List<Toy> reopen() throws IOException {
+		file = new ToyRecordFile(path);
+		List<Toy> loaded = new ArrayList<>();
+		file.load(ToyRecordFileTest::parse, loaded::add);
+		return loaded;
+	}
+
+	/**
+	 * Parses the data lines of the toys used in these tests.
+	 */
+	private static Toy parse(String line) {
+		String[] data = line.split(";");
+		switch (data[0].charAt(0)) {
+		case '0':
+			return new Figures(data[0], data[1], data[2], Double.parseDouble(data[3]), Integer.parseInt(data[4]),
+					Integer.parseInt(data[5]), data[6].charAt(0));
+		case '4':
+			return new Puzzles(data[0], data[1], data[2], Double.parseDouble(data[3]), Integer.parseInt(data[4]),
+					Integer.parseInt(data[5]), data[6].charAt(0));
+		default:
+			String[] range = data[6].split("-");
+			return new BoardGames(data[0], data[1], data[2], Double.parseDouble(data[3]), Integer.parseInt(data[4]),
+					Integer.parseInt(data[5]), Integer.parseInt(range[0]), Integer.parseInt(range[1]), data[7]);
+		}
+	}
+}